@@ -1,9 +1,13 @@
 package it.polimi.ingsw;
 
+import it.polimi.ingsw.server.EOverflowPolicy;
+import it.polimi.ingsw.server.EThreadMode;
 import it.polimi.ingsw.server.Server;
 import java.io.IOException;
 
+import static it.polimi.ingsw.model.Constants.BOT_WAITING_TIME_IN_SECONDS;
 import static it.polimi.ingsw.model.Constants.DEFAULT_PORT;
+import static it.polimi.ingsw.model.Constants.OUTBOUND_QUEUE_CAPACITY;
 
 public class ServerApp {
 
@@ -28,8 +32,70 @@ public class ServerApp {
             }
         }
 
+        int botWaitingTime = BOT_WAITING_TIME_IN_SECONDS;
+
+        if(args.length >= 2) {
+            try {
+                botWaitingTime = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.out.println("You passed an invalid bot waiting time, the default one will be used instead");
+            }
+        }
+
+        int queueCapacity = OUTBOUND_QUEUE_CAPACITY;
+
+        if(args.length >= 3) {
+            try {
+                queueCapacity = Integer.parseInt(args[2]);
+                if(queueCapacity < 1) {
+                    System.out.println("The outbound queue capacity must be positive, the default one will be used instead");
+                    queueCapacity = OUTBOUND_QUEUE_CAPACITY;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("You passed an invalid outbound queue capacity, the default one will be used instead");
+            }
+        }
+
+        EOverflowPolicy overflowPolicy = EOverflowPolicy.DISCONNECT;
+
+        if(args.length >= 4) {
+            try {
+                overflowPolicy = EOverflowPolicy.valueOf(args[3].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("You passed an invalid overflow policy (DROP or DISCONNECT), the default one will be used instead");
+            }
+        }
+
+        int eventLoops = 0;
+
+        if(args.length >= 5) {
+            try {
+                eventLoops = Integer.parseInt(args[4]);
+                if(eventLoops < 0) {
+                    System.out.println("The number of event loops cannot be negative, each client will be served by its own threads");
+                    eventLoops = 0;
+                }
+            } catch (NumberFormatException e) {
+                System.out.println("You passed an invalid number of event loops, each client will be served by its own threads");
+            }
+        }
+
+        EThreadMode threadMode = EThreadMode.PLATFORM;
+
+        if(args.length >= 6) {
+            try {
+                threadMode = EThreadMode.valueOf(args[5].toUpperCase());
+            } catch (IllegalArgumentException e) {
+                System.out.println("You passed an invalid thread mode (PLATFORM or VIRTUAL), the default one will be used instead");
+            }
+            if(threadMode == EThreadMode.VIRTUAL && Runtime.version().feature() < 21) {
+                System.out.println("Virtual threads need Java 21 or newer, platform threads will be used instead");
+                threadMode = EThreadMode.PLATFORM;
+            }
+        }
+
         try {
-            server = new Server(port);
+            server = new Server(port, botWaitingTime, queueCapacity, overflowPolicy, eventLoops, threadMode);
             server.run();
         } catch (IOException e) {
             System.out.println("Server can not run");
@@ -0,0 +1,334 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.BoardGeometry;
+import it.polimi.ingsw.model.BoardState;
+import it.polimi.ingsw.model.Game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the turn to play with an iterative deepening alpha-beta search over complete turns.
+ *
+ * The search runs in place on the game of a {@link TurnEnumerator}, playing and reverting turns on its bitboards,
+ * so that once its lists have grown to the needed depth it does not allocate anything. Results are kept in a
+ * {@link TranspositionTable}, and the best turn of each position is searched first at the next iteration.
+ *
+ * With more than two players the search is paranoid: the player the search is run for maximizes the score,
+ * all the other ones minimize it. A player with no turn to play loses, which also ends the search
+ * in three players games, although the actual game would go on without that player.
+ */
+public class AlphaBeta {
+
+    /** Score of a won position, decreased by the number of turns needed to win */
+    public static final int WIN_SCORE = 1_000_000;
+
+    private static final int DEFAULT_TABLE_BITS = 20;
+    private static final int MAX_DEPTH = 64;
+    private static final int INFINITY = WIN_SCORE + MAX_DEPTH + 1;
+    private static final long CLOCK_CHECK_MASK = 0x3FF;
+
+    // Keys of the parts of the position that the hash of the game does not include
+    private static final long ATHENA_KEY = 0x9E37_79B9_7F4A_7C15L;
+    private static final long TOWER_KEY = 0xC2B2_AE3D_27D4_EB4FL;
+
+    // Evaluation weights
+    private static final int[] HEIGHT_SCORES = {0, 100, 300, 0};
+    private static final int CLIMB_SCORE = 30;
+    private static final int THREAT_SCORE = 250;
+    private static final int INNER_SCORE = 15;
+
+    private final TranspositionTable table;
+    private final List<TurnList> lists = new ArrayList<>();
+
+    private TurnEnumerator enumerator;
+    private Game game;
+    private BoardState state;
+    private int root;
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private int completedDepth;
+    private int score;
+
+    public AlphaBeta() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    /**
+     * @param tableBits The base 2 logarithm of the number of entries of the transposition table
+     */
+    public AlphaBeta(int tableBits) {
+        this.table = new TranspositionTable(tableBits);
+    }
+
+    /**
+     * Searches the best turn of the current player of the game of the enumerator, deepening one turn at a time
+     * until either the maximum depth is reached or the time is over. The game is left unchanged.
+     *
+     * @param enumerator The enumerator of the game to search
+     * @param rootTurns The list to fill with the turns of the current player
+     * @param maxDepth The maximum depth of the search, in turns, from 1 to 64
+     * @param timeBudgetMillis The time after which the search stops, in milliseconds. The first iteration
+     *                         is interrupted too if it takes longer, and in that case the first turn is chosen
+     * @return The index in {@code rootTurns} of the best turn, -1 if the current player has no turn to play
+     */
+    public int search(TurnEnumerator enumerator, TurnList rootTurns, int maxDepth, long timeBudgetMillis) {
+        if(enumerator == null || rootTurns == null) {
+            throw new IllegalArgumentException("Enumerator and list cannot be null");
+        }
+        if(maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + MAX_DEPTH);
+        }
+        if(timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Time budget must be positive");
+        }
+
+        this.enumerator = enumerator;
+        this.game = enumerator.getGame();
+        this.state = game.getBoard().getState();
+        this.root = enumerator.getCurrentPlayerIndex();
+        this.deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        this.aborted = false;
+        this.nodes = 0;
+        this.completedDepth = 0;
+        this.score = 0;
+        while(lists.size() <= maxDepth) {
+            lists.add(new TurnList());
+        }
+
+        int size = enumerator.generate(rootTurns);
+        if(size == 0) {
+            return -1;
+        }
+        for(int i = 0; i < size; i++) {
+            if(rootTurns.getWinner(i) == root) {
+                score = WIN_SCORE - 1;
+                return i;
+            }
+        }
+
+        int best = 0;
+        for(int depth = 1; depth <= maxDepth && !aborted; depth++) {
+            int iterationBest = -1;
+            int alpha = -INFINITY;
+            for(int k = -1; k < size; k++) {
+                int i = k < 0 ? best : k;
+                if(k == best) {
+                    continue;
+                }
+                int value = valueOf(rootTurns, i, depth - 1, 1, alpha, INFINITY);
+                if(aborted) {
+                    break;
+                }
+                if(value > alpha) {
+                    alpha = value;
+                    iterationBest = i;
+                }
+            }
+            // The best turn of the previous iteration is searched first, so a partial iteration can still be trusted
+            if(iterationBest >= 0) {
+                best = iterationBest;
+                score = alpha;
+            }
+            if(!aborted) {
+                completedDepth = depth;
+                if(alpha >= WIN_SCORE - MAX_DEPTH || alpha <= -WIN_SCORE + MAX_DEPTH) {
+                    break;
+                }
+            }
+        }
+
+        this.enumerator = null;
+        this.game = null;
+        this.state = null;
+        return best;
+    }
+
+    /**
+     * @return The number of positions visited by the last search
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The depth of the last iteration the last search completed, 0 if not even the first one was completed
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * @return The score of the turn chosen by the last search, from the point of view of the player it was run for
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Removes the results of the previous searches, which are otherwise kept to speed up the next ones
+     */
+    public void clear() {
+        table.clear();
+    }
+
+    // Returns the score of a turn, without playing it if it ends the game
+    private int valueOf(TurnList turns, int turn, int depth, int ply, int alpha, int beta) {
+        int winner = turns.getWinner(turn);
+        if(winner != TurnList.NO_WINNER) {
+            return winner == root ? WIN_SCORE - ply : -WIN_SCORE + ply;
+        }
+        enumerator.play(turns, turn);
+        int value = search(depth, ply, alpha, beta);
+        enumerator.unplay();
+        return value;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        if((nodes & CLOCK_CHECK_MASK) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if(aborted) {
+            return 0;
+        }
+        if(depth == 0) {
+            return evaluate();
+        }
+
+        long key = key();
+        int ttBest = -1;
+        long entry = table.probe(key);
+        if(entry != TranspositionTable.MISS) {
+            ttBest = TranspositionTable.best(entry);
+            if(TranspositionTable.depth(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if(bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+                    return stored;
+                }
+            }
+        }
+
+        TurnList turns = lists.get(ply);
+        int size = enumerator.generate(turns);
+        boolean maximizing = enumerator.getCurrentPlayerIndex() == root;
+        if(size == 0) {
+            return maximizing ? -WIN_SCORE + ply : WIN_SCORE - ply;
+        }
+        if(ttBest >= size) {
+            ttBest = -1;
+        }
+
+        // A turn that ends the game in favour of the player to move cannot be improved upon
+        for(int i = 0; i < size; i++) {
+            int winner = turns.getWinner(i);
+            if(winner != TurnList.NO_WINNER && (winner == root) == maximizing) {
+                int value = valueOf(turns, i, depth - 1, ply + 1, alpha, beta);
+                table.store(key, depth, toTable(value, ply), TranspositionTable.EXACT, i);
+                return value;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestTurn = -1;
+        for(int k = -1; k < size && alpha < beta; k++) {
+            int i = k < 0 ? ttBest : k;
+            if(i < 0 || (k >= 0 && k == ttBest)) {
+                continue;
+            }
+            int value = valueOf(turns, i, depth - 1, ply + 1, alpha, beta);
+            if(aborted) {
+                return 0;
+            }
+            if(maximizing ? value > best : value < best) {
+                best = value;
+                bestTurn = i;
+            }
+            if(maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+        }
+
+        int bound;
+        if(best <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        } else if(best >= originalBeta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        } else {
+            bound = TranspositionTable.EXACT;
+        }
+        table.store(key, depth, toTable(best, ply), bound, bestTurn);
+        return best;
+    }
+
+    private long key() {
+        long key = game.getHash() ^ game.getCompleteTowers() * TOWER_KEY;
+        return enumerator.isAthenaActive() ? key ^ ATHENA_KEY : key;
+    }
+
+    // Scores of won and lost positions are stored relative to the position, not to the root of the search
+    private static int toTable(int value, int ply) {
+        if(value >= WIN_SCORE - MAX_DEPTH) {
+            return value + ply;
+        }
+        if(value <= -WIN_SCORE + MAX_DEPTH) {
+            return value - ply;
+        }
+        return value;
+    }
+
+    private static int fromTable(int value, int ply) {
+        if(value >= WIN_SCORE - MAX_DEPTH) {
+            return value - ply;
+        }
+        if(value <= -WIN_SCORE + MAX_DEPTH) {
+            return value + ply;
+        }
+        return value;
+    }
+
+    /**
+     * Scores the position from the point of view of the player the search is run for: the height of the workers,
+     * the buildings they can climb, the third levels they can step on and their distance from the perimeter
+     */
+    private int evaluate() {
+        int players = enumerator.getPlayerCount();
+        int total = 0;
+        for(int p = 0; p < players; p++) {
+            int value = evaluate(enumerator.getSlot(p));
+            total += p == root ? (players - 1) * value : -value;
+        }
+        return total;
+    }
+
+    private int evaluate(int slot) {
+        long free = BoardState.FULL_MASK & ~state.getBlocked();
+        long workers = state.getWorkerMask(slot);
+        int value = 0;
+        while(workers != 0) {
+            int square = Long.numberOfTrailingZeros(workers);
+            int height = state.getHeight(square);
+            long reachable = BoardGeometry.neighbourMask(square) & free & ~state.getLevelMask(height + 2);
+            long climbs = reachable & state.getLevelMask(height + 1);
+
+            value += HEIGHT_SCORES[height] + CLIMB_SCORE * Long.bitCount(climbs);
+            if(height == 2 && (climbs & state.getLevelMask(3)) != 0) {
+                value += THREAT_SCORE;
+            }
+            if(!BoardGeometry.isPerimeter(square)) {
+                value += INNER_SCORE;
+            }
+            workers &= workers - 1;
+        }
+        return value;
+    }
+
+}
@@ -0,0 +1,419 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.model.cards.AthenaCard;
+import it.polimi.ingsw.utils.GameFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Chooses the turn to play with a Monte Carlo tree search, parallelized at the root.
+ *
+ * Every thread of a {@link ForkJoinPool} grows a tree of its own, so that the statistics of the nodes are never shared
+ * nor locked: only the visits of the turns of the current player are summed up at the end, and the most visited turn
+ * is chosen. The number of playouts hence grows with the number of cores.
+ *
+ * The tree is made of the complete turns of {@link TurnEnumerator}, chosen with the UCB1 formula. Playouts go on from
+ * the end of the path with the same enumerator, on the same headless copy of the game: every player plays a turn that
+ * wins at once if it has one, a random turn otherwise. All the turns of an iteration are then reverted with
+ * {@link Game#undo()}, so no game is copied nor rebuilt during the search. A player with no turn loses: in a game of
+ * three, where the other two go on, the rest of the playout is handed to the cards of {@code model.cards} on a copy of
+ * the game, since only they remove the workers of an eliminated player.
+ *
+ * It can also be run from the command line, to report the throughput in playouts per second per core:
+ * <pre>
+ *     MonteCarlo --position "00000/01200/03D000/00000/00000 apollo:1,1:3,3 athena:1,3:3,1" [--time 1000] [--threads 4]
+ *     MonteCarlo --game gameApollo.txt --board board3.0.txt [--gods apollo,athena] [--time 1000] [--threads 4]
+ * </pre>
+ */
+public class MonteCarlo implements TurnChooser {
+
+    private static final double EXPLORATION = 1.0;
+    private static final int MAX_PLAYOUT_TURNS = 300;
+    private static final int MAX_PLAYOUT_DECISIONS = 1000;
+    private static final double DRAW = 0.5;
+    private static final int DRAW_WINNER = -2;
+
+    private final ForkJoinPool pool;
+    private final long timeBudgetMillis;
+    private final long maxPlayouts;
+
+    private long playouts;
+    private long elapsedNanos;
+
+    /**
+     * Creates a search that runs on the common pool, with no limit on the number of playouts
+     * @param timeBudgetMillis The time each search lasts, in milliseconds
+     */
+    public MonteCarlo(long timeBudgetMillis) {
+        this(ForkJoinPool.commonPool(), timeBudgetMillis, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param pool The pool to run the search on, each of its threads grows a tree
+     * @param timeBudgetMillis The time each search lasts, in milliseconds
+     * @param maxPlayouts The number of playouts after which the search stops, even if there is time left
+     */
+    public MonteCarlo(ForkJoinPool pool, long timeBudgetMillis, long maxPlayouts) {
+        if(pool == null || timeBudgetMillis <= 0 || maxPlayouts <= 0) {
+            throw new IllegalArgumentException("A pool, a positive time budget and a positive number of playouts are needed");
+        }
+        this.pool = pool;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.maxPlayouts = maxPlayouts;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * A turn that wins the game right away is chosen without searching. If the calling thread is interrupted, the
+     * search stops at once and the turn is chosen among the trees already collected, with the interrupt status set again.
+     */
+    @Override
+    public int chooseTurn(Game game, TurnList turns) {
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        int size = enumerator.generate(turns);
+        playouts = 0;
+        elapsedNanos = 0;
+        if(size <= 1) {
+            return size - 1;
+        }
+        for(int i = 0; i < size; i++) {
+            if(turns.getWinner(i) == enumerator.getCurrentPlayerIndex()) {
+                return i;
+            }
+        }
+
+        int threads = pool.getParallelism();
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        AtomicBoolean stopped = new AtomicBoolean(false);
+        List<Callable<SearchThread>> searches = new ArrayList<>();
+        for(int t = 0; t < threads; t++) {
+            long budget = maxPlayouts / threads + (t < maxPlayouts % threads ? 1 : 0);
+            if(budget > 0) {
+                // Copies are made here, since the game must not be read while the other threads search
+                SearchThread search = new SearchThread(GameFactory.buildHeadlessCopy(game), deadline, budget, stopped,
+                        new SplittableRandom(System.nanoTime() ^ t * 0x9E37_79B9_7F4A_7C15L));
+                searches.add(() -> search.run());
+            }
+        }
+
+        long start = System.nanoTime();
+        long[] visits = new long[size];
+        List<Future<SearchThread>> futures = new ArrayList<>();
+        for(Callable<SearchThread> search : searches) {
+            futures.add(pool.submit(search));
+        }
+        try {
+            for(Future<SearchThread> future : futures) {
+                SearchThread search = future.get();
+                playouts += search.playouts;
+                for(int i = 0; i < size; i++) {
+                    visits[i] += search.root.visits[i];
+                }
+            }
+        } catch (InterruptedException e) {
+            // The trees still growing are dropped, and their threads stop at the next iteration
+            stopped.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("The search failed", e.getCause());
+        }
+        elapsedNanos = System.nanoTime() - start;
+
+        int best = 0;
+        for(int i = 1; i < size; i++) {
+            if(visits[i] > visits[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return The number of playouts of the last search
+     */
+    public long getPlayouts() {
+        return playouts;
+    }
+
+    /**
+     * @return The number of playouts per second per thread of the pool, during the last search
+     */
+    public double getPlayoutsPerSecondPerCore() {
+        if(elapsedNanos == 0) {
+            return 0;
+        }
+        return playouts * 1e9 / elapsedNanos / pool.getParallelism();
+    }
+
+    /**
+     * A node of the tree: the turns of the player to move and the statistics of each of them,
+     * where the wins are counted for the player who plays the turn
+     */
+    private static final class Node {
+
+        private final TurnList turns = new TurnList();
+        private final int mover;
+        private final int size;
+        private final Node[] children;
+        private final int[] visits;
+        private final double[] wins;
+        private final int winningTurn;
+        private int totalVisits;
+
+        private Node(TurnEnumerator enumerator) {
+            this.mover = enumerator.getCurrentPlayerIndex();
+            this.size = enumerator.generate(turns);
+            this.children = new Node[size];
+            this.visits = new int[size];
+            this.wins = new double[size];
+            int winning = -1;
+            for(int i = 0; i < size && winning < 0; i++) {
+                if(turns.getWinner(i) == mover) {
+                    winning = i;
+                }
+            }
+            this.winningTurn = winning;
+        }
+
+        /**
+         * @return The turn to explore, which is always the winning one if there is any
+         */
+        private int select() {
+            if(winningTurn >= 0) {
+                return winningTurn;
+            }
+            double logVisits = Math.log(totalVisits);
+            int best = 0;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for(int i = 0; i < size; i++) {
+                if(visits[i] == 0) {
+                    return i;
+                }
+                double value = wins[i] / visits[i] + EXPLORATION * Math.sqrt(logVisits / visits[i]);
+                if(value > bestValue) {
+                    bestValue = value;
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+    }
+
+    /**
+     * The tree grown by a single thread, on a copy of the game of its own that the enumerator walks along the tree
+     * and through the playouts, and takes back at the end of every iteration
+     */
+    private static final class SearchThread {
+
+        private final Game treeGame;
+        private final TurnEnumerator enumerator;
+        private final String[] nicknames;
+        private final long deadline;
+        private final long maxPlayouts;
+        private final AtomicBoolean stopped;
+        private final SplittableRandom random;
+        private final Node root;
+
+        private final List<Node> path = new ArrayList<>();
+        private final List<Integer> pathTurns = new ArrayList<>();
+        private final TurnList playoutTurns = new TurnList();
+        private long playouts;
+
+        private SearchThread(Game treeGame, long deadline, long maxPlayouts, AtomicBoolean stopped, SplittableRandom random) {
+            this.treeGame = treeGame;
+            this.enumerator = new TurnEnumerator(treeGame);
+            this.nicknames = new String[enumerator.getPlayerCount()];
+            for(int i = 0; i < nicknames.length; i++) {
+                nicknames[i] = treeGame.getPlayers().get(i).getNickname();
+            }
+            this.deadline = deadline;
+            this.maxPlayouts = maxPlayouts;
+            this.stopped = stopped;
+            this.random = random;
+            this.root = new Node(enumerator);
+        }
+
+        private SearchThread run() {
+            while(playouts < maxPlayouts && System.nanoTime() < deadline && !stopped.get()) {
+                iterate();
+                playouts++;
+            }
+            return this;
+        }
+
+        /**
+         * Selects a path down the tree, adds a node at its end, plays a game out from there and updates the
+         * statistics of the turns of the path
+         */
+        private void iterate() {
+            path.clear();
+            pathTurns.clear();
+            Node node = root;
+            int winner = TurnList.NO_WINNER;
+
+            while(node.size > 0) {
+                int turn = node.select();
+                path.add(node);
+                pathTurns.add(turn);
+                winner = node.turns.getWinner(turn);
+                if(winner != TurnList.NO_WINNER) {
+                    break;
+                }
+                enumerator.play(node.turns, turn);
+                if(node.children[turn] == null) {
+                    node.children[turn] = new Node(enumerator);
+                    node = node.children[turn];
+                    break;
+                }
+                node = node.children[turn];
+            }
+
+            if(winner == TurnList.NO_WINNER) {
+                winner = playout();
+            }
+
+            while(enumerator.getPlies() > 0) {
+                enumerator.unplay();
+            }
+            for(int k = 0; k < path.size(); k++) {
+                Node n = path.get(k);
+                int turn = pathTurns.get(k);
+                n.totalVisits++;
+                n.visits[turn]++;
+                if(winner == n.mover) {
+                    n.wins[turn] += 1;
+                } else if(winner == DRAW_WINNER) {
+                    n.wins[turn] += DRAW;
+                }
+            }
+        }
+
+        /**
+         * Plays on from the end of the path with the enumerator, whose turns are reverted with the ones of the path
+         * @return The index of the winner, {@link #DRAW_WINNER} if the game did not end in time
+         */
+        private int playout() {
+            for(int t = 0; t < MAX_PLAYOUT_TURNS; t++) {
+                int mover = enumerator.getCurrentPlayerIndex();
+                int size = enumerator.generate(playoutTurns);
+                if(size == 0) {
+                    return enumerator.getPlayerCount() == 2 ? 1 - mover : playOutThroughCards();
+                }
+                for(int i = 0; i < size; i++) {
+                    if(playoutTurns.getWinner(i) == mover) {
+                        return mover;
+                    }
+                }
+                int turn = random.nextInt(size);
+                if(playoutTurns.getWinner(turn) != TurnList.NO_WINNER) {
+                    return playoutTurns.getWinner(turn);
+                }
+                enumerator.play(playoutTurns, turn);
+            }
+            return DRAW_WINNER;
+        }
+
+        /**
+         * Plays the rest of a game of three whose current player has been eliminated through the cards of a copy,
+         * where every player picks at random among the tiles and the choices its card offers
+         * @return The index of the winner, {@link #DRAW_WINNER} if the game did not end in time
+         */
+        private int playOutThroughCards() {
+            Game game = GameFactory.buildHeadlessCopy(treeGame);
+            if(enumerator.isAthenaActive()) {
+                for(Player p : game.getPlayers()) {
+                    if(p.getCard() instanceof AthenaCard) {
+                        ((AthenaCard) p.getCard()).activateMalus();
+                    }
+                }
+            }
+
+            for(int decisions = 0; decisions < MAX_PLAYOUT_DECISIONS && !game.isGameOver(); decisions++) {
+                if(!Playouts.playRandomly(game, random)) {
+                    break;
+                }
+            }
+            if(!game.isGameOver()) {
+                return DRAW_WINNER;
+            }
+            String winner = game.getWinner().getNickname();
+            for(int i = 0; i < nicknames.length; i++) {
+                if(nicknames[i].equals(winner)) {
+                    return i;
+                }
+            }
+            return DRAW_WINNER;
+        }
+
+    }
+
+    public static void main(String[] args) {
+        String gamePath = null;
+        String boardPath = null;
+        String position = null;
+        String gods = null;
+        long time = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--game":
+                        gamePath = args[++i];
+                        break;
+                    case "--board":
+                        boardPath = args[++i];
+                        break;
+                    case "--position":
+                        position = args[++i];
+                        break;
+                    case "--gods":
+                        gods = args[++i];
+                        break;
+                    case "--time":
+                        time = Long.parseLong(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+
+            Game game;
+            if(position != null) {
+                game = GameFactory.buildHeadlessGameFromNotation(position);
+            } else if(gamePath != null && boardPath != null) {
+                game = GameFactory.buildHeadlessCopy(Perft.loadGame(gamePath, boardPath, gods));
+            } else {
+                throw new IllegalArgumentException("A position or a game and a board are needed");
+            }
+
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            MonteCarlo search = new MonteCarlo(pool, time, Long.MAX_VALUE);
+            TurnList turns = new TurnList();
+            int best = search.chooseTurn(game, turns);
+            pool.shutdown();
+
+            System.out.println("Best turn: " + (best < 0 ? "none" : turns.toString(best)));
+            System.out.println(search.getPlayouts() + " playouts on " + threads + " threads ("
+                    + (long) search.getPlayoutsPerSecondPerCore() + " playouts/s per core)");
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            System.out.println("Usage: MonteCarlo (--position <notation> | --game <file> --board <file> [--gods <god,god>]) [--time <ms>] [--threads <n>]");
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.utils.BoardFactory;
+import it.polimi.ingsw.utils.GameFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code Perft} class counts the sequences of complete turns that can be played from a position, down to a given
+ * depth. The counts are a regression oracle for the rules of the cards, and the time needed to compute them is a
+ * benchmark of the turn generation.
+ *
+ * As in chess, only the sequences that are exactly {@code depth} turns long are counted: a turn that wins the game
+ * ends its sequence, so it is counted only if it is the last one.
+ *
+ * It can also be run from the command line, loading the position from the resource files read by {@link GameFactory}
+ * and {@link BoardFactory}, or from the compact notation of {@link GameFactory#buildHeadlessGameFromNotation(String)}:
+ * <pre>
+ *     Perft --game gameApollo.txt --board board3.0.txt --depth 3 [--gods apollo,athena] [--divide]
+ *     Perft --position "00000/01200/03D000/00000/00000 apollo:1,1:3,3 athena:1,3:3,1" --depth 3 [--divide]
+ * </pre>
+ */
+public class Perft {
+
+    private final TurnEnumerator enumerator;
+    private final List<TurnList> lists = new ArrayList<>();
+
+    /**
+     * @param game The game to count the turns of, starting from the current player.
+     *             It is left unchanged when the counting is over.
+     */
+    public Perft(Game game) {
+        this.enumerator = new TurnEnumerator(game);
+    }
+
+    /**
+     * @param depth The number of turns of the counted sequences
+     * @return The number of sequences of {@code depth} complete turns that can be played from the current position
+     */
+    public long count(int depth) {
+        if(depth < 0) {
+            throw new IllegalArgumentException("Depth cannot be negative");
+        }
+        return count(depth, 0);
+    }
+
+    /**
+     * Counts the sequences separately for each turn the current player can play.
+     *
+     * @param depth The number of turns of the counted sequences, at least 1
+     * @param roots The list to fill with the turns of the current player
+     * @return The number of sequences starting with each turn of {@code roots}, in the same order
+     */
+    public long[] divide(int depth, TurnList roots) {
+        if(depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1");
+        }
+        enumerator.generate(roots);
+        long[] result = new long[roots.size()];
+        for(int i = 0; i < roots.size(); i++) {
+            if(depth == 1) {
+                result[i] = 1;
+            } else if(roots.getWinner(i) == TurnList.NO_WINNER) {
+                enumerator.play(roots, i);
+                result[i] = count(depth - 1, 1);
+                enumerator.unplay();
+            }
+        }
+        return result;
+    }
+
+    private long count(int depth, int ply) {
+        if(depth == 0) {
+            return 1;
+        }
+        while(lists.size() <= ply) {
+            lists.add(new TurnList());
+        }
+        TurnList turns = lists.get(ply);
+        int size = enumerator.generate(turns);
+        if(depth == 1) {
+            return size;
+        }
+
+        long nodes = 0;
+        for(int i = 0; i < size; i++) {
+            if(turns.getWinner(i) == TurnList.NO_WINNER) {
+                enumerator.play(turns, i);
+                nodes += count(depth - 1, ply + 1);
+                enumerator.unplay();
+            }
+        }
+        return nodes;
+    }
+
+    public static void main(String[] args) {
+        String gamePath = null;
+        String boardPath = null;
+        String position = null;
+        String gods = null;
+        int depth = 1;
+        boolean divide = false;
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--game":
+                        gamePath = args[++i];
+                        break;
+                    case "--board":
+                        boardPath = args[++i];
+                        break;
+                    case "--position":
+                        position = args[++i];
+                        break;
+                    case "--gods":
+                        gods = args[++i];
+                        break;
+                    case "--depth":
+                        depth = Integer.parseInt(args[++i]);
+                        break;
+                    case "--divide":
+                        divide = true;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+
+            Game game;
+            if(position != null) {
+                game = GameFactory.buildHeadlessGameFromNotation(position);
+            } else if(gamePath != null && boardPath != null) {
+                game = loadGame(gamePath, boardPath, gods);
+            } else {
+                throw new IllegalArgumentException("A position or a game and a board are needed");
+            }
+
+            run(game, depth, divide);
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            System.out.println("Usage: Perft (--position <notation> | --game <file> --board <file> [--gods <god,god>]) [--depth <n>] [--divide]");
+        }
+    }
+
+    /**
+     * Loads a game from the resource files read by {@link GameFactory#buildGameFromFile(String, String)},
+     * optionally replacing the cards of the players
+     */
+    static Game loadGame(String gamePath, String boardPath, String gods) {
+        Game game = GameFactory.buildGameFromFile(gamePath, boardPath);
+        if(gods == null) {
+            return game;
+        }
+
+        List<String> nicknames = new ArrayList<>();
+        List<Position> workerPositions = new ArrayList<>();
+        for(Player p : game.getPlayers()) {
+            nicknames.add(p.getNickname());
+            for(Worker w : p.getWorkers()) {
+                workerPositions.add(w.getPosition());
+            }
+        }
+        List<EGodPower> godPowers = new ArrayList<>();
+        for(String god : gods.split(",")) {
+            godPowers.add(EGodPower.parseGodPower(god.trim()));
+        }
+
+        return GameFactory.buildHeadlessGame(nicknames, godPowers, workerPositions,
+                BoardFactory.buildBoardWithoutWorkersFromFile(boardPath));
+    }
+
+    private static void run(Game game, int depth, boolean divide) {
+        Perft perft = new Perft(game);
+        long start = System.nanoTime();
+        long nodes;
+
+        if(divide) {
+            TurnList roots = new TurnList();
+            long[] counts = perft.divide(depth, roots);
+            nodes = 0;
+            for(int i = 0; i < counts.length; i++) {
+                System.out.println(roots.toString(i) + ": " + counts[i]);
+                nodes += counts[i];
+            }
+        } else {
+            nodes = perft.count(depth);
+        }
+
+        long elapsed = Math.max(System.nanoTime() - start, 1L);
+        System.out.println("Depth " + depth + ": " + nodes + " nodes in " + (elapsed / 1_000_000) + " ms ("
+                + (long) (nodes * 1e9 / elapsed) + " nodes/s)");
+    }
+
+}
@@ -0,0 +1,59 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Plays games through the cards of {@code model.cards}, as the clients would do, so that every god power behaves as
+ * in a real game. It is shared by {@link MonteCarlo}, which plays out the games of three where a player has been
+ * eliminated, and {@link Tournament}, which plays whole games.
+ */
+final class Playouts {
+
+    private Playouts() {
+    }
+
+    /**
+     * Takes a random decision for the current player, always stepping up to a third level when it can
+     * @param game A game that is not over
+     * @param random The source of the decisions
+     * @return {@code false} if the card offers no choice at all
+     */
+    static boolean playRandomly(Game game, SplittableRandom random) {
+        Playable card = game.getCurrentPlayerCard().getPlayable();
+        switch(game.getTurnPhase()) {
+            case WORKERSELECTION:
+                Worker[] workers = game.getCurrentPlayer().getWorkers();
+                Worker first = workers[random.nextInt(2)];
+                Worker worker = game.getMovesMask(first) != 0L ? first : workers[first.getId() == 0 ? 1 : 0];
+                card.selectWorker(worker);
+                return true;
+            case MOVE:
+                List<Tile> moves = card.getTilesToMove();
+                if(moves.isEmpty()) {
+                    return false;
+                }
+                for(Tile t : moves) {
+                    if(t.getLevel() == ETileLevel.LEVEL3 && !t.isDomed()) {
+                        card.move(t);
+                        return true;
+                    }
+                }
+                card.move(moves.get(random.nextInt(moves.size())));
+                return true;
+            case BUILD:
+                List<Tile> builds = card.getTilesToBuild();
+                if(builds.isEmpty()) {
+                    return false;
+                }
+                card.build(builds.get(random.nextInt(builds.size())));
+                return true;
+            default:
+                card.useGodPower(random.nextBoolean());
+                return true;
+        }
+    }
+
+}
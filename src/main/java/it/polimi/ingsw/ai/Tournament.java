@@ -0,0 +1,450 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.utils.GameFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * The {@code Tournament} class plays headless games between every combination of god powers, to measure how
+ * strong each card is against the others.
+ *
+ * Every combination of two (or three) different cards is a matchup, and the cards which cannot be used by the
+ * given number of players (see {@link EGodPower#isCompatibleWith3Players()}) are left out. The games of a matchup
+ * rotate the cards among the seats, so that playing first is no advantage for any of them, and the workers start
+ * on random squares. Players take random decisions through their cards, as in the playouts of {@link MonteCarlo},
+ * and a game that lasts too many turns is a draw, worth half a win.
+ *
+ * Each matchup is played by a task of a {@link ForkJoinPool}, with a random generator split from the seed of the
+ * tournament, so that the results only depend on the seed. The results are two matrices, the win rate of a card
+ * in the games it played against another one and the length of those games, each with a 95% confidence interval.
+ *
+ * It can also be run from the command line:
+ * <pre>
+ *     Tournament [--players 2|3] [--games 2000] [--gods apollo,athena,pan] [--max-turns 200] [--seed 1] [--threads 4]
+ * </pre>
+ */
+public class Tournament {
+
+    private static final double Z = 1.96;
+
+    private final int nPlayers;
+    private final List<EGodPower> gods;
+    private final List<EGodPower[]> matchups = new ArrayList<>();
+    private final int gamesPerMatchup;
+    private final int maxTurns;
+    private final long seed;
+
+    // Indexed by the ordinals of the cards: the statistics of the games the first card played against the second one
+    private final int[][] games;
+    private final double[][] scores;
+    private final double[][] lengths;
+    private final double[][] squaredLengths;
+    private final int[] totalGames;
+    private final double[] totalScores;
+    private int draws;
+    private long elapsedNanos;
+
+    /**
+     * @param nPlayers The number of players of each game, 2 or 3
+     * @param gods The cards to play with, the ones that cannot be used by {@code nPlayers} players are left out
+     * @param gamesPerMatchup The number of games played by each combination of cards
+     * @param maxTurns The number of turns after which a game is a draw
+     * @param seed The seed of the random decisions
+     */
+    public Tournament(int nPlayers, List<EGodPower> gods, int gamesPerMatchup, int maxTurns, long seed) {
+        if(nPlayers != 2 && nPlayers != 3) {
+            throw new IllegalArgumentException("Invalid number of players");
+        }
+        if(gods == null || gamesPerMatchup <= 0 || maxTurns <= 0) {
+            throw new IllegalArgumentException("Cards, a positive number of games and a positive number of turns are needed");
+        }
+        this.nPlayers = nPlayers;
+        this.gods = new ArrayList<>();
+        for(EGodPower god : EGodPower.getCardList(nPlayers)) {
+            if(gods.contains(god)) {
+                this.gods.add(god);
+            }
+        }
+        if(this.gods.size() < nPlayers) {
+            throw new IllegalArgumentException("At least " + nPlayers + " cards compatible with " + nPlayers + " players are needed");
+        }
+        this.gamesPerMatchup = gamesPerMatchup;
+        this.maxTurns = maxTurns;
+        this.seed = seed;
+
+        int n = this.gods.size();
+        for(int a = 0; a < n; a++) {
+            for(int b = a + 1; b < n; b++) {
+                if(nPlayers == 2) {
+                    matchups.add(new EGodPower[]{this.gods.get(a), this.gods.get(b)});
+                } else {
+                    for(int c = b + 1; c < n; c++) {
+                        matchups.add(new EGodPower[]{this.gods.get(a), this.gods.get(b), this.gods.get(c)});
+                    }
+                }
+            }
+        }
+
+        int cards = EGodPower.values().length;
+        games = new int[cards][cards];
+        scores = new double[cards][cards];
+        lengths = new double[cards][cards];
+        squaredLengths = new double[cards][cards];
+        totalGames = new int[cards];
+        totalScores = new double[cards];
+    }
+
+    /**
+     * Plays every game of the tournament, replacing the results of the previous run
+     * @param pool The pool the matchups are played on
+     */
+    public void run(ForkJoinPool pool) {
+        if(pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        clear();
+        long start = System.nanoTime();
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Callable<MatchupResult>> tasks = new ArrayList<>();
+        for(EGodPower[] matchup : matchups) {
+            SplittableRandom matchupRandom = random.split();
+            tasks.add(() -> playMatchup(matchup, matchupRandom));
+        }
+        try {
+            for(Future<MatchupResult> future : pool.invokeAll(tasks)) {
+                add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("A matchup failed", e.getCause());
+        }
+
+        elapsedNanos = System.nanoTime() - start;
+    }
+
+    private void clear() {
+        for(int a = 0; a < games.length; a++) {
+            Arrays.fill(games[a], 0);
+            Arrays.fill(scores[a], 0);
+            Arrays.fill(lengths[a], 0);
+            Arrays.fill(squaredLengths[a], 0);
+        }
+        Arrays.fill(totalGames, 0);
+        Arrays.fill(totalScores, 0);
+        draws = 0;
+    }
+
+    /**
+     * The results of the games of a matchup, kept apart from the ones of the other tasks
+     */
+    private static final class MatchupResult {
+
+        private final EGodPower[] gods;
+        private final double[] scores;
+        private int games;
+        private int draws;
+        private double lengths;
+        private double squaredLengths;
+
+        private MatchupResult(EGodPower[] gods) {
+            this.gods = gods;
+            this.scores = new double[gods.length];
+        }
+
+    }
+
+    private MatchupResult playMatchup(EGodPower[] matchup, SplittableRandom random) {
+        MatchupResult result = new MatchupResult(matchup);
+        int[][] seatings = nPlayers == 2
+                ? new int[][]{{0, 1}, {1, 0}}
+                : new int[][]{{0, 1, 2}, {1, 2, 0}, {2, 0, 1}, {0, 2, 1}, {2, 1, 0}, {1, 0, 2}};
+
+        for(int i = 0; i < gamesPerMatchup; i++) {
+            int[] seating = seatings[i % seatings.length];
+            List<String> nicknames = new ArrayList<>();
+            List<EGodPower> godPowers = new ArrayList<>();
+            for(int seat = 0; seat < nPlayers; seat++) {
+                nicknames.add("Player" + (seat + 1));
+                godPowers.add(matchup[seating[seat]]);
+            }
+            Game game = GameFactory.buildHeadlessGame(nicknames, godPowers, randomPositions(random));
+
+            int turns = playGame(game, random);
+            result.games++;
+            result.lengths += turns;
+            result.squaredLengths += (double) turns * turns;
+            if(game.isGameOver()) {
+                int winner = nicknames.indexOf(game.getWinner().getNickname());
+                result.scores[seating[winner]] += 1;
+            } else {
+                result.draws++;
+                for(int k = 0; k < nPlayers; k++) {
+                    result.scores[k] += 1.0 / nPlayers;
+                }
+            }
+        }
+        return result;
+    }
+
+    private List<Position> randomPositions(SplittableRandom random) {
+        List<Position> positions = new ArrayList<>();
+        long free = BoardState.FULL_MASK;
+        while(positions.size() < 2 * nPlayers) {
+            int square = random.nextInt(BoardState.SQUARES);
+            if((free & 1L << square) != 0) {
+                free &= ~(1L << square);
+                positions.add(new Position(BoardState.rowOf(square), BoardState.columnOf(square)));
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Plays a game at random until someone wins or the maximum number of turns has been played
+     * @return The number of turns the game lasted
+     */
+    private int playGame(Game game, SplittableRandom random) {
+        int turns = 1;
+        Player mover = game.getCurrentPlayer();
+        while(!game.isGameOver() && turns <= maxTurns) {
+            if(!Playouts.playRandomly(game, random)) {
+                break;
+            }
+            if(game.getCurrentPlayer() != mover) {
+                mover = game.getCurrentPlayer();
+                turns++;
+            }
+        }
+        return Math.min(turns, maxTurns);
+    }
+
+    private void add(MatchupResult result) {
+        draws += result.draws;
+        EGodPower[] matchup = result.gods;
+        for(int k = 0; k < matchup.length; k++) {
+            int a = matchup[k].ordinal();
+            totalGames[a] += result.games;
+            totalScores[a] += result.scores[k];
+            for(EGodPower other : matchup) {
+                int b = other.ordinal();
+                if(a != b) {
+                    games[a][b] += result.games;
+                    scores[a][b] += result.scores[k];
+                    lengths[a][b] += result.lengths;
+                    squaredLengths[a][b] += result.squaredLengths;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The cards of the tournament
+     */
+    public List<EGodPower> getGods() {
+        return new ArrayList<>(gods);
+    }
+
+    /**
+     * @return The number of combinations of cards that are played
+     */
+    public int getMatchupCount() {
+        return matchups.size();
+    }
+
+    /**
+     * @return The number of games played in the last run
+     */
+    public int getPlayedGames() {
+        int played = 0;
+        for(int a = 0; a < totalGames.length; a++) {
+            played += totalGames[a];
+        }
+        return played / nPlayers;
+    }
+
+    /**
+     * @return The number of games of the last run that reached the maximum number of turns
+     */
+    public int getDraws() {
+        return draws;
+    }
+
+    /**
+     * @return The number of games {@code god} played with {@code opponent} among the other players
+     */
+    public int getGames(EGodPower god, EGodPower opponent) {
+        return games[god.ordinal()][opponent.ordinal()];
+    }
+
+    /**
+     * @return The share of the games against {@code opponent} won by {@code god}, draws counting as a fraction of a win
+     */
+    public double getWinRate(EGodPower god, EGodPower opponent) {
+        int n = getGames(god, opponent);
+        return n == 0 ? 0 : scores[god.ordinal()][opponent.ordinal()] / n;
+    }
+
+    /**
+     * @return The bounds of the 95% Wilson score interval of {@link #getWinRate(EGodPower, EGodPower)}
+     */
+    public double[] getWinRateInterval(EGodPower god, EGodPower opponent) {
+        return wilson(getWinRate(god, opponent), getGames(god, opponent));
+    }
+
+    /**
+     * @return The share of its games won by {@code god}, draws counting as a fraction of a win
+     */
+    public double getWinRate(EGodPower god) {
+        int n = totalGames[god.ordinal()];
+        return n == 0 ? 0 : totalScores[god.ordinal()] / n;
+    }
+
+    /**
+     * @return The average number of turns of the games {@code god} played against {@code opponent}
+     */
+    public double getAverageLength(EGodPower god, EGodPower opponent) {
+        int n = getGames(god, opponent);
+        return n == 0 ? 0 : lengths[god.ordinal()][opponent.ordinal()] / n;
+    }
+
+    /**
+     * @return The half width of the 95% confidence interval of {@link #getAverageLength(EGodPower, EGodPower)}
+     */
+    public double getAverageLengthError(EGodPower god, EGodPower opponent) {
+        int n = getGames(god, opponent);
+        if(n < 2) {
+            return 0;
+        }
+        double mean = getAverageLength(god, opponent);
+        double variance = (squaredLengths[god.ordinal()][opponent.ordinal()] - n * mean * mean) / (n - 1);
+        return Z * Math.sqrt(Math.max(variance, 0) / n);
+    }
+
+    private static double[] wilson(double p, int n) {
+        if(n == 0) {
+            return new double[]{0, 1};
+        }
+        double z2 = Z * Z;
+        double denominator = 1 + z2 / n;
+        double center = (p + z2 / (2 * n)) / denominator;
+        double halfWidth = Z * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denominator;
+        return new double[]{Math.max(0, center - halfWidth), Math.min(1, center + halfWidth)};
+    }
+
+    /**
+     * @return The results of the last run, as a table of win rates and a table of game lengths
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        int played = getPlayedGames();
+        sb.append(String.format(Locale.ROOT, "%d players: %d matchups, %d games in %.1f s, %.2f%% draws%n%n",
+                nPlayers, matchups.size(), played, elapsedNanos / 1e9, played == 0 ? 0 : 100.0 * draws / played));
+
+        sb.append(String.format(Locale.ROOT, "Win rate %% of the row card against the column card, 95%% interval (even: %.1f)%n",
+                100.0 / nPlayers));
+        appendMatrix(sb, (god, opponent) -> {
+            double[] interval = getWinRateInterval(god, opponent);
+            return String.format(Locale.ROOT, "%.1f [%.1f-%.1f]",
+                    100 * getWinRate(god, opponent), 100 * interval[0], 100 * interval[1]);
+        });
+        sb.append(String.format("%n"));
+
+        sb.append(String.format("Average length in turns of the games between the row card and the column card, 95%% interval%n"));
+        appendMatrix(sb, (god, opponent) -> String.format(Locale.ROOT, "%.1f +- %.1f",
+                getAverageLength(god, opponent), getAverageLengthError(god, opponent)));
+        sb.append(String.format("%n"));
+
+        sb.append(String.format("Overall win rate %%%n"));
+        for(EGodPower god : gods) {
+            sb.append(String.format(Locale.ROOT, "%-12s%.1f%n", god, 100 * getWinRate(god)));
+        }
+        return sb.toString();
+    }
+
+    private interface Cell {
+        String format(EGodPower god, EGodPower opponent);
+    }
+
+    private void appendMatrix(StringBuilder sb, Cell cell) {
+        sb.append(String.format("%-12s", ""));
+        for(EGodPower opponent : gods) {
+            sb.append(String.format("%-18s", opponent));
+        }
+        sb.append(String.format("%n"));
+        for(EGodPower god : gods) {
+            sb.append(String.format("%-12s", god));
+            for(EGodPower opponent : gods) {
+                sb.append(String.format("%-18s", god == opponent ? "-" : cell.format(god, opponent)));
+            }
+            sb.append(String.format("%n"));
+        }
+    }
+
+    public static void main(String[] args) {
+        List<Integer> playerCounts = Arrays.asList(2, 3);
+        int gamesPerMatchup = 2000;
+        int maxTurns = 200;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<EGodPower> gods = Arrays.asList(EGodPower.values());
+
+        try {
+            for(int i = 0; i < args.length; i++) {
+                switch(args[i]) {
+                    case "--players":
+                        playerCounts = Arrays.asList(Integer.parseInt(args[++i]));
+                        break;
+                    case "--games":
+                        gamesPerMatchup = Integer.parseInt(args[++i]);
+                        break;
+                    case "--gods":
+                        gods = new ArrayList<>();
+                        for(String god : args[++i].split(",")) {
+                            gods.add(EGodPower.parseGodPower(god.trim()));
+                        }
+                        break;
+                    case "--max-turns":
+                        maxTurns = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+
+            List<Tournament> tournaments = new ArrayList<>();
+            for(int nPlayers : playerCounts) {
+                tournaments.add(new Tournament(nPlayers, gods, gamesPerMatchup, maxTurns, seed));
+            }
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            System.out.println("Seed " + seed + ", " + threads + " threads");
+            for(Tournament tournament : tournaments) {
+                tournament.run(pool);
+                System.out.println();
+                System.out.print(tournament.report());
+            }
+            pool.shutdown();
+
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.out.println("Invalid arguments: " + e.getMessage());
+            System.out.println("Usage: Tournament [--players 2|3] [--games <n>] [--gods <god,god,...>] [--max-turns <n>] [--seed <n>] [--threads <n>]");
+        }
+    }
+
+}
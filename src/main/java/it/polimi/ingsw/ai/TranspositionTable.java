@@ -0,0 +1,109 @@
+package it.polimi.ingsw.ai;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size hash table of search results, indexed by the hash of the position.
+ *
+ * Every entry is packed into a {@code long} next to its key, so that storing and probing never allocate.
+ * When two positions fall into the same entry, the result of the deeper search is kept.
+ */
+public class TranspositionTable {
+
+    /** The stored score is exact */
+    public static final int EXACT = 0;
+    /** The stored score is a lower bound of the actual one */
+    public static final int LOWER_BOUND = 1;
+    /** The stored score is an upper bound of the actual one */
+    public static final int UPPER_BOUND = 2;
+
+    /** Value returned by {@link #probe(long)} when the position is not in the table */
+    public static final long MISS = -1L;
+
+    private static final int MAX_BITS = 26;
+
+    private final long[] keys;
+    private final long[] entries;
+    private final int mask;
+
+    /**
+     * @param bits The base 2 logarithm of the number of entries, from 1 to 26
+     */
+    public TranspositionTable(int bits) {
+        if(bits < 1 || bits > MAX_BITS) {
+            throw new IllegalArgumentException("The table must have between 2^1 and 2^" + MAX_BITS + " entries");
+        }
+        this.keys = new long[1 << bits];
+        this.entries = new long[1 << bits];
+        this.mask = (1 << bits) - 1;
+        clear();
+    }
+
+    /**
+     * Removes all the entries
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(entries, MISS);
+    }
+
+    /**
+     * Stores the result of a search, unless the entry holds a deeper search of another position
+     *
+     * @param key The hash of the position
+     * @param depth The depth of the search, from 0 to 255
+     * @param score The score of the position
+     * @param bound One of {@link #EXACT}, {@link #LOWER_BOUND} and {@link #UPPER_BOUND}
+     * @param best The index of the best turn found, from -1 to 65534
+     */
+    public void store(long key, int depth, int score, int bound, int best) {
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        if(keys[index] != key && entries[index] != MISS && depth(entries[index]) > depth) {
+            return;
+        }
+        keys[index] = key;
+        entries[index] = (long) score << 32 | (long) (best + 1) << 16 | (long) bound << 8 | depth;
+    }
+
+    /**
+     * @param key The hash of a position
+     * @return The packed entry of the position, {@link #MISS} if it is not in the table
+     */
+    public long probe(long key) {
+        int index = (int) (key ^ (key >>> 32)) & mask;
+        return keys[index] == key ? entries[index] : MISS;
+    }
+
+    /**
+     * @param entry An entry returned by {@link #probe(long)}
+     * @return The depth of the search
+     */
+    public static int depth(long entry) {
+        return (int) entry & 0xFF;
+    }
+
+    /**
+     * @param entry An entry returned by {@link #probe(long)}
+     * @return One of {@link #EXACT}, {@link #LOWER_BOUND} and {@link #UPPER_BOUND}
+     */
+    public static int bound(long entry) {
+        return (int) (entry >>> 8) & 0xFF;
+    }
+
+    /**
+     * @param entry An entry returned by {@link #probe(long)}
+     * @return The index of the best turn, -1 if unknown
+     */
+    public static int best(long entry) {
+        return ((int) (entry >>> 16) & 0xFFFF) - 1;
+    }
+
+    /**
+     * @param entry An entry returned by {@link #probe(long)}
+     * @return The score of the position
+     */
+    public static int score(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+}
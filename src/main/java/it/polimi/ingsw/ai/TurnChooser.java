@@ -0,0 +1,20 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.Game;
+
+/**
+ * A strategy that chooses the turn to play among the ones generated by {@link TurnEnumerator}
+ */
+public interface TurnChooser {
+
+    /**
+     * Chooses a turn of the current player of the game
+     *
+     * @param game A headless game at the beginning of a turn, such as the ones built by
+     *             {@code GameFactory#buildHeadlessCopy(Game)}. It is left unchanged
+     * @param turns The list to fill with the turns of the current player, in the order of {@link TurnEnumerator#generate(TurnList)}
+     * @return The index in {@code turns} of the chosen turn, -1 if the current player has no turn to play
+     */
+    int chooseTurn(Game game, TurnList turns);
+
+}
@@ -0,0 +1,531 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.model.cards.Card;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static it.polimi.ingsw.ai.TurnList.NO_WINNER;
+import static it.polimi.ingsw.model.BoardState.bit;
+
+/**
+ * The {@code TurnEnumerator} generates every complete turn the current player of a {@link Game} can play, following
+ * the rules implemented by the cards of the players, and plays them in place through {@link Game#apply(int)} and
+ * {@link Game#undo()}.
+ *
+ * The cards themselves are only read when the enumerator is created, to know the god of every player and whether
+ * Athena's malus is active: from then on, the rules are computed on the bitboards of the {@link BoardState}, so that
+ * the enumerator can walk through many positions without notifying anyone. Besides the godpowers of the current player,
+ * the persistent effects of the other players' cards are taken into account:
+ * <ul>
+ *     <li>Athena: the other players cannot move up if her worker moved up during her last turn</li>
+ *     <li>Hera: the other players cannot win by moving onto a perimeter space</li>
+ *     <li>Chronus: any build that completes the fifth tower makes Chronus win</li>
+ * </ul>
+ *
+ * A turn is complete when it ends with a build, or as soon as one of its actions wins the game. Turns that would leave
+ * the worker unable to go on (no build after the move, or no move after Prometheus' first build) are not generated,
+ * since the cards make the player lose in that case: a player with no turn at all has lost the game.
+ * Triton can walk along the perimeter for as long as he likes, so only one path is generated for every space
+ * he can end his walk on.
+ *
+ * The rules are written again here on bitboards, rather than asked to the cards, because the turn state kept by the
+ * cards (Athena's flag, the selected worker...) does not follow {@link Game#apply(int)}. The cards stay the reference:
+ * {@code TurnEnumeratorTest} plays every decision of every god through the cards and checks that the same turns are generated.
+ *
+ * Eliminations are not modelled. In a game of three, a player with no turn is removed from the real game, together
+ * with its workers, and the other two go on (see {@link Game#setLoser(Player)}); here {@link #generate(TurnList)} only
+ * returns 0, and the searches score that as a loss of the player to move, without playing on. Once the real game has
+ * removed a player, a new enumerator has to be created on it.
+ */
+public class TurnEnumerator {
+
+    private static final int LEVEL2 = ETileLevel.LEVEL2.getHeight();
+    private static final int LEVEL3 = ETileLevel.LEVEL3.getHeight();
+
+    // Triton's walk can be as long as the perimeter, then up to two builds follow
+    private static final int MAX_TURN_LENGTH = BoardState.SQUARES + 2;
+
+    private final Game game;
+    private final BoardState state;
+
+    private final Player[] players;
+    private final EGodPower[] gods;
+    private final int[] slots;
+    private final int athena;
+    private final int hera;
+    private final int chronus;
+    private boolean athenaActive;
+
+    // State of the generation in progress
+    private TurnList turns;
+    private int mover;
+    private EGodPower god;
+    private final int[] path = new int[MAX_TURN_LENGTH];
+    private int pathLength;
+
+    // Breadth-first walk of Triton along the perimeter
+    private final int[] queue = new int[BoardState.SQUARES];
+    private final int[] parents = new int[BoardState.SQUARES];
+    private final int[] distances = new int[BoardState.SQUARES];
+    private final int[] winParents = new int[BoardState.SQUARES];
+    private final int[] winDistances = new int[BoardState.SQUARES];
+
+    // Turns played with play(), to be reverted by unplay()
+    private int[] playedLengths = new int[64];
+    private boolean[] playedAthenaFlags = new boolean[64];
+    private int plies;
+
+    /**
+     * Creates an enumerator for the specified game. The players, their cards and the state of Athena's malus are read
+     * now: the enumerator must be created again if the game changes other than through {@link #play(TurnList, int)}.
+     *
+     * @param game A game whose players have already chosen their cards and placed their workers
+     */
+    public TurnEnumerator(Game game) {
+        if(game == null) {
+            throw new IllegalArgumentException("Game cannot be null");
+        }
+        this.game = game;
+        this.state = game.getBoard().getState();
+
+        List<Player> gamePlayers = game.getPlayers();
+        this.players = gamePlayers.toArray(new Player[0]);
+        this.gods = new EGodPower[players.length];
+        this.slots = new int[players.length];
+
+        int athenaIndex = NO_WINNER;
+        int heraIndex = NO_WINNER;
+        int chronusIndex = NO_WINNER;
+        for(int i = 0; i < players.length; i++) {
+            Card card = players[i].getCard();
+            if(card == null) {
+                throw new IllegalArgumentException("Every player must have a card");
+            }
+            gods[i] = card.getGodPower();
+            slots[i] = state.findSlot(players[i].getNickname());
+            switch(gods[i]) {
+                case ATHENA:
+                    athenaIndex = i;
+                    athenaActive = card.isUsedGodPower();
+                    break;
+                case HERA:
+                    heraIndex = i;
+                    break;
+                case CHRONUS:
+                    chronusIndex = i;
+                    break;
+                default:
+                    break;
+            }
+        }
+        this.athena = athenaIndex;
+        this.hera = heraIndex;
+        this.chronus = chronusIndex;
+    }
+
+    /**
+     * @return The game this enumerator works on
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return The number of players
+     */
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    /**
+     * @param player The index of a player in {@code Game#getPlayers()}
+     * @return The god of the card of the player
+     */
+    public EGodPower getGodPower(int player) {
+        return gods[player];
+    }
+
+    /**
+     * @param player The index of a player in {@code Game#getPlayers()}
+     * @return The slot of the worker masks of the player in the {@link BoardState}
+     */
+    public int getSlot(int player) {
+        return slots[player];
+    }
+
+    /**
+     * @return The index of the current player in {@code Game#getPlayers()}
+     */
+    public int getCurrentPlayerIndex() {
+        Player current = game.getCurrentPlayer();
+        for(int i = 0; i < players.length; i++) {
+            if(players[i] == current) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("The current player is not in the game anymore");
+    }
+
+    /**
+     * @return {@code true} if the players other than Athena cannot move up
+     */
+    public boolean isAthenaActive() {
+        return athenaActive;
+    }
+
+    /**
+     * Fills the specified list with all the turns the current player can play from the beginning of the turn
+     *
+     * @param turns The list to fill, its previous content is discarded
+     * @return The number of turns, 0 if the current player has lost (in a game of three, if the current player is
+     * eliminated: the game is not played on without it)
+     */
+    public int generate(TurnList turns) {
+        turns.clear();
+        this.turns = turns;
+        this.mover = getCurrentPlayerIndex();
+        this.god = gods[mover];
+        this.pathLength = 0;
+
+        long workers = state.getWorkerMask(slots[mover]);
+        while(workers != 0) {
+            int square = Long.numberOfTrailingZeros(workers);
+            switch(god) {
+                case TRITON:
+                    generateTritonMoves(square);
+                    break;
+                case PROMETHEUS:
+                    generateMoves(square, getMovesMask(square, 0L));
+                    generatePrometheusBuilds(square);
+                    break;
+                default:
+                    generateMoves(square, getMovesMask(square, 0L));
+                    break;
+            }
+            workers &= workers - 1;
+        }
+
+        this.turns = null;
+        return turns.size();
+    }
+
+    /**
+     * Plays a turn on the game, then passes the turn to the next player
+     *
+     * @param turns A list filled by {@link #generate(TurnList)} in the current position
+     * @param turn The index of the turn to play
+     */
+    public void play(TurnList turns, int turn) {
+        int length = turns.length(turn);
+        if(plies == playedLengths.length) {
+            playedLengths = Arrays.copyOf(playedLengths, 2 * plies);
+            playedAthenaFlags = Arrays.copyOf(playedAthenaFlags, 2 * plies);
+        }
+        playedLengths[plies] = length;
+        playedAthenaFlags[plies] = athenaActive;
+        plies++;
+
+        if(getCurrentPlayerIndex() == athena) {
+            // Athena only moves once, at the beginning of her turn
+            int move = turns.action(turn, 0);
+            athenaActive = state.getHeight(Action.to(move)) > state.getHeight(Action.from(move));
+        }
+        for(int i = 0; i < length; i++) {
+            game.apply(turns.action(turn, i));
+        }
+        game.apply(Action.endTurn());
+    }
+
+    /**
+     * Reverts the last turn played with {@link #play(TurnList, int)}
+     *
+     * @throws IllegalStateException if there is no turn to revert
+     */
+    public void unplay() {
+        if(plies == 0) {
+            throw new IllegalStateException("No turn to revert");
+        }
+        plies--;
+        for(int i = 0; i <= playedLengths[plies]; i++) {
+            game.undo();
+        }
+        athenaActive = playedAthenaFlags[plies];
+    }
+
+    /**
+     * @return The number of turns played with {@link #play(TurnList, int)} that can still be reverted
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * Computes the squares the worker of the current player on the specified square can move to.
+     * The {@code vacated} squares are considered free, which lets Triton walk without moving the worker at each step.
+     */
+    private long getMovesMask(int square, long vacated) {
+        int height = state.getHeight(square);
+        long result = BoardGeometry.neighbourMask(square) & ~state.getDomes() & ~state.getLevelMask(height + 2);
+        long occupied = state.getOccupied() & ~vacated;
+
+        if(god == EGodPower.APOLLO || god == EGodPower.MINOTAUR) {
+            result &= ~state.getWorkerMask(slots[mover]);
+            if(god == EGodPower.MINOTAUR) {
+                long charged = result & occupied;
+                while(charged != 0) {
+                    int target = Long.numberOfTrailingZeros(charged);
+                    int backwards = BoardGeometry.pushTarget(square, target);
+                    if(backwards < 0 || (state.getBlocked() & bit(backwards)) != 0) {
+                        result &= ~bit(target);
+                    }
+                    charged &= charged - 1;
+                }
+            }
+        } else {
+            result &= ~occupied;
+        }
+
+        if(athenaActive && mover != athena) {
+            result &= ~state.getLevelMask(height + 1);
+        }
+        return result;
+    }
+
+    private long getBuildsMask(int square) {
+        long result = BoardGeometry.neighbourMask(square) & ~state.getBlocked();
+        if(god == EGodPower.ZEUS && state.getHeight(square) < LEVEL3) {
+            result |= bit(square);
+        }
+        return result;
+    }
+
+    private int moveAction(int from, int to) {
+        if((state.getOccupied() & bit(to)) == 0) {
+            return Action.move(from, to);
+        }
+        if(god == EGodPower.APOLLO) {
+            return Action.swap(from, to);
+        }
+        return Action.push(from, to, BoardGeometry.pushTarget(from, to));
+    }
+
+    private boolean winsByMove(int from, int to) {
+        if(hera != NO_WINNER && hera != mover && BoardGeometry.isPerimeter(to)) {
+            return false;
+        }
+        int fromHeight = state.getHeight(from);
+        int toHeight = state.getHeight(to);
+        return (fromHeight == LEVEL2 && toHeight == LEVEL3)
+                || (god == EGodPower.PAN && toHeight - fromHeight <= -2);
+    }
+
+    private int towersWinner() {
+        if(chronus != NO_WINNER && game.getCompleteTowers() >= Constants.CHRONUS_WINNING_TOWERS) {
+            return chronus;
+        }
+        return NO_WINNER;
+    }
+
+    private void emit(int winner) {
+        turns.add(path, pathLength, winner);
+    }
+
+    private void generateMoves(int from, long moves) {
+        while(moves != 0) {
+            int to = Long.numberOfTrailingZeros(moves);
+            int action = moveAction(from, to);
+            path[pathLength++] = action;
+
+            if(winsByMove(from, to)) {
+                emit(mover);
+            } else {
+                game.apply(action);
+                if(god == EGodPower.ARTEMIS && pathLength == 1) {
+                    // The second move cannot go back to the initial space
+                    generateMoves(to, getMovesMask(to, 0L) & ~bit(from));
+                }
+                generateBuilds(to);
+                game.undo();
+            }
+
+            pathLength--;
+            moves &= moves - 1;
+        }
+    }
+
+    private void generateBuilds(int from) {
+        long builds = getBuildsMask(from);
+        while(builds != 0) {
+            int to = Long.numberOfTrailingZeros(builds);
+            generateBuild(Action.build(from, to), true);
+            if(god == EGodPower.ATLAS && state.getHeight(to) < LEVEL3) {
+                generateBuild(Action.dome(from, to), true);
+            }
+            builds &= builds - 1;
+        }
+    }
+
+    private void generateBuild(int action, boolean first) {
+        path[pathLength++] = action;
+        game.apply(action);
+
+        int winner = towersWinner();
+        if(winner != NO_WINNER) {
+            emit(winner);
+        } else {
+            // The additional builds are always optional
+            emit(NO_WINNER);
+            if(first) {
+                generateAdditionalBuilds(Action.from(action), Action.to(action));
+            }
+        }
+
+        game.undo();
+        pathLength--;
+    }
+
+    private void generateAdditionalBuilds(int from, int built) {
+        long builds;
+        switch(god) {
+            case DEMETER:
+                builds = getBuildsMask(from) & ~bit(built);
+                break;
+            case HESTIA:
+                builds = getBuildsMask(from) & ~BoardGeometry.PERIMETER_MASK;
+                break;
+            case HEPHAESTUS:
+                builds = state.getHeight(built) <= LEVEL2 && !state.isDomed(built) ? bit(built) : 0L;
+                break;
+            default:
+                return;
+        }
+        while(builds != 0) {
+            generateBuild(Action.build(from, Long.numberOfTrailingZeros(builds)), false);
+            builds &= builds - 1;
+        }
+    }
+
+    /**
+     * Prometheus can build before moving, provided that he does not move up afterwards.
+     * The card does not offer the godpower when it could lock the worker, and forbids building on the only space
+     * at the same level the worker could move to: the same conditions are checked here.
+     */
+    private void generatePrometheusBuilds(int from) {
+        int height = state.getHeight(from);
+        long moves = getMovesMask(from, 0L);
+        long lower = moves & ~state.getLevelMask(height);
+        long same = moves & state.getLevelMask(height) & ~state.getLevelMask(height + 1);
+        long builds = getBuildsMask(from);
+
+        if(lower == 0 && Long.bitCount(same) < 2) {
+            if(same == 0 || Long.bitCount(builds) < 2) {
+                return;
+            }
+            builds &= ~same;
+        }
+
+        while(builds != 0) {
+            int action = Action.build(from, Long.numberOfTrailingZeros(builds));
+            path[pathLength++] = action;
+            game.apply(action);
+
+            int winner = towersWinner();
+            if(winner != NO_WINNER) {
+                emit(winner);
+            } else {
+                generateMoves(from, getMovesMask(from, 0L) & ~state.getLevelMask(height + 1));
+            }
+
+            game.undo();
+            pathLength--;
+            builds &= builds - 1;
+        }
+    }
+
+    /**
+     * Triton moves again every time he moves onto a perimeter space. His walk is explored breadth-first from the
+     * initial space, which is vacated as soon as the worker leaves it: every space is reached once through a move
+     * that does not win, and once through a move that wins.
+     */
+    private void generateTritonMoves(int origin) {
+        long vacated = bit(origin);
+        long reached = 0L;
+        long won = 0L;
+        int head = 0;
+        int tail = 0;
+
+        // The initial space is the root of the walk, it is expanded even if it is not on the perimeter
+        int current = origin;
+        int distance = 0;
+        do {
+            long moves = getMovesMask(current, vacated);
+            while(moves != 0) {
+                int to = Long.numberOfTrailingZeros(moves);
+                long b = bit(to);
+                if(winsByMove(current, to)) {
+                    if((won & b) == 0) {
+                        won |= b;
+                        winParents[to] = current;
+                        winDistances[to] = distance + 1;
+                    }
+                } else if((reached & b) == 0) {
+                    reached |= b;
+                    parents[to] = current;
+                    distances[to] = distance + 1;
+                    queue[tail++] = to;
+                }
+                moves &= moves - 1;
+            }
+
+            current = -1;
+            while(head < tail && current < 0) {
+                int next = queue[head++];
+                if(BoardGeometry.isPerimeter(next)) {
+                    current = next;
+                    distance = distances[next];
+                }
+            }
+        } while(current >= 0);
+
+        while(won != 0) {
+            int to = Long.numberOfTrailingZeros(won);
+            int hops = winDistances[to] - 1;
+            writeTritonPath(winParents[to], hops);
+            path[pathLength++] = Action.move(winParents[to], to);
+            emit(mover);
+            pathLength -= hops + 1;
+            won &= won - 1;
+        }
+
+        while(reached != 0) {
+            int to = Long.numberOfTrailingZeros(reached);
+            int hops = distances[to];
+            writeTritonPath(to, hops);
+            for(int i = pathLength - hops; i < pathLength; i++) {
+                game.apply(path[i]);
+            }
+            generateBuilds(to);
+            for(int i = 0; i < hops; i++) {
+                game.undo();
+            }
+            pathLength -= hops;
+            reached &= reached - 1;
+        }
+    }
+
+    /**
+     * Appends to the current path the moves of Triton's walk that reach the specified space in the specified number of moves
+     */
+    private void writeTritonPath(int square, int hops) {
+        int current = square;
+        for(int i = pathLength + hops - 1; i >= pathLength; i--) {
+            int parent = parents[current];
+            path[i] = Action.move(parent, current);
+            current = parent;
+        }
+        pathLength += hops;
+    }
+
+}
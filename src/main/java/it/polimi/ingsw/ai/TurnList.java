@@ -0,0 +1,133 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.Action;
+
+import java.util.Arrays;
+
+/**
+ * A reusable list of complete turns, as generated by {@link TurnEnumerator#generate(TurnList)}.
+ *
+ * Every turn is a sequence of encoded {@link Action}s: the worker is the one standing on the origin square of the first
+ * action, then come the moves and the builds in the order they are played. The actions of all the turns are stored in
+ * a single flat array, so that filling the list again after {@link #clear()} does not allocate anything.
+ */
+public class TurnList {
+
+    /** Value returned by {@link #getWinner(int)} when the turn does not end the game */
+    public static final int NO_WINNER = -1;
+
+    private static final int INITIAL_TURNS = 128;
+
+    private int[] actions = new int[4 * INITIAL_TURNS];
+    private int[] starts = new int[INITIAL_TURNS + 1];
+    private int[] winners = new int[INITIAL_TURNS];
+    private int size;
+
+    /**
+     * Removes all the turns, keeping the allocated storage
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return The number of turns in this list
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @return The number of actions of the turn
+     */
+    public int length(int turn) {
+        checkIndex(turn);
+        return starts[turn + 1] - starts[turn];
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @param index The index of an action of the turn
+     * @return The encoded {@link Action}
+     */
+    public int action(int turn, int index) {
+        if(index < 0 || index >= length(turn)) {
+            throw new IllegalArgumentException("Invalid action index");
+        }
+        return actions[starts[turn] + index];
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @return A copy of the actions of the turn
+     */
+    public int[] getActions(int turn) {
+        checkIndex(turn);
+        return Arrays.copyOfRange(actions, starts[turn], starts[turn + 1]);
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @return The index of the player (in {@code Game#getPlayers()}) that wins the game by playing the turn,
+     *         {@link #NO_WINNER} if the game goes on
+     */
+    public int getWinner(int turn) {
+        checkIndex(turn);
+        return winners[turn];
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @return The square of the worker that plays the turn
+     */
+    public int getWorkerSquare(int turn) {
+        return Action.from(action(turn, 0));
+    }
+
+    /**
+     * @param turn The index of a turn
+     * @return A readable representation of the turn, like {@code MOVE (1,2)->(2,3), BUILD (2,3)->(2,4)}
+     */
+    public String toString(int turn) {
+        StringBuilder sb = new StringBuilder();
+        for(int i = 0; i < length(turn); i++) {
+            if(i > 0) {
+                sb.append(", ");
+            }
+            sb.append(Action.toString(action(turn, i)));
+        }
+        if(winners[turn] != NO_WINNER) {
+            sb.append(" (player ").append(winners[turn]).append(" wins)");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends a turn to this list
+     *
+     * @param turnActions An array holding the actions of the turn
+     * @param length The number of actions of the turn
+     * @param winner The index of the winner of the game, {@link #NO_WINNER} if the game goes on
+     */
+    void add(int[] turnActions, int length, int winner) {
+        if(size == winners.length) {
+            winners = Arrays.copyOf(winners, 2 * size);
+            starts = Arrays.copyOf(starts, 2 * size + 1);
+        }
+        int start = starts[size];
+        if(start + length > actions.length) {
+            actions = Arrays.copyOf(actions, Math.max(2 * actions.length, start + length));
+        }
+        System.arraycopy(turnActions, 0, actions, start, length);
+        winners[size] = winner;
+        starts[++size] = start + length;
+    }
+
+    private void checkIndex(int turn) {
+        if(turn < 0 || turn >= size) {
+            throw new IllegalArgumentException("Invalid turn index");
+        }
+    }
+
+}
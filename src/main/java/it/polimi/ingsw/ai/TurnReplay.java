@@ -0,0 +1,93 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.Action;
+import it.polimi.ingsw.model.EGodPower;
+import it.polimi.ingsw.model.ETurnPhase;
+
+/**
+ * Replays a turn chosen among the ones of a {@link TurnList} through the cards of a game, one decision at a time:
+ * the square to click in the {@link ETurnPhase#WORKERSELECTION}, {@link ETurnPhase#MOVE} and {@link ETurnPhase#BUILD}
+ * phases, and the answer to the question asked in the {@link ETurnPhase#GODPOWER} phase.
+ *
+ * The answer depends on what the card asks, which follows from the god and from the actions already replayed:
+ * <ul>
+ *     <li>Atlas asks after the build whether to dome the tile: yes if the replayed action is a dome</li>
+ *     <li>Prometheus asks before the move whether to build first: yes if the next action is a build</li>
+ *     <li>Artemis and Triton ask after a move whether to move again: yes if the next action is a move</li>
+ *     <li>Demeter, Hestia and Hephaestus ask after a build whether to build again: yes if the next action is a build.
+ *     Hephaestus builds the second level by himself, so his next action is replayed by the answer</li>
+ * </ul>
+ */
+public class TurnReplay {
+
+    private static final int NONE = -1;
+
+    private final int[] actions;
+    private final EGodPower god;
+    private int next;
+    private int last = NONE;
+
+    /**
+     * @param actions The actions of the turn, as returned by {@link TurnList#getActions(int)}
+     * @param god The god of the player that plays the turn
+     */
+    public TurnReplay(int[] actions, EGodPower god) {
+        if(actions == null || actions.length == 0 || god == null) {
+            throw new IllegalArgumentException("A turn needs at least one action and a god");
+        }
+        this.actions = actions.clone();
+        this.god = god;
+    }
+
+    /**
+     * @return The square of the worker that plays the turn
+     */
+    public int getWorkerSquare() {
+        return Action.from(actions[0]);
+    }
+
+    /**
+     * @return {@code true} if all the actions of the turn have been replayed
+     */
+    public boolean isOver() {
+        return next == actions.length;
+    }
+
+    /**
+     * Replays the next move or build of the turn
+     *
+     * @param phase The current turn phase of the game, either {@link ETurnPhase#MOVE} or {@link ETurnPhase#BUILD}
+     * @return The square the worker moves to or builds on
+     * @throws IllegalStateException if the next action of the turn cannot be played in the specified phase
+     */
+    public int nextSquare(ETurnPhase phase) {
+        if(isOver() || (phase == ETurnPhase.MOVE) != Action.isMovement(actions[next])
+                || (phase != ETurnPhase.MOVE && phase != ETurnPhase.BUILD)) {
+            throw new IllegalStateException("The turn cannot go on in the " + phase + " phase");
+        }
+        last = actions[next++];
+        return Action.to(last);
+    }
+
+    /**
+     * Answers the question asked by the card in the {@link ETurnPhase#GODPOWER} phase
+     *
+     * @return {@code true} if the turn uses the godpower
+     */
+    public boolean nextChoice() {
+        if(last != NONE && Action.kind(last) == Action.DOME) {
+            return true;
+        }
+        if(isOver()) {
+            return false;
+        }
+        boolean used = last == NONE
+                ? !Action.isMovement(actions[next])
+                : Action.isMovement(actions[next]) == Action.isMovement(last);
+        if(used && god == EGodPower.HEPHAESTUS) {
+            last = actions[next++];
+        }
+        return used;
+    }
+
+}
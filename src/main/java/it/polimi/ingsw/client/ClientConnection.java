@@ -2,18 +2,22 @@ package it.polimi.ingsw.client;
 
 import it.polimi.ingsw.network.Connection;
 import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.TimerWheel;
 import it.polimi.ingsw.network.events.Event;
 import it.polimi.ingsw.network.events.PingEvent;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
 
 /**
- * This class represents the client-side endpoint of a client-server socket connection
+ * This class represents the client-side endpoint of a client-server socket connection.
+ * Once running, the connection is closed if the server stays silent for 70 seconds, as checked by a wheel shared by
+ * all the clientConnections of this process
  */
 public class ClientConnection extends Connection {
+
+    private static final TimerWheel IDLE_CHECKS = new TimerWheel("ClientIdleChecks");
+
     private String ipAddress;
     private int port;
 
@@ -28,16 +32,16 @@ public class ClientConnection extends Connection {
     }
 
     /**
-     * This method initializes this clientConnection, attempting to connect to the server and then constructing
-     * the object streams on which the network events will be sent and received
+     * This method initializes this clientConnection, attempting to connect to the server and then negotiating
+     * the binary format in which the network events will be sent and received (see {@link Connection#openClientStreams()})
      * @throws DisconnectedException if this clientConnection is unable to connect to the server
      */
     public void connectToServer() throws DisconnectedException {
 
         try {
             this.socket = new Socket(ipAddress, port);
-            this.oos = new ObjectOutputStream(socket.getOutputStream());
-            this.ois = new ObjectInputStream(socket.getInputStream());
+            setReadTimeout(70 * 1000);
+            openClientStreams();
         } catch (IOException e) {
             throw new DisconnectedException(">> Couldn't connect to the server");
         }
@@ -52,12 +56,19 @@ public class ClientConnection extends Connection {
     @Override
     public void run() {
         active = true;
+        try {
+            watchIdle(IDLE_CHECKS, 70 * 1000L);
+        } catch (IOException e) {
+            notifyDisconnection(e.getMessage());
+            close();
+            return;
+        }
         while(isActive()) {
             try {
-                Event received = receiveEvent(70 * 1000);
+                Event received = receiveEvent();
                 while (received instanceof PingEvent) {
                     sendEvent(new PingEvent());
-                    received = receiveEvent(70 * 1000);
+                    received = receiveEvent();
                 }
                 setChanged();
                 notify(received);
@@ -3,9 +3,13 @@ package it.polimi.ingsw.controller;
 import it.polimi.ingsw.model.*;
 import it.polimi.ingsw.network.Observer;
 import it.polimi.ingsw.network.events.*;
+import it.polimi.ingsw.server.EventBatch;
 import it.polimi.ingsw.view.RemoteView;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 
 /**
@@ -13,31 +17,51 @@ import java.util.List;
  * It implements the {@code Observer} interface since the fact that observe the changes of
  * the {@code RemoteView} and could do an update after them. In some ways, a controller represents a game,
  * receiving notifications from the {@code RemoteView}s bound to the players, filtering them and passing their
- * content to the model classes
+ * content to the model classes.
+ *
+ * The events are not handled by the threads that deliver them: they are posted to the {@link Mailbox} of the
+ * controller and handled one at a time by the executor of the game, such as one of the {@link GameLoops} of the
+ * server. The game is changed only there, so it needs no lock
  */
 public class Controller implements Observer {
 
     private Game game;
     private List<Player> players;
-    private boolean active;
+    private volatile boolean active;
+    private final Mailbox mailbox;
 
 
     /**
      * <p> Build a {@code Controller} registering it on each {@code RemoteView} getting some information such as
      * the ArrayList of the players and the {@code Game} which is bound to. </p>
      * <p> It also let the game start with the first {@code EStartupPhase} phase: the picking of the challenger. </p>
+     * <p> The events are handled by the thread that delivers them, one thread at a time. </p>
      * @param remoteViews  the ArrayList of the server-side views of the different players
      * @param game  the game that has to be started
      */
     public Controller(List<RemoteView> remoteViews, Game game) {
-        for (RemoteView v : remoteViews) {
-            v.registerObserver(this);
-        }
+        this(remoteViews, game, Runnable::run);
+    }
+
+    /**
+     * <p> Build a {@code Controller} as {@link #Controller(List, Game)}, whose events are handled by the specified executor. </p>
+     * @param remoteViews  the ArrayList of the server-side views of the different players
+     * @param game  the game that has to be started
+     * @param executor  the executor of the game, such as one of the {@link GameLoops}
+     */
+    public Controller(List<RemoteView> remoteViews, Game game, Executor executor) {
         this.game = game;
         this.players = game.getPlayers();
         this.active = true;
-        init();
-        this.game.pickChallenger();
+        this.mailbox = new Mailbox(executor, this::fail);
+        // The game starts before any event of the players is handled
+        mailbox.execute(() -> {
+            init();
+            this.game.pickChallenger();
+        });
+        for (RemoteView v : remoteViews) {
+            v.registerObserver(this);
+        }
     }
 
     /**
@@ -47,6 +71,58 @@ public class Controller implements Observer {
         game.startGame();
     }
 
+    /**
+     * Returns the game this controller is bound to. Callers that read it from another thread have to do it in a task
+     * run by this controller (see {@link #submit(Supplier)}), since it changes while the events are handled
+     * @return the game of this controller
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Runs a task after the events already posted to this controller, in the thread that handles them, so that the
+     * task can read and change the game like an event does
+     * @param task The task
+     * @return The result of the task, once it has run
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, mailbox);
+    }
+
+    /**
+     * Cancels the game, as a disconnection during the startup phases does: every view gets a {@code GameOverEvent},
+     * which closes the connections of the clients and stops the bots
+     */
+    public void abort() {
+        mailbox.execute(() -> {
+            if(active) {
+                game.abort();
+                active = false;
+            }
+        });
+    }
+
+    /**
+     * Stops a game whose events can no longer be handled, since one of them failed: the following ones are ignored
+     * and the game is aborted, as far as its state allows. Run by the mailbox
+     */
+    private void fail() {
+        if(active) {
+            active = false;
+            game.abort();
+        }
+    }
+
+    /**
+     * Returns the last snapshot of the game, which spectators and analytics can read from any thread
+     * without waiting for this controller
+     * @return the last snapshot published by the game
+     */
+    public GameSnapshot getSnapshot() {
+        return game.getSnapshot();
+    }
+
     /**
      * Tells if this controller is active
      * @return a boolean that indicates if the the controller is active or not
@@ -58,13 +134,26 @@ public class Controller implements Observer {
 
     /**
      * As usual with the Observer&Observable pattern, this is the entry point for the notifications (objects of
-     * type {@code Event}) coming from the {@code RemoteView}s associated with this controller/game
+     * type {@code Event}) coming from the {@code RemoteView}s associated with this controller/game.
+     * The event is posted to the mailbox of this controller; the events the game sends to each client while handling it
+     * are sent together, in one {@code EventBatch}
      * @param arg the event that the {@code Observable} object that invoked the {@code notify} method passed as an argument
      */
+    @Override
+    public void update(Event arg) {
+        mailbox.execute(() -> {
+            EventBatch.begin();
+            try {
+                handle(arg);
+            } finally {
+                EventBatch.end();
+            }
+        });
+    }
+
     // TODO: refactor this method to reduce its complexity. We could enclose the switch
     //      statement on line 90 into a new method, like updateDuringInitialization(Event arg)
-    @Override
-    public synchronized void update(Event arg) {
+    private void handle(Event arg) {
         System.out.println(arg.toString());
         // If this controller is inactive, ignore all notifications. None should come anyway,
         // because the controller is declared inactive only after a GameOverEvent, which
@@ -0,0 +1,63 @@
+package it.polimi.ingsw.controller;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents a fixed set of single-threaded executors, the game loops, that run the games of a server.
+ * Each game is pinned to one loop for its whole life (see {@link #next()}), so its events are handled in order by a
+ * single thread, while many games share each loop
+ */
+public final class GameLoops {
+
+    private final ExecutorService[] loops;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * Creates as many game loops as the available processors
+     */
+    public GameLoops() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param size The number of game loops
+     */
+    public GameLoops(int size) {
+        if(size < 1) {
+            throw new IllegalArgumentException("There must be at least one game loop");
+        }
+        loops = new ExecutorService[size];
+        for(int i = 0; i < size; i++) {
+            String name = "GameLoop-" + i;
+            loops[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * @return The loop a new game is pinned to, chosen in turn
+     */
+    public Executor next() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+
+    public int size() {
+        return loops.length;
+    }
+
+    /**
+     * Stops the loops once the events already posted have been handled
+     */
+    public void shutdown() {
+        for(ExecutorService loop : loops) {
+            loop.shutdown();
+        }
+    }
+
+}
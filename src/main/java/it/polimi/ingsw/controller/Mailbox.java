@@ -0,0 +1,79 @@
+package it.polimi.ingsw.controller;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents the mailbox of a {@code Controller}: the tasks posted to it run one at a time, in order, on
+ * the executor of the game, so the game has a single writer and needs no lock.
+ *
+ * A thread that posts a task while no task is running drains the mailbox through the executor; the other threads only
+ * add their task and return. A task posted by the task that is running, such as an event that the model sends back
+ * to the controller, runs at once, as a nested call would.
+ *
+ * A task that throws leaves the game in an unknown state: the exception is printed and the failure handler, which
+ * aborts the game, runs in its place
+ */
+final class Mailbox implements Executor {
+
+    private final Executor executor;
+    private final Runnable onFailure;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+    private volatile Thread drainer;
+
+    /**
+     * @param executor The executor that drains the mailbox, e.g. a game loop, or {@code Runnable::run} to drain it on
+     * the thread that posts to the empty mailbox
+     * @param onFailure The task run, in the mailbox, after a task that threw an exception
+     */
+    Mailbox(Executor executor, Runnable onFailure) {
+        if(executor == null || onFailure == null) {
+            throw new IllegalArgumentException("Executor and failure handler cannot be null");
+        }
+        this.executor = executor;
+        this.onFailure = onFailure;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if(drainer == Thread.currentThread()) {
+            runSafely(task);
+            return;
+        }
+        tasks.add(task);
+        if(scheduled.compareAndSet(false, true)) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        do {
+            drainer = Thread.currentThread();
+            Runnable task;
+            while((task = tasks.poll()) != null) {
+                runSafely(task);
+            }
+            drainer = null;
+            scheduled.set(false);
+            // A task posted after the last poll would wait for the next one otherwise
+        } while(!tasks.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+
+    // A failing task must not stop the executor, which may serve other games too
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            try {
+                onFailure.run();
+            } catch (RuntimeException failure) {
+                failure.printStackTrace();
+            }
+        }
+    }
+
+}
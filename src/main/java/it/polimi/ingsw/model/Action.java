@@ -0,0 +1,171 @@
+package it.polimi.ingsw.model;
+
+/**
+ * The {@code Action} class encodes the elementary actions of a turn into a single {@code int}, so that search code can
+ * generate, store and replay them through {@link Game#apply(int)} and {@link Game#undo()} without any allocation.
+ *
+ * An action is made of a kind, an origin square, a destination square and an auxiliary square (see {@link BoardState}),
+ * packed in 5-bit fields:
+ * <pre>
+ *     bits  0-4   origin square (the square of the acting worker)
+ *     bits  5-9   destination square
+ *     bits 10-14  auxiliary square (where a pushed worker ends up)
+ *     bits 15-17  kind
+ * </pre>
+ */
+public final class Action {
+
+    private Action() {
+        // Private constructor will prevent the instantiation of this class
+    }
+
+    /** The worker moves onto a free square */
+    public static final int MOVE = 1;
+    /** The worker moves onto an opponent's square and the two workers are swapped (Apollo) */
+    public static final int SWAP = 2;
+    /** The worker moves onto an opponent's square, the opponent is pushed straight backwards (Minotaur) */
+    public static final int PUSH = 3;
+    /** One level is built on the destination square, or a dome if it is already 3 levels high */
+    public static final int BUILD = 4;
+    /** A dome is built on the destination square, no matter its level (Atlas) */
+    public static final int DOME = 5;
+    /** The turn passes to the next player */
+    public static final int END_TURN = 6;
+
+    /** Value of an unused square field */
+    public static final int NO_SQUARE = 31;
+
+    private static final int SQUARE_BITS = 5;
+    private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+    private static final int TO_SHIFT = SQUARE_BITS;
+    private static final int AUX_SHIFT = 2 * SQUARE_BITS;
+    private static final int KIND_SHIFT = 3 * SQUARE_BITS;
+
+    private static final String[] KIND_NAMES = {"NONE", "MOVE", "SWAP", "PUSH", "BUILD", "DOME", "END_TURN"};
+
+    /**
+     * @param kind The kind of the action
+     * @param from The origin square
+     * @param to The destination square
+     * @param aux The auxiliary square
+     * @return The encoded action
+     */
+    public static int of(int kind, int from, int to, int aux) {
+        return kind << KIND_SHIFT | aux << AUX_SHIFT | to << TO_SHIFT | from;
+    }
+
+    /**
+     * @param from The square of the moving worker
+     * @param to The free destination square
+     * @return The encoded {@link #MOVE}
+     */
+    public static int move(int from, int to) {
+        return of(MOVE, from, to, NO_SQUARE);
+    }
+
+    /**
+     * @param from The square of the moving worker
+     * @param to The square of the opponent's worker to swap with
+     * @return The encoded {@link #SWAP}
+     */
+    public static int swap(int from, int to) {
+        return of(SWAP, from, to, NO_SQUARE);
+    }
+
+    /**
+     * @param from The square of the moving worker
+     * @param to The square of the opponent's worker to push
+     * @param pushed The free square where the opponent's worker is pushed
+     * @return The encoded {@link #PUSH}
+     */
+    public static int push(int from, int to, int pushed) {
+        return of(PUSH, from, to, pushed);
+    }
+
+    /**
+     * @param from The square of the building worker
+     * @param to The square to build on, it can be {@code from} itself (Zeus)
+     * @return The encoded {@link #BUILD}
+     */
+    public static int build(int from, int to) {
+        return of(BUILD, from, to, NO_SQUARE);
+    }
+
+    /**
+     * @param from The square of the building worker
+     * @param to The square to build the dome on
+     * @return The encoded {@link #DOME}
+     */
+    public static int dome(int from, int to) {
+        return of(DOME, from, to, NO_SQUARE);
+    }
+
+    /**
+     * @return The encoded {@link #END_TURN}
+     */
+    public static int endTurn() {
+        return of(END_TURN, NO_SQUARE, NO_SQUARE, NO_SQUARE);
+    }
+
+    /**
+     * @param action An encoded action
+     * @return The kind of the action
+     */
+    public static int kind(int action) {
+        return action >>> KIND_SHIFT;
+    }
+
+    /**
+     * @param action An encoded action
+     * @return The origin square of the action
+     */
+    public static int from(int action) {
+        return action & SQUARE_MASK;
+    }
+
+    /**
+     * @param action An encoded action
+     * @return The destination square of the action
+     */
+    public static int to(int action) {
+        return (action >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @param action An encoded action
+     * @return The auxiliary square of the action
+     */
+    public static int aux(int action) {
+        return (action >>> AUX_SHIFT) & SQUARE_MASK;
+    }
+
+    /**
+     * @param action An encoded action
+     * @return {@code true} if the action moves a worker
+     */
+    public static boolean isMovement(int action) {
+        int kind = kind(action);
+        return kind == MOVE || kind == SWAP || kind == PUSH;
+    }
+
+    /**
+     * @param action An encoded action
+     * @return A readable representation of the action, like {@code MOVE (1,2)->(2,3)}
+     */
+    public static String toString(int action) {
+        int kind = kind(action);
+        StringBuilder sb = new StringBuilder(kind < KIND_NAMES.length ? KIND_NAMES[kind] : "UNKNOWN");
+        if(kind != END_TURN) {
+            sb.append(' ').append(squareToString(from(action))).append("->").append(squareToString(to(action)));
+            if(kind == PUSH) {
+                sb.append("->").append(squareToString(aux(action)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String squareToString(int square) {
+        return "(" + BoardState.rowOf(square) + "," + BoardState.columnOf(square) + ")";
+    }
+
+}
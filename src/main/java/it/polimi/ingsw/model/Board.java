@@ -9,22 +9,27 @@ import static it.polimi.ingsw.model.Constants.COLUMNS;
 import static it.polimi.ingsw.model.Constants.ROWS;
 
 /**
- * This class is a wrapper for a grid of Tiles (that is, a 2d array of Tiles) with some useful methods.
+ * This class is a wrapper for a grid of Tiles with some useful methods.
+ * The game state of the grid is kept in a compact {@link BoardState}: the Tiles of a {@code Board} are views over it.
  */
 public class Board {
 
-    private Tile[][] tilesGrid;
+    private final BoardState state;
+    private final Tile[] tiles;
+    private final List<List<Tile>> surroundings;
 
     /**
      * Initializes a newly created {@code Board} so that it is empty
      */
     public Board() {
-        tilesGrid = new Tile[ROWS][COLUMNS];
+        state = new BoardState();
+        tiles = new Tile[ROWS * COLUMNS];
         for(int r = 0; r < ROWS; r++) {
             for(int c = 0; c < COLUMNS; c++) {
-                tilesGrid[r][c] = new Tile(r, c);
+                tiles[BoardState.square(r, c)] = new Tile(state, r, c);
             }
         }
+        surroundings = buildSurroundings();
     }
 
     /**
@@ -38,13 +43,18 @@ public class Board {
 
 
     public void registerObserversOnTiles(List<? extends Observer> observersList) {
-        for (int r = 0; r < ROWS; r++) {
-            for (int c = 0; c < COLUMNS; c++) {
-                tilesGrid[r][c].registerObservers(observersList);
-            }
+        for (Tile t : tiles) {
+            t.registerObservers(observersList);
         }
     }
 
+    /**
+     * @return The compact state backing this {@code Board}
+     */
+    public BoardState getState() {
+        return state;
+    }
+
     /**
      * Returns the {@code Tile} specified by the coordinates
      *
@@ -59,7 +69,7 @@ public class Board {
         if(col < 0 || col >= COLUMNS) {
             throw new IllegalArgumentException("Invalid column index");
         }
-        return tilesGrid[row][col];
+        return tiles[BoardState.square(row, col)];
     }
 
     /**
@@ -76,53 +86,76 @@ public class Board {
     }
 
     /**
-     * Substitute a tile of this board
+     * Returns the {@code Tile} at the specified square
+     *
+     * @param square The square index (0-24) of the {@code Tile} to return
+     * @return The {@code Tile} at the specified square of this {@code Board}
+     */
+    public Tile getTile(int square) {
+        if(square < 0 || square >= BoardState.SQUARES) {
+            throw new IllegalArgumentException("Invalid square index");
+        }
+        return tiles[square];
+    }
+
+    /**
+     * Returns the Tiles of the squares set in the specified mask
+     *
+     * @param mask A mask of squares (see {@link BoardState})
+     * @return A new list of the Tiles of this {@code Board} in the specified squares, in ascending square order
+     */
+    public List<Tile> getTiles(long mask) {
+        List<Tile> result = new ArrayList<>(Long.bitCount(mask));
+        while(mask != 0) {
+            result.add(tiles[Long.numberOfTrailingZeros(mask)]);
+            mask &= mask - 1;
+        }
+        return result;
+    }
+
+    /**
+     * Substitute a tile of this board. The content of the substitute {@code Tile} is copied into the state of this {@code Board}
+     * and the substitute becomes a view over it, while the replaced {@code Tile} is detached and keeps its content
      *
      * @param t The substitute {@code Tile}
      */
     public void setTile(Tile t) {
         if (t != null) {
-            int row = t.getRow();
-            int col = t.getColumn();
-            tilesGrid[row][col] = t;
+            int square = t.getSquare();
+            Tile replaced = tiles[square];
+            if(replaced != t) {
+                replaced.detach();
+                t.bind(state);
+                tiles[square] = t;
+            }
         }
     }
 
     /**
      * Gets a list of all the Tiles on this {@code Board} that surround the {@code Tile} at the specified row and column index. The list returned can contain up to 8 Tiles
      *
+     * The list is an unmodifiable view, shared by all the callers, so it is never allocated after the creation of this {@code Board}
+     *
      * @param row The row index of the {@code Tile} whose surrounding Tiles have to be returned
      * @param col The column index of the {@code Tile} whose surrounding Tiles have to be returned
-     * @return The list of Tiles surrounding the {@code Tile} at the specified row and column index on the {@code Board}, {@code null} if an invalid (i.e., out-of-bounds) row or column index is provided
+     * @return The list of Tiles surrounding the {@code Tile} at the specified row and column index on the {@code Board}, an empty list if an invalid (i.e., out-of-bounds) row or column index is provided
      */
     public List<Tile> getSurroundingTiles(int row, int col) {
-
-        List<Tile> result = new ArrayList<>();
-
-        if(row >= 0 && row < ROWS && col >= 0 && col < COLUMNS) {
-
-            for(int r = row - 1; r <= row + 1; r++) {
-                for(int c = col - 1; c <= col + 1; c++) {
-                    if(r >= 0 && r < ROWS && c >= 0 && c < COLUMNS && (r != row || c != col)) {
-                        result.add(tilesGrid[r][c]);
-                    }
-                }
-            }
-            
+        if(row < 0 || row >= ROWS || col < 0 || col >= COLUMNS) {
+            return Collections.emptyList();
         }
-
-        return result;
+        return surroundings.get(BoardState.square(row, col));
     }
 
     /**
      * Gets a list of all the Tiles on this {@code Board} that surround the {@code Tile} at the specified {@code Position}. The list returned can contain up to 8 Tiles
      *
      * @param pos The position on this {@code Board} of the {@code Tile} whose surrounding Tiles have to be returned
-     * @return The list of Tiles surrounding the {@code Tile} at the specified position on the {@code Board}, {@code null} if an invalid (i.e., out-of-bounds) or {@code null} position is provided
+     * @return The list of Tiles surrounding the {@code Tile} at the specified position on the {@code Board}, an empty list if an invalid (i.e., out-of-bounds) or {@code null} position is provided
      */
     public List<Tile> getSurroundingTiles(Position pos) {
         if(pos == null) {
-            return new ArrayList<>();
+            return Collections.emptyList();
         }
         return getSurroundingTiles(pos.getRow(), pos.getCol());
     }
@@ -141,34 +174,14 @@ public class Board {
      */
     public Tile getStraightBackwardsTile(int chargerRow, int chargerCol, int targetRow, int targetCol) {
 
-        int dr;
-        int dc;
-        int resultRow;
-        int resultCol;
-
-        dr = targetRow - chargerRow;
-        dc = targetCol - chargerCol;
-
         // Apparently, this is the style suggested in the Oracle/Sun guidelines. Like, zoinks scoob!
         if(chargerRow < 0 || chargerRow >= ROWS || chargerCol < 0 || chargerCol >= COLUMNS
                 || targetRow < 0 || targetRow >= ROWS || targetCol < 0 || targetCol >= COLUMNS) {
             return null;
         }
 
-        // target e charger non devono nè coincidere, nè essere troppo distanti
-        if (dr > 1 || dr < -1 || dc > 1 || dc < -1 || (dr == 0 && dc == 0)) {
-            return null;
-        }
-
-        resultRow = targetRow + dr;
-        resultCol = targetCol + dc;
-
-        if (resultRow < 0 || resultRow >= ROWS || resultCol < 0 || resultCol >= COLUMNS) {
-            return null;
-        }
-
-        return tilesGrid[resultRow][resultCol];
-
+        int result = BoardGeometry.pushTarget(BoardState.square(chargerRow, chargerCol), BoardState.square(targetRow, targetCol));
+        return result < 0 ? null : tiles[result];
     }
 
     /**
@@ -201,39 +214,7 @@ public class Board {
             throw new IllegalArgumentException();
         }
 
-        int currentRowIndex = current.getRow();
-        int currentColumnIndex = current.getColumn();
-
-        if (clockwise){
-            if(currentRowIndex == 0 && currentColumnIndex < 4) {
-                currentColumnIndex++;
-            }
-            else if(currentColumnIndex == 4 && currentRowIndex < 4) {
-                currentRowIndex++;
-            }
-            else if(currentRowIndex == 4 && currentColumnIndex > 0) {
-                currentColumnIndex--;
-            }
-            else if(currentColumnIndex == 0 && currentRowIndex > 0) {
-                currentRowIndex--;
-            }
-        }
-        else {
-            if(currentRowIndex < 4 && currentColumnIndex == 0) {
-                currentRowIndex++;
-            }
-            else if(currentColumnIndex < 4 && currentRowIndex == 4) {
-                currentColumnIndex++;
-            }
-            else if(currentRowIndex > 0 && currentColumnIndex == 4) {
-                currentRowIndex--;
-            }
-            else if(currentColumnIndex > 0 && currentRowIndex == 0) {
-                currentColumnIndex--;
-            }
-        }
-
-        return getTile(currentRowIndex, currentColumnIndex);
+        return tiles[BoardGeometry.perimeterNext(current.getSquare(), clockwise)];
     }
 
     /**
@@ -247,4 +228,24 @@ public class Board {
         return this.getPerimetralNext(current, !clockwise);
     }
 
+    // Read-only lists over the tiles array, so that they keep following setTile
+    private List<List<Tile>> buildSurroundings() {
+        List<List<Tile>> result = new ArrayList<>(BoardState.SQUARES);
+        for(int s = 0; s < BoardState.SQUARES; s++) {
+            final int square = s;
+            result.add(new AbstractList<Tile>() {
+                @Override
+                public Tile get(int index) {
+                    return tiles[BoardGeometry.neighbour(square, index)];
+                }
+
+                @Override
+                public int size() {
+                    return BoardGeometry.neighbourCount(square);
+                }
+            });
+        }
+        return result;
+    }
+
 }
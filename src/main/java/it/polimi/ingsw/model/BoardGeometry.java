@@ -0,0 +1,163 @@
+package it.polimi.ingsw.model;
+
+import static it.polimi.ingsw.model.BoardState.SQUARES;
+import static it.polimi.ingsw.model.BoardState.bit;
+import static it.polimi.ingsw.model.BoardState.square;
+import static it.polimi.ingsw.model.Constants.COLUMNS;
+import static it.polimi.ingsw.model.Constants.ROWS;
+
+/**
+ * The {@code BoardGeometry} class groups lookup tables describing the shape of the grid, indexed by square (0-24).
+ * They are built once, when the class is loaded, so that neighbours, pushes and perimeter walks never need
+ * bounds checks or allocations.
+ */
+public final class BoardGeometry {
+
+    private BoardGeometry() {
+        // Private constructor will prevent the instantiation of this class
+    }
+
+    /** Number of squares on the perimeter of the grid */
+    public static final int PERIMETER_LENGTH = 2 * (ROWS + COLUMNS) - 4;
+
+    /** Mask of the squares on the perimeter of the grid */
+    public static final long PERIMETER_MASK;
+
+    /** Mask of the corner squares of the grid */
+    public static final long CORNER_MASK;
+
+    private static final long[] NEIGHBOUR_MASKS = new long[SQUARES];
+    private static final int[][] NEIGHBOURS = new int[SQUARES][];
+    private static final int[] PUSH_TARGETS = new int[SQUARES * SQUARES];
+    private static final int[] PERIMETER_RING = new int[PERIMETER_LENGTH];
+    private static final int[] RING_INDEX = new int[SQUARES];
+
+    static {
+        long perimeter = 0L;
+        for(int s = 0; s < SQUARES; s++) {
+            int row = BoardState.rowOf(s);
+            int col = BoardState.columnOf(s);
+
+            long neighbours = 0L;
+            for(int r = row - 1; r <= row + 1; r++) {
+                for(int c = col - 1; c <= col + 1; c++) {
+                    if(r >= 0 && r < ROWS && c >= 0 && c < COLUMNS && (r != row || c != col)) {
+                        neighbours |= bit(square(r, c));
+                    }
+                }
+            }
+            NEIGHBOUR_MASKS[s] = neighbours;
+            NEIGHBOURS[s] = new int[Long.bitCount(neighbours)];
+            BoardState.toSquares(neighbours, NEIGHBOURS[s]);
+
+            if(row == 0 || row == ROWS - 1 || col == 0 || col == COLUMNS - 1) {
+                perimeter |= bit(s);
+            }
+        }
+        PERIMETER_MASK = perimeter;
+        CORNER_MASK = bit(square(0, 0)) | bit(square(0, COLUMNS - 1))
+                | bit(square(ROWS - 1, 0)) | bit(square(ROWS - 1, COLUMNS - 1));
+
+        // The straight backwards square of every (charger, target) couple, -1 if they are not adjacent or it falls off the grid
+        for(int charger = 0; charger < SQUARES; charger++) {
+            for(int target = 0; target < SQUARES; target++) {
+                int result = -1;
+                if((NEIGHBOUR_MASKS[charger] & bit(target)) != 0) {
+                    int r = 2 * BoardState.rowOf(target) - BoardState.rowOf(charger);
+                    int c = 2 * BoardState.columnOf(target) - BoardState.columnOf(charger);
+                    if(r >= 0 && r < ROWS && c >= 0 && c < COLUMNS) {
+                        result = square(r, c);
+                    }
+                }
+                PUSH_TARGETS[charger * SQUARES + target] = result;
+            }
+        }
+
+        // The perimeter ring, in clockwise order starting from (0,0)
+        int i = 0;
+        for(int c = 0; c < COLUMNS - 1; c++) {
+            PERIMETER_RING[i++] = square(0, c);
+        }
+        for(int r = 0; r < ROWS - 1; r++) {
+            PERIMETER_RING[i++] = square(r, COLUMNS - 1);
+        }
+        for(int c = COLUMNS - 1; c > 0; c--) {
+            PERIMETER_RING[i++] = square(ROWS - 1, c);
+        }
+        for(int r = ROWS - 1; r > 0; r--) {
+            PERIMETER_RING[i++] = square(r, 0);
+        }
+        for(int s = 0; s < SQUARES; s++) {
+            RING_INDEX[s] = -1;
+        }
+        for(int k = 0; k < PERIMETER_LENGTH; k++) {
+            RING_INDEX[PERIMETER_RING[k]] = k;
+        }
+    }
+
+    /**
+     * @param square A square index
+     * @return The mask of the squares surrounding the specified one (up to 8)
+     */
+    public static long neighbourMask(int square) {
+        return NEIGHBOUR_MASKS[square];
+    }
+
+    /**
+     * @param square A square index
+     * @return The number of squares surrounding the specified one
+     */
+    public static int neighbourCount(int square) {
+        return NEIGHBOURS[square].length;
+    }
+
+    /**
+     * @param square A square index
+     * @param index The index of the neighbour, from 0 to {@code neighbourCount(square) - 1}
+     * @return The index-th square surrounding the specified one, in ascending square order
+     */
+    public static int neighbour(int square, int index) {
+        return NEIGHBOURS[square][index];
+    }
+
+    /**
+     * @param charger The square of the charging worker
+     * @param target The square of the charged worker
+     * @return The square immediately behind the target and opposite to the charger, -1 if the two squares are not
+     *          adjacent or if that square is off the grid
+     */
+    public static int pushTarget(int charger, int target) {
+        return PUSH_TARGETS[charger * SQUARES + target];
+    }
+
+    /**
+     * @param square A square index
+     * @return {@code true} if the specified square is on the perimeter of the grid
+     */
+    public static boolean isPerimeter(int square) {
+        return (PERIMETER_MASK & bit(square)) != 0;
+    }
+
+    /**
+     * @param square A square index
+     * @return {@code true} if the specified square is a corner of the grid
+     */
+    public static boolean isCorner(int square) {
+        return (CORNER_MASK & bit(square)) != 0;
+    }
+
+    /**
+     * @param square A perimeter square index
+     * @param clockwise The rotation sense
+     * @return The perimeter square that follows the specified one in clockwise/counter-clockwise order,
+     *          -1 if the specified square is not on the perimeter
+     */
+    public static int perimeterNext(int square, boolean clockwise) {
+        int k = RING_INDEX[square];
+        if(k < 0) {
+            return -1;
+        }
+        return PERIMETER_RING[(k + (clockwise ? 1 : PERIMETER_LENGTH - 1)) % PERIMETER_LENGTH];
+    }
+
+}
@@ -0,0 +1,306 @@
+package it.polimi.ingsw.model;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import static it.polimi.ingsw.model.Constants.COLUMNS;
+import static it.polimi.ingsw.model.Constants.ROWS;
+
+/**
+ * This class is the compact core of a {@code Board}: the whole game state of the grid is kept in a few 25-bit masks
+ * (one bit for each square, squares are numbered row by row from 0 to 24).
+ *
+ * <ul>
+ *     <li>{@code domes} has a bit set for each domed square</li>
+ *     <li>{@code level1}, {@code level2} and {@code level3} have a bit set for each square whose building is
+ *     at least 1, 2 or 3 levels high (so {@code level3} is a subset of {@code level2}, which is a subset of {@code level1})</li>
+ *     <li>{@code workerMasks} holds, for each player slot, the squares occupied by that player's workers</li>
+ * </ul>
+ *
+ * A {@link Zobrist} hash of levels, domes and workers is kept up to date by every setter.
+ *
+ * {@code Board} and {@code Tile} are thin views over a {@code BoardState}: they read and write their data here.
+ * The {@code Worker} standing on each square is also kept, so that the object view can be rebuilt at any time.
+ */
+public class BoardState implements Serializable {
+
+    /** Number of squares of the grid */
+    public static final int SQUARES = ROWS * COLUMNS;
+
+    /** Mask with a bit set for every square of the grid */
+    public static final long FULL_MASK = (1L << SQUARES) - 1;
+
+    /** Maximum number of players (hence of worker masks) a state can hold */
+    public static final int MAX_PLAYERS = 3;
+
+    private long domes;
+    private long level1;
+    private long level2;
+    private long level3;
+    private long occupied;
+    private final long[] workerMasks = new long[MAX_PLAYERS];
+    private final String[] slotOwners = new String[MAX_PLAYERS];
+    private final Worker[] occupants = new Worker[SQUARES];
+    private long hash;
+    private long version;
+
+    /**
+     * Computes the square index of the specified coordinates
+     *
+     * @param row The row index
+     * @param col The column index
+     * @return The square index (0-24) corresponding to (row, col)
+     */
+    public static int square(int row, int col) {
+        return row * COLUMNS + col;
+    }
+
+    /**
+     * @param square A square index
+     * @return The row index of the specified square
+     */
+    public static int rowOf(int square) {
+        return square / COLUMNS;
+    }
+
+    /**
+     * @param square A square index
+     * @return The column index of the specified square
+     */
+    public static int columnOf(int square) {
+        return square % COLUMNS;
+    }
+
+    /**
+     * @param square A square index
+     * @return A mask with only the bit of the specified square set
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Writes the square indexes of the bits set in the specified mask into the given buffer, in ascending order
+     *
+     * @param mask A mask of squares
+     * @param buffer The buffer to fill, it must be able to hold {@code Long.bitCount(mask)} values
+     * @return The number of squares written into the buffer
+     */
+    public static int toSquares(long mask, int[] buffer) {
+        int n = 0;
+        while(mask != 0) {
+            buffer[n++] = Long.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return n;
+    }
+
+    /**
+     * @param square A square index
+     * @return The height (0-3) of the building on the specified square
+     */
+    public int getHeight(int square) {
+        return (int) ((level1 >>> square) & 1) + (int) ((level2 >>> square) & 1) + (int) ((level3 >>> square) & 1);
+    }
+
+    /**
+     * @param square A square index
+     * @param height The new height (0-3) of the building on the specified square
+     */
+    public void setHeight(int square, int height) {
+        hash ^= Zobrist.level(square, getHeight(square)) ^ Zobrist.level(square, height);
+        version++;
+        long b = bit(square);
+        level1 = height >= 1 ? level1 | b : level1 & ~b;
+        level2 = height >= 2 ? level2 | b : level2 & ~b;
+        level3 = height >= 3 ? level3 | b : level3 & ~b;
+    }
+
+    /**
+     * @param square A square index
+     * @return {@code true} if the specified square is domed
+     */
+    public boolean isDomed(int square) {
+        return (domes & bit(square)) != 0;
+    }
+
+    /**
+     * @param square A square index
+     * @param domed Whether the specified square has to be domed or not
+     */
+    public void setDomed(int square, boolean domed) {
+        if(domed != isDomed(square)) {
+            hash ^= Zobrist.dome(square);
+            version++;
+        }
+        domes = domed ? domes | bit(square) : domes & ~bit(square);
+    }
+
+    /**
+     * @param square A square index
+     * @return The {@code Worker} standing on the specified square, {@code null} if there is none
+     */
+    public Worker getWorker(int square) {
+        return occupants[square];
+    }
+
+    /**
+     * Places the specified {@code Worker} on a square, replacing any worker that stood there.
+     * The worker is not removed from other squares.
+     *
+     * @param square A square index
+     * @param worker The worker standing on the square, {@code null} to free it
+     */
+    public void setWorker(int square, Worker worker) {
+        long b = bit(square);
+        Worker previous = occupants[square];
+        version++;
+        if(previous != null) {
+            int slot = findSlot(previous.getOwnerNickname());
+            if(slot >= 0) {
+                workerMasks[slot] &= ~b;
+                hash ^= Zobrist.worker(slot, square);
+            }
+        }
+        occupants[square] = worker;
+        if(worker != null) {
+            occupied |= b;
+            int slot = slotOf(worker.getOwnerNickname());
+            if(slot >= 0) {
+                workerMasks[slot] |= b;
+                hash ^= Zobrist.worker(slot, square);
+            }
+        } else {
+            occupied &= ~b;
+        }
+    }
+
+    /**
+     * Reserves the slots of the worker masks to the specified players, in order, so that the slots follow the seats of
+     * a game rather than the order the workers were placed in. The workers already on this state are moved to the new slots
+     *
+     * @param nicknames The nicknames of the players, in seat order
+     */
+    public void assignSlots(List<String> nicknames) {
+        if(nicknames.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("Too many players");
+        }
+        Worker[] placed = occupants.clone();
+        for(int s = 0; s < SQUARES; s++) {
+            if(placed[s] != null) {
+                setWorker(s, null);
+            }
+        }
+        Arrays.fill(slotOwners, null);
+        for(int i = 0; i < nicknames.size(); i++) {
+            slotOwners[i] = nicknames.get(i);
+        }
+        for(int s = 0; s < SQUARES; s++) {
+            if(placed[s] != null) {
+                setWorker(s, placed[s]);
+            }
+        }
+    }
+
+    /**
+     * Returns the slot of the worker masks reserved to the specified player, reserving a free one if the player has
+     * none yet. Slots are reserved by {@link #assignSlots(List)}, or else the first time a worker of a player is placed on this state
+     *
+     * @param nickname The nickname of the player
+     * @return The player slot, -1 if no more slots are available or {@code nickname} is {@code null}
+     */
+    public int slotOf(String nickname) {
+        int slot = findSlot(nickname);
+        if(slot < 0 && nickname != null) {
+            for(int i = 0; i < MAX_PLAYERS; i++) {
+                if(slotOwners[i] == null) {
+                    slotOwners[i] = nickname;
+                    return i;
+                }
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the slot of the worker masks reserved to the specified player, without reserving any
+     *
+     * @param nickname The nickname of the player
+     * @return The player slot, -1 if the player has none or {@code nickname} is {@code null}
+     */
+    public int findSlot(String nickname) {
+        if(nickname == null) {
+            return -1;
+        }
+        for(int i = 0; i < MAX_PLAYERS; i++) {
+            if(nickname.equals(slotOwners[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The {@link Zobrist} hash of the levels, domes and workers of this state
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * @return A counter that grows at every change of the levels, domes or workers of this state, and never repeats
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return The mask of domed squares
+     */
+    public long getDomes() {
+        return domes;
+    }
+
+    /**
+     * @param height A building height, from 1 to 3
+     * @return The mask of the squares whose building is at least as high as the specified height
+     */
+    public long getLevelMask(int height) {
+        switch(height) {
+            case 0:
+                return FULL_MASK;
+            case 1:
+                return level1;
+            case 2:
+                return level2;
+            case 3:
+                return level3;
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * @return The mask of the squares occupied by a worker
+     */
+    public long getOccupied() {
+        return occupied;
+    }
+
+    /**
+     * @param slot A player slot
+     * @return The mask of the squares occupied by the workers of the player in the specified slot
+     */
+    public long getWorkerMask(int slot) {
+        return workerMasks[slot];
+    }
+
+    /**
+     * @return The mask of the squares that cannot be entered nor built on, that is domed or occupied squares
+     */
+    public long getBlocked() {
+        return domes | occupied;
+    }
+
+}
@@ -15,6 +15,9 @@ public final class Constants {
     /** Number of columns of the {@code Board} */
     public static final int COLUMNS = 5;
 
+    /** Number of complete towers on the {@code Board} that make Chronus win */
+    public static final int CHRONUS_WINNING_TOWERS = 5;
+
     /** Default IP to reach the server */
     public static final String DEFAULT_SERVER_IP = "localhost";
 
@@ -64,6 +67,18 @@ public final class Constants {
     /** Time interval after which the pinger sends a new PingEvent */
     public static final int PING_TIMEOUT_IN_SECONDS = 10;
 
+    /** Maximum number of events waiting to be written to a client */
+    public static final int OUTBOUND_QUEUE_CAPACITY = 1024;
+
+    /** Time a client waits in a lobby before the server fills the empty seats with bots */
+    public static final int BOT_WAITING_TIME_IN_SECONDS = 60;
+
+    /** Maximum depth, in turns, of the search of a bot */
+    public static final int BOT_MAX_DEPTH = 6;
+
+    /** Time a bot can think about each of its turns */
+    public static final int BOT_TIME_BUDGET_IN_MILLIS = 2000;
+
     /**
      * Ansi code that reset default colours
      */
@@ -7,6 +7,8 @@ public enum ETileLevel {
 
     GROUND, LEVEL1, LEVEL2, LEVEL3;
 
+    private static final ETileLevel[] BY_HEIGHT = values();
+
     private int height;
 
     private ETileLevel() {
@@ -20,6 +22,14 @@ public enum ETileLevel {
         return this.height;
     }
 
+    /**
+     * @param height A building height, from 0 to 3
+     * @return The ETileLevel value corresponding to the specified height
+     */
+    public static ETileLevel fromHeight(int height) {
+        return BY_HEIGHT[height];
+    }
+
     /**
      * @return The value of ETileLevel that follows this, in ascending height order. If this is the last value of ETileLevel, we simply return it (there is no next value)
      */
@@ -8,6 +8,7 @@ import it.polimi.ingsw.utils.ListUtility;
 import it.polimi.ingsw.view.RemoteView;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -31,6 +32,20 @@ public class Game extends Observable {
     private List<EGodPower> playerCards;
     private Player firstPlayer;
     private boolean gameOver;
+    private long godPowerHash;                  // Xor of the Zobrist keys of the godpower flags that are set
+    private long godPowerVersion;               // Number of changes of the godpower flags
+    private final LegalMoveCache legalMoves = new LegalMoveCache();
+    private volatile GameSnapshot snapshot;     // Published at every change of turn, of startup phase and at the end
+
+    // Actions applied with apply(int): the action in the low 32 bits, what is needed to undo it in the high ones
+    private long[] history = new long[INITIAL_HISTORY_LENGTH];
+    private int historyLength;
+
+    private static final int INITIAL_HISTORY_LENGTH = 64;
+    private static final long UNDO_DOMED = 4L;
+    private static final long UNDO_TOWER = 8L;
+    private static final int UNDO_PLAYER_MASK = 3;
+    private static final int UNDO_PHASE_SHIFT = 2;
 
     // Constructor with Dependency Injection
     public Game(List<Player> players, Board board) {
@@ -46,6 +61,9 @@ public class Game extends Observable {
         this.selectedCards = new ArrayList<>();
         this.playerCards = new ArrayList<>();
         this.gameOver = false;
+        // The keys of the workers and of the side to move follow the seats, so equal positions hash the same in every game
+        board.getState().assignSlots(getPlayerNicknamesList());
+        takeSnapshot();
     }
 
     /**
@@ -59,10 +77,10 @@ public class Game extends Observable {
         Worker[] nextPlayerWorkers = nextPlayer.getWorkers();
         Playable nextPlayerCard = nextPlayer.getCard().getPlayable();
 
-        List<Tile> firstWorkerPossibleMoves = nextPlayerCard.getTilesToMove(nextPlayerWorkers[0].getTile());
-        List<Tile> secondWorkerPossibleMoves = nextPlayerCard.getTilesToMove(nextPlayerWorkers[1].getTile());
+        boolean firstWorkerBlocked = getMovesMask(nextPlayerWorkers[0]) == 0L;
+        boolean secondWorkerBlocked = getMovesMask(nextPlayerWorkers[1]) == 0L;
 
-        if(firstWorkerPossibleMoves.isEmpty() && secondWorkerPossibleMoves.isEmpty()){
+        if(firstWorkerBlocked && secondWorkerBlocked){
             // Message to client
             setLoser(nextPlayer);
             if(!isGameOver()) {
@@ -71,24 +89,31 @@ public class Game extends Observable {
         } else {
             setCurrentPlayer(nextPlayer);
             setTurnPhase(ETurnPhase.WORKERSELECTION);
-            if(firstWorkerPossibleMoves.isEmpty() && !(secondWorkerPossibleMoves.isEmpty())) {
-                setChanged();
-                notify(new MessageEvent("You can move only one of your workers", true));
+            if(firstWorkerBlocked) {
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent("You can move only one of your workers", true));
+                }
                 nextPlayerCard.selectWorker(nextPlayerWorkers[1]);
                 nextPlayerCard.setCanChangeWorkerSelection(false);
                 // Già render() manda gli highlight
-            } else if (secondWorkerPossibleMoves.isEmpty() && !(firstWorkerPossibleMoves.isEmpty())) {
-                setChanged();
-                notify(new MessageEvent("You can move only one of your workers", true));
+            } else if (secondWorkerBlocked) {
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent("You can move only one of your workers", true));
+                }
                 nextPlayerCard.selectWorker(nextPlayerWorkers[0]);
                 nextPlayerCard.setCanChangeWorkerSelection(false);
                 // Già render() manda gli highlight
             } else {
-                setChanged();
-                notify(new HighlightEvent(nextPlayerWorkers[0].getTile().getPosition(), nextPlayerWorkers[1].getTile().getPosition()));
-                setChanged();
-                notify(new TurnPhaseEvent(getTurnPhase()));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new HighlightEvent(nextPlayerWorkers[0].getTile().getPosition(), nextPlayerWorkers[1].getTile().getPosition()));
+                    setChanged();
+                    notify(new TurnPhaseEvent(getTurnPhase()));
+                }
             }
+            takeSnapshot();
         }
 
     }
@@ -104,8 +129,10 @@ public class Game extends Observable {
     public void setChallenger(Player challenger) {
         this.challenger = challenger;
         setCurrentPlayer(challenger);
-        setChanged();
-        notify(new SetChallengerEvent(challenger.getNickname()));
+        if(isObserved()) {
+            setChanged();
+            notify(new SetChallengerEvent(challenger.getNickname()));
+        }
         setStartupPhase(EStartupPhase.PICKCARDS);
     }
 
@@ -115,8 +142,10 @@ public class Game extends Observable {
 
     public void setCurrentPlayer(Player currentPlayer) {
         this.currentPlayer = currentPlayer;
-        setChanged();
-        notify(new SetCurrentPlayerEvent(currentPlayer));
+        if(isObserved()) {
+            setChanged();
+            notify(new SetCurrentPlayerEvent(currentPlayer));
+        }
     }
 
     public Player getCurrentPlayer() {
@@ -145,24 +174,37 @@ public class Game extends Observable {
 
     public void setStartupPhase(EStartupPhase startupPhase) {
         this.startupPhase = startupPhase;
+        takeSnapshot();
 
-        setChanged();
-        notify(new StartupPhaseEvent(startupPhase));
+        if(isObserved()) {
+            setChanged();
+            notify(new StartupPhaseEvent(startupPhase));
+        }
     }
 
     public void setWinner(Player winner) {
         this.winner = winner;
         this.gameOver = true;
-        setChanged();
-        notify(new MessageEvent("The winner is... " + winner.getNickname() + "!"));
-        setChanged();
-        notify(new GameOverEvent());
+        takeSnapshot();
+        if(isObserved()) {
+            setChanged();
+            notify(new MessageEvent("The winner is... " + winner.getNickname() + "!"));
+            setChanged();
+            notify(new GameOverEvent());
+        }
     }
 
     public boolean isGameOver() {
         return gameOver;
     }
 
+    /**
+     * @return The winner of the game, {@code null} if the game is not over yet
+     */
+    public Player getWinner() {
+        return winner;
+    }
+
     /**
      * Remove a player that has been defeated from the game by:
      * <ul>
@@ -189,11 +231,13 @@ public class Game extends Observable {
 
             loser.getCard().destroy();
 
-            setChanged();
-            notify(new BoardEvent(w0Tile, w1Tile));
+            if(isObserved()) {
+                setChanged();
+                notify(new BoardEvent((Tile) w0Tile.clone(), (Tile) w1Tile.clone()));
 
-            setChanged();
-            notify(new LoseEvent(loser.getNickname()));
+                setChanged();
+                notify(new LoseEvent(loser.getNickname()));
+            }
 
             // If there is only one player remaining, don't bother changing turn
             if (players.size() == 1) {
@@ -221,8 +265,10 @@ public class Game extends Observable {
      * Notify start of the game
      */
     public void startGame() {
-        setChanged();
-        notify(new StartGameEvent(getPlayerNicknamesList()));
+        if(isObserved()) {
+            setChanged();
+            notify(new StartGameEvent(getPlayerNicknamesList()));
+        }
     }
 
     public List<EGodPower> getPlayerCards() {
@@ -239,14 +285,18 @@ public class Game extends Observable {
             throw new IllegalArgumentException();
         }
         owner.setCard(EGodPower.getGodCard(card, owner, this));
-        setChanged();
-        notify(new CardEvent(card));
+        if(isObserved()) {
+            setChanged();
+            notify(new CardEvent(card));
+        }
     }
 
     public void setFirstPlayer(Player firstPlayer) {
         this.firstPlayer = firstPlayer;
-        setChanged();
-        notify(new SetFirstPlayerEvent(firstPlayer.getNickname()));
+        if(isObserved()) {
+            setChanged();
+            notify(new SetFirstPlayerEvent(firstPlayer.getNickname()));
+        }
     }
 
     /**
@@ -262,8 +312,10 @@ public class Game extends Observable {
         }
         Worker workerToPlace = player.getWorkers()[workerId];
         workerToPlace.setTile(tileToPlaceWorker);
-        setChanged();
-        notify(new BoardEvent(tileToPlaceWorker));
+        if(isObserved()) {
+            setChanged();
+            notify(new BoardEvent((Tile) tileToPlaceWorker.clone()));
+        }
     }
 
     /**
@@ -282,28 +334,36 @@ public class Game extends Observable {
      */
     public void pickCards(EGodPower selectedCard){
         if(selectedCard == null) {
-            setChanged();
-            notify(new ErrorEvent("Card cannot be null"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("Card cannot be null"));
+            }
             return;
         }
         if (!(selectedCards.contains(selectedCard))) {
             if (players.size() == 2 || selectedCard.isCompatibleWith3Players()) {
                 selectedCards.add(selectedCard);
-                setChanged();
-                notify(new CardEvent(selectedCard));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new CardEvent(selectedCard));
+                }
                 if (selectedCards.size() == players.size()) {
                     setCurrentPlayer(getNextPlayer());
                     setStartupPhase(EStartupPhase.DEALCARDS);
                 }
             }
             else {
-                setChanged();
-                notify(new ErrorEvent("This card is not compatible with 3 players!"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new ErrorEvent("This card is not compatible with 3 players!"));
+                }
             }
         }
         else {
-            setChanged();
-            notify(new ErrorEvent("This card has already been chosen!"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("This card has already been chosen!"));
+            }
         }
     }
 
@@ -314,8 +374,10 @@ public class Game extends Observable {
      */
     public void dealCards(EGodPower selectedCard){
         if(selectedCard == null) {
-            setChanged();
-            notify(new ErrorEvent("Card cannot be null"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("Card cannot be null"));
+            }
             return;
         }
         if (selectedCards.contains(selectedCard)) {
@@ -338,12 +400,16 @@ public class Game extends Observable {
             }
         }
         else if (playerCards.contains(selectedCard)) {
-            setChanged();
-            notify(new ErrorEvent("Somebody already chose that card!"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("Somebody already chose that card!"));
+            }
         }
         else {
-            setChanged();
-            notify(new ErrorEvent("Choose a card from the ones selected by the challenger!"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("Choose a card from the ones selected by the challenger!"));
+            }
         }
     }
 
@@ -353,8 +419,10 @@ public class Game extends Observable {
      */
     public void pickFirstPlayer(String nickname){
         if(nickname == null) {
-            setChanged();
-            notify(new ErrorEvent("The nick cannot be null"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("The nick cannot be null"));
+            }
             return;
         }
         for (Player player : players) {
@@ -365,8 +433,10 @@ public class Game extends Observable {
                 return;
             }
         }
-        setChanged();
-        notify(new ErrorEvent("The nick you indicated does not belong to any player in this game!"));
+        if(isObserved()) {
+            setChanged();
+            notify(new ErrorEvent("The nick you indicated does not belong to any player in this game!"));
+        }
     }
 
     /**
@@ -375,8 +445,10 @@ public class Game extends Observable {
      */
     public void placeFirstWorker(Position placement){
         if(placement == null) {
-            setChanged();
-            notify(new ErrorEvent("The position cannot be null"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("The position cannot be null"));
+            }
             return;
         }
         Tile tileToPlaceWorker = getBoard().getTile(placement);
@@ -386,8 +458,10 @@ public class Game extends Observable {
             setStartupPhase(EStartupPhase.PLACESECONDWORKER);
         }
         else {
-            setChanged();
-            notify(new ErrorEvent("The tile you chose is already occupied!"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("The tile you chose is already occupied!"));
+            }
         }
     }
 
@@ -412,8 +486,10 @@ public class Game extends Observable {
 
         }
         else {
-            setChanged();
-            notify(new ErrorEvent("The tile you chose is already occupied!"));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent("The tile you chose is already occupied!"));
+            }
         }
     }
 
@@ -426,11 +502,27 @@ public class Game extends Observable {
     public List<RemoteView> getRemoteViews() {
         List<RemoteView> remoteViews = new ArrayList<>();
         for(Player p : players) {
-            remoteViews.add(p.getRemoteView());
+            if(p.getRemoteView() != null) {
+                remoteViews.add(p.getRemoteView());
+            }
         }
         return remoteViews;
     }
 
+    /**
+     * A headless game has no {@code RemoteView}: the rules run exactly as usual, but since nothing observes
+     * the model no event is ever built.
+     * @return {@code true} if none of the players of this game has a {@code RemoteView}
+     */
+    public boolean isHeadless() {
+        for(Player p : players) {
+            if(p.getRemoteView() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public List<String> getPlayerNicknamesList() {
         return players.stream().map(Player::getNickname).collect(Collectors.toList());
     }
@@ -439,14 +531,240 @@ public class Game extends Observable {
      * Kill a game after detecting a disconnection.
      */
     public void abort() {
-        setChanged();
-        notify(new ErrorEvent("A disconnection took place. The game is cancelled!", false));
-        setChanged();
-        notify(new GameOverEvent());
+        if(isObserved()) {
+            setChanged();
+            notify(new ErrorEvent("A disconnection took place. The game is cancelled!", false));
+            setChanged();
+            notify(new GameOverEvent());
+        }
     }
 
     public List<EGodPower> getSelectedCards() {
         return selectedCards;
     }
 
+    /**
+     * Returns the {@link Zobrist} hash of the current position: building levels, domes, workers of each player,
+     * current player, turn phase, godpower flags of the cards and, once a worker has been selected, what the current
+     * player chose during the turn so far (see {@link Card#getTurnHash()}).
+     * The board part is kept up to date by the {@link BoardState}, so this method never scans the board; it changes nothing.
+     *
+     * @return The hash of the current position
+     */
+    public long getHash() {
+        BoardState state = board.getState();
+        long hash = state.getHash() ^ godPowerHash ^ Zobrist.phase(turnPhase);
+        int slot = state.findSlot(currentPlayer.getNickname());
+        if(slot >= 0) {
+            hash ^= Zobrist.sideToMove(slot);
+        }
+        Card card = currentPlayer.getCard();
+        if(card != null && turnPhase != ETurnPhase.WORKERSELECTION) {
+            hash ^= card.getTurnHash();
+        }
+        return hash;
+    }
+
+    /**
+     * Takes a snapshot of the current state of this game and publishes it, so that {@link #getSnapshot()} returns it.
+     * This must be called by the thread that is changing the game, or while holding the lock that protects it.
+     *
+     * @return The new snapshot, which shares its unchanged parts with the previous one
+     */
+    public GameSnapshot takeSnapshot() {
+        GameSnapshot taken = new GameSnapshot(this, snapshot);
+        snapshot = taken;
+        return taken;
+    }
+
+    /**
+     * Returns the last published snapshot of this game, taken at the last change of turn or of startup phase,
+     * or at the end of the game. It can be read from any thread without any lock.
+     *
+     * @return The last snapshot
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the moves of a worker according to the card of its owner, as {@code Playable#getMovesMask} does.
+     * The result is cached until the board or a godpower flag changes, so it can be asked for again at no cost.
+     *
+     * @param worker A worker placed on the board
+     * @return The mask of the squares (see {@link BoardState}) where the worker can move
+     */
+    public long getMovesMask(Worker worker) {
+        return legalMoves.get(worker, ETurnPhase.MOVE, board.getState().getVersion(), godPowerVersion);
+    }
+
+    /**
+     * Returns the builds of a worker according to the card of its owner, as {@code Playable#getBuildsMask} does.
+     * The result is cached until the board or a godpower flag changes, so it can be asked for again at no cost.
+     *
+     * @param worker A worker placed on the board
+     * @return The mask of the squares (see {@link BoardState}) where the worker can build
+     */
+    public long getBuildsMask(Worker worker) {
+        return legalMoves.get(worker, ETurnPhase.BUILD, board.getState().getVersion(), godPowerVersion);
+    }
+
+    /**
+     * Records that the godpower flag of the card of the specified player has been set or cleared.
+     * Cards call this every time their flag changes, so that {@link #getHash()} stays up to date.
+     *
+     * @param owner The owner of the card whose flag changed
+     */
+    public void flipGodPowerFlag(Player owner) {
+        godPowerVersion++;
+        int slot = board.getState().findSlot(owner.getNickname());
+        if(slot >= 0) {
+            godPowerHash ^= Zobrist.godPower(slot);
+        }
+    }
+
+    /**
+     * Applies an {@link Action} to this game, so that it can be reverted with {@link #undo()}.
+     *
+     * The action is applied silently: no rule is checked, no card is involved and no observer is notified.
+     * Only the board, the workers, the complete towers count, the current player and, at the end of a turn, the turn
+     * phase are changed.
+     * This is meant for search and analysis code, which has to walk through many positions in place.
+     *
+     * @param action An encoded action, it must be legal in the current position
+     */
+    public void apply(int action) {
+        BoardState state = board.getState();
+        int to = Action.to(action);
+        long undoInfo = 0L;
+
+        switch(Action.kind(action)) {
+            case Action.MOVE:
+                relocate(Action.from(action), to);
+                break;
+            case Action.SWAP:
+                swap(Action.from(action), to);
+                break;
+            case Action.PUSH:
+                relocate(to, Action.aux(action));
+                relocate(Action.from(action), to);
+                break;
+            case Action.BUILD:
+            case Action.DOME:
+                int height = state.getHeight(to);
+                boolean domed = state.isDomed(to);
+                undoInfo = height | (domed ? UNDO_DOMED : 0L);
+                if(!domed) {
+                    if(height == ETileLevel.LEVEL3.getHeight() || Action.kind(action) == Action.DOME) {
+                        state.setDomed(to, true);
+                        if(height == ETileLevel.LEVEL3.getHeight()) {
+                            completeTowers++;
+                            undoInfo |= UNDO_TOWER;
+                        }
+                    } else {
+                        state.setHeight(to, height + 1);
+                    }
+                }
+                break;
+            case Action.END_TURN:
+                int index = players.indexOf(currentPlayer);
+                undoInfo = index | (long) turnPhase.ordinal() << UNDO_PHASE_SHIFT;
+                currentPlayer = players.get((index + 1) % players.size());
+                // As a turn passed through the cards, so that the position hashes the same
+                turnPhase = ETurnPhase.WORKERSELECTION;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown action " + Action.toString(action));
+        }
+
+        if(historyLength == history.length) {
+            history = Arrays.copyOf(history, 2 * history.length);
+        }
+        history[historyLength++] = undoInfo << 32 | (action & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reverts the last {@link Action} applied with {@link #apply(int)}, as silently as it was applied
+     *
+     * @throws IllegalStateException if there is no action to revert
+     */
+    public void undo() {
+        if(historyLength == 0) {
+            throw new IllegalStateException("No action to undo");
+        }
+        long entry = history[--historyLength];
+        int action = (int) entry;
+        int undoInfo = (int) (entry >>> 32);
+        int to = Action.to(action);
+
+        switch(Action.kind(action)) {
+            case Action.MOVE:
+                relocate(to, Action.from(action));
+                break;
+            case Action.SWAP:
+                swap(to, Action.from(action));
+                break;
+            case Action.PUSH:
+                relocate(to, Action.from(action));
+                relocate(Action.aux(action), to);
+                break;
+            case Action.BUILD:
+            case Action.DOME:
+                BoardState state = board.getState();
+                state.setHeight(to, undoInfo & 3);
+                state.setDomed(to, (undoInfo & UNDO_DOMED) != 0);
+                if((undoInfo & UNDO_TOWER) != 0) {
+                    completeTowers--;
+                }
+                break;
+            default:
+                currentPlayer = players.get(undoInfo & UNDO_PLAYER_MASK);
+                turnPhase = ETurnPhase.values()[undoInfo >>> UNDO_PHASE_SHIFT];
+                break;
+        }
+    }
+
+    /**
+     * @return The number of actions applied with {@link #apply(int)} that can still be reverted
+     */
+    public int getHistoryLength() {
+        return historyLength;
+    }
+
+    /**
+     * @param index An index between 0 and {@code getHistoryLength() - 1}
+     * @return The index-th action applied with {@link #apply(int)} that has not been reverted yet
+     */
+    public int getHistoryAction(int index) {
+        if(index < 0 || index >= historyLength) {
+            throw new IllegalArgumentException("Invalid history index");
+        }
+        return (int) history[index];
+    }
+
+    private void relocate(int from, int to) {
+        BoardState state = board.getState();
+        Worker worker = state.getWorker(from);
+        if(worker == null) {
+            throw new IllegalArgumentException("No worker to move on square " + from);
+        }
+        state.setWorker(from, null);
+        state.setWorker(to, worker);
+        worker.place(board.getTile(to));
+    }
+
+    private void swap(int first, int second) {
+        BoardState state = board.getState();
+        Worker firstWorker = state.getWorker(first);
+        Worker secondWorker = state.getWorker(second);
+        state.setWorker(first, secondWorker);
+        state.setWorker(second, firstWorker);
+        if(firstWorker != null) {
+            firstWorker.place(board.getTile(second));
+        }
+        if(secondWorker != null) {
+            secondWorker.place(board.getTile(first));
+        }
+    }
+
 }
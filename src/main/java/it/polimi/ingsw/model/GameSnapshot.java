@@ -0,0 +1,266 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.controller.EStartupPhase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable picture of a {@code Game}: buildings, workers, cards and their godpower flags, current player,
+ * phases, complete towers and result. It can be read from any thread without synchronizing on the game.
+ *
+ * The board is kept as the bitboards of {@link BoardState} and the workers as packed squares, so a snapshot takes
+ * less than a hundred bytes. The players and their cards change rarely, so a snapshot shares them with the
+ * previous one whenever they did not change.
+ */
+public final class GameSnapshot {
+
+    private static final int SQUARE_BITS = 5;
+    private static final long SQUARE_MASK = (1L << SQUARE_BITS) - 1;
+
+    /**
+     * The players still in the game and their cards, shared among snapshots
+     */
+    private static final class Roster {
+
+        private final List<String> nicknames;
+        private final List<EGodPower> godPowers;
+
+        private Roster(List<String> nicknames, List<EGodPower> godPowers) {
+            this.nicknames = Collections.unmodifiableList(nicknames);
+            this.godPowers = Collections.unmodifiableList(godPowers);
+        }
+
+        private boolean matches(List<Player> players) {
+            if(players.size() != nicknames.size()) {
+                return false;
+            }
+            for(int i = 0; i < players.size(); i++) {
+                Player p = players.get(i);
+                if(!p.getNickname().equals(nicknames.get(i)) || godPowerOf(p) != godPowers.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+    private final Roster roster;
+    private final long domes;
+    private final long level1;
+    private final long level2;
+    private final long level3;
+    // For each player and worker, the square plus one, 0 if the worker is not on the board
+    private final long workers;
+    private final int godPowerFlags;
+    private final int currentPlayer;
+    private final ETurnPhase turnPhase;
+    private final EStartupPhase startupPhase;
+    private final int completeTowers;
+    private final boolean gameOver;
+    private final String winner;
+    private final long hash;
+
+    /**
+     * Takes a snapshot of a game. This must be called by the thread that is changing the game, or while holding
+     * the lock that protects it.
+     *
+     * @param game The game to take the snapshot of
+     * @param previous A previous snapshot of the same game, whose unchanged parts are shared, or {@code null}
+     */
+    GameSnapshot(Game game, GameSnapshot previous) {
+        List<Player> players = game.getPlayers();
+        if(previous != null && previous.roster.matches(players)) {
+            this.roster = previous.roster;
+        } else {
+            List<String> nicknames = new ArrayList<>();
+            List<EGodPower> godPowers = new ArrayList<>();
+            for(Player p : players) {
+                nicknames.add(p.getNickname());
+                godPowers.add(godPowerOf(p));
+            }
+            this.roster = new Roster(nicknames, godPowers);
+        }
+
+        BoardState state = game.getBoard().getState();
+        this.domes = state.getDomes();
+        this.level1 = state.getLevelMask(1);
+        this.level2 = state.getLevelMask(2);
+        this.level3 = state.getLevelMask(3);
+
+        long packedWorkers = 0L;
+        int flags = 0;
+        for(int i = 0; i < players.size(); i++) {
+            Player p = players.get(i);
+            for(Worker w : p.getWorkers()) {
+                if(w.getTile() != null) {
+                    packedWorkers |= (w.getTile().getSquare() + 1L) << (SQUARE_BITS * (2 * i + w.getId()));
+                }
+            }
+            if(p.getCard() != null && p.getCard().isUsedGodPower()) {
+                flags |= 1 << i;
+            }
+        }
+        this.workers = packedWorkers;
+        this.godPowerFlags = flags;
+
+        this.currentPlayer = players.indexOf(game.getCurrentPlayer());
+        this.turnPhase = game.getTurnPhase();
+        this.startupPhase = game.getStartupPhase();
+        this.completeTowers = game.getCompleteTowers();
+        this.gameOver = game.isGameOver();
+        this.winner = game.getWinner() == null ? null : game.getWinner().getNickname();
+        this.hash = game.getHash();
+    }
+
+    private static EGodPower godPowerOf(Player p) {
+        return p.getCard() == null ? null : p.getCard().getGodPower();
+    }
+
+    /**
+     * @return The nicknames of the players still in the game, in turn order
+     */
+    public List<String> getPlayers() {
+        return roster.nicknames;
+    }
+
+    /**
+     * @param player The index of a player in {@link #getPlayers()}
+     * @return The card of the player, {@code null} if it has not been dealt yet
+     */
+    public EGodPower getGodPower(int player) {
+        return roster.godPowers.get(player);
+    }
+
+    /**
+     * @param player The index of a player in {@link #getPlayers()}
+     * @return {@code true} if the godpower flag of the card of the player is set
+     */
+    public boolean isUsedGodPower(int player) {
+        return (godPowerFlags & 1 << player) != 0;
+    }
+
+    /**
+     * @return The index in {@link #getPlayers()} of the current player, -1 if there is none
+     */
+    public int getCurrentPlayerIndex() {
+        return currentPlayer;
+    }
+
+    /**
+     * @return The nickname of the current player, {@code null} if there is none
+     */
+    public String getCurrentPlayer() {
+        return currentPlayer < 0 ? null : roster.nicknames.get(currentPlayer);
+    }
+
+    /**
+     * @param player The index of a player in {@link #getPlayers()}
+     * @param workerId The id of the worker, 0 or 1
+     * @return The square where the worker stands, -1 if it is not on the board
+     */
+    public int getWorkerSquare(int player, int workerId) {
+        return (int) ((workers >>> (SQUARE_BITS * (2 * player + workerId))) & SQUARE_MASK) - 1;
+    }
+
+    /**
+     * @param player The index of a player in {@link #getPlayers()}
+     * @return The mask of the squares where the workers of the player stand
+     */
+    public long getWorkerMask(int player) {
+        long result = 0L;
+        for(int id = 0; id < 2; id++) {
+            int square = getWorkerSquare(player, id);
+            if(square >= 0) {
+                result |= BoardState.bit(square);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return The mask of the squares where a worker stands
+     */
+    public long getOccupied() {
+        long result = 0L;
+        for(int i = 0; i < roster.nicknames.size(); i++) {
+            result |= getWorkerMask(i);
+        }
+        return result;
+    }
+
+    /**
+     * @param height A height between 0 and 3
+     * @return The mask of the squares whose building is at least that high, as {@link BoardState#getLevelMask(int)}
+     */
+    public long getLevelMask(int height) {
+        switch(height) {
+            case 0:
+                return BoardState.FULL_MASK;
+            case 1:
+                return level1;
+            case 2:
+                return level2;
+            case 3:
+                return level3;
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * @return The mask of the domed squares
+     */
+    public long getDomes() {
+        return domes;
+    }
+
+    /**
+     * @param square A square index
+     * @return The height (0-3) of the building on the square
+     */
+    public int getHeight(int square) {
+        return (int) ((level1 >>> square) & 1) + (int) ((level2 >>> square) & 1) + (int) ((level3 >>> square) & 1);
+    }
+
+    /**
+     * @param square A square index
+     * @return {@code true} if the square is domed
+     */
+    public boolean isDomed(int square) {
+        return (domes & BoardState.bit(square)) != 0;
+    }
+
+    public ETurnPhase getTurnPhase() {
+        return turnPhase;
+    }
+
+    public EStartupPhase getStartupPhase() {
+        return startupPhase;
+    }
+
+    public int getCompleteTowers() {
+        return completeTowers;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * @return The nickname of the winner, {@code null} if the game is not over yet
+     */
+    public String getWinner() {
+        return winner;
+    }
+
+    /**
+     * @return The hash of the game when the snapshot was taken, see {@link Game#getHash()}
+     */
+    public long getHash() {
+        return hash;
+    }
+
+}
@@ -0,0 +1,62 @@
+package it.polimi.ingsw.model;
+
+/**
+ * Remembers the moves and the builds of each worker of a {@code Game}, as computed by the card of its owner.
+ *
+ * An entry is keyed by worker and phase ({@link ETurnPhase#MOVE} or {@link ETurnPhase#BUILD}), and stays valid as
+ * long as the {@link BoardState#getVersion() version} of the board, the godpower flags and the rules of the card
+ * (see {@link Playable#getPlayable()}) do not change. The board changes only through {@code Tile#buildOneLevel},
+ * {@code Tile#buildDome} and {@code Worker#moveWorker}, so repeated queries within a phase are answered without
+ * asking the card again.
+ */
+final class LegalMoveCache {
+
+    private static final int MAX_WORKERS = 2 * BoardState.MAX_PLAYERS;
+
+    private final Worker[] workers = new Worker[MAX_WORKERS];
+    private int size;
+
+    // Indexed by 2 * (index of the worker) + (0 for moves, 1 for builds)
+    private final boolean[] valid = new boolean[2 * MAX_WORKERS];
+    private final long[] boardVersions = new long[2 * MAX_WORKERS];
+    private final long[] flagVersions = new long[2 * MAX_WORKERS];
+    private final Playable[] rules = new Playable[2 * MAX_WORKERS];
+    private final long[] masks = new long[2 * MAX_WORKERS];
+
+    /**
+     * @param worker A worker placed on the board
+     * @param phase {@link ETurnPhase#MOVE} for the moves of the worker, {@link ETurnPhase#BUILD} for its builds
+     * @param boardVersion The current version of the board
+     * @param flagVersion A counter of the changes of the godpower flags
+     * @return The mask of the squares where the worker can move or build
+     */
+    long get(Worker worker, ETurnPhase phase, long boardVersion, long flagVersion) {
+        Playable playable = worker.getOwner().getCard().getPlayable();
+        int entry = 2 * indexOf(worker) + (phase == ETurnPhase.MOVE ? 0 : 1);
+
+        if(!valid[entry] || boardVersions[entry] != boardVersion || flagVersions[entry] != flagVersion || rules[entry] != playable) {
+            masks[entry] = phase == ETurnPhase.MOVE
+                    ? playable.getMovesMask(worker.getTile())
+                    : playable.getBuildsMask(worker.getTile());
+            valid[entry] = true;
+            boardVersions[entry] = boardVersion;
+            flagVersions[entry] = flagVersion;
+            rules[entry] = playable;
+        }
+        return masks[entry];
+    }
+
+    private int indexOf(Worker worker) {
+        for(int i = 0; i < size; i++) {
+            if(workers[i] == worker) {
+                return i;
+            }
+        }
+        if(size == MAX_WORKERS) {
+            throw new IllegalStateException("Too many workers");
+        }
+        workers[size] = worker;
+        return size++;
+    }
+
+}
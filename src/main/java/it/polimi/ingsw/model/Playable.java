@@ -4,8 +4,8 @@ import java.util.List;
 
 /**
  * This interface defines classes that can perform all game-related actions, allowing to play a turn completely.
- * All {@code Card} implement this, and all {@code CardDecorator} too. This allows the decorator to dynamically change
- * cards behaviours when they are attached to them.
+ * All {@code Card} implement this. The effects that the cards of the other players put on a card, its
+ * {@code CardDecorator}, are compiled into another {@code Playable} that changes its behaviour, see {@link #getPlayable()}.
  */
 public interface Playable {
 
@@ -64,20 +64,51 @@ public interface Playable {
     List<Tile> getTilesToBuild();
 
     /**
-     * Check for winning conditions met in this turn. Generally called in {@code Card#move}.
+     * Generate all possible moves from a starting {@code Tile} taking into account this {@code Card} rules
+     * of movement, without allocating anything.
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares (see {@link BoardState}) where the worker can move
      */
-    void checkWinCondition();
+    long getMovesMask(Tile tile);
 
     /**
-     * @return This {@code Card} decorator or this {@code CardDecorator} wrappee.
+     * Generate all possible builds from a starting {@code Tile} taking into account this {@code Card} rules
+     * of building, without allocating anything.
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares (see {@link BoardState}) where the worker can build
      */
-    Playable getPlayable();
+    long getBuildsMask(Tile tile);
 
     /**
-     * Set this {@code Card} decorator or this {@code CardDecorator} wrappee.
-     * @param decorator A {@code Playable}
+     * Writes the squares where the worker can move into the specified buffer, in ascending order.
+     * @param tile The tile where the worker is currently placed
+     * @param buffer The buffer to fill, 8 values are always enough
+     * @return The number of squares written into the buffer
      */
-    void setPlayable(Playable decorator);
+    default int getTilesToMove(Tile tile, int[] buffer) {
+        return BoardState.toSquares(getMovesMask(tile), buffer);
+    }
+
+    /**
+     * Writes the squares where the worker can build into the specified buffer, in ascending order.
+     * @param tile The tile where the worker is currently placed
+     * @param buffer The buffer to fill, 9 values are always enough
+     * @return The number of squares written into the buffer
+     */
+    default int getTilesToBuild(Tile tile, int[] buffer) {
+        return BoardState.toSquares(getBuildsMask(tile), buffer);
+    }
+
+    /**
+     * Check for winning conditions met in this turn. Generally called in {@code Card#move}.
+     */
+    void checkWinCondition();
+
+    /**
+     * @return The {@code Playable} to play this {@code Card} with: the card itself, or the compiled rules of its
+     * {@code CardDecorator} if the other players have any effect on it.
+     */
+    Playable getPlayable();
 
     /**
      * Set if it is still possible to change selected worker.
@@ -11,6 +11,7 @@ public class Player {
     private Worker[] workers;
     private Card card;
     private RemoteView remoteView;
+    private String nickname;
 
 
     /**
@@ -28,6 +29,26 @@ public class Player {
         workers[1] = new Worker(this, 1);
     }
 
+    private Player(String nickname) {
+        this.nickname = nickname;
+        this.workers = new Worker[2];
+        workers[0] = new Worker(this, 0);
+        workers[1] = new Worker(this, 1);
+    }
+
+    /**
+     * Makes a {@code Player} object with no server-side view component, for games that nobody watches
+     * (see {@code GameFactory#buildHeadlessGame}).
+     * @param nickname  the unique nickname of the player
+     * @return the new player
+     */
+    public static Player headless(String nickname) {
+        if(nickname == null) {
+            throw new IllegalArgumentException("Nickname cannot be null");
+        }
+        return new Player(nickname);
+    }
+
     public Worker[] getWorkers() {
         return workers;
     }
@@ -36,6 +57,9 @@ public class Player {
         return this.card;
     }
 
+    /**
+     * @return the server-side view component associated to this player, {@code null} if this player has none
+     */
     public RemoteView getRemoteView() {
         return this.remoteView;
     }
@@ -45,7 +69,7 @@ public class Player {
      * @return the unique nickname of the player
      */
     public String getNickname() {
-        return remoteView.getNickname();
+        return remoteView != null ? remoteView.getNickname() : nickname;
     }
 
     public void setCard(Card card) {
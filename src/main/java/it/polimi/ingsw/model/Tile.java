@@ -2,6 +2,10 @@ package it.polimi.ingsw.model;
 
 import it.polimi.ingsw.network.events.BoardEvent;
 import it.polimi.ingsw.network.Observable;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 /**
@@ -10,14 +14,21 @@ import java.io.Serializable;
  * A {@code Tile} should belong to one and only one {@code Board}, but does not know which {@code Board}.
  * A {@code Tile} may have one {@code Worker} standing on itself (no more than one) and has a building, whose height is represented by a {@link ETileLevel} value.
  * A dome may be built on the {@code Tile}. The presence of a dome prevents any further building on the {@code Tile}.
+ *
+ * A {@code Tile} is a view over one square of a {@link BoardState}: worker, dome and level are read from and written to it.
+ * A {@code Tile} created on its own (or cloned, or deserialized) is detached: it keeps its worker, dome and level in
+ * fields of its own until it is put on a {@code Board}.
  */
 public class Tile extends Observable implements Serializable {
 
     private int row;
     private int column;
-    private Worker worker;
-    private boolean domed;
-    private ETileLevel level;
+    private transient BoardState state;
+    private transient int square;
+    // The content of a detached tile, used only while state is null
+    private transient Worker worker;
+    private transient int height;
+    private transient boolean domed;
 
     /**
      * Initializes a newly created {@code Tile}, so that it is at the specified row and column, has no {@code Worker}
@@ -27,6 +38,17 @@ public class Tile extends Observable implements Serializable {
      * @param col The column index on which to place this {@code Tile}
      */
     public Tile(int row, int col) {
+        this(null, row, col);
+    }
+
+    /**
+     * Initializes a newly created {@code Tile} as a view over the square at the specified row and column of the given state
+     *
+     * @param state The state backing this {@code Tile}, {@code null} for a detached {@code Tile}
+     * @param row The row index on which to place this {@code Tile}
+     * @param col The column index on which to place this {@code Tile}
+     */
+    Tile(BoardState state, int row, int col) {
 
         if (row > 4 || row < 0 || col < 0 || col > 4) {
             throw new IllegalArgumentException("Invalid index values");
@@ -34,9 +56,8 @@ public class Tile extends Observable implements Serializable {
         else {
             this.row = row;
             this.column = col;
-            worker = null;
-            domed = false;
-            level = ETileLevel.GROUND;
+            this.square = BoardState.square(row, col);
+            this.state = state;
         }
 
     }
@@ -55,9 +76,7 @@ public class Tile extends Observable implements Serializable {
 
         this.row = position.getRow();
         this.column = position.getCol();
-        worker = null;
-        domed = false;
-        level = ETileLevel.GROUND;
+        this.square = BoardState.square(row, column);
 
     }
 
@@ -65,7 +84,7 @@ public class Tile extends Observable implements Serializable {
      * @return The {@code Worker} that's on this {@code Tile}, {@code null} if no {@code Worker} occupies this {@code Tile}
      */
     public Worker getWorker() {
-        return this.worker;
+        return state == null ? worker : state.getWorker(square);
     }
 
     /**
@@ -82,32 +101,80 @@ public class Tile extends Observable implements Serializable {
         return this.column;
     }
 
+    /**
+     * @return The square index (0-24) of this {@code Tile} on the {@code Board}
+     */
+    public int getSquare() {
+        return this.square;
+    }
+
+    /**
+     * Copies the content of this {@code Tile} into the specified state and makes this {@code Tile} a view over it
+     *
+     * @param newState The state that will back this {@code Tile}
+     */
+    void bind(BoardState newState) {
+        if(newState == state) {
+            return;
+        }
+        newState.setHeight(square, getHeight());
+        newState.setDomed(square, isDomed());
+        newState.setWorker(square, getWorker());
+        this.state = newState;
+        this.worker = null;
+    }
+
+    /**
+     * Copies the content of this {@code Tile} into its own fields, so that it is no longer a view over a state
+     */
+    void detach() {
+        if(state == null) {
+            return;
+        }
+        this.worker = getWorker();
+        this.height = getHeight();
+        this.domed = isDomed();
+        this.state = null;
+    }
+
     /**
      * @param worker The worker that moves onto this {@code Tile}
      */
     public void setWorker(Worker worker) {
-        this.worker = worker;
+        if(state == null) {
+            this.worker = worker;
+        } else {
+            state.setWorker(square, worker);
+        }
     }
 
     /**
      * @return {@code true} if a dome has been built on this {@code Tile}, {@code false} otherwise
      */
     public boolean isDomed() {
-        return this.domed;
+        return state == null ? domed : state.isDomed(square);
     }
 
     /**
      * @return The {@link ETileLevel} value representing the height of the building on this {@code Tile}
      */
     public ETileLevel getLevel() {
-        return this.level;
+        return ETileLevel.fromHeight(getHeight());
+    }
+
+    private int getHeight() {
+        return state == null ? height : state.getHeight(square);
     }
 
     /**
      * @param level The new {@link ETileLevel} value of the building on this {@code Tile}
      */
     public void setLevel(ETileLevel level) {
-        this.level = level;
+        if(state == null) {
+            this.height = level.getHeight();
+        } else {
+            state.setHeight(square, level.getHeight());
+        }
     }
 
     /**
@@ -136,8 +203,10 @@ public class Tile extends Observable implements Serializable {
         else {
             setLevel(currentLevel.getNextValue());
 
-            setChanged();
-            notify(new BoardEvent((Tile) this.clone()));
+            if(isObserved()) {
+                setChanged();
+                notify(new BoardEvent((Tile) this.clone()));
+            }
         }
     }
 
@@ -148,30 +217,33 @@ public class Tile extends Observable implements Serializable {
         if(isDomed()) {
             return;
         }
-        this.domed = true;
-        setChanged();
-        notify(new BoardEvent((Tile) this.clone()));
+        setDomed(true);
+        if(isObserved()) {
+            setChanged();
+            notify(new BoardEvent((Tile) this.clone()));
+        }
     }
 
     public void setDomed(boolean b) {
-        this.domed = b;
+        if(state == null) {
+            this.domed = b;
+        } else {
+            state.setDomed(square, b);
+        }
     }
 
     /**
      * @return Indicates if this tile is on the perimeter of the {@code Board}
      */
     public boolean isPerimetralTile() {
-        return (row == 0 || row == 4 || column == 0 || column == 4);
+        return BoardGeometry.isPerimeter(square);
     }
 
     /**
      * @return Indicates if this tile is a corner of the {@code Board}
      */
     public boolean isCornerTile() {
-        return (   row == 0 && column == 0
-                || row == 0 && column == 4
-                || row == 4 && column == 0
-                || row == 4 && column == 4);
+        return BoardGeometry.isCorner(square);
     }
 
     /**
@@ -187,23 +259,39 @@ public class Tile extends Observable implements Serializable {
         if(t2 == null) {
             throw new IllegalArgumentException("Second tile to compare is null");
         }
-        return t1.getLevel().getHeight() - t2.getLevel().getHeight();
+        return t1.getHeight() - t2.getHeight();
     }
 
     public boolean hasWorker() {
-        return this.worker != null;
+        return state == null ? worker != null : (state.getOccupied() & BoardState.bit(square)) != 0;
     }
 
     @Override
     public Object clone(){
         Tile clone = new Tile(this.row, this.column);
-        clone.setWorker(this.worker);
-        clone.setDomed(isDomed());
-        clone.setLevel(this.level);
+        clone.worker = getWorker();
+        clone.domed = isDomed();
+        clone.height = getHeight();
 
         return clone;
     }
 
+    // Only the content of this square is serialized, not the whole backing state
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeObject(getWorker());
+        out.writeBoolean(isDomed());
+        out.writeInt(getHeight());
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.square = BoardState.square(row, column);
+        this.worker = (Worker) in.readObject();
+        this.domed = in.readBoolean();
+        this.height = in.readInt();
+    }
+
     @Override
     public String toString() {
         return this.getPosition().toString();
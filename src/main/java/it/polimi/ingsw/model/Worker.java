@@ -48,6 +48,15 @@ public class Worker extends Observable implements Serializable {
         this.tile = tile;
     }
 
+    /**
+     * Only updates the Tile known by this Worker, the Tile itself is left untouched and no observer is notified.
+     * It is used by {@link Game#apply(int)} and {@link Game#undo()}, which update the {@link BoardState} themselves.
+     * @param tile The Tile on which this Worker is placed
+     */
+    void place(Tile tile) {
+        this.tile = tile;
+    }
+
     /**
      * @return The position of this {@code Worker} on the {@code Board}
      */
@@ -100,8 +109,10 @@ public class Worker extends Observable implements Serializable {
             this.setTile(destTile);
             this.getTile().setWorker(this);
 
-            setChanged();
-            notify(new BoardEvent((Tile) originTile.clone(),(Tile) destTile.clone()));
+            if(isObserved()) {
+                setChanged();
+                notify(new BoardEvent((Tile) originTile.clone(),(Tile) destTile.clone()));
+            }
         }
 
     }
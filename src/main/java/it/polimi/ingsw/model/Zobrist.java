@@ -0,0 +1,170 @@
+package it.polimi.ingsw.model;
+
+import java.util.SplittableRandom;
+
+import static it.polimi.ingsw.model.BoardState.MAX_PLAYERS;
+import static it.polimi.ingsw.model.BoardState.SQUARES;
+
+/**
+ * The {@code Zobrist} class holds the random keys used to hash a position: the hash of a position is the xor of the keys
+ * of all its features (building levels, domes, workers of each player slot, side to move, turn phase, godpower flags
+ * and the choices taken during the current turn).
+ *
+ * Since xor is its own inverse, the hash is updated incrementally by xoring the keys of the features that change.
+ * The keys are generated from a fixed seed, so that hashes can be compared across runs.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+        // Private constructor will prevent the instantiation of this class
+    }
+
+    private static final long SEED = 0x5A4E_7031_A9E2_2020L;
+
+    private static final int MAX_HEIGHT = ETileLevel.LEVEL3.getHeight();
+
+    private static final long[][] LEVEL_KEYS = new long[MAX_HEIGHT + 1][SQUARES];
+    private static final long[] DOME_KEYS = new long[SQUARES];
+    private static final long[][] WORKER_KEYS = new long[MAX_PLAYERS][SQUARES];
+    private static final long[] SIDE_KEYS = new long[MAX_PLAYERS];
+    private static final long[] PHASE_KEYS = new long[ETurnPhase.values().length];
+    private static final long[] GOD_POWER_KEYS = new long[MAX_PLAYERS];
+    private static final long[] SELECTED_WORKER_KEYS = new long[SQUARES];
+    private static final long[] STARTING_SQUARE_KEYS = new long[SQUARES];
+    private static final long[] TURN_SQUARE_KEYS = new long[SQUARES];
+    private static final long[] TURN_FLAG_KEYS = new long[2];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+
+        // Ground level has no key, so that the empty board hashes to 0
+        for(int h = 1; h <= MAX_HEIGHT; h++) {
+            fill(LEVEL_KEYS[h], random);
+        }
+        fill(DOME_KEYS, random);
+        for(int slot = 0; slot < MAX_PLAYERS; slot++) {
+            fill(WORKER_KEYS[slot], random);
+        }
+        fill(SIDE_KEYS, random);
+        fill(PHASE_KEYS, random);
+        fill(GOD_POWER_KEYS, random);
+        fill(SELECTED_WORKER_KEYS, random);
+        fill(STARTING_SQUARE_KEYS, random);
+        fill(TURN_SQUARE_KEYS, random);
+        fill(TURN_FLAG_KEYS, random);
+    }
+
+    private static void fill(long[] keys, SplittableRandom random) {
+        for(int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * @param square A square index
+     * @param height A building height, from 0 to 3
+     * @return The key of a building of the specified height on the specified square, 0 for the ground level
+     */
+    public static long level(int square, int height) {
+        return LEVEL_KEYS[height][square];
+    }
+
+    /**
+     * @param square A square index
+     * @return The key of a dome on the specified square
+     */
+    public static long dome(int square) {
+        return DOME_KEYS[square];
+    }
+
+    /**
+     * @param slot A player slot (see {@link BoardState#assignSlots(java.util.List)})
+     * @param square A square index
+     * @return The key of a worker of the player in the specified slot standing on the specified square
+     */
+    public static long worker(int slot, int square) {
+        return WORKER_KEYS[slot][square];
+    }
+
+    /**
+     * @param slot A player slot (see {@link BoardState#assignSlots(java.util.List)})
+     * @return The key of the player in the specified slot being the current player
+     */
+    public static long sideToMove(int slot) {
+        return SIDE_KEYS[slot];
+    }
+
+    /**
+     * @param phase A turn phase
+     * @return The key of the specified turn phase
+     */
+    public static long phase(ETurnPhase phase) {
+        return PHASE_KEYS[phase.ordinal()];
+    }
+
+    /**
+     * @param slot A player slot (see {@link BoardState#assignSlots(java.util.List)})
+     * @return The key of the godpower flag of the card of the player in the specified slot being set
+     */
+    public static long godPower(int slot) {
+        return GOD_POWER_KEYS[slot];
+    }
+
+    /**
+     * @param square A square index
+     * @return The key of the worker selected for the current turn standing on the specified square
+     */
+    public static long selectedWorker(int square) {
+        return SELECTED_WORKER_KEYS[square];
+    }
+
+    /**
+     * @param square A square index
+     * @return The key of the selected worker having started the current turn on the specified square
+     */
+    public static long startingSquare(int square) {
+        return STARTING_SQUARE_KEYS[square];
+    }
+
+    /**
+     * @param square A square index
+     * @return The key of the square a card remembers during the current turn, such as the one it built on first
+     */
+    public static long turnSquare(int square) {
+        return TURN_SQUARE_KEYS[square];
+    }
+
+    /**
+     * @param flag The index (0 or 1) of a flag a card keeps during the current turn
+     * @return The key of the flag being set
+     */
+    public static long turnFlag(int flag) {
+        return TURN_FLAG_KEYS[flag];
+    }
+
+    /**
+     * Computes the hash of the specified state from scratch. It always equals {@link BoardState#getHash()},
+     * which is kept up to date incrementally instead.
+     *
+     * @param state A board state
+     * @return The hash of the levels, domes and workers of the specified state
+     */
+    public static long hashOf(BoardState state) {
+        long hash = 0L;
+        for(int s = 0; s < SQUARES; s++) {
+            hash ^= level(s, state.getHeight(s));
+            if(state.isDomed(s)) {
+                hash ^= dome(s);
+            }
+        }
+        for(int slot = 0; slot < MAX_PLAYERS; slot++) {
+            long workers = state.getWorkerMask(slot);
+            while(workers != 0) {
+                hash ^= worker(slot, Long.numberOfTrailingZeros(workers));
+                workers &= workers - 1;
+            }
+        }
+        return hash;
+    }
+
+}
@@ -1,12 +1,12 @@
 package it.polimi.ingsw.model.cards;
 
+import it.polimi.ingsw.model.BoardGeometry;
+import it.polimi.ingsw.model.BoardState;
 import it.polimi.ingsw.model.EGodPower;
 import it.polimi.ingsw.model.Game;
 import it.polimi.ingsw.model.Player;
 import it.polimi.ingsw.model.Tile;
 
-import java.util.List;
-
 /**
  * {@link EGodPower#APOLLO}
  */
@@ -26,15 +26,17 @@ public class ApolloCard extends Card {
      * @return
      */
     @Override
-    public List<Tile> getTilesToMove(Tile tile) {
-        List<Tile> result = game.getBoard().getSurroundingTiles(tile.getPosition());
-
-        //Eliminiamo le tile con la cupola o troppo in alto
-        result.removeIf(t -> Tile.heightDifference(t, tile) > 1
-                || t.isDomed()
-                || (t.getWorker() != null && t.getWorker().getOwner() == this.owner));
-
-        return result;
+    public long getMovesMask(Tile tile) {
+        if(tile == null) {
+            throw new IllegalArgumentException("Tile cannot be null");
+        }
+        BoardState state = game.getBoard().getState();
+
+        //Teniamo solo le tile senza cupola, non troppo in alto e non occupate da un nostro Worker
+        return BoardGeometry.neighbourMask(tile.getSquare())
+                & ~state.getDomes()
+                & ~state.getLevelMask(tile.getLevel().getHeight() + 2)
+                & ~getOwnerWorkersMask();
     }
 
 }
@@ -40,10 +40,10 @@ public class ArtemisCard extends Card {
      * @return
      */
     @Override
-    public List<Tile> getTilesToMove(Tile tile){
-        List<Tile> result = super.getTilesToMove(tile);
-        if(usedGodPower) {
-            result.remove(this.workerSelectionTile);
+    public long getMovesMask(Tile tile){
+        long result = super.getMovesMask(tile);
+        if(usedGodPower && this.workerSelectionTile != null) {
+            result &= ~BoardState.bit(this.workerSelectionTile.getSquare());
         }
         return result;
     }
@@ -64,21 +64,23 @@ public class ArtemisCard extends Card {
             case MOVE:
                 if (!usedGodPower) {
                     // Simulate god power usage
-                    usedGodPower = true;
-                    tilesToMove = decorator.getTilesToMove(selectedWorker.getTile());
-                    usedGodPower = false;
+                    setUsedGodPower(true);
+                    tilesToMove = game.getBoard().getTiles(game.getMovesMask(selectedWorker));
+                    setUsedGodPower(false);
                     if(!(tilesToMove.isEmpty())) {
 
                         game.setTurnPhase(ETurnPhase.GODPOWER);
 
-                        setChanged();
-                        notify(new HighlightEvent(selectedWorker.getPosition()));
+                        if(isObserved()) {
+                            setChanged();
+                            notify(new HighlightEvent(selectedWorker.getPosition()));
 
-                        setChanged();
-                        notify(new ChoiceEvent("Choose your next action", "Move", "Build"));
+                            setChanged();
+                            notify(new ChoiceEvent("Choose your next action", "Move", "Build"));
 
-                        setChanged();
-                        notify(new TurnPhaseEvent(game.getTurnPhase()));
+                            setChanged();
+                            notify(new TurnPhaseEvent(game.getTurnPhase()));
+                        }
 
                     } else {
                         game.setTurnPhase();
@@ -89,7 +91,7 @@ public class ArtemisCard extends Card {
                     game.setTurnPhase();
 
                     // Reset for next turn
-                    usedGodPower = false;
+                    setUsedGodPower(false);
                 }
                 break;
             case GODPOWER:
@@ -97,13 +99,17 @@ public class ArtemisCard extends Card {
                     game.setTurnPhase(ETurnPhase.MOVE);
                     startingTile = selectedWorker.getTile();
 
-                    setChanged();
-                    notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will move again from " + selectedWorker.getPosition().toString()));
+                    if(isObserved()) {
+                        setChanged();
+                        notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will move again from " + selectedWorker.getPosition().toString()));
+                    }
                 } else {
                     game.setTurnPhase(ETurnPhase.BUILD);
 
-                    setChanged();
-                    notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                    if(isObserved()) {
+                        setChanged();
+                        notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                    }
                 }
                 break;
             default:
@@ -112,4 +118,13 @@ public class ArtemisCard extends Card {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * The tile the worker started from, where it cannot move back, is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return super.getTurnHash() ^ turnSquareKey(workerSelectionTile);
+    }
+}
@@ -33,26 +33,37 @@ public class AthenaCard extends Card {
         if(tilesToMove.contains(destinationTile)) {
 
             if(Tile.heightDifference(destinationTile, startingTile) > 0 && !usedGodPower) {
-                for (Player p : game.getPlayers()) {
-                    if (p != this.owner) {
-                        AthenaCardDecorator malus = new AthenaCardDecorator(p.getCard());
-
-                        activeDecorators.add(malus);
-                        usedGodPower = true;
-                    }
-                }
+                activateMalus();
             }
             else if (Tile.heightDifference(destinationTile, startingTile) <= 0 && usedGodPower){
                 for (AthenaCardDecorator malus : activeDecorators) {
                     malus.detach();
                 }
                 activeDecorators.clear();
-                usedGodPower = false;
+                setUsedGodPower(false);
             }
 
         }
     }
 
+    /**
+     * Attaches Athena's malus to the cards of the other players, as happens when one of her workers moves up.
+     * Besides {@link #move(Tile)}, this is used to rebuild a game in which the malus is active.
+     */
+    public void activateMalus() {
+        if(usedGodPower) {
+            return;
+        }
+        for (Player p : game.getPlayers()) {
+            if (p != this.owner) {
+                AthenaCardDecorator malus = new AthenaCardDecorator(p.getCard());
+
+                activeDecorators.add(malus);
+                setUsedGodPower(true);
+            }
+        }
+    }
+
     /**
      * This method overrides Card#destroy()
      * When Athena's owner loses, we have to detach all decorators so that her malus isn't applied anymore.
@@ -1,9 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
 import it.polimi.ingsw.model.EGodPower;
-import it.polimi.ingsw.model.Tile;
-
-import java.util.List;
 
 /**
  * {@link EGodPower#ATHENA}
@@ -15,19 +12,13 @@ public class AthenaCardDecorator extends CardDecorator {
     }
 
     /**
-     * This method overrides CardDecorator#getTilesToMove()
-     * Since Athena godpower is active, we remove all tiles higher than the starting one from the list of possible moves
-     *{@inheritDoc}
+     * Since Athena godpower is active, all tiles higher than the starting one are removed from the possible moves
+     * {@inheritDoc}
      *
-     * @param tile The tile where the worker is currently placed
-     * @return All possible moves considering Athena's malus
+     * @param rules The rules being compiled
      */
     @Override
-    public List<Tile> getTilesToMove(Tile tile) {
-        List<Tile> tilesToMove = super.getTilesToMove(tile);
-
-        tilesToMove.removeIf(possibleMove -> Tile.heightDifference(possibleMove, tile) > 0);
-
-        return tilesToMove;
+    void compile(CardRules rules) {
+        rules.forbidMoveUp();
     }
 }
@@ -31,15 +31,19 @@ public class AtlasCard extends Card {
                 // We invoke super to increase complete towers count
                 super.build(builtTile);
             } else {
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided to build on " + builtTile.getPosition().toString()));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided to build on " + builtTile.getPosition().toString()));
+                }
 
                 setTurnPhase();
             }
         }
         else {
-            setChanged();
-            notify(new ErrorEvent(NOT_VALID_BUILD_SELECTION_WARNING));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent(NOT_VALID_BUILD_SELECTION_WARNING));
+            }
         }
     }
 
@@ -54,14 +58,18 @@ public class AtlasCard extends Card {
         if (isUsed) {
             builtTile.buildDome();
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and built a dome on " + builtTile.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and built a dome on " + builtTile.getPosition().toString()));
+            }
         }
         else {
             builtTile.buildOneLevel();
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power and built a level on " + builtTile.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power and built a level on " + builtTile.getPosition().toString()));
+            }
         }
 
         super.useGodPower(isUsed);
@@ -86,12 +94,14 @@ public class AtlasCard extends Card {
             }
             else {
                 game.setTurnPhase(ETurnPhase.GODPOWER);
-                setChanged();
-                notify(new HighlightEvent(builtTile.getPosition()));
-                setChanged();
-                notify(new ChoiceEvent("Do you want to build a dome in this tile?", "Yes", "No"));
-                setChanged();
-                notify(new TurnPhaseEvent(game.getTurnPhase()));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new HighlightEvent(builtTile.getPosition()));
+                    setChanged();
+                    notify(new ChoiceEvent("Do you want to build a dome in this tile?", "Yes", "No"));
+                    setChanged();
+                    notify(new TurnPhaseEvent(game.getTurnPhase()));
+                }
             }
         } else if (game.getTurnPhase() == ETurnPhase.GODPOWER) {
             // Avoid render() action in Card#useGodPower()
@@ -102,4 +112,13 @@ public class AtlasCard extends Card {
         }
     }
 
+    /**
+     * The tile the worker is building on is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return super.getTurnHash() ^ turnSquareKey(builtTile);
+    }
 }
@@ -22,11 +22,12 @@ import static it.polimi.ingsw.model.Constants.*;
  */
 public abstract class Card extends Observable implements Playable {
 
-    protected static EGodPower godPower;
+    protected EGodPower godPower;
     protected Player owner;
 
     protected Game game;
     protected Playable decorator;
+    private final List<CardDecorator> decorators = new ArrayList<>();
 
     protected Worker selectedWorker;
     protected List<Tile> tilesToMove;
@@ -82,14 +83,18 @@ public abstract class Card extends Observable implements Playable {
             this.startingTile = selectedWorker.getTile();
             setCanChangeWorkerSelection(true);
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " selected worker on " + selectedWorker.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " selected worker on " + selectedWorker.getPosition().toString()));
+            }
 
             setTurnPhase();
             render();
         } else {
-            setChanged();
-            notify(new ErrorEvent(NOT_VALID_WORKER_SELECTION_WARNING));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent(NOT_VALID_WORKER_SELECTION_WARNING));
+            }
         }
     }
 
@@ -102,8 +107,10 @@ public abstract class Card extends Observable implements Playable {
         if (tilesToMove.contains(destinationTile)) {
             selectedWorker.moveWorker(destinationTile);
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " moved to " + selectedWorker.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " moved to " + selectedWorker.getPosition().toString()));
+            }
 
             // Hera can suppress the win condition
             decorator.checkWinCondition();
@@ -122,8 +129,10 @@ public abstract class Card extends Observable implements Playable {
             selectWorker(destinationTile.getWorker());
 
         } else {
-            setChanged();
-            notify(new ErrorEvent(NOT_VALID_MOVE_SELECTION_WARNING));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent(NOT_VALID_MOVE_SELECTION_WARNING));
+            }
         }
     }
 
@@ -136,8 +145,10 @@ public abstract class Card extends Observable implements Playable {
         if (tilesToBuild.contains(builtTile)) {
             builtTile.buildOneLevel();
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " built on " + builtTile.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " built on " + builtTile.getPosition().toString()));
+            }
 
             setCanChangeWorkerSelection(false);
             if (builtTile.getLevel() == ETileLevel.LEVEL3 && builtTile.isDomed()) {
@@ -153,8 +164,10 @@ public abstract class Card extends Observable implements Playable {
             selectWorker(builtTile.getWorker());
 
         } else {
-            setChanged();
-            notify(new ErrorEvent(NOT_VALID_BUILD_SELECTION_WARNING));
+            if(isObserved()) {
+                setChanged();
+                notify(new ErrorEvent(NOT_VALID_BUILD_SELECTION_WARNING));
+            }
         }
     }
 
@@ -164,7 +177,7 @@ public abstract class Card extends Observable implements Playable {
      */
     @Override
     public void useGodPower(boolean isUsed) {
-        this.usedGodPower = isUsed;
+        setUsedGodPower(isUsed);
 
         setTurnPhase();
         render();
@@ -177,17 +190,25 @@ public abstract class Card extends Observable implements Playable {
      */
     @Override
     public List<Tile> getTilesToMove(Tile tile) {
+        return game.getBoard().getTiles(getMovesMask(tile));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares where the worker can move
+     */
+    @Override
+    public long getMovesMask(Tile tile) {
         if(tile == null) {
             throw new IllegalArgumentException("Tile cannot be null");
         }
-        List<Tile> result = game.getBoard().getSurroundingTiles(tile.getPosition());
-
-        //Eliminiamo le tile con la cupola, occupate da un altro Worker o troppo in alto
-        result.removeIf(t -> Tile.heightDifference(t, tile) > 1
-                || t.getWorker() != null
-                || t.isDomed());
+        BoardState state = game.getBoard().getState();
 
-        return result;
+        //Teniamo solo le tile senza cupola, libere e non troppo in alto
+        return BoardGeometry.neighbourMask(tile.getSquare())
+                & ~state.getBlocked()
+                & ~state.getLevelMask(tile.getLevel().getHeight() + 2);
     }
 
     public List<Tile> getTilesToMove() {
@@ -201,16 +222,22 @@ public abstract class Card extends Observable implements Playable {
      */
     @Override
     public List<Tile> getTilesToBuild(Tile tile) {
+        return game.getBoard().getTiles(getBuildsMask(tile));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares where the worker can build
+     */
+    @Override
+    public long getBuildsMask(Tile tile) {
         if(tile == null) {
             throw new IllegalArgumentException("Tile cannot be null");
         }
-        List<Tile> result = game.getBoard().getSurroundingTiles(tile.getPosition());
 
-        //Eliminiamo le tile con la cupola o occupate da un altro Worker
-        result.removeIf(t -> t.getWorker() != null
-                || t.isDomed());
-
-        return result;
+        //Teniamo solo le tile senza cupola e libere
+        return BoardGeometry.neighbourMask(tile.getSquare()) & ~game.getBoard().getState().getBlocked();
     }
 
     /**
@@ -245,12 +272,93 @@ public abstract class Card extends Observable implements Playable {
     }
 
     /**
-     * {@inheritDoc}
-     * @param decorator A {@code Playable}
+     * Adds an effect of another card to this one and compiles the rules again
+     * @param cardDecorator The decorator being attached
      */
-    @Override
-    public void setPlayable(Playable decorator){
-        this.decorator = decorator;
+    void addDecorator(CardDecorator cardDecorator) {
+        decorators.add(cardDecorator);
+        compileRules();
+    }
+
+    /**
+     * Removes an effect of another card from this one and compiles the rules again
+     * @param cardDecorator The decorator being detached
+     */
+    void removeDecorator(CardDecorator cardDecorator) {
+        decorators.remove(cardDecorator);
+        compileRules();
+    }
+
+    // Without decorators the card plays by itself, with no forwarding at all
+    private void compileRules() {
+        this.decorator = decorators.isEmpty() ? this : new CardRules(this, decorators);
+    }
+
+    /**
+     * @return The god of this {@code Card}
+     */
+    public EGodPower getGodPower() {
+        return godPower;
+    }
+
+    /**
+     * @return {@code true} if the godpower flag of this {@code Card} is set
+     */
+    public boolean isUsedGodPower() {
+        return usedGodPower;
+    }
+
+    /**
+     * Returns the hash of the choices the owner took during the current turn that change what it can still do:
+     * the selected worker, the tile it started from and whether the selection can still be changed.
+     * Cards that remember more during a turn add it to this hash
+     * @return The hash of the turn of this {@code Card}, see {@link Game#getHash()}
+     */
+    public long getTurnHash() {
+        long hash = 0L;
+        if(selectedWorker != null && selectedWorker.getTile() != null) {
+            hash ^= Zobrist.selectedWorker(selectedWorker.getTile().getSquare());
+        }
+        if(startingTile != null) {
+            hash ^= Zobrist.startingSquare(startingTile.getSquare());
+        }
+        if(canChangeWorkerSelection) {
+            hash ^= Zobrist.turnFlag(0);
+        }
+        return hash;
+    }
+
+    /**
+     * @param tile A tile remembered by a card during the current turn, or {@code null}
+     * @return The key of the tile, 0 if it is {@code null}
+     */
+    protected static long turnSquareKey(Tile tile) {
+        return tile == null ? 0L : Zobrist.turnSquare(tile.getSquare());
+    }
+
+    /**
+     * Sets the godpower flag of this {@code Card}, keeping the hash of the game up to date.
+     * Subclasses must always use this instead of assigning {@code usedGodPower} directly.
+     * @param usedGodPower Indicates if the godpower is being used
+     */
+    protected void setUsedGodPower(boolean usedGodPower) {
+        if(this.usedGodPower != usedGodPower) {
+            this.usedGodPower = usedGodPower;
+            game.flipGodPowerFlag(owner);
+        }
+    }
+
+    /**
+     * @return The mask of the squares occupied by the workers of the owner of this {@code Card}
+     */
+    protected long getOwnerWorkersMask() {
+        long result = 0L;
+        for(Worker w : owner.getWorkers()) {
+            if(w.getTile() != null) {
+                result |= BoardState.bit(w.getTile().getSquare());
+            }
+        }
+        return result;
     }
 
     /**
@@ -278,44 +386,50 @@ public abstract class Card extends Observable implements Playable {
 
     /**
      * Computes the set of feasible next moves, depending on the current turn phase.
-     * Dynamically calls {@code Card#getTilesToMove} or {@code Card#getTilesToBuild}
+     * Dynamically calls {@code Card#getMovesMask} or {@code Card#getBuildsMask}, through the cache of the game
       */
     protected void render() {
         if (game.getTurnPhase() == ETurnPhase.MOVE) {
-            tilesToMove = decorator.getTilesToMove(selectedWorker.getTile());
+            tilesToMove = game.getBoard().getTiles(game.getMovesMask(selectedWorker));
 
             if (!(tilesToMove.isEmpty())) {
-                List<Position> positionsToHighlight = new ArrayList<>();
-                for (Tile t : tilesToMove) {
-                    positionsToHighlight.add(t.getPosition());
-                }
+                if(isObserved()) {
+                    List<Position> positionsToHighlight = new ArrayList<>();
+                    for (Tile t : tilesToMove) {
+                        positionsToHighlight.add(t.getPosition());
+                    }
 
-                setChanged();
-                notify(new HighlightEvent(positionsToHighlight));
+                    setChanged();
+                    notify(new HighlightEvent(positionsToHighlight));
 
-                setChanged();
-                notify(new TurnPhaseEvent(game.getTurnPhase()));
+                    setChanged();
+                    notify(new TurnPhaseEvent(game.getTurnPhase()));
+                }
 
             }
         }
         else if (game.getTurnPhase() == ETurnPhase.BUILD) {
-            tilesToBuild = decorator.getTilesToBuild(selectedWorker.getTile());
+            tilesToBuild = game.getBoard().getTiles(game.getBuildsMask(selectedWorker));
 
             if (!(tilesToBuild.isEmpty())) {
-                List<Position> positionsToHighlight = new ArrayList<>();
-                for (Tile t : tilesToBuild) {
-                    positionsToHighlight.add(t.getPosition());
-                }
+                if(isObserved()) {
+                    List<Position> positionsToHighlight = new ArrayList<>();
+                    for (Tile t : tilesToBuild) {
+                        positionsToHighlight.add(t.getPosition());
+                    }
 
-                setChanged();
-                notify(new HighlightEvent(positionsToHighlight));
+                    setChanged();
+                    notify(new HighlightEvent(positionsToHighlight));
 
-                setChanged();
-                notify(new TurnPhaseEvent(game.getTurnPhase()));
+                    setChanged();
+                    notify(new TurnPhaseEvent(game.getTurnPhase()));
+                }
 
             } else {
-                setChanged();
-                notify(new ErrorEvent("You cannot build, you lose"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new ErrorEvent("You cannot build, you lose"));
+                }
                 game.setLoser(game.getCurrentPlayer());
             }
         }
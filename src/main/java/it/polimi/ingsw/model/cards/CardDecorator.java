@@ -1,158 +1,41 @@
 package it.polimi.ingsw.model.cards;
 
-import it.polimi.ingsw.model.Playable;
-import it.polimi.ingsw.model.Tile;
-import it.polimi.ingsw.model.Worker;
-
-import java.util.List;
-
 /**
- * This class is the model of a {@code Card} decorator. We does not modify any behaviour of wrappee.
+ * This class is the model of an effect that a {@code Card} puts on the cards of its opponents.
+ * Decorators are not chained: the card they are attached to compiles all of them into a single {@link CardRules},
+ * which is rebuilt only when a decorator is attached or detached.
  */
-public abstract class CardDecorator implements Playable {
-    protected Playable wrappee;
+public abstract class CardDecorator {
+    private Card component;
 
     public CardDecorator(Card component) {
-        this.wrappee = attach(component);
+        attach(component);
     }
 
     /**
-     * Attach this decorator instance to a {@code Card}.
-     * This means wrapping {@code Card#decorator}, which could be another {@code CardDecorator}.
-     * Substantially we are performing an addition to a circular linked list.
+     * Attach this decorator instance to a {@code Card}, whose rules are compiled again.
      *
      * @param component A {@code Card}
-     * @return The {@code Playable} that will be wrapped by this instance
      */
-    public Playable attach(Card component){
-        Playable playable = component.getPlayable();
-        component.setPlayable(this);
-
-        return playable;
+    public void attach(Card component){
+        this.component = component;
+        component.addDecorator(this);
     }
 
     /**
-     * Detach this decorator instance from a {@code Card}.
-     * Substantially we are performing an subtraction to a circular linked list.
+     * Detach this decorator instance from its {@code Card}, whose rules are compiled again.
      */
     public void detach(){
-        Playable decorator = this.wrappee.getPlayable();
-
-        while(decorator.getPlayable() != this){
-            decorator = decorator.getPlayable();
+        if(component != null) {
+            component.removeDecorator(this);
+            component = null;
         }
-        decorator.setPlayable(this.wrappee);
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param worker The worker indicated for selection
-     */
-    @Override
-    public void selectWorker(Worker worker) {
-        wrappee.selectWorker(worker);
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param destinationTile  The {@code Tile} where the worker is going to be moved to
-     */
-    @Override
-    public void move(Tile destinationTile) {
-        wrappee.move(destinationTile);
-    }
-
-    /**
-     * Base decorator does not modify any behaviour of its wrappee.
-     * {@inheritDoc}
-     *
-     * @param builtTile The {@code Tile} where the worker will build
-     */
-    @Override
-    public void build(Tile builtTile) {
-        wrappee.build(builtTile);
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param isUsed Indicates if the godpower will be used this turn.
-     */
-    @Override
-    public void useGodPower(boolean isUsed) {
-        wrappee.useGodPower(isUsed);
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param tile The tile where the worker is currently placed
-     * @return
-     */
-    @Override
-    public List<Tile> getTilesToMove(Tile tile) {
-        return wrappee.getTilesToMove(tile);
     }
 
     /**
-     * {@inheritDoc}
-     * @return
+     * Adds the effect of this decorator to the rules of the card it is attached to
+     * @param rules The rules being compiled
      */
-    @Override
-    public List<Tile> getTilesToMove() {
-        return wrappee.getTilesToMove();
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param tile The tile where the worker is currently placed
-     * @return
-     */
-    @Override
-    public List<Tile> getTilesToBuild(Tile tile) {
-        return wrappee.getTilesToBuild(tile);
-    }
-
-    /**
-     * {@inheritDoc}
-     * @return
-     */
-    @Override
-    public List<Tile> getTilesToBuild() {
-        return wrappee.getTilesToBuild();
-    }
-
-    /**
-     * {@inheritDoc}
-     */
-    @Override
-    public void checkWinCondition() {
-        wrappee.checkWinCondition();
-    }
-
-    /**
-     * {@inheritDoc}
-     * @return
-     */
-    @Override
-    public Playable getPlayable() {
-        return wrappee;
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param decorator A {@code Playable}
-     */
-    @Override
-    public void setPlayable(Playable decorator) {
-        this.wrappee = decorator;
-    }
-
-    /**
-     * {@inheritDoc}
-     * @param canChangeWorkerSelection indicate if it is still possible to change selected worker
-     */
-    @Override
-    public void setCanChangeWorkerSelection(boolean canChangeWorkerSelection) {
-        this.wrappee.setCanChangeWorkerSelection(canChangeWorkerSelection);
-    }
+    abstract void compile(CardRules rules);
 
 }
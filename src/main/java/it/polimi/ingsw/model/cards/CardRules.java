@@ -0,0 +1,183 @@
+package it.polimi.ingsw.model.cards;
+
+import it.polimi.ingsw.model.Playable;
+import it.polimi.ingsw.model.Tile;
+import it.polimi.ingsw.model.Worker;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is the compiled form of all the {@code CardDecorator} attached to a {@code Card}: a single flat
+ * {@code Playable} that forwards every call to the card and applies the effects of the other players on the way.
+ * It is rebuilt by the card whenever a decorator is attached or detached, so queries cost the same however many
+ * effects are active.
+ */
+final class CardRules implements Playable {
+
+    private final Card card;
+
+    // Athena: workers cannot move up
+    private boolean moveUpForbidden;
+    // Hera: no win by moving into a perimeter space
+    private boolean perimeterWinForbidden;
+    // Chronus: the opponents that may win after every build
+    private ChronusCardDecorator[] towerWatchers = new ChronusCardDecorator[0];
+
+    private Tile destinationTile;
+
+    CardRules(Card card, List<CardDecorator> decorators) {
+        this.card = card;
+        for(CardDecorator decorator : decorators) {
+            decorator.compile(this);
+        }
+    }
+
+    void forbidMoveUp() {
+        moveUpForbidden = true;
+    }
+
+    void forbidPerimeterWin() {
+        perimeterWinForbidden = true;
+    }
+
+    void watchTowers(ChronusCardDecorator chronus) {
+        towerWatchers = Arrays.copyOf(towerWatchers, towerWatchers.length + 1);
+        towerWatchers[towerWatchers.length - 1] = chronus;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param worker The worker indicated for selection
+     */
+    @Override
+    public void selectWorker(Worker worker) {
+        card.selectWorker(worker);
+    }
+
+    /**
+     * The destination is kept, since it is needed by {@link #checkWinCondition()}.
+     * {@inheritDoc}
+     * @param destinationTile  The {@code Tile} where the worker is going to be moved to
+     */
+    @Override
+    public void move(Tile destinationTile) {
+        this.destinationTile = destinationTile;
+        card.move(destinationTile);
+    }
+
+    /**
+     * After the card has built, the opponents watching the complete towers check if they won.
+     * {@inheritDoc}
+     * @param builtTile The {@code Tile} where the worker will build
+     */
+    @Override
+    public void build(Tile builtTile) {
+        card.build(builtTile);
+        for(ChronusCardDecorator chronus : towerWatchers) {
+            chronus.checkCompleteTowers();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param isUsed Indicates if the godpower will be used this turn.
+     */
+    @Override
+    public void useGodPower(boolean isUsed) {
+        card.useGodPower(isUsed);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return All possible tiles where the worker can move
+     */
+    @Override
+    public List<Tile> getTilesToMove(Tile tile) {
+        return card.game.getBoard().getTiles(getMovesMask(tile));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return
+     */
+    @Override
+    public List<Tile> getTilesToMove() {
+        return card.getTilesToMove();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return All possible tiles where the worker can build
+     */
+    @Override
+    public List<Tile> getTilesToBuild(Tile tile) {
+        return card.game.getBoard().getTiles(getBuildsMask(tile));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return
+     */
+    @Override
+    public List<Tile> getTilesToBuild() {
+        return card.getTilesToBuild();
+    }
+
+    /**
+     * The moves of the card, without the squares higher than the starting one if moving up is forbidden.
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares where the worker can move
+     */
+    @Override
+    public long getMovesMask(Tile tile) {
+        long result = card.getMovesMask(tile);
+        if(moveUpForbidden) {
+            result &= ~card.game.getBoard().getState().getLevelMask(tile.getLevel().getHeight() + 1);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param tile The tile where the worker is currently placed
+     * @return The mask of the squares where the worker can build
+     */
+    @Override
+    public long getBuildsMask(Tile tile) {
+        return card.getBuildsMask(tile);
+    }
+
+    /**
+     * The card does not check its win conditions if it moved into a perimeter space while that is forbidden.
+     * {@inheritDoc}
+     */
+    @Override
+    public void checkWinCondition() {
+        if(!perimeterWinForbidden || destinationTile == null || !destinationTile.isPerimetralTile()) {
+            card.checkWinCondition();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return
+     */
+    @Override
+    public Playable getPlayable() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param canChangeWorkerSelection indicate if it is still possible to change selected worker
+     */
+    @Override
+    public void setCanChangeWorkerSelection(boolean canChangeWorkerSelection) {
+        card.setCanChangeWorkerSelection(canChangeWorkerSelection);
+    }
+
+}
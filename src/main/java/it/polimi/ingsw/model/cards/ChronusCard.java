@@ -1,5 +1,6 @@
 package it.polimi.ingsw.model.cards;
 
+import it.polimi.ingsw.model.Constants;
 import it.polimi.ingsw.model.EGodPower;
 import it.polimi.ingsw.model.Game;
 import it.polimi.ingsw.model.Player;
@@ -60,7 +61,7 @@ public class ChronusCard extends Card {
     public void build(Tile builtTile) {
         super.build(builtTile);
         if(tilesToBuild.contains(builtTile)) {
-            checkWinCondition();
+            checkCompleteTowers();
         }
     }
 
@@ -75,7 +76,16 @@ public class ChronusCard extends Card {
     @Override
     public void checkWinCondition() {
         super.checkWinCondition();
-        if(game.getCompleteTowers() >= 5) {
+        checkCompleteTowers();
+    }
+
+    /**
+     * Checks only the complete towers count. This is called after every build, by Chronus or by his opponents:
+     *  the move win condition must not be checked again then, since Hera may have suppressed it and the starting tile
+     *  of Chronus' worker may be outdated.
+     */
+    void checkCompleteTowers() {
+        if(game.getCompleteTowers() >= Constants.CHRONUS_WINNING_TOWERS) {
             game.setWinner(owner);
         }
     }
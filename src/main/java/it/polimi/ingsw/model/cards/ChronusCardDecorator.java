@@ -1,7 +1,5 @@
 package it.polimi.ingsw.model.cards;
 
-import it.polimi.ingsw.model.Tile;
-
 /**
  * {@link it.polimi.ingsw.model.EGodPower#CHRONUS}
  */
@@ -15,17 +13,19 @@ public class ChronusCardDecorator extends CardDecorator {
     }
 
     /**
-     * This method overrides CardDecorator#build
-     * After the wrappee has completed its build phase, we call ChronusCard#checkWinCondition to verify it
-     *  on the new board state.
+     * After the wrappee has completed its build phase, ChronusCard#checkCompleteTowers is called to verify
+     *  Chronus win condition on the new board state.
      *
      * {@inheritDoc}
-     * @param buildTile The built tile
+     * @param rules The rules being compiled
      */
     @Override
-    public void build(Tile buildTile) {
-        wrappee.build(buildTile);
-        concreteChronus.checkWinCondition();
+    void compile(CardRules rules) {
+        rules.watchTowers(this);
+    }
+
+    void checkCompleteTowers() {
+        concreteChronus.checkCompleteTowers();
     }
 
 }
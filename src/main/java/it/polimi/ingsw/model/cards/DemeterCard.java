@@ -40,7 +40,7 @@ public class DemeterCard extends Card {
         if(isUsed) {
             super.useGodPower(true);
         } else {
-            this.usedGodPower = false;
+            setUsedGodPower(false);
             setTurnPhase();
             game.changeTurn();
         }
@@ -54,10 +54,10 @@ public class DemeterCard extends Card {
      * @return
      */
     @Override
-    public List<Tile> getTilesToBuild(Tile tile){
-        List<Tile> result = super.getTilesToBuild(tile);
-        if (usedGodPower) {
-            result.remove(builtTile);
+    public long getBuildsMask(Tile tile){
+        long result = super.getBuildsMask(tile);
+        if (usedGodPower && builtTile != null) {
+            result &= ~BoardState.bit(builtTile.getSquare());
         }
         return result;
     }
@@ -77,15 +77,15 @@ public class DemeterCard extends Card {
         if (game.getTurnPhase() == ETurnPhase.BUILD) {
             if (usedGodPower) {
                 // Reset flag
-                usedGodPower = false;
+                setUsedGodPower(false);
                 game.setTurnPhase();
                 game.changeTurn();
             }
             else {
                 // Simula utilizzo god power
-                usedGodPower = true;
-                tilesToBuild = decorator.getTilesToBuild(selectedWorker.getTile());
-                usedGodPower = false;
+                setUsedGodPower(true);
+                tilesToBuild = game.getBoard().getTiles(game.getBuildsMask(selectedWorker));
+                setUsedGodPower(false);
 
                 if (tilesToBuild.isEmpty()) {
                     game.setTurnPhase();
@@ -93,26 +93,32 @@ public class DemeterCard extends Card {
                 }
                 else {
                     game.setTurnPhase(ETurnPhase.GODPOWER);
-                    setChanged();
-                    notify(new HighlightEvent(selectedWorker.getPosition()));
-                    setChanged();
-                    notify(new ChoiceEvent("Do you want to build again?", "Yes", "No"));
-                    setChanged();
-                    notify(new TurnPhaseEvent(game.getTurnPhase()));
+                    if(isObserved()) {
+                        setChanged();
+                        notify(new HighlightEvent(selectedWorker.getPosition()));
+                        setChanged();
+                        notify(new ChoiceEvent("Do you want to build again?", "Yes", "No"));
+                        setChanged();
+                        notify(new TurnPhaseEvent(game.getTurnPhase()));
+                    }
                 }
             }
         } else if (game.getTurnPhase() == ETurnPhase.GODPOWER) {
             if (usedGodPower) {
                 game.setTurnPhase(ETurnPhase.BUILD);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build again"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build again"));
+                }
             }
             else {
                 game.setTurnPhase(ETurnPhase.WORKERSELECTION);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                }
             }
         }
         else {
@@ -120,4 +126,13 @@ public class DemeterCard extends Card {
         }
     }
 
+    /**
+     * The tile of the first build, where the second one cannot be, is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return super.getTurnHash() ^ turnSquareKey(builtTile);
+    }
 }
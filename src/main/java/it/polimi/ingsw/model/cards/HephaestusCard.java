@@ -42,11 +42,15 @@ public class HephaestusCard extends Card {
         if (isUsed) {
             builtTile.buildOneLevel();
 
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and built again on " + builtTile.getPosition().toString()));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and built again on " + builtTile.getPosition().toString()));
+            }
         } else {
-            setChanged();
-            notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+            if(isObserved()) {
+                setChanged();
+                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+            }
         }
 
         super.useGodPower(isUsed);
@@ -67,12 +71,14 @@ public class HephaestusCard extends Card {
         if (game.getTurnPhase() == ETurnPhase.BUILD) {
             if (builtTile.getLevel().getHeight() <= ETileLevel.LEVEL2.getHeight()) {
                 game.setTurnPhase(ETurnPhase.GODPOWER);
-                setChanged();
-                notify(new HighlightEvent(builtTile.getPosition()));
-                setChanged();
-                notify(new ChoiceEvent("Do you want to build another level in this tile?", "Yes", "No"));
-                setChanged();
-                notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new HighlightEvent(builtTile.getPosition()));
+                    setChanged();
+                    notify(new ChoiceEvent("Do you want to build another level in this tile?", "Yes", "No"));
+                    setChanged();
+                    notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                }
             }
             else {
                 game.setTurnPhase();
@@ -87,4 +93,13 @@ public class HephaestusCard extends Card {
         }
     }
 
+    /**
+     * The tile of the first build, where the second one must be, is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return super.getTurnHash() ^ turnSquareKey(builtTile);
+    }
 }
@@ -20,20 +20,20 @@ public class HestiaCard extends Card {
 
 
     /**
-     * This method overrides Card.getTilesToBuild()
+     * This method overrides Card.getBuildsMask()
      * Hestia's godpower allows her to build again but not on a perimetral tile.
      * If we are performing the godpower, we simply remove the perimetral tiles returned as buildable by the general method.
      *  This action is actually performed in this.setTurnPhase since we need to check if there are any before taking action.
      * {@inheritDoc}
      *
      * @param tile The tile where the worker is currently placed
-     * @return All possible tiles where the worker can build
+     * @return The mask of all possible tiles where the worker can build
      */
     @Override
-    public List<Tile> getTilesToBuild(Tile tile){
-        List<Tile> result = super.getTilesToBuild(tile);
+    public long getBuildsMask(Tile tile){
+        long result = super.getBuildsMask(tile);
         if (usedGodPower) {
-            result.removeIf(Tile::isPerimetralTile);
+            result &= ~BoardGeometry.PERIMETER_MASK;
         }
         return result;
     }
@@ -47,7 +47,7 @@ public class HestiaCard extends Card {
         if(isUsed) {
             super.useGodPower(true);
         } else {
-            this.usedGodPower = false;
+            setUsedGodPower(false);
             setTurnPhase();
             game.changeTurn();
         }
@@ -67,24 +67,26 @@ public class HestiaCard extends Card {
     protected void setTurnPhase(){
         if (game.getTurnPhase() == ETurnPhase.BUILD) {
             if (usedGodPower) {
-                usedGodPower = false;
+                setUsedGodPower(false);
                 game.setTurnPhase();
                 game.changeTurn();
             }
             else {
                 // Simulate god power usage
-                usedGodPower = true;
-                tilesToBuild = decorator.getTilesToBuild(selectedWorker.getTile());
-                usedGodPower = false;
+                setUsedGodPower(true);
+                tilesToBuild = game.getBoard().getTiles(game.getBuildsMask(selectedWorker));
+                setUsedGodPower(false);
 
                 if (!(tilesToBuild.isEmpty())) {
                     game.setTurnPhase(ETurnPhase.GODPOWER);
-                    setChanged();
-                    notify(new HighlightEvent(selectedWorker.getPosition()));
-                    setChanged();
-                    notify(new ChoiceEvent("Do you want to build again?", "Yes", "No"));
-                    setChanged();
-                    notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                    if(isObserved()) {
+                        setChanged();
+                        notify(new HighlightEvent(selectedWorker.getPosition()));
+                        setChanged();
+                        notify(new ChoiceEvent("Do you want to build again?", "Yes", "No"));
+                        setChanged();
+                        notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                    }
                 }
                 else {
                     game.setTurnPhase();
@@ -96,14 +98,18 @@ public class HestiaCard extends Card {
             if (usedGodPower) {
                 game.setTurnPhase(ETurnPhase.BUILD);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build again from " + selectedWorker.getPosition().toString()));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build again from " + selectedWorker.getPosition().toString()));
+                }
             }
             else {
                 game.setTurnPhase(ETurnPhase.WORKERSELECTION);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                }
             }
         }
         else {
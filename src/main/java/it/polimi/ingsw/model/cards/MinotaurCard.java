@@ -1,13 +1,12 @@
 package it.polimi.ingsw.model.cards;
 
+import it.polimi.ingsw.model.BoardGeometry;
+import it.polimi.ingsw.model.BoardState;
 import it.polimi.ingsw.model.EGodPower;
 import it.polimi.ingsw.model.Game;
 import it.polimi.ingsw.model.Player;
 import it.polimi.ingsw.model.Tile;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * {@link EGodPower#MINOTAUR}
  */
@@ -30,7 +29,8 @@ public class MinotaurCard extends Card {
     @Override
     public void move(Tile destinationTile) {
         if(tilesToMove.contains(destinationTile) && destinationTile.hasWorker()) {
-            Tile backwardsTile = game.getBoard().getStraightBackwardsTile(selectedWorker.getTile().getPosition(), destinationTile.getPosition());
+            Tile backwardsTile = game.getBoard().getStraightBackwardsTile(selectedWorker.getTile().getRow(), selectedWorker.getTile().getColumn(),
+                    destinationTile.getRow(), destinationTile.getColumn());
 
             destinationTile.getWorker().moveWorker(backwardsTile);
         }
@@ -38,7 +38,7 @@ public class MinotaurCard extends Card {
     }
 
     /**
-     * This method overrides Card#getTilesToMove
+     * This method overrides Card#getMovesMask
      * This method generates all possible moves for Minotaur. He can move in the standard way but also in tiles
      *  occupied by an opponents worker he can charge. Those are determined by checking if:
      *  <ul>
@@ -48,28 +48,32 @@ public class MinotaurCard extends Card {
      * {@inheritDoc}
      *
      * @param startingTile The tile where the worker is currently placed
-     * @return All possible moves also considering Minotaur's godpower
+     * @return The mask of all possible moves also considering Minotaur's godpower
      */
     @Override
-    public List<Tile> getTilesToMove(Tile startingTile) {
-        List<Tile> result = game.getBoard().getSurroundingTiles(startingTile.getPosition());
+    public long getMovesMask(Tile startingTile) {
+        if(startingTile == null) {
+            throw new IllegalArgumentException("Tile cannot be null");
+        }
+        BoardState state = game.getBoard().getState();
+        int from = startingTile.getSquare();
 
-        // Temporary list to avoid ConcurrentModificatonException and messy index logic on remove
-        List<Tile> tilesToRemove = new ArrayList<>();
-        for(Tile t : result){
-            Tile backwardsTile = game.getBoard().getStraightBackwardsTile(startingTile.getPosition(), t.getPosition());
+        //Tiles with a dome, too high or occupied by our own workers are excluded
+        long result = BoardGeometry.neighbourMask(from)
+                & ~state.getDomes()
+                & ~state.getLevelMask(startingTile.getLevel().getHeight() + 2)
+                & ~getOwnerWorkersMask();
 
-            //Tiles with a dome, occupied by a not-chargeable worker or too high have to be removed
-            if(Tile.heightDifference(t, startingTile) > 1
-                    || t.isDomed()
-                    || (t.hasWorker() && t.getWorker().getOwner() == owner)
-                    || (t.hasWorker() && backwardsTile == null)
-                    || (t.hasWorker() && backwardsTile.getWorker() != null)
-                    || (t.hasWorker() && backwardsTile.isDomed()) ){
-                tilesToRemove.add(t);
+        //Occupied tiles are kept only if the worker can be charged
+        long charged = result & state.getOccupied();
+        while(charged != 0) {
+            int target = Long.numberOfTrailingZeros(charged);
+            int backwards = BoardGeometry.pushTarget(from, target);
+            if(backwards < 0 || (state.getBlocked() & BoardState.bit(backwards)) != 0) {
+                result &= ~BoardState.bit(target);
             }
+            charged &= charged - 1;
         }
-        result.removeAll(tilesToRemove);
 
         return result;
     }
@@ -33,12 +33,12 @@ public class PrometheusCard extends Card {
         super.build(builtTile);
         if(tilesToBuild.contains(builtTile) && usedGodPower) {
             render();
-            usedGodPower = false;
+            setUsedGodPower(false);
         }
     }
 
     /**
-     * This method overrides Card#getTilesToMove
+     * This method overrides Card#getMovesMask
      * If Prometheus godpower has been used, we remove tiles higher then the current worker level.
      * {@inheritDoc}
      *
@@ -46,17 +46,17 @@ public class PrometheusCard extends Card {
      * @return All possible moves
      */
     @Override
-    public List<Tile> getTilesToMove(Tile tile) {
-        List<Tile> result = super.getTilesToMove(tile);
+    public long getMovesMask(Tile tile) {
+        long result = super.getMovesMask(tile);
         if (usedGodPower) {
             //Eliminiamo le tile più in alto di quella di partenza
-            result.removeIf(t -> Tile.heightDifference(t, tile) > 0);
+            result &= ~game.getBoard().getState().getLevelMask(tile.getLevel().getHeight() + 1);
         }
         return result;
     }
 
     /**
-     * This method overrides Card#getTilesToBuild
+     * This method overrides Card#getBuildsMask
      * The logic is the same as in Card. We just remove the marked tile to avoid locks.
      * {@inheritDoc}
      *
@@ -64,11 +64,11 @@ public class PrometheusCard extends Card {
      * @return All possible tiles where the worker can build
      */
     @Override
-    public List<Tile> getTilesToBuild(Tile tile) {
-        List<Tile> result = super.getTilesToBuild(tile);
+    public long getBuildsMask(Tile tile) {
+        long result = super.getBuildsMask(tile);
         if (usedGodPower && notBuild != null) {
             //Removing the only tile suitable for moving to avoid locks
-            result.remove(notBuild);
+            result &= ~BoardState.bit(notBuild.getSquare());
         }
         return result;
     }
@@ -89,12 +89,14 @@ public class PrometheusCard extends Card {
         if (game.getTurnPhase() == ETurnPhase.WORKERSELECTION) {
             if(!canLockSelf()){
                 game.setTurnPhase(ETurnPhase.GODPOWER);
-                setChanged();
-                notify(new HighlightEvent(selectedWorker.getPosition()));
-                setChanged();
-                notify(new ChoiceEvent("Choose your next action", "Build", "Move"));
-                setChanged();
-                notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new HighlightEvent(selectedWorker.getPosition()));
+                    setChanged();
+                    notify(new ChoiceEvent("Choose your next action", "Build", "Move"));
+                    setChanged();
+                    notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                }
             }
             else {
                 game.setTurnPhase(ETurnPhase.MOVE);
@@ -113,16 +115,20 @@ public class PrometheusCard extends Card {
             if (usedGodPower) {
                 game.setTurnPhase(ETurnPhase.BUILD);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build from " + selectedWorker.getPosition().toString() + " before moving"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will build from " + selectedWorker.getPosition().toString() + " before moving"));
+                }
             }
             else {
                 notBuild = null;
 
                 game.setTurnPhase(ETurnPhase.MOVE);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                }
             }
         }
         else {
@@ -140,7 +146,7 @@ public class PrometheusCard extends Card {
      * @return Is possible to activate Prometheus godpower
      */
     private boolean canLockSelf(){
-        List<Tile> possibleMoves = decorator.getTilesToMove(selectedWorker.getTile());
+        List<Tile> possibleMoves = game.getBoard().getTiles(game.getMovesMask(selectedWorker));
         boolean sameHeight = false;
 
         for(Tile t: possibleMoves){
@@ -166,7 +172,7 @@ public class PrometheusCard extends Card {
         }
 
         if (sameHeight) {
-            if (decorator.getTilesToBuild(selectedWorker.getTile()).size() > 1){
+            if (Long.bitCount(game.getBuildsMask(selectedWorker)) > 1){
                 return false;
             }
             //if the "notBuild" tile is the only buildable tile, the godpower can't target any tile
@@ -180,4 +186,13 @@ public class PrometheusCard extends Card {
         return true;
     }
 
+    /**
+     * The tile that cannot be built on again after the build before moving is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return super.getTurnHash() ^ turnSquareKey(notBuild);
+    }
 }
@@ -43,19 +43,21 @@ public class TritonCard extends Card{
 
             if(hasMovedOntoPerimetralTile) {
 
-                tilesToMove = decorator.getTilesToMove(selectedWorker.getTile());
+                tilesToMove = game.getBoard().getTiles(game.getMovesMask(selectedWorker));
                 if(!(tilesToMove.isEmpty())) {
 
                     game.setTurnPhase(ETurnPhase.GODPOWER);
 
-                    setChanged();
-                    notify(new HighlightEvent(selectedWorker.getPosition()));
+                    if(isObserved()) {
+                        setChanged();
+                        notify(new HighlightEvent(selectedWorker.getPosition()));
 
-                    setChanged();
-                    notify(new ChoiceEvent("You moved onto a perimetral tile, do you want to move again?", "Yes", "No"));
+                        setChanged();
+                        notify(new ChoiceEvent("You moved onto a perimetral tile, do you want to move again?", "Yes", "No"));
 
-                    setChanged();
-                    notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                        setChanged();
+                        notify(new TurnPhaseEvent(ETurnPhase.GODPOWER));
+                    }
 
                 } else {
                     game.setTurnPhase();
@@ -71,13 +73,17 @@ public class TritonCard extends Card{
                 game.setTurnPhase(ETurnPhase.MOVE);
                 startingTile = selectedWorker.getTile();
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will move again from " + selectedWorker.getPosition().toString()));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided to use his/her god power and will move again from " + selectedWorker.getPosition().toString()));
+                }
             } else {
                 game.setTurnPhase(ETurnPhase.BUILD);
 
-                setChanged();
-                notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                if(isObserved()) {
+                    setChanged();
+                    notify(new MessageEvent(owner.getNickname() + " decided NOT to use his/her god power"));
+                }
             }
         }
         else {
@@ -436,4 +442,13 @@ public class TritonCard extends Card{
 //        decorator.checkWinCondition();
 //    }
 
-}
\ No newline at end of file
+    /**
+     * Moving onto a perimeter tile, which allows one more move, is part of the turn too.
+     * {@inheritDoc}
+     * @return The hash of the turn of this {@code Card}
+     */
+    @Override
+    public long getTurnHash() {
+        return hasMovedOntoPerimetralTile ? super.getTurnHash() ^ Zobrist.turnFlag(1) : super.getTurnHash();
+    }
+}
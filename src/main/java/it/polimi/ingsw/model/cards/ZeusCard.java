@@ -2,8 +2,6 @@ package it.polimi.ingsw.model.cards;
 
 import it.polimi.ingsw.model.*;
 
-import java.util.List;
-
 public class ZeusCard extends Card {
 
     public ZeusCard(Player owner, Game game) {
@@ -12,7 +10,7 @@ public class ZeusCard extends Card {
     }
 
     /**
-     * This method overrides Card#getTilesToBuild
+     * This method overrides Card#getBuildsMask
      * Zeus godpower allows his workers to build in the tile where they are standing.
      * {@inheritDoc}
      *
@@ -20,10 +18,10 @@ public class ZeusCard extends Card {
      * @return All possible tiles where the worker can build
      */
     @Override
-    public List<Tile> getTilesToBuild(Tile tile) {
-        List<Tile> result = super.getTilesToBuild(tile);
+    public long getBuildsMask(Tile tile) {
+        long result = super.getBuildsMask(tile);
         if (tile.getLevel() != ETileLevel.LEVEL3) {
-            result.add(tile);
+            result |= BoardState.bit(tile.getSquare());
         }
 
         return result;
@@ -2,11 +2,11 @@ package it.polimi.ingsw.network;
 
 import it.polimi.ingsw.network.events.DisconnectedEvent;
 import it.polimi.ingsw.network.events.Event;
+import it.polimi.ingsw.network.events.EventCodec;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.Socket;
+import java.util.concurrent.locks.ReentrantLock;
 
 
 /**
@@ -16,45 +16,64 @@ import java.net.Socket;
  * <p> It has: </p>
  * <ul>
  *    <li> A {@param socket} for the network connection </p></li>
- *    <li> A {@param oos} to write Java objects </li>
- *    <li> A {@param ois} to read Java objects </li>
+ *    <li> A {@param out} and a {@param in} to write and read events with the {@code EventCodec} </li>
+ *    <li> A {@param oos} and a {@param ois} to write and read events as Java objects, with clients that do not know the {@code EventCodec} </li>
  *    <li> A boolean, {@param active} that if true indicates that the connection is active </li>
  * </ul>
- *
+ * <p> The format is negotiated when the connection is opened: the client sends {@link EventCodec#MAGIC} and the version it speaks,
+ *     and the server answers with the same. A server that receives the header of an object stream instead falls back to Java serialization. </p>
+ * <p> The liveness of the peer is tracked as the time of the last event received, which a {@code TimerWheel} checks
+ *     (see {@link #watchIdle(TimerWheel, long)}), so reading never needs to reset the timeout of the socket. </p>
+ * <p> Writing and closing are guarded by {@code ReentrantLock}s instead of monitors, since a virtual thread that blocks
+ *     on the network inside a {@code synchronized} block would hold on to its carrier thread. </p>
  */
 public abstract class Connection extends Observable implements Runnable {
 
     protected Socket socket;
-    protected boolean active = true;
+    protected volatile boolean active = true;
     protected ObjectOutputStream oos;
     protected ObjectInputStream ois;
+    protected DataOutputStream out;
+    protected DataInputStream in;
+    protected final ReentrantLock stateLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    protected volatile long lastSeen = System.currentTimeMillis();
+    private volatile boolean timedOut = false;
+    private volatile TimerWheel.Timeout idleCheck;
+    private int readTimeout = -1;
 
 
     /**
-     * A boolean method, synchronized between different players' connections.
+     * A boolean method, visible between different players' connections.
      * @return true if the connection is active
      */
-    public synchronized boolean isActive() {
+    public boolean isActive() {
         return active;
     }
 
     /**
      * Sends events in the network between client and server.
      * @param event  the event which has to be sent
-     * @throws DisconnectedException if it can't write the {@param event} in the {@code ObjectOutputStream}
+     * @throws DisconnectedException if it can't write the {@param event} in the output stream
      */
     public void sendEvent(Event event) throws DisconnectedException {
         if(!isActive()) {
             return;
         }
+        writeLock.lock();
         try {
-            synchronized(oos) {
+            if(out != null) {
+                EventCodec.writeFrame(out, event);
+                out.flush();
+            } else {
                 oos.writeObject(event);
                 oos.flush();
                 oos.reset();
             }
         } catch (IOException e) {
             throw new DisconnectedException(e.getMessage());
+        } finally {
+            writeLock.unlock();
         }
     }
 
@@ -67,6 +86,21 @@ public abstract class Connection extends Observable implements Runnable {
      * @throws DisconnectedException if the timeout elapses or there is some network issue
      */
     public Event receiveEvent(int timeout) throws DisconnectedException {
+        try {
+            setReadTimeout(timeout);
+        } catch (IOException e) {
+            throw new DisconnectedException(e.getMessage());
+        }
+        return receiveEvent();
+    }
+
+    /**
+     * This method reads an {@code Event} from the socket, waiting as long as the last timeout set, if any. It is used
+     * once the connection is watched by a {@code TimerWheel}, which closes it if the peer stays silent too long
+     * @return the {@code Event} read from the socket input stream
+     * @throws DisconnectedException if there is some network issue or the connection has been closed as idle
+     */
+    public Event receiveEvent() throws DisconnectedException {
 
         if(!isActive()) {
             throw new IllegalStateException(">> The connection is not active");
@@ -74,11 +108,11 @@ public abstract class Connection extends Observable implements Runnable {
 
         Object received;
         try {
-            socket.setSoTimeout(timeout);
-            received = ois.readObject();
+            received = in != null ? EventCodec.readFrame(in) : ois.readObject();
         } catch (IOException | ClassNotFoundException e) {
-            throw new DisconnectedException(e.getMessage());
+            throw new DisconnectedException(timedOut ? ">> Connection timed out" : e.getMessage());
         }
+        lastSeen = System.currentTimeMillis();
         if(!(received instanceof Event)) {
             return null;
         }
@@ -86,37 +120,142 @@ public abstract class Connection extends Observable implements Runnable {
     }
 
     /**
-     * Closes the {@code Connection} by the closing of the {@code ObjectOutputStream} and the {@code ObjectInputStream}.
+     * Sets the timeout of the reads of the socket, only if it changed
+     * @param timeout the maximum number of milliseconds a read waits, 0 to wait forever
+     * @throws IOException if the timeout cannot be set
+     */
+    protected void setReadTimeout(int timeout) throws IOException {
+        if(timeout != readTimeout) {
+            socket.setSoTimeout(timeout);
+            readTimeout = timeout;
+        }
+    }
+
+    /**
+     * Starts checking, on the specified wheel, that an event is received at least every {@code timeoutMillis}. If the
+     * peer stays silent longer, the connection is closed as idle (see {@link #closeIdle()}), so the blocked read fails
+     * and the disconnection is notified as usual. The reads stop timing out by themselves
+     * @param wheel The wheel running the checks
+     * @param timeoutMillis The longest time the peer may stay silent
+     * @throws IOException if the timeout of the socket cannot be cleared
+     */
+    protected void watchIdle(TimerWheel wheel, long timeoutMillis) throws IOException {
+        setReadTimeout(0);
+        lastSeen = System.currentTimeMillis();
+        idleCheck = wheel.schedule(() -> checkIdle(wheel, timeoutMillis), timeoutMillis);
+    }
+
+    private void checkIdle(TimerWheel wheel, long timeoutMillis) {
+        if(!isActive()) {
+            return;
+        }
+        long idle = System.currentTimeMillis() - lastSeen;
+        if(idle >= timeoutMillis) {
+            timedOut = true;
+            closeIdle();
+        } else {
+            idleCheck = wheel.schedule(() -> checkIdle(wheel, timeoutMillis), timeoutMillis - idle);
+        }
+    }
+
+    /**
+     * Closes the connection whose peer stayed silent too long. Run by the {@code TimerWheel}, so it must not block
+     */
+    protected void closeIdle() {
+        close();
+    }
+
+    /**
+     * @return {@code true} if the events are sent in the format of the {@code EventCodec}, {@code false} if they are
+     * sent with Java serialization
+     */
+    protected boolean isBinary() {
+        return out != null;
+    }
+
+    /**
+     * Opens the streams of the client side of the connection, asking the server for the binary format of the {@code EventCodec}
+     * @throws IOException if there is some network issue or the server does not speak the same version of the format
+     */
+    protected void openClientStreams() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(EventCodec.MAGIC);
+        out.writeByte(EventCodec.VERSION);
+        out.flush();
+
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        if(in.readInt() != EventCodec.MAGIC || in.readUnsignedByte() != EventCodec.VERSION) {
+            throw new IOException("Incompatible server");
+        }
+    }
+
+    /**
+     * Opens the streams of the server side of the connection. A client that asks for the {@code EventCodec} gets it,
+     * a client that opens an object stream is answered with Java serialization
+     * @throws IOException if there is some network issue or the client asks for an unknown format
+     */
+    protected void openServerStreams() throws IOException {
+        BufferedInputStream input = new BufferedInputStream(socket.getInputStream());
+        input.mark(2);
+        int header = input.read() << 8 | input.read();
+        input.reset();
+
+        if(header == (ObjectStreamConstants.STREAM_MAGIC & 0xFFFF)) {
+            oos = new ObjectOutputStream(socket.getOutputStream());
+            ois = new ObjectInputStream(input);
+            return;
+        }
+
+        DataInputStream dataInput = new DataInputStream(input);
+        if(dataInput.readInt() != EventCodec.MAGIC || dataInput.readUnsignedByte() != EventCodec.VERSION) {
+            throw new IOException("Unknown protocol");
+        }
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        out.writeInt(EventCodec.MAGIC);
+        out.writeByte(EventCodec.VERSION);
+        out.flush();
+        in = dataInput;
+    }
+
+    /**
+     * Closes the {@code Connection} by the closing of its socket, which closes its output and input streams.
+     * The streams are not flushed nor closed by themselves, since every event is flushed when it is sent, so that
+     * closing never waits for a client that stopped reading.
      * After this method, the connection is inactive
      */
-    public synchronized void close() {
-        if(isActive()) {
-            try {
-                if(oos != null) {
-                    oos.close();
-                }
-                if(ois != null) {
-                    ois.close();
+    public void close() {
+        stateLock.lock();
+        try {
+            if(isActive()) {
+                // Inactive before the socket is closed, so that a blocked read that fails sees it
+                active = false;
+                TimerWheel.Timeout check = idleCheck;
+                if(check != null) {
+                    check.cancel();
                 }
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
-            }
-            try {
-                if(socket != null) {
-                    socket.close();
+                try {
+                    if(socket != null) {
+                        socket.close();
+                    }
+                } catch (IOException e) {
+                    System.err.println(e.getMessage());
                 }
-            } catch (IOException e) {
-                System.err.println(e.getMessage());
             }
-            active = false;
+        } finally {
+            stateLock.unlock();
         }
     }
 
     /**
      * Notifies a disconnection to the registered {@code Observer}s
      */
-    public synchronized void notifyDisconnection(String disconnectionMessage) {
-        setChanged();
-        notify(new DisconnectedEvent(disconnectionMessage));
+    public void notifyDisconnection(String disconnectionMessage) {
+        observersLock.lock();
+        try {
+            setChanged();
+            notify(new DisconnectedEvent(disconnectionMessage));
+        } finally {
+            observersLock.unlock();
+        }
     }
 }
@@ -4,6 +4,7 @@ import it.polimi.ingsw.network.events.Event;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * <p> It is the {@code Observable} class of the Observer&Observable pattern. </p>
@@ -12,35 +13,60 @@ import java.util.ArrayList;
  *     <li> A boolean {@param changed} that indicates if the {@code Observable} object has changed </li>
  *     <li> {@param observers}, an ArrayList of {@Observer}s </li>
  * </ul>
+ * <p> The observers are notified while holding a {@code ReentrantLock} rather than the monitor of this object, so that
+ *     a virtual thread waiting to notify does not hold on to its carrier thread. </p>
  */
 public class Observable {
     private boolean changed = false;
     private List<Observer> observers = new ArrayList<>();
+    private volatile boolean observed = false;
+    protected final ReentrantLock observersLock = new ReentrantLock();
 
 
     /**
      * Registers an {@code Observer} to the {@code Observable} object adding it to the {@param observers} ArrayList.
      * @param o  the {@code Observer} which has to be added to the list
      */
-    public synchronized void registerObserver(Observer o) {
+    public void registerObserver(Observer o) {
         if (o == null)
             throw new IllegalArgumentException();
-        if (!observers.contains(o)) {
-            observers.add(o);
+        observersLock.lock();
+        try {
+            if (!observers.contains(o)) {
+                observers.add(o);
+                observed = true;
+            }
+        } finally {
+            observersLock.unlock();
         }
     }
 
+    /**
+     * Tells if any {@code Observer} is registered, without taking the lock of this {@code Observable}.
+     * Callers check this before building an event, so that objects nobody listens to (e.g., the ones of a
+     * headless {@code Game}) never allocate events nor messages.
+     * @return {@code true} if at least one {@code Observer} has been registered
+     */
+    public boolean isObserved() {
+        return observed;
+    }
+
     /**
      * Registers an list of {@code Observer}s to the {@code Observable} object calling for each {@code Observer} the
      * {@code registerObserver} method.
      * @param observers  the {@code Observer} list that has to be added
      */
-    public synchronized void registerObservers(List<? extends Observer> observers) {
+    public void registerObservers(List<? extends Observer> observers) {
         if(observers == null) {
             throw new IllegalArgumentException();
         }
-        for(Observer o : observers) {
-            registerObserver(o);
+        observersLock.lock();
+        try {
+            for(Observer o : observers) {
+                registerObserver(o);
+            }
+        } finally {
+            observersLock.unlock();
         }
     }
 
@@ -50,24 +76,37 @@ public class Observable {
      * @param arg  the event which is invoked
      */
     public void notify(Event arg) {
-        synchronized(this) {
+        observersLock.lock();
+        try {
             if (!changed) return;
             clearChanged();
             observers.forEach(observer -> observer.update(arg));
+        } finally {
+            observersLock.unlock();
         }
     }
 
     /**
      * Sets the boolean {@code changed} as true.
      */
-    public synchronized void setChanged() {
-        changed = true;
+    public void setChanged() {
+        observersLock.lock();
+        try {
+            changed = true;
+        } finally {
+            observersLock.unlock();
+        }
     }
 
     /**
      * Sets the boolean {@code changed} as false.
      */
-    protected synchronized void clearChanged() {
-        changed = false;
+    protected void clearChanged() {
+        observersLock.lock();
+        try {
+            changed = false;
+        } finally {
+            observersLock.unlock();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package it.polimi.ingsw.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class represents a hashed timing wheel: a single thread that runs the tasks scheduled by many connections,
+ * such as their heartbeats and their idle checks.
+ *
+ * Time is divided in ticks, and the wheel has a slot for each tick of a round. A task is put in the slot of the tick
+ * it expires in, together with the number of whole rounds left, so scheduling and cancelling cost the same however
+ * many tasks are waiting. At every tick all the tasks of the current slot that expire are run together, in the thread of the wheel,
+ * so they must never block. The thread is started by the first task scheduled
+ */
+public final class TimerWheel implements Runnable {
+
+    /** Default length of a tick */
+    public static final long TICK_MILLIS = 100;
+    /** Default number of slots, that is of ticks in a round */
+    public static final int WHEEL_SIZE = 512;
+
+    /**
+     * A task waiting in the wheel
+     */
+    public static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineTick;
+        private long rounds;
+        private volatile boolean cancelled = false;
+
+        private Timeout(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        /**
+         * Prevents the task from running, if it has not run yet
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+    }
+
+    private final String name;
+    private final long tickNanos;
+    private final List<List<Timeout>> slots;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean(false);
+    private final long startTime = System.nanoTime();
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    private long tick = 0;
+
+    public TimerWheel(String name) {
+        this(name, TICK_MILLIS, WHEEL_SIZE);
+    }
+
+    /**
+     * Creates a new wheel, which does not run until a task is scheduled
+     * @param name The name of the thread of the wheel
+     * @param tickMillis The length of a tick, that is the precision of the wheel, in milliseconds
+     * @param wheelSize The number of slots, a power of 2
+     */
+    public TimerWheel(String name, long tickMillis, int wheelSize) {
+        if(tickMillis < 1) {
+            throw new IllegalArgumentException("A tick must last at least one millisecond");
+        }
+        if(wheelSize < 1 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("The size of the wheel must be a power of 2");
+        }
+        this.name = name;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.slots = new ArrayList<>(wheelSize);
+        for(int i = 0; i < wheelSize; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Schedules a task
+     * @param task The task, which must not block
+     * @param delayMillis The time after which the task runs, rounded up to a whole tick
+     * @return A handle to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delayMillis) {
+        if(task == null) {
+            throw new IllegalArgumentException("Task cannot be null");
+        }
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis));
+        long deadlineTick = (System.nanoTime() - startTime + delayNanos + tickNanos - 1) / tickNanos;
+        Timeout timeout = new Timeout(task, deadlineTick);
+        scheduled.add(timeout);
+        if(started.compareAndSet(false, true)) {
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return timeout;
+    }
+
+    /**
+     * Stops the wheel. The tasks still waiting never run
+     */
+    public void shutdown() {
+        running = false;
+        Thread t = thread;
+        if(t != null) {
+            t.interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        while(running) {
+            long sleepNanos = startTime + (tick + 1) * tickNanos - System.nanoTime();
+            if(sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            tick++;
+            transferScheduled();
+            expire(slots.get((int) (tick & mask)));
+        }
+    }
+
+    /**
+     * Puts the tasks scheduled since the last tick in their slots
+     */
+    private void transferScheduled() {
+        Timeout timeout;
+        while((timeout = scheduled.poll()) != null) {
+            if(timeout.cancelled) {
+                continue;
+            }
+            // A task that should have run already runs at this tick
+            long deadline = Math.max(timeout.deadlineTick, tick);
+            timeout.rounds = (deadline - tick) / slots.size();
+            slots.get((int) (deadline & mask)).add(timeout);
+        }
+    }
+
+    /**
+     * Runs the tasks of a slot that expire at this tick, and keeps the ones due in a later round
+     */
+    private void expire(List<Timeout> slot) {
+        if(slot.isEmpty()) {
+            return;
+        }
+        List<Timeout> due = new ArrayList<>();
+        int kept = 0;
+        for(Timeout timeout : slot) {
+            if(timeout.cancelled) {
+                continue;
+            }
+            if(timeout.rounds > 0) {
+                timeout.rounds--;
+                slot.set(kept++, timeout);
+            } else {
+                due.add(timeout);
+            }
+        }
+        slot.subList(kept, slot.size()).clear();
+        for(Timeout timeout : due) {
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                // A failing task must not stop the heartbeats of the other connections
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package it.polimi.ingsw.network.events;
+
+import it.polimi.ingsw.utils.ListUtility;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This {@code Event} is used by the server to send, in a single network frame, all the events produced for a client
+ * by one action of a player. The client applies them in order, before any other event
+ */
+public class BatchEvent extends Event {
+
+    private final List<Event> events;
+
+    /**
+     * Creates a new {@code BatchEvent} object, giving as input the events that it carries.
+     * @param events  the events, in the order in which they have to be applied
+     */
+    public BatchEvent(List<Event> events) {
+        if(events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("A batch must contain at least one event");
+        }
+        for(Event e : events) {
+            if(e == null || e instanceof BatchEvent) {
+                throw new IllegalArgumentException("A batch cannot contain null or other batches");
+            }
+        }
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    /**
+     * Getter for the events carried by this {@code Event}
+     * @return the unmodifiable list of the {@param events}
+     */
+    public List<Event> getEvents() {
+        return events;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "BatchEvent: " + ListUtility.listToString(events);
+    }
+}
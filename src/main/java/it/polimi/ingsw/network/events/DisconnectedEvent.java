@@ -15,6 +15,14 @@ public class DisconnectedEvent extends Event{
     }
 
 
+    /**
+     * Getter for the description of this {@code Event}
+     * @return the {@param description}
+     */
+    public String getDescription() {
+        return description;
+    }
+
     /**
      * {@inheritDoc}
      */
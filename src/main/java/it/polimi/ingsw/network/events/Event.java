@@ -4,7 +4,8 @@ import java.io.Serializable;
 
 /**
  * {@code Event} is the generic interface for events (that is, sophisticated messages exchanged by client and server
- * It implements the {@code Serializable} interface, so that an event can be sent through the network using an object stream
+ * It implements the {@code Serializable} interface, so that an event can be sent through the network using an object stream,
+ * to the clients that do not speak the binary format of {@link EventCodec}
  * <p> It has: </p>
  * <ul>
  *     <li> A signature, a {@code String} that indicates the nickname of the {@code Player} associated
@@ -14,11 +15,14 @@ import java.io.Serializable;
  *     to indicate a nickname and the number of players), the player associated with the connection
  *     that this event is going through is by default the current one</li>
  * </ul>
+ * An event must not be changed once it has been sent, since it is encoded only once for all the clients it is sent to
  */
 public abstract class Event implements Serializable {
     private static final long serialVersionUID = 69L;
     protected transient String signature;
     protected boolean currentPlayerReserved = false;
+    // The frame of this event in the EventCodec format, shared by all the connections it is sent to
+    transient byte[] encoded;
 
     /**
      * Getter for the signature of this event (that is, the nickname of the {@code Player} associated
@@ -0,0 +1,494 @@
+package it.polimi.ingsw.network.events;
+
+import it.polimi.ingsw.controller.EStartupPhase;
+import it.polimi.ingsw.model.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is the binary wire format of the {@code Event}s, used instead of Java serialization once client and
+ * server agreed on it (see {@code Connection}).
+ *
+ * Every event is sent as a frame: its length (an int), a tag that identifies its class, a byte of flags and then its
+ * fields. Positions take one byte, the square index 0-24, and tiles two bytes (the square and the packed level,
+ * dome and worker bits), followed by the nickname of the owner of the worker, if any. The signature of the events
+ * is never sent, as in the serialized form.
+ *
+ * An event is encoded only once: its frame is kept by the event itself and shared, read-only, by all the connections
+ * it is broadcast to, and by the batches that contain it. A {@code BatchEvent} is a single frame, in which each event is preceded
+ * by its length (an int). The events of a batch that would not fit in one frame are sent in more batches
+ * (see {@link #batches(List)}).
+ */
+public final class EventCodec {
+
+    /**
+     * The first four bytes sent by a client that speaks this format, "SANT"
+     */
+    public static final int MAGIC = 0x53414E54;
+
+    /**
+     * The version of this format
+     */
+    public static final int VERSION = 3;
+
+    /**
+     * The maximum length of a frame
+     */
+    public static final int MAX_FRAME_LENGTH = 1 << 16;
+
+    // The tags of the events, never reuse or change them
+    private static final int PING = 0;
+    private static final int MESSAGE = 1;
+    private static final int ERROR = 2;
+    private static final int ACTION = 3;
+    private static final int BOARD = 4;
+    private static final int HIGHLIGHT = 5;
+    private static final int CHOICE = 6;
+    private static final int CARD = 7;
+    private static final int TURN_PHASE = 8;
+    private static final int STARTUP_PHASE = 9;
+    private static final int SET_CURRENT_PLAYER = 10;
+    private static final int SET_FIRST_PLAYER = 11;
+    private static final int SET_CHALLENGER = 12;
+    private static final int PLAYER_NICKNAME = 13;
+    private static final int SET_NICKNAME = 14;
+    private static final int SET_N_PLAYERS = 15;
+    private static final int START_GAME = 16;
+    private static final int LOSE = 17;
+    private static final int GAME_OVER = 18;
+    private static final int DISCONNECTED = 19;
+    private static final int BATCH = 20;
+
+    private static final int RESERVED_FLAG = 1;
+
+    // The tag, the flags and the number of events of a batch, and the length of each of its events
+    private static final int BATCH_HEADER_LENGTH = 4;
+    private static final int BATCH_ENTRY_HEADER_LENGTH = 4;
+    private static final int MAX_BATCH_EVENTS = 0xFFFF;
+
+    // Bits of the second byte of a tile
+    private static final int LEVEL_MASK = 0x03;
+    private static final int DOME_BIT = 0x04;
+    private static final int WORKER_BIT = 0x08;
+    private static final int WORKER_ID_SHIFT = 4;
+
+    private static final int NONE = 0xFF;
+
+    private EventCodec() {
+    }
+
+    /**
+     * Writes an event as a frame. The stream is not flushed
+     * @param out The stream to write to
+     * @param event The event to write
+     * @throws IOException if the stream cannot be written
+     * @throws IllegalArgumentException if the event is {@code null}, of an unknown class or too large for a frame
+     */
+    public static void writeFrame(DataOutputStream out, Event event) throws IOException {
+        byte[] frame = frameOf(event);
+        out.writeInt(frame.length);
+        out.write(frame);
+    }
+
+    /**
+     * Reads a frame and decodes the event in it
+     * @param in The stream to read from
+     * @return The event
+     * @throws IOException if the stream cannot be read or the frame is not valid
+     */
+    public static Event readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if(length <= 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("Invalid frame length " + length);
+        }
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        return decode(frame);
+    }
+
+    /**
+     * @param event The event to encode
+     * @return The content of the frame of the event, without its length
+     * @throws IllegalArgumentException if the event is {@code null}, of an unknown class or too large for a frame
+     */
+    public static byte[] encode(Event event) {
+        return frameOf(event).clone();
+    }
+
+    /**
+     * @param event The event to encode
+     * @return A read-only buffer over the frame of the event, without its length, shared with the other recipients of the event
+     * @throws IllegalArgumentException if the event is {@code null}, of an unknown class or too large for a frame
+     */
+    public static ByteBuffer sharedFrame(Event event) {
+        return ByteBuffer.wrap(frameOf(event)).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return The frame of the event, encoded the first time it is needed and then shared. It must not be modified
+     */
+    static byte[] frameOf(Event event) {
+        if(event == null) {
+            throw new IllegalArgumentException("Event cannot be null");
+        }
+        synchronized(event) {
+            if(event.encoded == null) {
+                event.encoded = encodeOnce(event);
+            }
+            return event.encoded;
+        }
+    }
+
+    /**
+     * Splits the events sent together to a client in batches that fit in a frame each, keeping their order.
+     * A batch of a single event is sent as the event itself
+     * @param events The events, none of them a {@code BatchEvent}
+     * @return The events to send, in order
+     * @throws IllegalArgumentException if one of the events cannot be encoded (see {@link #encode(Event)})
+     */
+    public static List<Event> batches(List<Event> events) {
+        List<Event> batches = new ArrayList<>();
+        List<Event> current = new ArrayList<>();
+        int length = BATCH_HEADER_LENGTH;
+        for(Event e : events) {
+            int entryLength = BATCH_ENTRY_HEADER_LENGTH + frameOf(e).length;
+            if(!current.isEmpty() && (length + entryLength > MAX_FRAME_LENGTH || current.size() == MAX_BATCH_EVENTS)) {
+                batches.add(current.size() == 1 ? current.get(0) : new BatchEvent(current));
+                current = new ArrayList<>();
+                length = BATCH_HEADER_LENGTH;
+            }
+            current.add(e);
+            length += entryLength;
+        }
+        if(!current.isEmpty()) {
+            batches.add(current.size() == 1 ? current.get(0) : new BatchEvent(current));
+        }
+        return batches;
+    }
+
+    private static byte[] encodeOnce(Event event) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(32);
+        try(DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeByte(tagOf(event));
+            out.writeByte(event.currentPlayerReserved ? RESERVED_FLAG : 0);
+            writeFields(out, event);
+        } catch (UTFDataFormatException e) {
+            throw new IllegalArgumentException("Event too large: " + event, e);
+        } catch (IOException e) {
+            // A ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+        if(buffer.size() > MAX_FRAME_LENGTH) {
+            throw new IllegalArgumentException("Event too large: " + event);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * @param frame The content of a frame, without its length
+     * @return The event encoded in the frame
+     * @throws IOException if the frame is not valid
+     */
+    public static Event decode(byte[] frame) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+        int tag = in.readUnsignedByte();
+        boolean reserved = (in.readUnsignedByte() & RESERVED_FLAG) != 0;
+        Event event = readFields(in, tag);
+        event.currentPlayerReserved = reserved;
+        if(in.available() > 0) {
+            throw new IOException("Trailing bytes in frame of " + event);
+        }
+        return event;
+    }
+
+    private static int tagOf(Event event) {
+        if(event instanceof PingEvent) return PING;
+        if(event instanceof MessageEvent) return MESSAGE;
+        if(event instanceof ErrorEvent) return ERROR;
+        if(event instanceof ActionEvent) return ACTION;
+        if(event instanceof BoardEvent) return BOARD;
+        if(event instanceof HighlightEvent) return HIGHLIGHT;
+        if(event instanceof ChoiceEvent) return CHOICE;
+        if(event instanceof CardEvent) return CARD;
+        if(event instanceof TurnPhaseEvent) return TURN_PHASE;
+        if(event instanceof StartupPhaseEvent) return STARTUP_PHASE;
+        if(event instanceof SetCurrentPlayerEvent) return SET_CURRENT_PLAYER;
+        if(event instanceof SetFirstPlayerEvent) return SET_FIRST_PLAYER;
+        if(event instanceof SetChallengerEvent) return SET_CHALLENGER;
+        if(event instanceof PlayerNicknameEvent) return PLAYER_NICKNAME;
+        if(event instanceof SetNicknameEvent) return SET_NICKNAME;
+        if(event instanceof SetNPlayersEvent) return SET_N_PLAYERS;
+        if(event instanceof StartGameEvent) return START_GAME;
+        if(event instanceof LoseEvent) return LOSE;
+        if(event instanceof GameOverEvent) return GAME_OVER;
+        if(event instanceof DisconnectedEvent) return DISCONNECTED;
+        if(event instanceof BatchEvent) return BATCH;
+        throw new IllegalArgumentException("Unknown event type " + event.getClass().getName());
+    }
+
+    private static void writeFields(DataOutputStream out, Event event) throws IOException {
+        switch(tagOf(event)) {
+            case MESSAGE:
+                writeString(out, ((MessageEvent) event).getMessage());
+                break;
+            case ERROR:
+                writeString(out, ((ErrorEvent) event).getWarning());
+                break;
+            case ACTION:
+                writePosition(out, ((ActionEvent) event).getClicked());
+                break;
+            case BOARD:
+                List<Tile> tiles = ((BoardEvent) event).getTilesToUpdate();
+                out.writeByte(tiles.size());
+                for(Tile t : tiles) {
+                    writeTile(out, t);
+                }
+                break;
+            case HIGHLIGHT:
+                List<Position> positions = ((HighlightEvent) event).getPositionsToHighlight();
+                out.writeByte(positions.size());
+                for(Position p : positions) {
+                    writePosition(out, p);
+                }
+                break;
+            case CHOICE:
+                ChoiceEvent choice = (ChoiceEvent) event;
+                writeString(out, choice.getQuestion());
+                writeString(out, choice.getOptionTrue());
+                writeString(out, choice.getOptionFalse());
+                out.writeBoolean(choice.getChoice());
+                break;
+            case CARD:
+                writeEnum(out, ((CardEvent) event).getCard());
+                break;
+            case TURN_PHASE:
+                writeEnum(out, ((TurnPhaseEvent) event).getTurnPhase());
+                break;
+            case STARTUP_PHASE:
+                writeEnum(out, ((StartupPhaseEvent) event).getNewStartupPhase());
+                break;
+            case SET_CURRENT_PLAYER:
+                writeString(out, ((SetCurrentPlayerEvent) event).getCurrentPlayer());
+                break;
+            case SET_FIRST_PLAYER:
+                writeString(out, ((SetFirstPlayerEvent) event).getFirstPlayerNickname());
+                break;
+            case SET_CHALLENGER:
+                writeString(out, ((SetChallengerEvent) event).getChallengerNickname());
+                break;
+            case PLAYER_NICKNAME:
+                writeString(out, ((PlayerNicknameEvent) event).getPlayerNickname());
+                break;
+            case SET_NICKNAME:
+                writeString(out, ((SetNicknameEvent) event).getAcceptedNickname());
+                break;
+            case SET_N_PLAYERS:
+                out.writeByte(((SetNPlayersEvent) event).getAcceptedNPlayers());
+                break;
+            case START_GAME:
+                List<String> nicknames = ((StartGameEvent) event).getPlayerNicknames();
+                out.writeByte(nicknames.size());
+                for(String s : nicknames) {
+                    writeString(out, s);
+                }
+                break;
+            case LOSE:
+                writeString(out, ((LoseEvent) event).getLoserNickname());
+                break;
+            case DISCONNECTED:
+                writeString(out, ((DisconnectedEvent) event).getDescription());
+                break;
+            case BATCH:
+                List<Event> events = ((BatchEvent) event).getEvents();
+                if(events.size() > MAX_BATCH_EVENTS) {
+                    throw new IllegalArgumentException("Too many events in " + event);
+                }
+                out.writeShort(events.size());
+                for(Event e : events) {
+                    byte[] frame = frameOf(e);
+                    out.writeInt(frame.length);
+                    out.write(frame);
+                }
+                break;
+            default:
+                // PingEvent and GameOverEvent have no fields
+                break;
+        }
+    }
+
+    private static Event readFields(DataInputStream in, int tag) throws IOException {
+        switch(tag) {
+            case PING:
+                return new PingEvent();
+            case MESSAGE:
+                return new MessageEvent(readString(in));
+            case ERROR:
+                return new ErrorEvent(readString(in));
+            case ACTION:
+                return new ActionEvent(readPosition(in));
+            case BOARD:
+                int nTiles = in.readUnsignedByte();
+                List<Tile> tiles = new ArrayList<>(nTiles);
+                for(int i = 0; i < nTiles; i++) {
+                    tiles.add(readTile(in));
+                }
+                return new BoardEvent(tiles);
+            case HIGHLIGHT:
+                int nPositions = in.readUnsignedByte();
+                List<Position> positions = new ArrayList<>(nPositions);
+                for(int i = 0; i < nPositions; i++) {
+                    positions.add(readPosition(in));
+                }
+                return new HighlightEvent(positions);
+            case CHOICE:
+                String question = readString(in);
+                String optionTrue = readString(in);
+                String optionFalse = readString(in);
+                boolean choice = in.readBoolean();
+                return question != null || optionTrue != null || optionFalse != null
+                        ? new ChoiceEvent(question, optionTrue, optionFalse)
+                        : new ChoiceEvent(choice);
+            case CARD:
+                return new CardEvent(readEnum(in, EGodPower.values()));
+            case TURN_PHASE:
+                return new TurnPhaseEvent(readEnum(in, ETurnPhase.values()));
+            case STARTUP_PHASE:
+                return new StartupPhaseEvent(readEnum(in, EStartupPhase.values()));
+            case SET_CURRENT_PLAYER:
+                return new SetCurrentPlayerEvent(readString(in));
+            case SET_FIRST_PLAYER:
+                return new SetFirstPlayerEvent(readString(in));
+            case SET_CHALLENGER:
+                return new SetChallengerEvent(readString(in));
+            case PLAYER_NICKNAME:
+                return new PlayerNicknameEvent(readString(in));
+            case SET_NICKNAME:
+                String nickname = readString(in);
+                if(nickname == null) {
+                    throw new IOException("Missing nickname in SetNicknameEvent");
+                }
+                return new SetNicknameEvent(nickname);
+            case SET_N_PLAYERS:
+                return new SetNPlayersEvent(in.readUnsignedByte());
+            case START_GAME:
+                int nNicknames = in.readUnsignedByte();
+                List<String> nicknames = new ArrayList<>(nNicknames);
+                for(int i = 0; i < nNicknames; i++) {
+                    nicknames.add(readString(in));
+                }
+                return new StartGameEvent(nicknames);
+            case LOSE:
+                return new LoseEvent(readString(in));
+            case GAME_OVER:
+                return new GameOverEvent();
+            case DISCONNECTED:
+                return new DisconnectedEvent(readString(in));
+            case BATCH:
+                int nEvents = in.readUnsignedShort();
+                if(nEvents == 0) {
+                    throw new IOException("Empty batch");
+                }
+                List<Event> events = new ArrayList<>(nEvents);
+                for(int i = 0; i < nEvents; i++) {
+                    int length = in.readInt();
+                    if(length <= 0 || length > MAX_FRAME_LENGTH) {
+                        throw new IOException("Invalid length " + length + " of an event in a batch");
+                    }
+                    byte[] frame = new byte[length];
+                    in.readFully(frame);
+                    Event e = decode(frame);
+                    if(e instanceof BatchEvent) {
+                        throw new IOException("Nested batch");
+                    }
+                    events.add(e);
+                }
+                return new BatchEvent(events);
+            default:
+                throw new IOException("Unknown event tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if(s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeEnum(DataOutputStream out, Enum<?> value) throws IOException {
+        out.writeByte(value == null ? NONE : value.ordinal());
+    }
+
+    private static <E extends Enum<E>> E readEnum(DataInputStream in, E[] values) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if(ordinal == NONE) {
+            return null;
+        }
+        if(ordinal >= values.length) {
+            throw new IOException("Invalid enum value " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    private static void writePosition(DataOutputStream out, Position p) throws IOException {
+        out.writeByte(p == null ? NONE : BoardState.square(p.getRow(), p.getCol()));
+    }
+
+    private static Position readPosition(DataInputStream in) throws IOException {
+        int square = readSquare(in);
+        return square == NONE ? null : new Position(BoardState.rowOf(square), BoardState.columnOf(square));
+    }
+
+    private static int readSquare(DataInputStream in) throws IOException {
+        int square = in.readUnsignedByte();
+        if(square != NONE && square >= BoardState.SQUARES) {
+            throw new IOException("Invalid square " + square);
+        }
+        return square;
+    }
+
+    private static void writeTile(DataOutputStream out, Tile t) throws IOException {
+        Worker worker = t.getWorker();
+        int bits = t.getLevel().getHeight();
+        if(t.isDomed()) {
+            bits |= DOME_BIT;
+        }
+        if(worker != null) {
+            bits |= WORKER_BIT | worker.getId() << WORKER_ID_SHIFT;
+        }
+        out.writeByte(t.getSquare());
+        out.writeByte(bits);
+        if(worker != null) {
+            writeString(out, worker.getOwnerNickname());
+        }
+    }
+
+    private static Tile readTile(DataInputStream in) throws IOException {
+        int square = readSquare(in);
+        if(square == NONE) {
+            throw new IOException("Missing square of a tile");
+        }
+        int bits = in.readUnsignedByte();
+        Tile t = new Tile(BoardState.rowOf(square), BoardState.columnOf(square));
+        t.setLevel(ETileLevel.fromHeight(bits & LEVEL_MASK));
+        t.setDomed((bits & DOME_BIT) != 0);
+        if((bits & WORKER_BIT) != 0) {
+            String owner = readString(in);
+            if(owner == null) {
+                throw new IOException("Missing owner of the worker on square " + square);
+            }
+            // Only the nickname of the owner is known on the other side, as with serialization
+            Worker worker = Player.headless(owner).getWorkers()[(bits >> WORKER_ID_SHIFT) & 1];
+            worker.setTile(t);
+        }
+        return t;
+    }
+
+}
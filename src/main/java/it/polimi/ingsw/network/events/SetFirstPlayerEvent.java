@@ -18,6 +18,14 @@ public class SetFirstPlayerEvent extends Event {
     }
 
 
+    /**
+     * Getter for the first player nickname carried by this {@code Event}
+     * @return the {@param firstPlayerNickname}
+     */
+    public String getFirstPlayerNickname() {
+        return firstPlayerNickname;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,15 @@
+package it.polimi.ingsw.server;
+
+/**
+ * {@code EOverflowPolicy} is an enumeration of what a {@code RemoteConnection} does with an event when its outbound
+ * queue is full, that is when the client reads its events slower than the game produces them
+ */
+public enum EOverflowPolicy {
+
+    /** The event is dropped, the events already in the queue are still sent */
+    DROP,
+
+    /** The client is disconnected, as if the network had failed */
+    DISCONNECT;
+
+}
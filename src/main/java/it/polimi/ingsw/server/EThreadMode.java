@@ -0,0 +1,15 @@
+package it.polimi.ingsw.server;
+
+/**
+ * {@code EThreadMode} is an enumeration of the kinds of threads a {@code Server} uses for the handshakes and for the
+ * readers and writers of its {@code RemoteConnection}s
+ */
+public enum EThreadMode {
+
+    /** Threads of the operating system, with at most 128 handshakes at a time */
+    PLATFORM,
+
+    /** Virtual threads, only available on Java 21 or newer, with no limit on the handshakes */
+    VIRTUAL;
+
+}
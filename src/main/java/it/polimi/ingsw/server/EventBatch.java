@@ -0,0 +1,84 @@
+package it.polimi.ingsw.server;
+
+import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.events.Event;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class collects the events sent to each {@code RemoteConnection} by a thread while it handles one action of a
+ * player, so that each client gets them all in a single {@code BatchEvent} (see {@link RemoteConnection#sendEvent(Event)}).
+ *
+ * A batch is opened with {@link #begin()} and sent with {@link #end()}, which must be called by the same thread,
+ * in a {@code finally} block. Batches can be nested, only the outermost one is sent
+ */
+public final class EventBatch {
+
+    private static final ThreadLocal<EventBatch> CURRENT = new ThreadLocal<>();
+
+    private final Map<RemoteConnection, List<Event>> pending = new LinkedHashMap<>();
+    private int depth;
+
+    private EventBatch() {
+    }
+
+    /**
+     * Opens a batch in the current thread
+     */
+    public static void begin() {
+        EventBatch batch = CURRENT.get();
+        if(batch == null) {
+            batch = new EventBatch();
+            CURRENT.set(batch);
+        }
+        batch.depth++;
+    }
+
+    /**
+     * Closes the batch opened by the current thread and, if it is the outermost one, sends to each connection the events collected for it
+     * @throws IllegalStateException if the current thread has not opened a batch
+     */
+    public static void end() {
+        EventBatch batch = CURRENT.get();
+        if(batch == null) {
+            throw new IllegalStateException("No batch has been opened by this thread");
+        }
+        if(--batch.depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+        for(Map.Entry<RemoteConnection, List<Event>> entry : batch.pending.entrySet()) {
+            try {
+                entry.getKey().sendBatch(entry.getValue());
+            } catch (DisconnectedException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Adds an event to the batch of the current thread, if any
+     * @return {@code true} if the event has been added, {@code false} if the current thread has no open batch
+     */
+    static boolean add(RemoteConnection connection, Event event) {
+        EventBatch batch = CURRENT.get();
+        if(batch == null) {
+            return false;
+        }
+        batch.pending.computeIfAbsent(connection, c -> new ArrayList<>()).add(event);
+        return true;
+    }
+
+    /**
+     * Removes from the batch of the current thread the events collected for a connection
+     * @return The events, {@code null} if there are none
+     */
+    static List<Event> take(RemoteConnection connection) {
+        EventBatch batch = CURRENT.get();
+        return batch == null ? null : batch.pending.remove(connection);
+    }
+
+}
@@ -0,0 +1,148 @@
+package it.polimi.ingsw.server;
+
+import java.io.IOException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * This class represents a thread that serves many {@code NioRemoteConnection}s with a single {@code Selector}:
+ * it reads the frames of the clients as soon as they arrive, writes the queued events as soon as the sockets can take
+ * them and, once per tick, pings the clients and closes the ones that stopped answering.
+ *
+ * Every operation on the channels is run by this thread. The other threads hand it tasks through {@link #execute(Runnable)}
+ */
+class EventLoop implements Runnable {
+
+    /** Time between two checks of the timeouts of the connections */
+    static final long TICK_MILLIS = 1000;
+
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final List<NioRemoteConnection> connections = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Creates a new event loop, which does not run until {@link #start()} is called
+     * @param name The name of the thread of the loop
+     * @throws IOException if the selector cannot be opened
+     */
+    EventLoop(String name) throws IOException {
+        this.selector = Selector.open();
+        this.thread = new Thread(this, name);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Stops the loop and closes all its connections
+     */
+    void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    /**
+     * Runs a task in the thread of this loop, after the current one
+     * @param task The task
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * @return {@code true} if the caller is the thread of this loop
+     */
+    boolean inLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * Starts serving a connection
+     * @param connection A connection whose channel is in non-blocking mode
+     */
+    void register(NioRemoteConnection connection) {
+        execute(() -> {
+            try {
+                connection.register(selector);
+                connections.add(connection);
+            } catch (IOException e) {
+                connection.fail(e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return The number of connections served by this loop, read by the thread of the loop
+     */
+    int size() {
+        return connections.size();
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.currentTimeMillis() + TICK_MILLIS;
+        try {
+            while(running) {
+                selector.select(Math.max(1, nextTick - System.currentTimeMillis()));
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while(keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    NioRemoteConnection connection = (NioRemoteConnection) key.attachment();
+                    if(key.isValid() && key.isReadable()) {
+                        runSafely(connection::onReadable);
+                    }
+                    if(key.isValid() && key.isWritable()) {
+                        runSafely(connection::flushWrites);
+                    }
+                }
+
+                Runnable task;
+                while((task = tasks.poll()) != null) {
+                    runSafely(task);
+                }
+
+                long now = System.currentTimeMillis();
+                if(now >= nextTick) {
+                    connections.removeIf(c -> !c.isActive());
+                    for(NioRemoteConnection c : connections) {
+                        runSafely(() -> c.checkTimeouts(now));
+                    }
+                    nextTick = now + TICK_MILLIS;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        } finally {
+            // Closed right away, since the tasks a close() queues would never run
+            for(NioRemoteConnection c : connections) {
+                runSafely(() -> c.fail(">> Server shut down, disconnected"));
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    // An exception thrown by the game must not stop the loop, which serves other games too
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+}
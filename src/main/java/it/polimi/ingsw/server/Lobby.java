@@ -0,0 +1,138 @@
+package it.polimi.ingsw.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class represents the queue of the clients waiting for a game of a given number of players, without locks.
+ *
+ * The clients wait in a concurrent deque, in order of arrival, and a counter keeps how many of them are still
+ * unclaimed. A thread claims a whole group by decreasing the counter with a single compare-and-set, and only then takes
+ * the clients out of the deque, so two threads never claim the same client and no client is ever waiting for a
+ * lock held by a thread that is building a game. A client that leaves while it is being claimed makes the group fall short:
+ * the claim is then given back and tried again.
+ */
+final class Lobby {
+
+    private final int nPlayers;
+    private final Deque<RemoteConnection> waiting = new ConcurrentLinkedDeque<>();
+    // The number of clients in the deque that have not been claimed yet
+    private final AtomicInteger unclaimed = new AtomicInteger();
+
+    /**
+     * @param nPlayers The number of players of the games of this lobby
+     */
+    Lobby(int nPlayers) {
+        if(nPlayers < 2) {
+            throw new IllegalArgumentException("A game needs at least two players");
+        }
+        this.nPlayers = nPlayers;
+    }
+
+    int getNPlayers() {
+        return nPlayers;
+    }
+
+    /**
+     * Puts a client at the end of the queue
+     * @param connection The client
+     */
+    void join(RemoteConnection connection) {
+        waiting.addLast(connection);
+        unclaimed.incrementAndGet();
+    }
+
+    /**
+     * Removes a client from the queue, if it is still waiting there
+     * @param connection The client
+     * @return {@code true} if the client was waiting, {@code false} if it has already been claimed
+     */
+    boolean remove(RemoteConnection connection) {
+        if(waiting.remove(connection)) {
+            unclaimed.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Claims the first clients of the queue that make a whole game
+     * @return The clients of the game, in order of arrival, or {@code null} if not enough clients are waiting
+     */
+    List<RemoteConnection> claimGroup() {
+        return claim(nPlayers, nPlayers);
+    }
+
+    /**
+     * Claims a client that waited too long, if it is still waiting, together with the first clients that are waiting
+     * with it, so that the empty seats of its game can be given to bots
+     * @param connection The client
+     * @return The clients of the game, in order of arrival, or {@code null} if the client is no longer waiting
+     */
+    List<RemoteConnection> claimWithBots(RemoteConnection connection) {
+        if(!remove(connection)) {
+            return null;
+        }
+        List<RemoteConnection> others = claim(0, nPlayers - 1);
+        List<RemoteConnection> group = new ArrayList<>(nPlayers);
+        group.add(connection);
+        if(others != null) {
+            group.addAll(others);
+        }
+        return group;
+    }
+
+    /**
+     * Claims between {@code min} and {@code max} clients. A client that is closing when it is taken out of the
+     * queue is dropped; if the group then falls short of {@code min}, the live clients are put back at the head of the
+     * queue and the claim is tried again
+     */
+    private List<RemoteConnection> claim(int min, int max) {
+        while(true) {
+            int available = unclaimed.get();
+            if(available < Math.max(min, 1)) {
+                return null;
+            }
+            int count = Math.min(available, max);
+            if(!unclaimed.compareAndSet(available, available - count)) {
+                continue;
+            }
+            List<RemoteConnection> group = new ArrayList<>(count);
+            int taken = 0;
+            for(; taken < count; taken++) {
+                RemoteConnection c = waiting.pollFirst();
+                if(c == null) {
+                    break;
+                }
+                if(c.isActive() && !c.closing) {
+                    group.add(c);
+                }
+            }
+            // Each client removed while this claim was in progress has been discounted twice
+            int restored = count - taken;
+            if(group.size() < min) {
+                for(int i = group.size() - 1; i >= 0; i--) {
+                    waiting.addFirst(group.get(i));
+                }
+                unclaimed.addAndGet(restored + group.size());
+                continue;
+            }
+            if(restored > 0) {
+                unclaimed.addAndGet(restored);
+            }
+            return group;
+        }
+    }
+
+    /**
+     * @return A copy of the queue, in order of arrival
+     */
+    List<RemoteConnection> getWaiting() {
+        return Collections.unmodifiableList(new ArrayList<>(waiting));
+    }
+
+}
@@ -0,0 +1,387 @@
+package it.polimi.ingsw.server;
+
+import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.events.DisconnectedEvent;
+import it.polimi.ingsw.network.events.Event;
+import it.polimi.ingsw.network.events.EventCodec;
+import it.polimi.ingsw.network.events.PingEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static it.polimi.ingsw.model.Constants.*;
+
+/**
+ * This class represents the server-side endpoint of a connection served by an {@link EventLoop}, with a non-blocking
+ * channel, instead of the threads of a {@code RemoteConnection}. The "handshaking" phase and the events are the same,
+ * but only the format of the {@code EventCodec} is spoken.
+ *
+ * The frames of the client are read by the loop as they arrive and, once the game has been created, notified to the
+ * observers from the thread of the loop. The events sent to the client are queued as read-only buffers over their
+ * shared frames and written by the loop whenever the channel can take them. An idle connection only keeps a small read buffer
+ */
+public class NioRemoteConnection extends RemoteConnection {
+
+    private static final int INITIAL_READ_BUFFER = 256;
+    private static final int HEADER_LENGTH = 5;
+
+    private final SocketChannel channel;
+    private final EventLoop loop;
+    private SelectionKey key;
+
+    // Only used by the thread of the loop
+    private ByteBuffer readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+    private boolean headerReceived = false;
+    private boolean handshakeDone = false;
+    private boolean started = false;
+    private List<Event> early = new ArrayList<>();
+    private long lastRead;
+    private long lastPing;
+
+    private final Queue<ByteBuffer[]> writes = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean(false);
+    private volatile boolean pinging = false;
+    private volatile boolean closeAfterWrites = false;
+
+    /**
+     * Creates a new connection over an accepted channel, which the loop starts serving once {@link EventLoop#register(NioRemoteConnection)} is called
+     * @param channel The channel connected to the client, in non-blocking mode
+     * @param loop The loop that serves the channel
+     * @param server The server that accepted the client
+     * @param outboundQueueCapacity The maximum number of events waiting to be written to the client
+     * @param overflowPolicy What to do with an event when too many events are waiting
+     */
+    public NioRemoteConnection(SocketChannel channel, EventLoop loop, Server server, int outboundQueueCapacity, EOverflowPolicy overflowPolicy) {
+        super(channel.socket(), server, outboundQueueCapacity, overflowPolicy);
+        if(channel.isBlocking()) {
+            throw new IllegalArgumentException("The channel must be in non-blocking mode");
+        }
+        this.channel = channel;
+        this.loop = loop;
+    }
+
+    /**
+     * Registers the channel with the selector of the loop. Called by the loop
+     */
+    void register(Selector selector) throws IOException {
+        key = channel.register(selector, SelectionKey.OP_READ, this);
+        lastRead = System.currentTimeMillis();
+        lastPing = lastRead;
+    }
+
+    /**
+     * The connection is initialized by its loop, as the frames of the client arrive
+     */
+    @Override
+    public void init() {
+        throw new IllegalStateException("A NioRemoteConnection is initialized by its event loop");
+    }
+
+    /**
+     * The events are read by the loop, not by a thread of this connection
+     */
+    @Override
+    public void run() {
+        throw new IllegalStateException("A NioRemoteConnection is served by its event loop");
+    }
+
+    /**
+     * {@inheritDoc}
+     * The events received before, if any, are notified first
+     */
+    @Override
+    public void start() {
+        loop.execute(() -> {
+            started = true;
+            List<Event> received = early;
+            early = null;
+            for(Event e : received) {
+                deliver(e);
+            }
+        });
+    }
+
+    /**
+     * The clients are pinged by the loop, at every {@link #checkTimeouts(long) check}
+     */
+    @Override
+    public void startPinger() {
+        pinging = true;
+    }
+
+    /**
+     * The events are delivered by the loop, as soon as they arrive
+     */
+    @Override
+    public Event receiveEvent(int timeout) {
+        throw new IllegalStateException("The events of a NioRemoteConnection are delivered by its event loop");
+    }
+
+    /**
+     * The events are delivered by the loop, as soon as they arrive
+     */
+    @Override
+    public Event receiveEvent() {
+        throw new IllegalStateException("The events of a NioRemoteConnection are delivered by its event loop");
+    }
+
+    @Override
+    protected boolean isBinary() {
+        return true;
+    }
+
+    /**
+     * Puts the event in the {@link EventBatch} of the current thread if it opened one, otherwise queues it for the loop
+     * @param event  the event which has to be sent
+     * @throws DisconnectedException if the client is disconnected since too many events are waiting
+     */
+    @Override
+    public void sendEvent(Event event) throws DisconnectedException {
+        if(!EventBatch.add(this, event)) {
+            enqueue(event);
+        }
+    }
+
+    @Override
+    void enqueue(Event event) throws DisconnectedException {
+        if(!isActive() || closing) {
+            return;
+        }
+        ByteBuffer frame;
+        try {
+            frame = EventCodec.sharedFrame(event);
+        } catch (IllegalArgumentException e) {
+            failSending(">> Cannot encode " + event + " for");
+            return;
+        }
+        if(pendingWrites.incrementAndGet() > outboundQueueCapacity) {
+            pendingWrites.decrementAndGet();
+            if(overflowPolicy == EOverflowPolicy.DROP) {
+                System.err.println(">> Outbound queue full, dropped " + event + " for " + getNickname());
+                return;
+            }
+            failSending(">> Too many events waiting to be sent to");
+        }
+        ByteBuffer length = ByteBuffer.allocate(4).putInt(0, frame.remaining());
+        writes.add(new ByteBuffer[] {length, frame});
+        scheduleWrite();
+    }
+
+    @Override
+    public int getPendingEvents() {
+        return pendingWrites.get();
+    }
+
+    private void scheduleWrite() {
+        if(writeScheduled.compareAndSet(false, true)) {
+            loop.execute(this::flushWrites);
+        }
+    }
+
+    /**
+     * Writes the queued frames until the channel cannot take more, in which case the loop waits for it to become
+     * writable. Called by the loop
+     */
+    void flushWrites() {
+        if(key == null || !key.isValid()) {
+            return;
+        }
+        try {
+            while(true) {
+                ByteBuffer[] head;
+                while((head = writes.peek()) != null) {
+                    channel.write(head);
+                    if(head[1].hasRemaining()) {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    writes.poll();
+                    pendingWrites.decrementAndGet();
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+                writeScheduled.set(false);
+                // A frame queued after the last check would wait for the next one otherwise
+                if(writes.isEmpty() || !writeScheduled.compareAndSet(false, true)) {
+                    break;
+                }
+            }
+            if(closeAfterWrites) {
+                closeNow();
+            }
+        } catch (IOException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Reads what the client sent and handles the complete frames. Called by the loop
+     */
+    void onReadable() {
+        try {
+            if(channel.read(readBuffer) < 0) {
+                fail(">> Connection closed by");
+                return;
+            }
+            lastRead = System.currentTimeMillis();
+            readBuffer.flip();
+            int needed = readFrames();
+            if(!isActive()) {
+                return;
+            }
+            readBuffer.compact();
+            if(needed > readBuffer.capacity()) {
+                readBuffer.flip();
+                readBuffer = ByteBuffer.allocate(needed).put(readBuffer);
+            } else if(readBuffer.position() == 0 && readBuffer.capacity() > INITIAL_READ_BUFFER) {
+                readBuffer = ByteBuffer.allocate(INITIAL_READ_BUFFER);
+            }
+        } catch (IOException | DisconnectedException e) {
+            fail(e.getMessage());
+        }
+    }
+
+    /**
+     * Handles the complete frames in the read buffer
+     * @return The size the read buffer needs to hold the next frame
+     */
+    private int readFrames() throws IOException, DisconnectedException {
+        while(isActive()) {
+            if(!headerReceived) {
+                if(readBuffer.remaining() < HEADER_LENGTH) {
+                    return HEADER_LENGTH;
+                }
+                if(readBuffer.getInt() != EventCodec.MAGIC || (readBuffer.get() & 0xFF) != EventCodec.VERSION) {
+                    throw new IOException(">> Unknown protocol from");
+                }
+                ByteBuffer reply = ByteBuffer.allocate(HEADER_LENGTH).putInt(EventCodec.MAGIC).put((byte) EventCodec.VERSION);
+                reply.flip();
+                writes.add(new ByteBuffer[] {ByteBuffer.allocate(0), reply});
+                pendingWrites.incrementAndGet();
+                scheduleWrite();
+                headerReceived = true;
+                continue;
+            }
+            if(readBuffer.remaining() < 4) {
+                return 4;
+            }
+            int length = readBuffer.getInt(readBuffer.position());
+            if(length <= 0 || length > EventCodec.MAX_FRAME_LENGTH) {
+                throw new IOException(">> Invalid frame length " + length + " from");
+            }
+            if(readBuffer.remaining() < 4 + length) {
+                return 4 + length;
+            }
+            readBuffer.getInt();
+            byte[] frame = new byte[length];
+            readBuffer.get(frame);
+            handle(EventCodec.decode(frame));
+        }
+        return 0;
+    }
+
+    private void handle(Event event) throws DisconnectedException {
+        if(!handshakeDone) {
+            handshakeDone = acceptHandshakeEvent(event);
+        } else if(!(event instanceof PingEvent)) {
+            if(started) {
+                deliver(event);
+            } else {
+                early.add(event);
+            }
+        }
+    }
+
+    /**
+     * Notifies an event to the observers of this connection, as {@link RemoteConnection#run()} does
+     */
+    private void deliver(Event event) {
+        if(event instanceof DisconnectedEvent) {
+            close();
+        }
+        setChanged();
+        notify(event);
+    }
+
+    /**
+     * Pings the client when it is time to, and closes the connection if the client has not sent anything for too long.
+     * Called by the loop
+     * @param now The current time, in milliseconds
+     */
+    void checkTimeouts(long now) {
+        long timeout = (handshakeDone ? NORMAL_NETWORK_TIMEOUT_IN_SECONDS : LONG_NETWORK_TIMEOUT_IN_SECONDS) * 1000L;
+        if(now - lastRead > timeout) {
+            fail(">> Timeout of");
+            return;
+        }
+        if(pinging && now - lastPing >= PING_TIMEOUT_IN_SECONDS * 1000L) {
+            lastPing = now;
+            try {
+                enqueue(new PingEvent());
+            } catch (DisconnectedException e) {
+                // The loop has already been asked to close the connection
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The loop closes the connection and notifies the disconnection
+     */
+    @Override
+    void failSending(String message) throws DisconnectedException {
+        loop.execute(() -> fail(message));
+        throw new DisconnectedException(message + " " + getNickname());
+    }
+
+    /**
+     * Closes the connection at once and notifies the disconnection, unless it has already been closed
+     * @param message The description of the failure
+     */
+    void fail(String message) {
+        if(!isActive()) {
+            return;
+        }
+        beginClose();
+        closeNow();
+        notifyDisconnection(message + " " + getNickname());
+    }
+
+    /**
+     * {@inheritDoc}
+     * The first time, the loop still writes the events already queued before closing the channel
+     */
+    @Override
+    public void close() {
+        stateLock.lock();
+        try {
+            if(!isActive()) {
+                return;
+            }
+            if(beginClose()) {
+                closeAfterWrites = true;
+                scheduleWrite();
+                // If a write is already scheduled, it closes the channel once it is done
+                loop.execute(() -> {
+                    if(writes.isEmpty() && isActive()) {
+                        closeNow();
+                    }
+                });
+                return;
+            }
+            closeNow();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+}
@@ -2,46 +2,58 @@ package it.polimi.ingsw.server;
 
 import it.polimi.ingsw.network.Connection;
 import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.TimerWheel;
 import it.polimi.ingsw.network.events.*;
 
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import static it.polimi.ingsw.model.Constants.*;
 
 /**
- * This class represents the server-side endpoint of a client-server socket connection
+ * This class represents the server-side endpoint of a client-server socket connection.
+ *
+ * The events sent to the client are put in a bounded outbound queue and written to the socket by a dedicated
+ * {@link Writer}, so the threads of the game never wait for the network. A client that speaks the {@code EventCodec}
+ * gets frames encoded by the thread that sent the event, so the writer never reads the model. When the queue is full, because the
+ * client is too slow, the {@link EOverflowPolicy} of the connection decides what happens.
+ *
+ * The events sent while an {@link EventBatch} is open are sent together, as one {@code BatchEvent}, when it is closed.
+ *
+ * The reader and the writer of the connection run on threads of the kind chosen for the server (see {@link EThreadMode}),
+ * while the {@code PingEvent}s and the checks that the client is still alive are scheduled on the {@link TimerWheel}
+ * the server shares among all its connections
  */
 public class RemoteConnection extends Connection {
 
     /**
-     * This class represents a thread dedicated to continuously send {@code PingEvent}s through the socket connection,
-     * ensuring that there is always traffic, so that a disconnection or a network issue could be promptly detected
+     * This class represents a task dedicated to write to the socket the events in the outbound queue, in order.
+     * If the socket cannot be written, the connection is closed and the disconnection is notified
      */
-    private class PingerThread extends Thread {
-
-        private boolean active = true;
-
-        public void doStop() {
-            this.active = false;
-        }
+    private class Writer implements Runnable {
 
         @Override
         public void run() {
 
             try {
-                while(active) {
-                    sendEvent(new PingEvent());
-                    try {
-                        Thread.sleep(PING_TIMEOUT_IN_SECONDS * 1000);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
+                while(true) {
+                    Event event = outbound.take();
+                    if(event == CLOSE) {
+                        closeNow();
+                        return;
+                    }
+                    if(event == FAILED) {
+                        throw new DisconnectedException(failure);
                     }
+                    RemoteConnection.super.sendEvent(event);
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (DisconnectedException e) {
-                RemoteConnection.this.close();
+                closeNow();
                 notifyDisconnection(e.getMessage() + " " + getNickname());
             }
 
@@ -49,27 +61,60 @@ public class RemoteConnection extends Connection {
 
     }
 
+    // Markers put in the outbound queue, compared by identity
+    private static final Event CLOSE = new PingEvent();
+    private static final Event FAILED = new PingEvent();
+
     private Server server;
-    private String nickname;
-    private PingerThread pingerThread;
+    private volatile String nickname;
+    private volatile TimerWheel.Timeout heartbeat;
+
+    final int outboundQueueCapacity;
+    final EOverflowPolicy overflowPolicy;
+    private BlockingQueue<Event> outbound;
+    private Thread writerThread;
+    private volatile String failure;
+    volatile boolean closing = false;
 
 
     public RemoteConnection(Socket socket, Server server) {
+        this(socket, server, OUTBOUND_QUEUE_CAPACITY, EOverflowPolicy.DISCONNECT);
+    }
+
+    /**
+     * Creates a new {@code RemoteConnection} over an accepted socket
+     * @param socket The socket connected to the client
+     * @param server The server that accepted the client
+     * @param outboundQueueCapacity The maximum number of events waiting to be written to the client
+     * @param overflowPolicy What to do with an event when the outbound queue is full
+     */
+    public RemoteConnection(Socket socket, Server server, int outboundQueueCapacity, EOverflowPolicy overflowPolicy) {
+        if(outboundQueueCapacity < 1) {
+            throw new IllegalArgumentException("The outbound queue must hold at least one event");
+        }
+        if(overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        }
         this.socket = socket;
         this.server = server;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.overflowPolicy = overflowPolicy;
     }
 
     /**
-     * This method initializes this remoteConnection, building the object streams for network communication
-     * and executing the "handshaking" phase with che client, during which the client has to insert a valid nickname
+     * This method initializes this remoteConnection, negotiating the format of the events with the client (see
+     * {@link Connection#openServerStreams()}) and executing the "handshaking" phase with che client, during which the client has to insert a valid nickname
      * and number of players before it can start a game. If any communication exception is thrown during those operations,
      * the connection is automatically closed and the client disconnected
      */
     public void init() {
         try {
 
-            this.oos = new ObjectOutputStream(socket.getOutputStream());
-            this.ois = new ObjectInputStream(socket.getInputStream());
+            setReadTimeout(LONG_NETWORK_TIMEOUT_IN_SECONDS * 1000);
+            openServerStreams();
+
+            outbound = new ArrayBlockingQueue<>(outboundQueueCapacity);
+            writerThread = server.startThread(new Writer());
 
             readNickname();
 
@@ -88,26 +133,9 @@ public class RemoteConnection extends Connection {
      */
     private void readNickname() throws DisconnectedException {
 
-        Event received;
         // Inserimento nick
-        while(true) {
-            received = receiveEvent(LONG_NETWORK_TIMEOUT_IN_SECONDS * 1000);
-            if(!(received instanceof MessageEvent)) {
-                sendEvent(new ErrorEvent("Invalid input, try again"));
-            } else {
-                String nick = ((MessageEvent) received).getMessage();
-                if(nick != null && !(nick.isEmpty())) {
-                    if(!(server.isNicknameAlreadyConnected(nick))) {
-                        this.nickname = nick;
-                        sendEvent(new SetNicknameEvent(nick));
-                        break;
-                    } else {
-                        sendEvent(new ErrorEvent("This nickname is not available, please choose another one"));
-                    }
-                } else {
-                    sendEvent(new ErrorEvent("The nickname cannot be null or the empty string"));
-                }
-            }
+        while(!acceptNickname(receiveEvent(LONG_NETWORK_TIMEOUT_IN_SECONDS * 1000))) {
+            // The client is asked again
         }
 
     }
@@ -119,33 +147,82 @@ public class RemoteConnection extends Connection {
      */
     private void readNPlayers() throws DisconnectedException {
 
-        Event received;
         // Inserimento numero di giocatori
-        while(true) {
-            received = receiveEvent(LONG_NETWORK_TIMEOUT_IN_SECONDS * 1000);
-            if(!(received instanceof MessageEvent)) {
-                sendEvent(new ErrorEvent("Invalid input, try again"));
+        while(!acceptNPlayers(receiveEvent(LONG_NETWORK_TIMEOUT_IN_SECONDS * 1000))) {
+            // The client is asked again
+        }
+
+    }
+
+    /**
+     * Handles an event received during the "handshaking" phase, see {@link #init()}
+     * @param received The event received from the client
+     * @return {@code true} once the client has chosen both a valid nickname and a valid number of players
+     * @throws DisconnectedException if any network issue happens
+     */
+    boolean acceptHandshakeEvent(Event received) throws DisconnectedException {
+        if(nickname == null) {
+            acceptNickname(received);
+            return false;
+        }
+        return acceptNPlayers(received);
+    }
+
+    /**
+     * Validates a nickname proposed by the client and sends back either an ack message or an error
+     * @return {@code true} if the nickname has been accepted
+     */
+    private boolean acceptNickname(Event received) throws DisconnectedException {
+        if(!(received instanceof MessageEvent)) {
+            sendEvent(new ErrorEvent("Invalid input, try again"));
+            return false;
+        }
+        String nick = ((MessageEvent) received).getMessage();
+        if(nick == null || nick.isEmpty()) {
+            sendEvent(new ErrorEvent("The nickname cannot be null or the empty string"));
+            return false;
+        }
+        if(!server.reserveNickname(nick, this)) {
+            sendEvent(new ErrorEvent("This nickname is not available, please choose another one"));
+            return false;
+        }
+        this.nickname = nick;
+        // The server released the nicknames of this connection before it knew this one
+        if(closing) {
+            server.releaseNickname(nick, this);
+        }
+        sendEvent(new SetNicknameEvent(nick));
+        return true;
+    }
+
+    /**
+     * Validates a number of players proposed by the client and either sends back an ack message and enters the lobby,
+     * or sends an error
+     * @return {@code true} if the number of players has been accepted
+     */
+    private boolean acceptNPlayers(Event received) throws DisconnectedException {
+        if(!(received instanceof MessageEvent)) {
+            sendEvent(new ErrorEvent("Invalid input, try again"));
+            return false;
+        }
+        String nPlayersString = ((MessageEvent) received).getMessage();
+        try {
+            int nPlayers = Integer.parseInt(nPlayersString);
+            if(nPlayers == 2) {
+                sendEvent(new SetNPlayersEvent(nPlayers));
+                server.lobby2Players(this);
+                return true;
+            } else if (nPlayers == 3) {
+                sendEvent(new SetNPlayersEvent(nPlayers));
+                server.lobby3Players(this);
+                return true;
             } else {
-                String nPlayersString = ((MessageEvent) received).getMessage();
-                try {
-                    int nPlayers = Integer.parseInt(nPlayersString);
-                    if(nPlayers == 2) {
-                        sendEvent(new SetNPlayersEvent(nPlayers));
-                        server.lobby2Players(this);
-                        break;
-                    } else if (nPlayers == 3) {
-                        sendEvent(new SetNPlayersEvent(nPlayers));
-                        server.lobby3Players(this);
-                        break;
-                    } else {
-                        sendEvent(new ErrorEvent("Invalid input, please choose either 2 or 3"));
-                    }
-                } catch (NumberFormatException e) {
-                    sendEvent(new ErrorEvent("Invalid input, please choose either 2 or 3"));
-                }
+                sendEvent(new ErrorEvent("Invalid input, please choose either 2 or 3"));
             }
+        } catch (NumberFormatException e) {
+            sendEvent(new ErrorEvent("Invalid input, please choose either 2 or 3"));
         }
-
+        return false;
     }
 
     /**
@@ -168,7 +245,7 @@ public class RemoteConnection extends Connection {
 
                 Event receivedEvent;
                 do {
-                    receivedEvent = receiveEvent(NORMAL_NETWORK_TIMEOUT_IN_SECONDS * 1000);
+                    receivedEvent = receiveEvent();
                 } while(receivedEvent instanceof PingEvent);
                 // Not necessary in case of a disconnection during initialization
                 if(receivedEvent instanceof DisconnectedEvent) {
@@ -185,23 +262,209 @@ public class RemoteConnection extends Connection {
     }
 
     /**
-     * This method starts the pingerThread associated with this remoteConnection
+     * Starts delivering the events received from the client to the observers of this remoteConnection, once the game
+     * it belongs to has been created
+     */
+    public void start() {
+        try {
+            watchIdle(server.getTimerWheel(), NORMAL_NETWORK_TIMEOUT_IN_SECONDS * 1000L);
+        } catch (IOException e) {
+            closeNow();
+            notifyDisconnection(e.getMessage() + " " + getNickname());
+            return;
+        }
+        server.startThread(this);
+    }
+
+    /**
+     * This method starts sending a {@code PingEvent} to the client every {@code PING_TIMEOUT_IN_SECONDS}, ensuring that
+     * there is always traffic, so that a disconnection or a network issue could be promptly detected
      */
     public void startPinger() {
-        pingerThread = new PingerThread();
-        pingerThread.start();
+        heartbeat = server.getTimerWheel().schedule(this::ping, PING_TIMEOUT_IN_SECONDS * 1000L);
+    }
+
+    /**
+     * Queues a {@code PingEvent} and schedules the next one, until the connection is closed. Run by the timer wheel
+     */
+    private void ping() {
+        if(!isActive() || closing) {
+            return;
+        }
+        try {
+            sendEvent(new PingEvent());
+        } catch (DisconnectedException e) {
+            // The writer closes the connection and notifies the disconnection
+            return;
+        }
+        heartbeat = server.getTimerWheel().schedule(this::ping, PING_TIMEOUT_IN_SECONDS * 1000L);
+    }
+
+    /**
+     * Puts the event in the outbound queue, without waiting for the network, or in the {@link EventBatch} of the
+     * current thread if it opened one. Before the initialization, the event is written directly.
+     * If the queue is full, the event is dropped or the client is disconnected, depending on the {@link EOverflowPolicy}
+     * @param event  the event which has to be sent
+     * @throws DisconnectedException if the client is disconnected since the queue is full
+     */
+    @Override
+    public void sendEvent(Event event) throws DisconnectedException {
+        if(writerThread == null) {
+            super.sendEvent(event);
+            return;
+        }
+        if(!EventBatch.add(this, event)) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Puts the events collected by an {@link EventBatch} in the outbound queue, as a single {@code BatchEvent}, or as
+     * many as needed to keep each one within a frame. A client that does not speak the {@code EventCodec} gets them
+     * one by one
+     * @param events The events, in order
+     * @throws DisconnectedException if the client is disconnected since the queue is full
+     */
+    void sendBatch(List<Event> events) throws DisconnectedException {
+        List<Event> toSend = events;
+        if(events.size() > 1 && isBinary()) {
+            try {
+                toSend = EventCodec.batches(events);
+            } catch (IllegalArgumentException e) {
+                failSending(">> Cannot encode an event for");
+            }
+        }
+        for(Event e : toSend) {
+            enqueue(e);
+        }
+    }
+
+    void enqueue(Event event) throws DisconnectedException {
+        if(!isActive() || closing) {
+            return;
+        }
+        if(isBinary()) {
+            // Encoded now, while the sender still owns what the event refers to; the writer reuses the frame
+            try {
+                EventCodec.sharedFrame(event);
+            } catch (IllegalArgumentException e) {
+                failSending(">> Cannot encode " + event + " for");
+            }
+        }
+        if(outbound.offer(event)) {
+            return;
+        }
+        if(overflowPolicy == EOverflowPolicy.DROP) {
+            System.err.println(">> Outbound queue full, dropped " + event + " for " + getNickname());
+            return;
+        }
+        failSending(">> Too many events waiting to be sent to");
+    }
+
+    /**
+     * Disconnects the client since the events sent to it cannot be delivered. The writer closes the connection and
+     * notifies the disconnection, outside of the threads of the game
+     * @param message The reason, followed by the nickname of the client
+     * @throws DisconnectedException always
+     */
+    void failSending(String message) throws DisconnectedException {
+        failure = message;
+        // Closing the socket wakes the writer up if it is blocked writing to the client
+        do {
+            outbound.clear();
+        } while(!outbound.offer(FAILED));
+        try {
+            socket.close();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+        throw new DisconnectedException(message + " " + getNickname());
+    }
+
+    /**
+     * @return The number of events waiting to be written to the client
+     */
+    public int getPendingEvents() {
+        return outbound == null ? 0 : outbound.size();
     }
 
     /**
      * {@inheritDoc}
-     * This {@code RemoteConnection} is deregistered from the list of active connections maintained by the server
+     * This {@code RemoteConnection} is deregistered from the list of active connections maintained by the server.
+     * The first time, the events already in the outbound queue are still written before the socket is closed,
+     * any further call (such as the one that follows a receive timeout) closes it immediately
+     */
+    @Override
+    public void close() {
+        stateLock.lock();
+        try {
+            if(!isActive()) {
+                return;
+            }
+            if(beginClose() && writerThread != null && Thread.currentThread() != writerThread && writerThread.isAlive()
+                    && outbound.offer(CLOSE)) {
+                return;
+            }
+            closeNow();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * The client stayed silent too long: the socket is closed at once, without writing the queued events, and the
+     * reader notifies the disconnection
      */
     @Override
-    public synchronized void close() {
-        if(isActive()) {
-            server.removeConnection(this);
+    protected void closeIdle() {
+        beginClose();
+        closeNow();
+    }
+
+    /**
+     * Sends the events of the batch in progress, such as a GameOverEvent, and deregisters this remoteConnection from
+     * the server, the first time it is called
+     * @return {@code true} the first time, {@code false} if the connection is already closing
+     */
+    boolean beginClose() {
+        stateLock.lock();
+        try {
+            if(closing) {
+                return false;
+            }
+            List<Event> batched = EventBatch.take(this);
+            if(batched != null) {
+                try {
+                    sendBatch(batched);
+                } catch (DisconnectedException e) {
+                    System.err.println(e.getMessage());
+                }
+            }
+            closing = true;
+        } finally {
+            stateLock.unlock();
+        }
+        server.removeConnection(this);
+        return true;
+    }
+
+    /**
+     * Closes the socket at once, dropping the events that have not been written yet
+     */
+    void closeNow() {
+        stateLock.lock();
+        try {
+            super.close();
+            TimerWheel.Timeout h = heartbeat;
+            if(h != null) {
+                h.cancel();
+            }
+            if(writerThread != null && Thread.currentThread() != writerThread) {
+                writerThread.interrupt();
+            }
+        } finally {
+            stateLock.unlock();
         }
-        super.close();
     }
 
 }
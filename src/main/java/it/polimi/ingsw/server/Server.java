@@ -2,41 +2,78 @@ package it.polimi.ingsw.server;
 
 
 import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.controller.GameLoops;
+import it.polimi.ingsw.network.TimerWheel;
 import it.polimi.ingsw.utils.GameFactory;
 import it.polimi.ingsw.utils.ListUtility;
+import it.polimi.ingsw.view.BotRemoteView;
 import it.polimi.ingsw.view.RemoteView;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static it.polimi.ingsw.model.Constants.*;
 
 /**
  * This class represents the game server. It continuously waits for connection requests from clients
  * and handles them in separate threads. Depending on their initial choice on the number of players,
- * clients are enqueued in lobbies, waiting for other clients to connect and start a game. When a game is over
- * the server automatically removes it from the list of active games
+ * clients are enqueued in lobbies, waiting for other clients to connect and start a game. If nobody else shows up
+ * in time, the empty seats are taken by bots (see {@link BotRemoteView}). When a game is over
+ * the server automatically removes it from the list of active games.
+ *
+ * By default each client is served by its own threads (see {@link RemoteConnection}). A server created with some
+ * event loops serves instead all its clients with that many threads (see {@link NioRemoteConnection}).
+ * The threads of the handshakes and of the connections are virtual threads if the server runs in
+ * {@link EThreadMode#VIRTUAL} mode, so the shared structures are concurrent collections (see {@link Lobby}) or are
+ * protected by {@code ReentrantLock}s, which a virtual thread can wait for without holding on to its carrier thread.
+ * The nicknames are kept in a concurrent map, where a client reserves its nickname in a single atomic step
  */
 public class Server {
 
     private int port;
     private ServerSocket serverSocket;
-
-    private ExecutorService executor = Executors.newFixedThreadPool(128);
-
-    private final List<RemoteConnection> activeConnections = new ArrayList<>();
-
-    private final LinkedList<RemoteConnection> queue2Players = new LinkedList<>();
-    private final LinkedList<RemoteConnection> queue3Players = new LinkedList<>();
+    private int botWaitingTimeInSeconds;
+    private int outboundQueueCapacity;
+    private EOverflowPolicy overflowPolicy;
+    private ServerSocketChannel serverChannel;
+    private EventLoop[] eventLoops;
+
+    private ServerThreads threads;
+    private ExecutorService executor;
+    private final ScheduledExecutorService botScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "BotScheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final TimerWheel timerWheel = new TimerWheel("Heartbeats");
+    // Each game is handled by one of these threads, so the games scale with the cores rather than with the clients
+    private final GameLoops gameLoops = new GameLoops();
+
+    private final Set<RemoteConnection> activeConnections = ConcurrentHashMap.newKeySet();
+    // The nicknames chosen by the clients, each reserved by its connection
+    private final ConcurrentMap<String, RemoteConnection> nicknames = new ConcurrentHashMap<>();
+
+    private final Lobby lobby2Players = new Lobby(2);
+    private final Lobby lobby3Players = new Lobby(3);
 
     private final List<Controller> activeGames = new ArrayList<>();
+    private final Lock gamesLock = new ReentrantLock();
 
     /**
      * Creates a new server running on this machine and listening to the specified port
@@ -44,8 +81,93 @@ public class Server {
      * @throws IOException if an issue occurs during the construction of the {@code ServerSocket} object
      */
     public Server(int port) throws IOException {
-        this.port = port;
-        this.serverSocket = new ServerSocket(port);
+        this(port, BOT_WAITING_TIME_IN_SECONDS);
+    }
+
+    /**
+     * Creates a new server running on this machine and listening to the specified port, which fills the empty seats
+     * of a lobby with bots once a client has been waiting there for the specified time
+     * @param port The port number the server listens to
+     * @param botWaitingTimeInSeconds The time a client waits in a lobby before bots join it, 0 or less to disable bots
+     * @throws IOException if an issue occurs during the construction of the {@code ServerSocket} object
+     */
+    public Server(int port, int botWaitingTimeInSeconds) throws IOException {
+        this(port, botWaitingTimeInSeconds, OUTBOUND_QUEUE_CAPACITY, EOverflowPolicy.DISCONNECT);
+    }
+
+    /**
+     * Creates a new server running on this machine and listening to the specified port, see {@link #Server(int, int)}.
+     * The events sent to each client wait in a queue of the specified capacity (see {@link RemoteConnection})
+     * @param port The port number the server listens to
+     * @param botWaitingTimeInSeconds The time a client waits in a lobby before bots join it, 0 or less to disable bots
+     * @param outboundQueueCapacity The maximum number of events waiting to be written to each client
+     * @param overflowPolicy What to do with an event when the queue of a client is full
+     * @throws IOException if an issue occurs during the construction of the {@code ServerSocket} object
+     */
+    public Server(int port, int botWaitingTimeInSeconds, int outboundQueueCapacity, EOverflowPolicy overflowPolicy) throws IOException {
+        this(port, botWaitingTimeInSeconds, outboundQueueCapacity, overflowPolicy, 0);
+    }
+
+    /**
+     * Creates a new server running on this machine and listening to the specified port, see
+     * {@link #Server(int, int, int, EOverflowPolicy)}. If some event loops are requested, all the clients are served by
+     * those threads, with non-blocking sockets; in that case the clients must speak the format of the {@code EventCodec}
+     * @param port The port number the server listens to, 0 for any free port
+     * @param botWaitingTimeInSeconds The time a client waits in a lobby before bots join it, 0 or less to disable bots
+     * @param outboundQueueCapacity The maximum number of events waiting to be written to each client
+     * @param overflowPolicy What to do with an event when the queue of a client is full
+     * @param eventLoops The number of event loops, 0 to serve each client with its own threads
+     * @throws IOException if an issue occurs during the construction of the server socket or of the event loops
+     */
+    public Server(int port, int botWaitingTimeInSeconds, int outboundQueueCapacity, EOverflowPolicy overflowPolicy, int eventLoops) throws IOException {
+        this(port, botWaitingTimeInSeconds, outboundQueueCapacity, overflowPolicy, eventLoops, EThreadMode.PLATFORM);
+    }
+
+    /**
+     * Creates a new server running on this machine and listening to the specified port, see
+     * {@link #Server(int, int, int, EOverflowPolicy, int)}, whose handshakes and connections run on the specified kind of threads
+     * @param port The port number the server listens to, 0 for any free port
+     * @param botWaitingTimeInSeconds The time a client waits in a lobby before bots join it, 0 or less to disable bots
+     * @param outboundQueueCapacity The maximum number of events waiting to be written to each client
+     * @param overflowPolicy What to do with an event when the queue of a client is full
+     * @param eventLoops The number of event loops, 0 to serve each client with its own threads
+     * @param threadMode The kind of threads of the handshakes and of the connections
+     * @throws IOException if an issue occurs during the construction of the server socket or of the event loops
+     * @throws IllegalArgumentException if {@link EThreadMode#VIRTUAL} is requested on a Java older than 21
+     */
+    public Server(int port, int botWaitingTimeInSeconds, int outboundQueueCapacity, EOverflowPolicy overflowPolicy, int eventLoops, EThreadMode threadMode) throws IOException {
+        this.threads = new ServerThreads(threadMode);
+        if(outboundQueueCapacity < 1) {
+            throw new IllegalArgumentException("The outbound queue must hold at least one event");
+        }
+        if(overflowPolicy == null) {
+            throw new IllegalArgumentException("Overflow policy cannot be null");
+        }
+        if(eventLoops < 0) {
+            throw new IllegalArgumentException("The number of event loops cannot be negative");
+        }
+        if(eventLoops == 0) {
+            this.serverSocket = new ServerSocket(port);
+        } else {
+            this.serverChannel = ServerSocketChannel.open();
+            try {
+                this.serverChannel.bind(new InetSocketAddress(port));
+                this.serverSocket = serverChannel.socket();
+                this.eventLoops = new EventLoop[eventLoops];
+                for(int i = 0; i < eventLoops; i++) {
+                    this.eventLoops[i] = new EventLoop("EventLoop-" + i);
+                }
+            } catch (IOException e) {
+                // The port would stay taken by a server that cannot be used nor shut down
+                serverChannel.close();
+                throw e;
+            }
+        }
+        this.port = serverSocket.getLocalPort();
+        this.botWaitingTimeInSeconds = botWaitingTimeInSeconds;
+        this.outboundQueueCapacity = outboundQueueCapacity;
+        this.overflowPolicy = overflowPolicy;
+        this.executor = threads.newHandshakeExecutor();
     }
 
     /**
@@ -53,84 +175,169 @@ public class Server {
      * @param c The remoteConnection to add to the active connections list
      */
     public void registerConnection(RemoteConnection c) {
-        synchronized (activeConnections){
-            if(!activeConnections.contains(c)) {
-                activeConnections.add(c);
-            }
-        }
+        activeConnections.add(c);
     }
 
     /**
      * This method removes a {@code RemoteConnection} from the list of active connections kept by the server. This
-     * happens after a voluntary disconnection by the client, a network problem or after a game is over
+     * happens after a voluntary disconnection by the client, a network problem or after a game is over.
+     * The nickname of the client becomes available again
      * @param c The remoteConnection to deregister from the active connections list
      */
     public void removeConnection(RemoteConnection c) {
-        System.out.println();
-        synchronized (activeConnections) {
-            activeConnections.remove(c);
-            System.out.println("Active Connections: [" + ListUtility.listToString(activeConnections.stream().map(con -> con.getNickname()).collect(Collectors.toList())) + "]");
+        if(!activeConnections.remove(c)) {
+            return;
         }
-        synchronized (queue2Players) {
-            queue2Players.remove(c);
-            System.out.println("Queue2Players: [" + ListUtility.listToString(queue2Players) + "]");
+        releaseNickname(c.getNickname(), c);
+        if(!lobby2Players.remove(c)) {
+            lobby3Players.remove(c);
         }
-        synchronized (queue3Players) {
-            queue3Players.remove(c);
-            System.out.println("Queue3Players: [" + ListUtility.listToString(queue3Players) + "]");
-        }
-        System.out.println();
+        System.out.println("Connection of " + c.getNickname() + " removed, active connections: " + activeConnections.size());
     }
 
     public void removeGame(Controller finishedGame){
-        synchronized (activeGames){
+        gamesLock.lock();
+        try {
             activeGames.remove(finishedGame);
+        } finally {
+            gamesLock.unlock();
         }
     }
 
     /**
      * With this method, the server continuously waits for connection requests from clients and dispatches them
-     * to a new dedicated thread, that handles their initialization. Besides, the server iterates on a list of active games,
+     * to a new dedicated thread, that handles their initialization, or to one of its event loops. Besides, the server iterates on a list of active games,
      * checking that they are still active and removing them if they are no longer active (that is, if they are over)
      */
     public void run() {
 
         System.out.println("Server listening on port " + port);
 
-        new Thread(new Runnable() {
-
-            @Override
-            public void run() {
-                while(true) {
-                    synchronized (activeGames) {
-                        activeGames.removeIf(c -> !c.isActive());
-                        System.out.println("Active games: [" + ListUtility.listToString(activeGames) + "]");
-                    }
-                    try {
-                        Thread.sleep(30 * 1000);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                    }
+        startGamesCleaner();
+
+        if(eventLoops != null) {
+            runEventLoops();
+            return;
+        }
+
+        // The server runs until it is shut down, which closes the server socket
+        while(!serverSocket.isClosed()) {
 
+            try {
+                Socket socket = serverSocket.accept();
+                RemoteConnection connection = new RemoteConnection(socket, this, outboundQueueCapacity, overflowPolicy);
+                registerConnection(connection);
+                executor.submit(() -> connection.init());
+            } catch (IOException e) {
+                if(!serverSocket.isClosed()) {
+                    System.out.println(SERVER_CONNECTION_ERROR);
                 }
             }
 
-        }).start();
+        }
 
-        // The server should run until it is explicitly terminated
-        while(true) {
+    }
 
+    /**
+     * Accepts the clients and hands them to the event loops in turn, until the server socket is closed
+     */
+    private void runEventLoops() {
+        for(EventLoop loop : eventLoops) {
+            loop.start();
+        }
+        int next = 0;
+        while(serverChannel.isOpen()) {
             try {
-                Socket socket = serverSocket.accept();
-                RemoteConnection connection = new RemoteConnection(socket, this);
+                SocketChannel channel = serverChannel.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                EventLoop loop = eventLoops[next];
+                next = (next + 1) % eventLoops.length;
+                NioRemoteConnection connection = new NioRemoteConnection(channel, loop, this, outboundQueueCapacity, overflowPolicy);
                 registerConnection(connection);
-                executor.submit(() -> connection.init());
+                loop.register(connection);
             } catch (IOException e) {
-                System.out.println(SERVER_CONNECTION_ERROR);
+                if(serverChannel.isOpen()) {
+                    System.out.println(SERVER_CONNECTION_ERROR);
+                }
+            }
+        }
+        for(EventLoop loop : eventLoops) {
+            loop.shutdown();
+        }
+    }
+
+    private void startGamesCleaner() {
+        Thread cleaner = new Thread(() -> {
+            while(true) {
+                gamesLock.lock();
+                try {
+                    activeGames.removeIf(c -> !c.isActive());
+                    System.out.println("Active games: [" + ListUtility.listToString(activeGames) + "]");
+                } finally {
+                    gamesLock.unlock();
+                }
+                try {
+                    Thread.sleep(30 * 1000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
             }
+        });
+        cleaner.setDaemon(true);
+        cleaner.start();
+    }
 
+    /**
+     * Stops accepting clients, sending heartbeats and handling the events of the games. The games still active are
+     * aborted first, which closes the connections of their players and stops their bots. The connections still in the
+     * handshake or in a lobby are closed too, by the event loops if any, which stop with the server socket
+     * @throws IOException if the server socket cannot be closed
+     */
+    public void shutdown() throws IOException {
+        botScheduler.shutdownNow();
+        executor.shutdownNow();
+        gamesLock.lock();
+        try {
+            activeGames.forEach(Controller::abort);
+        } finally {
+            gamesLock.unlock();
+        }
+        // The game loops handle the aborts already posted before stopping
+        gameLoops.shutdown();
+        timerWheel.shutdown();
+        serverSocket.close();
+        for(RemoteConnection c : new ArrayList<>(activeConnections)) {
+            // The connections of the event loops are closed by their loop as it stops
+            if(!(c instanceof NioRemoteConnection)) {
+                c.beginClose();
+                c.closeNow();
+            }
         }
+    }
 
+    /**
+     * Starts a task in a new thread of the kind chosen for this server, see {@link EThreadMode}
+     * @param task The task
+     * @return The thread running the task
+     */
+    Thread startThread(Runnable task) {
+        return threads.start(task);
+    }
+
+    /**
+     * @return The wheel that schedules the heartbeats of all the connections of this server
+     */
+    TimerWheel getTimerWheel() {
+        return timerWheel;
+    }
+
+    /**
+     * @return The port the server listens to
+     */
+    public int getLocalPort() {
+        return port;
     }
 
     /**
@@ -139,94 +346,152 @@ public class Server {
      * @return {@code true} if the specified nickname is already connected, {@code false} otherwise
      */
     public boolean isNicknameAlreadyConnected(String nickname) {
-        synchronized (activeConnections) {
-            for (RemoteConnection c : activeConnections) {
-                if (nickname.equals(c.getNickname())) {
-                    return true;
-                }
-            }
-            return false;
+        return nicknames.containsKey(nickname);
+    }
+
+    /**
+     * Reserves a nickname for a connection, if no other connection holds it. Checking and reserving are a single
+     * atomic step, so two clients that choose the same nickname at the same time never both get it
+     * @param nickname The nickname chosen by the client
+     * @param c The remoteConnection of the client
+     * @return {@code true} if the nickname has been reserved for the connection
+     */
+    public boolean reserveNickname(String nickname, RemoteConnection c) {
+        if(nickname == null || c == null) {
+            throw new IllegalArgumentException("Nickname and connection cannot be null");
+        }
+        return nicknames.putIfAbsent(nickname, c) == null;
+    }
+
+    /**
+     * Makes a nickname available again, if it is still reserved by the specified connection
+     * @param nickname The nickname, which may be {@code null} if the client never chose one
+     * @param c The remoteConnection that reserved it
+     */
+    public void releaseNickname(String nickname, RemoteConnection c) {
+        if(nickname != null) {
+            nicknames.remove(nickname, c);
         }
     }
 
-    // Executed by the 2nd active remoteConnection
     /**
      * This method is executed after a {@code RemoteConnection} is initialized, that is after the client user
      * has specified a valid nickname and a valid number of players. Clients that have selected a 2-players game as
      * their choice are put in a dedicated queue, where they wait for other clients with the same preference to start
      * a new game. When the needed number of players (2) is reached, a new game is created and the clients involved are removed
-     * from the queue
+     * from the queue. If a client is still waiting when the bot waiting time is over, the empty seats are given to bots
      * @param remoteConnection The remoteConnection to enqueue
      */
     public void lobby2Players(RemoteConnection remoteConnection) {
-        synchronized (queue2Players) {
-            queue2Players.add(remoteConnection);
-
-            remoteConnection.startPinger();
-
-            if (queue2Players.size() == 2) {
-                List<RemoteView> remoteViews = new ArrayList<>();
-                // Build list of remoteViews from list of remoteConnections
-                queue2Players.forEach(c -> remoteViews.add(new RemoteView(c.getNickname())));
-                for(int i = 0; i < queue2Players.size(); i++) {
-                    remoteViews.get(i).initializeConnection(queue2Players.get(i));
-                }
-                // Start all the remoteConnections
-                queue2Players.forEach(c -> new Thread(c).start());
-                // Create a new Controller with an empty game. Register observers (remoteViews and the controller itself) when needed
-                Controller newController = new Controller(remoteViews, GameFactory.buildEmptyGameFromRemoteViewsList(remoteViews));
-                synchronized(activeGames) {
-                    activeGames.add(newController);
-                }
-                queue2Players.clear();
-            }
-        }
+        joinLobby(lobby2Players, remoteConnection);
     }
 
-    // Executed by the 3rd active remoteConnection
     /**
      * This method is executed after a {@code RemoteConnection} is initialized, that is after the client user
      * has specified a valid nickname and a valid number of players. Clients that have selected a 3-players game as
      * their choice are put in a dedicated queue, where they wait for other clients with the same preference to start
      * a new game. When the needed number of players (3) is reached, a new game is created and the clients involved are removed
-     * from the queue
+     * from the queue. If a client is still waiting when the bot waiting time is over, the empty seats are given to bots
      * @param remoteConnection The remoteConnection to enqueue
      */
     public void lobby3Players(RemoteConnection remoteConnection) {
-        synchronized (queue3Players) {
-            queue3Players.add(remoteConnection);
+        joinLobby(lobby3Players, remoteConnection);
+    }
 
-            remoteConnection.startPinger();
+    /**
+     * Puts a client in a lobby and starts the games that can be started. The groups are claimed atomically (see
+     * {@link Lobby}), so the games are built by the threads that claimed them without holding any lock
+     * @param lobby The lobby
+     * @param remoteConnection The remoteConnection to enqueue
+     */
+    private void joinLobby(Lobby lobby, RemoteConnection remoteConnection) {
+        remoteConnection.startPinger();
+        lobby.join(remoteConnection);
+
+        boolean started = false;
+        List<RemoteConnection> group;
+        while((group = lobby.claimGroup()) != null) {
+            started |= group.contains(remoteConnection);
+            startGame(group, lobby.getNPlayers());
+        }
+        if(!started) {
+            scheduleBots(lobby, remoteConnection);
+        }
+    }
 
-            if(queue3Players.size() == 3) {
-                List<RemoteView> remoteViews = new ArrayList<>();
-                // Build list of remoteViews from list of remoteConnections
-                queue3Players.forEach(c -> remoteViews.add(new RemoteView(c.getNickname())));
-                for(int i = 0; i < queue3Players.size(); i++) {
-                    remoteViews.get(i).initializeConnection(queue3Players.get(i));
-                }
-                // Start all the remoteConnections
-                queue3Players.forEach(c -> new Thread(c).start());
-                // Create a new Controller with an empty game. Register observers (remoteViews and the controller itself) when needed
-                Controller newController = new Controller(remoteViews, GameFactory.buildEmptyGameFromRemoteViewsList(remoteViews));
-                synchronized(activeGames) {
-                    activeGames.add(newController);
-                }
-                queue3Players.clear();
+    /**
+     * Schedules the check that fills a lobby with bots, if the specified {@code RemoteConnection} is still waiting
+     * there when the waiting time is over
+     * @param lobby The lobby
+     * @param remoteConnection The remoteConnection that has just been enqueued
+     */
+    private void scheduleBots(Lobby lobby, RemoteConnection remoteConnection) {
+        if(botWaitingTimeInSeconds <= 0) {
+            return;
+        }
+        botScheduler.schedule(() -> {
+            List<RemoteConnection> group = lobby.claimWithBots(remoteConnection);
+            if(group != null) {
+                startGame(group, lobby.getNPlayers());
+            }
+        }, botWaitingTimeInSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Starts a new game with a group of clients claimed from a lobby, filling the empty seats with bots
+     * @param group The clients, in order of arrival
+     * @param nPlayers The number of players of the game
+     */
+    private void startGame(List<RemoteConnection> group, int nPlayers) {
+        List<RemoteView> remoteViews = new ArrayList<>();
+        List<BotRemoteView> bots = new ArrayList<>();
+        // Build list of remoteViews from list of remoteConnections
+        group.forEach(c -> remoteViews.add(new RemoteView(c.getNickname())));
+        for(int i = 0; i < group.size(); i++) {
+            remoteViews.get(i).initializeConnection(group.get(i));
+        }
+        // Fill the empty seats with bots, whose nicknames must not clash with the ones of the clients
+        int botNumber = 1;
+        while(remoteViews.size() < nPlayers) {
+            String nickname = "Bot" + botNumber++;
+            if(group.stream().noneMatch(c -> nickname.equals(c.getNickname()))) {
+                BotRemoteView bot = new BotRemoteView(nickname, BOT_MAX_DEPTH, BOT_TIME_BUDGET_IN_MILLIS);
+                bots.add(bot);
+                remoteViews.add(bot);
             }
         }
+        // Start all the remoteConnections
+        group.forEach(RemoteConnection::start);
+        // Create a new Controller with an empty game, pinned to a game loop. Register observers (remoteViews and the controller itself) when needed
+        Controller newController = new Controller(remoteViews, GameFactory.buildEmptyGameFromRemoteViewsList(remoteViews), gameLoops.next());
+        bots.forEach(b -> b.join(newController));
+        gamesLock.lock();
+        try {
+            activeGames.add(newController);
+        } finally {
+            gamesLock.unlock();
+        }
     }
 
+    /**
+     * @return A copy of the active connections
+     */
     public List<RemoteConnection> getActiveConnections() {
-        return activeConnections;
+        return new ArrayList<>(activeConnections);
     }
 
+    /**
+     * @return A copy of the queue of the clients waiting for a 2-players game
+     */
     public List<RemoteConnection> getQueue2Players() {
-        return queue2Players;
+        return lobby2Players.getWaiting();
     }
 
+    /**
+     * @return A copy of the queue of the clients waiting for a 3-players game
+     */
     public List<RemoteConnection> getQueue3Players() {
-        return queue3Players;
+        return lobby3Players.getWaiting();
     }
 
 }
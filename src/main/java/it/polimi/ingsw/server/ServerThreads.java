@@ -0,0 +1,101 @@
+package it.polimi.ingsw.server;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class creates the threads of a {@code Server}, as requested by its {@link EThreadMode}.
+ *
+ * The project is compiled for Java 11, so virtual threads are reached by reflection: they are available only when the
+ * server runs on Java 21 or newer
+ */
+final class ServerThreads {
+
+    private static final int MAX_PLATFORM_HANDSHAKES = 128;
+
+    private final EThreadMode mode;
+    private final ThreadFactory factory;
+
+    /**
+     * @param mode The kind of threads to create
+     * @throws IllegalArgumentException if the mode is null, or virtual threads are requested but not available
+     */
+    ServerThreads(EThreadMode mode) {
+        if(mode == null) {
+            throw new IllegalArgumentException("Thread mode cannot be null");
+        }
+        this.mode = mode;
+        if(mode == EThreadMode.VIRTUAL) {
+            if(!isVirtualAvailable()) {
+                throw new IllegalArgumentException("Virtual threads need Java 21 or newer");
+            }
+            this.factory = virtualThreadFactory();
+        } else {
+            this.factory = Thread::new;
+        }
+    }
+
+    /**
+     * @return {@code true} if the running JVM supports virtual threads
+     */
+    static boolean isVirtualAvailable() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "connection-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual threads", e);
+        }
+    }
+
+    EThreadMode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return An executor for the handshakes of the clients: a fixed pool of platform threads, or a new virtual
+     * thread for each handshake
+     */
+    ExecutorService newHandshakeExecutor() {
+        if(mode == EThreadMode.PLATFORM) {
+            return Executors.newFixedThreadPool(MAX_PLATFORM_HANDSHAKES, runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) perTask.invoke(null, factory);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("Cannot create virtual threads", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Cannot create virtual threads", e.getCause());
+        }
+    }
+
+    /**
+     * Starts a task in a new thread
+     * @param task The task
+     * @return The thread running the task
+     */
+    Thread start(Runnable task) {
+        Thread thread = factory.newThread(task);
+        thread.start();
+        return thread;
+    }
+
+}
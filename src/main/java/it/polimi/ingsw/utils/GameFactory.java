@@ -1,6 +1,7 @@
 package it.polimi.ingsw.utils;
 
 import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.model.cards.AthenaCard;
 import it.polimi.ingsw.view.RemoteView;
 import it.polimi.ingsw.view.RemoteViewDummy;
 
@@ -94,23 +95,232 @@ public class GameFactory {
 
         game.registerObservers(remoteViewDummies);
 
-        for(int i = 0; i < nPlayers; i++) {
-            game.chooseCard(players.get(i), cardList.get(i));
+        startGame(game, cardList);
+
+        for(RemoteViewDummy rvd : remoteViewDummies) {
+            rvd.clearReceivedEvents();
         }
 
-        for(Player p : players) {
-            p.getCard().setup();
+        return game;
+
+    }
+
+    /**
+     * Builds a game nobody watches: players have no {@code RemoteView} and no observer is registered anywhere,
+     * so the rules run without building any event. The game starts right away, the first player being the first to move.
+     *
+     * @param nicknames The nicknames of the players, in turn order
+     * @param godPowers The card of each player, in the same order
+     * @param workerPositions The positions of the workers, two for each player in the same order
+     * @return The headless game, in the {@link ETurnPhase#WORKERSELECTION} phase of the first player
+     */
+    public static Game buildHeadlessGame(List<String> nicknames, List<EGodPower> godPowers, List<Position> workerPositions) {
+        return buildHeadlessGame(nicknames, godPowers, workerPositions, new Board());
+    }
+
+    /**
+     * Builds a headless game on an existing board, like the ones built by {@link BoardFactory#buildBoardWithoutWorkersFromFile(String)}
+     *
+     * @param nicknames The nicknames of the players, in turn order
+     * @param godPowers The card of each player, in the same order
+     * @param workerPositions The positions of the workers, two for each player in the same order
+     * @param board A board without workers and without observers
+     * @return The headless game, in the {@link ETurnPhase#WORKERSELECTION} phase of the first player
+     */
+    public static Game buildHeadlessGame(List<String> nicknames, List<EGodPower> godPowers, List<Position> workerPositions, Board board) {
+        Game game = buildHeadlessGameWithoutStarting(nicknames, godPowers, workerPositions, board);
+        startFirstTurn(game);
+
+        return game;
+    }
+
+    // Builds a headless game with its cards already dealt, but before the first turn begins
+    private static Game buildHeadlessGameWithoutStarting(List<String> nicknames, List<EGodPower> godPowers, List<Position> workerPositions, Board board) {
+        if(nicknames == null || godPowers == null || workerPositions == null || board == null
+                || godPowers.size() != nicknames.size() || workerPositions.size() != 2 * nicknames.size()) {
+            throw new IllegalArgumentException("A card and two worker positions are needed for each player");
         }
 
-        game.setCurrentPlayer(players.get(nPlayers - 1));
-        game.changeTurn();
+        List<Player> players = new ArrayList<>();
+        for(String nickname : nicknames) {
+            players.add(Player.headless(nickname));
+        }
 
-        for(RemoteViewDummy rvd : remoteViewDummies) {
-            rvd.clearReceivedEvents();
+        for(int i = 0; i < players.size(); i++) {
+            Worker[] workers = players.get(i).getWorkers();
+            for(int n = 0; n < 2; n++) {
+                workers[n].setTile(board.getTile(workerPositions.get(2 * i + n)));
+            }
         }
 
+        Game game = new Game(players, board);
+        dealCards(game, godPowers);
+
         return game;
+    }
+
+    /**
+     * Builds a headless copy of a game at the beginning of a turn, so that it can be searched or played out
+     * without touching the original one. The copy has the same buildings, workers, cards, complete towers and
+     * state of Athena's malus, and its players are listed starting from the current player of the original game.
+     *
+     * @param game A game whose players have already chosen their cards and placed their workers
+     * @return The headless copy, in the {@link ETurnPhase#WORKERSELECTION} phase of its first player
+     */
+    public static Game buildHeadlessCopy(Game game) {
+        if(game == null) {
+            throw new IllegalArgumentException("Game cannot be null");
+        }
+        return buildHeadlessGameFromSnapshot(game.takeSnapshot());
+    }
+
+    /**
+     * Builds a headless copy of a game from one of its snapshots, see {@link #buildHeadlessCopy(Game)}.
+     * Since snapshots are immutable, this can run on any thread without holding the lock of the original game.
+     *
+     * @param snapshot A snapshot taken at the beginning of a turn, after the players have chosen their cards and placed their workers
+     * @return The headless copy, in the {@link ETurnPhase#WORKERSELECTION} phase of its first player
+     */
+    public static Game buildHeadlessGameFromSnapshot(GameSnapshot snapshot) {
+        if(snapshot == null) {
+            throw new IllegalArgumentException("Snapshot cannot be null");
+        }
+        int size = snapshot.getPlayers().size();
+        for(int i = 0; i < size; i++) {
+            if(snapshot.getGodPower(i) == null || snapshot.getWorkerSquare(i, 0) < 0 || snapshot.getWorkerSquare(i, 1) < 0) {
+                throw new IllegalArgumentException("Only a game whose players have a card and two workers on the board can be copied");
+            }
+        }
+
+        Board board = new Board();
+        BoardState state = board.getState();
+        for(int square = 0; square < BoardState.SQUARES; square++) {
+            state.setHeight(square, snapshot.getHeight(square));
+            state.setDomed(square, snapshot.isDomed(square));
+        }
+
+        int first = Math.max(snapshot.getCurrentPlayerIndex(), 0);
+        List<String> nicknames = new ArrayList<>();
+        List<EGodPower> godPowers = new ArrayList<>();
+        List<Position> workerPositions = new ArrayList<>();
+        boolean athenaActive = false;
+        for(int k = 0; k < size; k++) {
+            int i = (first + k) % size;
+            nicknames.add(snapshot.getPlayers().get(i));
+            godPowers.add(snapshot.getGodPower(i));
+            for(int id = 0; id < 2; id++) {
+                int square = snapshot.getWorkerSquare(i, id);
+                workerPositions.add(new Position(BoardState.rowOf(square), BoardState.columnOf(square)));
+            }
+            if(snapshot.getGodPower(i) == EGodPower.ATHENA && snapshot.isUsedGodPower(i)) {
+                athenaActive = true;
+            }
+        }
+
+        Game copy = buildHeadlessGameWithoutStarting(nicknames, godPowers, workerPositions, board);
+        for(int i = 0; i < snapshot.getCompleteTowers(); i++) {
+            copy.buildCompleteTower();
+        }
+        for(Player p : copy.getPlayers()) {
+            if(athenaActive && p.getCard() instanceof AthenaCard) {
+                ((AthenaCard) p.getCard()).activateMalus();
+            }
+        }
+        startFirstTurn(copy);
+
+        return copy;
+    }
+
+    /**
+     * Builds a headless game from a compact notation, made of the board followed by one field for each player:
+     * <pre>
+     *     00000/01200/03D000/00000/00000 apollo:1,1:3,3 athena:1,3:3,1
+     * </pre>
+     * The board lists its rows from the first one, separated by {@code /}: every tile is written as its level,
+     * followed by {@code D} if it is domed. Every player is written as its card followed by the positions of its two
+     * workers, and the players are listed in turn order. Nicknames are {@code Player1}, {@code Player2} and so on.
+     *
+     * @param notation The position in compact notation
+     * @return The headless game, in the {@link ETurnPhase#WORKERSELECTION} phase of the first player
+     * @throws IllegalArgumentException if the notation is not valid
+     */
+    public static Game buildHeadlessGameFromNotation(String notation) {
+        if(notation == null) {
+            throw new IllegalArgumentException("Notation cannot be null");
+        }
+        String[] fields = notation.trim().split("\\s+");
+        if(fields.length < 2) {
+            throw new IllegalArgumentException("The notation needs a board and at least one player");
+        }
+
+        Board board = new Board();
+        String[] rows = fields[0].split("/");
+        if(rows.length != Constants.ROWS) {
+            throw new IllegalArgumentException("Invalid number of rows: " + fields[0]);
+        }
+        for(int r = 0; r < Constants.ROWS; r++) {
+            int c = 0;
+            for(int i = 0; i < rows[r].length(); i++) {
+                char level = rows[r].charAt(i);
+                if(level < '0' || level > '3' || c == Constants.COLUMNS) {
+                    throw new IllegalArgumentException("Invalid row: " + rows[r]);
+                }
+                Tile tile = board.getTile(r, c++);
+                tile.setLevel(ETileLevel.values()[level - '0']);
+                if(i + 1 < rows[r].length() && rows[r].charAt(i + 1) == 'D') {
+                    tile.setDomed(true);
+                    i++;
+                }
+            }
+            if(c != Constants.COLUMNS) {
+                throw new IllegalArgumentException("Invalid row: " + rows[r]);
+            }
+        }
+
+        List<String> nicknames = new ArrayList<>();
+        List<EGodPower> godPowers = new ArrayList<>();
+        List<Position> workerPositions = new ArrayList<>();
+        for(int i = 1; i < fields.length; i++) {
+            String[] parts = fields[i].split(":");
+            if(parts.length != 3) {
+                throw new IllegalArgumentException("Invalid player: " + fields[i]);
+            }
+            nicknames.add("Player" + i);
+            godPowers.add(EGodPower.parseGodPower(parts[0]));
+            for(int n = 1; n < 3; n++) {
+                String[] coords = parts[n].split(",");
+                if(coords.length != 2) {
+                    throw new IllegalArgumentException("Invalid position: " + parts[n]);
+                }
+                workerPositions.add(new Position(Integer.parseInt(coords[0].trim()), Integer.parseInt(coords[1].trim())));
+            }
+        }
+
+        return buildHeadlessGame(nicknames, godPowers, workerPositions, board);
+    }
+
+    // Deals the cards and starts the first turn, as the controller does at the end of the startup phases
+    private static void startGame(Game game, List<EGodPower> godPowers) {
+        dealCards(game, godPowers);
+        startFirstTurn(game);
+    }
 
+    private static void dealCards(Game game, List<EGodPower> godPowers) {
+        List<Player> players = game.getPlayers();
+
+        for(int i = 0; i < players.size(); i++) {
+            game.chooseCard(players.get(i), godPowers.get(i));
+        }
+
+        for(Player p : players) {
+            p.getCard().setup();
+        }
+    }
+
+    private static void startFirstTurn(Game game) {
+        List<Player> players = game.getPlayers();
+        game.setCurrentPlayer(players.get(players.size() - 1));
+        game.changeTurn();
     }
 
 }
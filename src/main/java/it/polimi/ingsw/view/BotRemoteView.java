@@ -0,0 +1,259 @@
+package it.polimi.ingsw.view;
+
+import it.polimi.ingsw.ai.*;
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.controller.EStartupPhase;
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.network.events.*;
+import it.polimi.ingsw.utils.GameFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class is a server-side player that stands in for a client. The {@code Controller} sees it as any other
+ * {@code RemoteView}: it receives the notifications of the model and answers with the same events a client would send.
+ *
+ * The bot acts on a thread of its own. During the startup phases it picks cards, the first player and the positions
+ * of its workers at random. At the beginning of each of its turns it copies the game from a {@link GameSnapshot}, chooses a turn on the copy with
+ * a {@link TurnChooser}, such as an {@link AlphaBeta} search, and then plays it one event at a time through a {@link TurnReplay}.
+ * The game is only read in tasks run by the {@code Controller} of the game (see {@link Controller#submit}), in the thread
+ * that handles its events, while the search runs on the thread of the bot.
+ */
+public class BotRemoteView extends RemoteView {
+
+    private final TurnChooser chooser;
+    private final TurnList turns = new TurnList();
+    private final Random random = new Random();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean pending = new AtomicBoolean(false);
+
+    private volatile Controller controller;
+    private TurnReplay replay;
+
+    /**
+     * Creates a bot that chooses its turns with an {@link AlphaBeta} search
+     * @param nickname The nickname of the bot, which must be different from the ones of the other players
+     * @param maxDepth The maximum depth of the search, in turns
+     * @param timeBudgetMillis The time the bot can think about each of its turns, in milliseconds
+     */
+    public BotRemoteView(String nickname, int maxDepth, long timeBudgetMillis) {
+        this(nickname, alphaBeta(maxDepth, timeBudgetMillis));
+    }
+
+    /**
+     * @param nickname The nickname of the bot, which must be different from the ones of the other players
+     * @param chooser The strategy the bot chooses its turns with
+     */
+    public BotRemoteView(String nickname, TurnChooser chooser) {
+        super(nickname);
+        if(chooser == null) {
+            throw new IllegalArgumentException("Chooser cannot be null");
+        }
+        this.chooser = chooser;
+    }
+
+    private static TurnChooser alphaBeta(int maxDepth, long timeBudgetMillis) {
+        if(maxDepth < 1 || timeBudgetMillis <= 0) {
+            throw new IllegalArgumentException("Depth and time budget must be positive");
+        }
+        AlphaBeta search = new AlphaBeta();
+        return (game, turns) -> search.search(new TurnEnumerator(game), turns, maxDepth, timeBudgetMillis);
+    }
+
+    /**
+     * Binds the bot to the controller of its game, which must have been built with this bot among its views.
+     * From now on the bot plays whenever it is its turn.
+     *
+     * @param controller The controller of the game
+     */
+    public void join(Controller controller) {
+        if(controller == null) {
+            throw new IllegalArgumentException("Controller cannot be null");
+        }
+        this.controller = controller;
+        schedule();
+    }
+
+    /**
+     * Every notification of the model may mean that it is the turn of the bot, so it is checked on the thread of the bot.
+     * {@inheritDoc}
+     *
+     * @param arg The event representing details of the received notification
+     */
+    @Override
+    public void update(Event arg) {
+        if(arg instanceof GameOverEvent) {
+            setGameOver();
+        } else {
+            schedule();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setGameOver() {
+        executor.shutdown();
+        // Send it back to the controller
+        setChanged();
+        notify(new GameOverEvent());
+    }
+
+    private void schedule() {
+        if(!executor.isShutdown() && pending.compareAndSet(false, true)) {
+            executor.execute(this::play);
+        }
+    }
+
+    /**
+     * Plays as long as it is the turn of the bot. The bot waits for the controller to send its events and take a
+     * snapshot of the game, while the copy to search on is built from the snapshot on the thread of the bot
+     */
+    private void play() {
+        pending.set(false);
+        Controller c = controller;
+        if(c == null) {
+            return;
+        }
+        try {
+            while(true) {
+                GameSnapshot snapshot = c.submit(() -> playUntilSearch(c)).join();
+                if(snapshot == null) {
+                    return;
+                }
+                replay = chooseTurn(GameFactory.buildHeadlessGameFromSnapshot(snapshot));
+                if(replay == null) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println(getNickname() + " stopped playing: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the events of the startup phases and of the turn being replayed, if any. It runs in the thread of the
+     * controller, so the events are handled as soon as they are sent
+     * @return A snapshot of the game to search the next turn on, {@code null} if the bot has nothing left to do
+     */
+    private GameSnapshot playUntilSearch(Controller c) {
+        Game game = c.getGame();
+        while(c.isActive() && isPlaying(game)) {
+            if(game.getStartupPhase() != EStartupPhase.GAMESTARTED) {
+                Event event = nextStartupEvent(game);
+                if(event == null || !send(game, event)) {
+                    return null;
+                }
+            } else if(replay != null) {
+                if(!send(game, nextTurnEvent(game))) {
+                    return null;
+                }
+            } else {
+                return game.takeSnapshot();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Sends an event to the controller as the client of this view would do
+     * @return {@code true} if the game changed, {@code false} if the event has been rejected
+     */
+    private boolean send(Game game, Event event) {
+        long before = progressOf(game);
+        event.setSignature(getNickname());
+        setChanged();
+        notify(event);
+        if(progressOf(game) == before) {
+            System.err.println(getNickname() + " sent an event that has been rejected: " + event);
+            replay = null;
+            return false;
+        }
+        // The other players may play a whole turn before this bot searches again, so the turn is dropped now
+        if(!isPlaying(game)) {
+            replay = null;
+        }
+        return true;
+    }
+
+    private boolean isPlaying(Game game) {
+        return !game.isGameOver() && game.getCurrentPlayer().getNickname().equals(getNickname());
+    }
+
+    private static long progressOf(Game game) {
+        return Objects.hash(game.getHash(), game.getStartupPhase(), game.getCurrentPlayer(),
+                game.getSelectedCards().size(), game.getPlayerCards().size(), game.isGameOver());
+    }
+
+    private TurnReplay chooseTurn(Game copy) {
+        int best = chooser.chooseTurn(copy, turns);
+        if(best < 0) {
+            System.err.println(getNickname() + " has no turn to play");
+            return null;
+        }
+        return new TurnReplay(turns.getActions(best), copy.getCurrentPlayerCard().getGodPower());
+    }
+
+    private Event nextTurnEvent(Game game) {
+        ETurnPhase phase = game.getTurnPhase();
+        switch(phase) {
+            case WORKERSELECTION:
+                return new ActionEvent(positionOf(replay.getWorkerSquare()));
+            case MOVE:
+            case BUILD:
+                return new ActionEvent(positionOf(replay.nextSquare(phase)));
+            default:
+                return new ChoiceEvent(replay.nextChoice());
+        }
+    }
+
+    private Event nextStartupEvent(Game game) {
+        switch(game.getStartupPhase()) {
+            case PICKCARDS:
+                List<EGodPower> cards = EGodPower.getCardList(game.getPlayers().size());
+                cards.removeAll(game.getSelectedCards());
+                return new CardEvent(cards.get(random.nextInt(cards.size())));
+            case DEALCARDS:
+                List<EGodPower> selected = game.getSelectedCards();
+                return new CardEvent(selected.get(random.nextInt(selected.size())));
+            case PICKFIRSTPLAYER:
+                return new PlayerNicknameEvent(getNickname());
+            case PLACEFIRSTWORKER:
+            case PLACESECONDWORKER:
+                return new ActionEvent(positionOf(freeSquare(game.getBoard().getState())));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return A random free square, away from the perimeter if possible
+     */
+    private int freeSquare(BoardState state) {
+        long free = BoardState.FULL_MASK & ~state.getBlocked();
+        long inner = free & ~BoardGeometry.PERIMETER_MASK;
+        long mask = inner != 0 ? inner : free;
+        List<Integer> squares = new ArrayList<>();
+        for(long m = mask; m != 0; m &= m - 1) {
+            squares.add(Long.numberOfTrailingZeros(m));
+        }
+        return squares.get(random.nextInt(squares.size()));
+    }
+
+    private static Position positionOf(int square) {
+        return new Position(BoardState.rowOf(square), BoardState.columnOf(square));
+    }
+
+}
@@ -24,6 +24,7 @@ public class RemoteView extends View {
         /**
          * Forward all notifications from the socket to the {@code Controller} through this {@code RemoteView}.
          * All {@code Event} gets marked so that the sender identity don't get lost.
+         * The {@code Controller} only posts the event, so the reading thread goes back to the socket at once
          *
          * @param arg Event received
          */
@@ -70,6 +71,35 @@ public class RemoteView extends View {
         return nickname;
     }
 
+    /**
+     * The events of the game that the client handles as they are, which are most of them, are forwarded without
+     * being rebuilt, so that an event broadcast by the model is encoded only once for all the clients (see
+     * {@code EventCodec}). The other ones are handled by {@link View#update(Event)}
+     *
+     * @param arg The event representing details of the received notification
+     */
+    @Override
+    public void update(Event arg) {
+        if(!isForwarded(arg)) {
+            super.update(arg);
+            return;
+        }
+        try {
+            connection.sendEvent(arg);
+        } catch (DisconnectedException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    // The events that View#update turns into an identical event through one of the methods below
+    private static boolean isForwarded(Event arg) {
+        return arg instanceof MessageEvent || arg instanceof BoardEvent || arg instanceof HighlightEvent
+                || arg instanceof ChoiceEvent || arg instanceof ErrorEvent || arg instanceof SetCurrentPlayerEvent
+                || arg instanceof StartGameEvent || arg instanceof SetNicknameEvent || arg instanceof SetNPlayersEvent
+                || arg instanceof SetChallengerEvent || arg instanceof CardEvent || arg instanceof StartupPhaseEvent
+                || arg instanceof TurnPhaseEvent || arg instanceof LoseEvent;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -320,6 +320,12 @@ public abstract class View extends Observable implements Observer {
 
                 setLoser(received.getLoserNickname());
             }
+            else if (arg instanceof BatchEvent) {
+                // Each event goes through update again, so that it is filtered as if it had been received alone
+                for(Event e : ((BatchEvent) arg).getEvents()) {
+                    update(e);
+                }
+            }
 
         } catch(DisconnectedException e) {
             System.err.println(e.getMessage());
@@ -0,0 +1,85 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlphaBetaTest {
+
+    @Test
+    public void winningTurnTest() {
+        // The worker on (2,2) can step up to the third level on (2,3)
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00230/00000/00000 apollo:2,2:0,0 athena:4,4:4,0");
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        TurnList turns = new TurnList();
+        AlphaBeta search = new AlphaBeta(10);
+
+        int best = search.search(enumerator, turns, 4, 10_000);
+        assertEquals(0, turns.getWinner(best));
+        assertEquals(AlphaBeta.WIN_SCORE - 1, search.getScore());
+    }
+
+    @Test
+    public void defenceTest() {
+        // Athena's worker on (3,2) threatens to step up to the third level on (3,3)
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00230/00000 apollo:2,2:0,0 athena:3,2:4,0");
+        long hash = game.getHash();
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        TurnList turns = new TurnList();
+        AlphaBeta search = new AlphaBeta(10);
+
+        int best = search.search(enumerator, turns, 2, 10_000);
+        assertEquals(hash, game.getHash());
+        assertEquals(2, search.getCompletedDepth());
+        assertTrue(search.getNodes() > 0);
+        assertTrue(search.getScore() > -AlphaBeta.WIN_SCORE / 2);
+
+        enumerator.play(turns, best);
+        TurnList replies = new TurnList();
+        enumerator.generate(replies);
+        for(int i = 0; i < replies.size(); i++) {
+            assertEquals(TurnList.NO_WINNER, replies.getWinner(i), replies.toString(i));
+        }
+        enumerator.unplay();
+
+        // The results kept in the table lead to the same choice
+        TurnList again = new TurnList();
+        int repeated = search.search(enumerator, again, 2, 10_000);
+        assertArrayEquals(turns.getActions(best), again.getActions(repeated));
+    }
+
+    @Test
+    public void timeBudgetTest() {
+        Game game = GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt");
+        long hash = game.getHash();
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        TurnList turns = new TurnList();
+        AlphaBeta search = new AlphaBeta(16);
+
+        long start = System.nanoTime();
+        int best = search.search(enumerator, turns, 64, 100);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(best >= 0 && best < turns.size());
+        assertTrue(search.getCompletedDepth() < 64);
+        assertTrue(elapsedMillis < 2_000, "Search took " + elapsedMillis + " ms");
+        assertEquals(hash, game.getHash());
+        assertEquals(0, enumerator.getPlies());
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        TurnEnumerator enumerator = new TurnEnumerator(GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt"));
+        AlphaBeta search = new AlphaBeta(4);
+        TurnList turns = new TurnList();
+
+        assertThrows(IllegalArgumentException.class, () -> search.search(null, turns, 1, 100));
+        assertThrows(IllegalArgumentException.class, () -> search.search(enumerator, turns, 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> search.search(enumerator, turns, 65, 100));
+        assertThrows(IllegalArgumentException.class, () -> search.search(enumerator, turns, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new AlphaBeta(0));
+    }
+
+}
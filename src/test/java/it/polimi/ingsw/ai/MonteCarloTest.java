@@ -0,0 +1,115 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.EGodPower;
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.model.Position;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MonteCarloTest {
+
+    @Test
+    public void winningTurnTest() {
+        // The worker on (2,2) can step up to the third level on (2,3)
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00230/00000/00000 apollo:2,2:0,0 athena:4,4:4,0");
+        TurnList turns = new TurnList();
+        MonteCarlo search = new MonteCarlo(10_000);
+
+        int best = search.chooseTurn(game, turns);
+        assertEquals(0, turns.getWinner(best));
+        assertEquals(0, search.getPlayouts());
+    }
+
+    @Test
+    public void defenceTest() {
+        // Athena's worker on (3,2) threatens to step up to the third level on (3,3)
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00230/00000 apollo:2,2:0,0 athena:3,2:4,0");
+        long hash = game.getHash();
+        TurnList turns = new TurnList();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        MonteCarlo search = new MonteCarlo(pool, 10_000, 20_000);
+
+        int best = search.chooseTurn(game, turns);
+        pool.shutdown();
+        assertEquals(hash, game.getHash());
+        assertEquals(20_000, search.getPlayouts());
+        assertTrue(search.getPlayoutsPerSecondPerCore() > 0);
+
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        enumerator.play(turns, best);
+        TurnList replies = new TurnList();
+        enumerator.generate(replies);
+        for(int i = 0; i < replies.size(); i++) {
+            assertEquals(TurnList.NO_WINNER, replies.getWinner(i), replies.toString(i));
+        }
+        enumerator.unplay();
+    }
+
+    @Test
+    public void timeBudgetTest() {
+        Game game = GameFactory.buildHeadlessCopy(GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt"));
+        long hash = game.getHash();
+        TurnList turns = new TurnList();
+        MonteCarlo search = new MonteCarlo(100);
+
+        long start = System.nanoTime();
+        int best = search.chooseTurn(game, turns);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(best >= 0 && best < turns.size());
+        assertTrue(search.getPlayouts() > 0);
+        assertTrue(elapsedMillis < 2_000, "Search took " + elapsedMillis + " ms");
+        assertEquals(hash, game.getHash());
+    }
+
+    @Test
+    public void eliminationPlayoutTest() {
+        // The second player is one dome away from being walled in, which leaves the playout to the other two
+        Game game = GameFactory.buildHeadlessGame(Arrays.asList("First", "Second", "Third"),
+                Arrays.asList(EGodPower.PAN, EGodPower.DEMETER, EGodPower.ATLAS),
+                Arrays.asList(new Position(3, 3), new Position(4, 4), new Position(0, 0), new Position(0, 1),
+                        new Position(3, 0), new Position(4, 1)));
+        for(Position p : Arrays.asList(new Position(1, 0), new Position(1, 1), new Position(0, 2))) {
+            game.getBoard().getTile(p).buildDome();
+        }
+        long hash = game.getHash();
+        TurnList turns = new TurnList();
+        ForkJoinPool pool = new ForkJoinPool(1);
+        MonteCarlo search = new MonteCarlo(pool, 10_000, 500);
+
+        int best = search.chooseTurn(game, turns);
+        pool.shutdown();
+        assertTrue(best >= 0 && best < turns.size());
+        assertEquals(500, search.getPlayouts());
+        assertEquals(hash, game.getHash());
+    }
+
+    @Test
+    public void interruptTest() {
+        Game game = GameFactory.buildHeadlessCopy(GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt"));
+        TurnList turns = new TurnList();
+        MonteCarlo search = new MonteCarlo(60_000);
+
+        Thread.currentThread().interrupt();
+        long start = System.nanoTime();
+        int best = search.chooseTurn(game, turns);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(Thread.interrupted());
+        assertTrue(best >= 0 && best < turns.size());
+        assertTrue(elapsedMillis < 2_000, "Search took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(0));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(null, 100, 100));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarlo(ForkJoinPool.commonPool(), 100, 0));
+    }
+
+}
@@ -0,0 +1,62 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    @Test
+    public void countTest() {
+        Game game = GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt");
+        long hash = game.getHash();
+        Perft perft = new Perft(game);
+
+        assertEquals(1, perft.count(0));
+        assertEquals(82, perft.count(1));
+        assertEquals(3068, perft.count(2));
+        assertEquals(249368, perft.count(3));
+        assertEquals(hash, game.getHash());
+
+        assertThrows(IllegalArgumentException.class, () -> perft.count(-1));
+    }
+
+    @Test
+    public void godPowersRegressionTest() {
+        // Triton walking along the perimeter against Athena
+        Perft triton = new Perft(GameFactory.buildGameFromFile("gameTriton+Athena.txt", "boardTriton01.txt"));
+        assertEquals(48, triton.count(1));
+        assertEquals(7304, triton.count(2));
+
+        // Three players: Minotaur, Athena and Artemis
+        Perft minotaur = new Perft(GameFactory.buildGameFromFile("gameMinotaur.txt", "board002.txt"));
+        assertEquals(1502, minotaur.count(2));
+    }
+
+    @Test
+    public void divideTest() {
+        Perft perft = new Perft(GameFactory.buildGameFromFile("game002.txt", "boardEmpty.txt"));
+        TurnList roots = new TurnList();
+        long[] counts = perft.divide(2, roots);
+
+        assertEquals(82, roots.size());
+        assertEquals(82, counts.length);
+        long total = 0;
+        for(long c : counts) {
+            total += c;
+        }
+        assertEquals(perft.count(2), total);
+
+        assertThrows(IllegalArgumentException.class, () -> perft.divide(0, roots));
+    }
+
+    @Test
+    public void notationTest() {
+        // The same position as game002.txt on boardEmpty.txt
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00000/00000 apollo:1,2:2,3 athena:1,1:0,0");
+        assertEquals(3068, new Perft(game).count(2));
+    }
+
+}
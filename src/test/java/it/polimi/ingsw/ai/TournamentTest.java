@@ -0,0 +1,81 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.EGodPower;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    private static final List<EGodPower> GODS = Arrays.asList(EGodPower.APOLLO, EGodPower.ATHENA, EGodPower.CHRONUS, EGodPower.PAN);
+
+    @Test
+    public void twoPlayersTest() {
+        Tournament tournament = new Tournament(2, GODS, 40, 200, 1);
+        tournament.run(ForkJoinPool.commonPool());
+
+        assertEquals(6, tournament.getMatchupCount());
+        assertEquals(6 * 40, tournament.getPlayedGames());
+        for(EGodPower god : GODS) {
+            for(EGodPower opponent : GODS) {
+                if(god == opponent) {
+                    continue;
+                }
+                assertEquals(40, tournament.getGames(god, opponent));
+                assertEquals(1.0, tournament.getWinRate(god, opponent) + tournament.getWinRate(opponent, god), 1e-9);
+                double[] interval = tournament.getWinRateInterval(god, opponent);
+                assertTrue(interval[0] <= tournament.getWinRate(god, opponent) && tournament.getWinRate(god, opponent) <= interval[1]);
+                assertTrue(tournament.getAverageLength(god, opponent) >= 1);
+                assertTrue(tournament.getAverageLengthError(god, opponent) > 0);
+            }
+        }
+        assertTrue(tournament.report().contains("CHRONUS"));
+    }
+
+    @Test
+    public void threePlayersTest() {
+        Tournament tournament = new Tournament(3, GODS, 12, 200, 1);
+        tournament.run(ForkJoinPool.commonPool());
+
+        // Chronus cannot be used in a game of three players
+        assertFalse(tournament.getGods().contains(EGodPower.CHRONUS));
+        assertEquals(1, tournament.getMatchupCount());
+        assertEquals(12, tournament.getPlayedGames());
+        assertEquals(12, tournament.getGames(EGodPower.APOLLO, EGodPower.PAN));
+        assertEquals(0, tournament.getGames(EGodPower.APOLLO, EGodPower.CHRONUS));
+        double total = tournament.getWinRate(EGodPower.APOLLO) + tournament.getWinRate(EGodPower.ATHENA) + tournament.getWinRate(EGodPower.PAN);
+        assertEquals(1.0, total, 1e-9);
+    }
+
+    @Test
+    public void seedTest() {
+        Tournament first = new Tournament(2, GODS, 20, 200, 42);
+        Tournament second = new Tournament(2, GODS, 20, 200, 42);
+        ForkJoinPool pool = new ForkJoinPool(1);
+        first.run(pool);
+        pool.shutdown();
+        second.run(ForkJoinPool.commonPool());
+
+        for(EGodPower god : GODS) {
+            for(EGodPower opponent : GODS) {
+                assertEquals(first.getWinRate(god, opponent), second.getWinRate(god, opponent));
+                assertEquals(first.getAverageLength(god, opponent), second.getAverageLength(god, opponent));
+            }
+        }
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(4, GODS, 10, 200, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(2, null, 10, 200, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(2, GODS, 0, 200, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(2, GODS, 10, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(3, Arrays.asList(EGodPower.APOLLO, EGodPower.CHRONUS, EGodPower.PAN), 10, 200, 1));
+        assertThrows(IllegalArgumentException.class, () -> new Tournament(2, GODS, 10, 200, 1).run(null));
+    }
+
+}
@@ -0,0 +1,342 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnEnumeratorTest {
+
+    // Heights of the test board, 'D' is a dome on the ground
+    private static final String[] LAYOUT = {
+            "0123D",
+            "12000",
+            "30320",
+            "00010",
+            "20300"
+    };
+
+    private static final List<Position> WORKERS = Arrays.asList(
+            new Position(1, 1), new Position(3, 2), new Position(2, 1), new Position(3, 4));
+
+    private static final int SELECT = 0;
+    private static final int MOVE = 1;
+    private static final int BUILD = 2;
+    private static final int POWER = 3;
+
+    private static Game buildGame(List<EGodPower> gods, List<Position> workers) {
+        Game game = GameFactory.buildHeadlessGame(Arrays.asList("First", "Second"), gods, workers);
+        for(int row = 0; row < LAYOUT.length; row++) {
+            for(int col = 0; col < LAYOUT[row].length(); col++) {
+                char c = LAYOUT[row].charAt(col);
+                Tile tile = game.getBoard().getTile(row, col);
+                if(c == 'D') {
+                    tile.buildDome();
+                } else {
+                    for(int h = 0; h < c - '0'; h++) {
+                        tile.buildOneLevel();
+                    }
+                }
+            }
+        }
+        return game;
+    }
+
+    private static Game plainGame(EGodPower god) {
+        return buildGame(Arrays.asList(god, EGodPower.DEMETER), WORKERS);
+    }
+
+    private static Game heraGame(EGodPower god) {
+        return buildGame(Arrays.asList(god, EGodPower.HERA), WORKERS);
+    }
+
+    private static Game athenaGame(EGodPower god) {
+        // Athena plays first and moves up, so that her malus is active during the turn of the other player
+        Game game = buildGame(Arrays.asList(EGodPower.ATHENA, god),
+                Arrays.asList(WORKERS.get(2), WORKERS.get(3), WORKERS.get(0), WORKERS.get(1)));
+        Playable athena = game.getCurrentPlayerCard().getPlayable();
+        athena.selectWorker(game.getBoard().getTile(3, 4).getWorker());
+        athena.move(game.getBoard().getTile(3, 3));
+        athena.build(game.getBoard().getTile(4, 4));
+        return game;
+    }
+
+    private static Game chronusGame(EGodPower god) {
+        // Four complete towers: the next dome on a third level makes Chronus win
+        Game game = buildGame(Arrays.asList(god, EGodPower.CHRONUS), WORKERS);
+        for(Position p : Arrays.asList(new Position(0, 0), new Position(4, 3), new Position(4, 4), new Position(3, 0))) {
+            Tile tile = game.getBoard().getTile(p);
+            while(!tile.isDomed()) {
+                tile.buildOneLevel();
+            }
+            game.buildCompleteTower();
+        }
+        return game;
+    }
+
+    /**
+     * Returns the outcomes of all the turns of the current player, explored through the cards: each outcome is made of
+     * the hash of the board, the number of complete towers and the index of the winner, if any
+     */
+    private static Set<String> outcomesThroughCards(Supplier<Game> fixture) {
+        Set<String> outcomes = new HashSet<>();
+        explore(fixture, new ArrayList<>(), outcomes, new HashSet<>());
+        return outcomes;
+    }
+
+    private static void explore(Supplier<Game> fixture, List<int[]> decisions, Set<String> outcomes, Set<String> visited) {
+        Game game = fixture.get();
+        Player mover = game.getCurrentPlayer();
+        int workerSquare = -1;
+        for(int[] d : decisions) {
+            Playable card = mover.getCard().getPlayable();
+            Tile tile = d[0] == POWER ? null : game.getBoard().getTile(d[1]);
+            switch(d[0]) {
+                case SELECT:
+                    card.selectWorker(tile.getWorker());
+                    workerSquare = d[1];
+                    break;
+                case MOVE:
+                    card.move(tile);
+                    workerSquare = d[1];
+                    break;
+                case BUILD:
+                    card.build(tile);
+                    break;
+                default:
+                    card.useGodPower(d[1] == 1);
+                    break;
+            }
+        }
+
+        if(game.isGameOver() || game.getCurrentPlayer() != mover) {
+            // A move that leaves the worker unable to build makes the player lose
+            boolean deadEnd = game.isGameOver() && game.getWinner() != mover
+                    && decisions.get(decisions.size() - 1)[0] == MOVE;
+            if(!deadEnd) {
+                outcomes.add(outcome(game, game.isGameOver() ? indexOf(fixture, game.getWinner()) : TurnList.NO_WINNER));
+            }
+            return;
+        }
+        // Some cards only remember the last chosen tile and act on the next decision, so the last decision is part of the key
+        int[] last = decisions.isEmpty() ? new int[0] : decisions.get(decisions.size() - 1);
+        if(!visited.add(game.getHash() + ":" + workerSquare + ":" + Arrays.toString(last))) {
+            return;
+        }
+
+        Playable card = mover.getCard().getPlayable();
+        List<int[]> options = new ArrayList<>();
+        switch(game.getTurnPhase()) {
+            case WORKERSELECTION:
+                for(Worker w : mover.getWorkers()) {
+                    options.add(new int[]{SELECT, w.getTile().getSquare()});
+                }
+                break;
+            case MOVE:
+                for(Tile t : card.getTilesToMove()) {
+                    options.add(new int[]{MOVE, t.getSquare()});
+                }
+                break;
+            case BUILD:
+                for(Tile t : card.getTilesToBuild()) {
+                    options.add(new int[]{BUILD, t.getSquare()});
+                }
+                break;
+            default:
+                options.add(new int[]{POWER, 1});
+                options.add(new int[]{POWER, 0});
+                break;
+        }
+
+        for(int[] option : options) {
+            decisions.add(option);
+            explore(fixture, decisions, outcomes, visited);
+            decisions.remove(decisions.size() - 1);
+        }
+    }
+
+    private static int indexOf(Supplier<Game> fixture, Player player) {
+        List<Player> players = fixture.get().getPlayers();
+        for(int i = 0; i < players.size(); i++) {
+            if(players.get(i).getNickname().equals(player.getNickname())) {
+                return i;
+            }
+        }
+        return TurnList.NO_WINNER;
+    }
+
+    private static String outcome(Game game, int winner) {
+        return game.getBoard().getState().getHash() + ":" + game.getCompleteTowers() + ":" + winner;
+    }
+
+    private static Set<String> outcomesThroughEnumerator(Game game, TurnList turns, Set<String> workerOutcomes) {
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        enumerator.generate(turns);
+
+        Set<String> outcomes = new HashSet<>();
+        for(int i = 0; i < turns.size(); i++) {
+            for(int k = 0; k < turns.length(i); k++) {
+                game.apply(turns.action(i, k));
+            }
+            outcomes.add(outcome(game, turns.getWinner(i)));
+            workerOutcomes.add(turns.getWorkerSquare(i) + ":" + outcome(game, turns.getWinner(i)));
+            for(int k = 0; k < turns.length(i); k++) {
+                game.undo();
+            }
+        }
+        return outcomes;
+    }
+
+    private static void assertSameTurns(Supplier<Game> fixture, EGodPower god) {
+        TurnList turns = new TurnList();
+        Game game = fixture.get();
+        long hash = game.getHash();
+
+        Set<String> expected = outcomesThroughCards(fixture);
+        Set<String> workerOutcomes = new HashSet<>();
+        Set<String> actual = outcomesThroughEnumerator(game, turns, workerOutcomes);
+
+        assertFalse(expected.isEmpty(), god.toString());
+        assertEquals(expected, actual, god.toString());
+        assertEquals(hash, game.getHash());
+        if(god == EGodPower.TRITON) {
+            // One path only for each space Triton can end his walk on
+            assertEquals(workerOutcomes.size(), turns.size());
+        }
+    }
+
+    @Test
+    public void allGodPowersTest() {
+        for(EGodPower god : EGodPower.values()) {
+            assertSameTurns(() -> plainGame(god), god);
+        }
+    }
+
+    @Test
+    public void heraTest() {
+        for(EGodPower god : EGodPower.values()) {
+            if(god != EGodPower.HERA) {
+                assertSameTurns(() -> heraGame(god), god);
+            }
+        }
+    }
+
+    @Test
+    public void athenaTest() {
+        for(EGodPower god : EGodPower.values()) {
+            if(god != EGodPower.ATHENA) {
+                assertSameTurns(() -> athenaGame(god), god);
+            }
+        }
+    }
+
+    @Test
+    public void chronusTest() {
+        for(EGodPower god : EGodPower.values()) {
+            if(god != EGodPower.CHRONUS) {
+                assertSameTurns(() -> chronusGame(god), god);
+            }
+        }
+    }
+
+    @Test
+    public void winningTurnsTest() {
+        TurnList turns = new TurnList();
+
+        new TurnEnumerator(plainGame(EGodPower.PAN)).generate(turns);
+        Set<Integer> winningMoves = new HashSet<>();
+        for(int i = 0; i < turns.size(); i++) {
+            if(turns.getWinner(i) != TurnList.NO_WINNER) {
+                assertEquals(0, turns.getWinner(i));
+                assertEquals(1, turns.length(i));
+                winningMoves.add(Action.to(turns.action(i, 0)));
+            }
+        }
+        // Up to the third level on (2,0) and (2,2), down two levels on (0,0) and (1,2)
+        assertEquals(new HashSet<>(Arrays.asList(BoardState.square(2, 0), BoardState.square(2, 2),
+                BoardState.square(0, 0), BoardState.square(1, 2))), winningMoves);
+
+        // Hera forbids the win on the perimeter
+        new TurnEnumerator(heraGame(EGodPower.APOLLO)).generate(turns);
+        for(int i = 0; i < turns.size(); i++) {
+            if(turns.getWinner(i) != TurnList.NO_WINNER) {
+                assertEquals(BoardState.square(2, 2), Action.to(turns.action(i, 0)));
+            }
+        }
+    }
+
+    @Test
+    public void playAndUnplayTest() {
+        Game game = buildGame(Arrays.asList(EGodPower.ATHENA, EGodPower.MINOTAUR),
+                Arrays.asList(WORKERS.get(2), WORKERS.get(3), WORKERS.get(0), WORKERS.get(1)));
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        TurnList turns = new TurnList();
+        long hash = game.getHash();
+
+        assertFalse(enumerator.isAthenaActive());
+        enumerator.generate(turns);
+        int up = -1;
+        for(int i = 0; i < turns.size() && up < 0; i++) {
+            if(Action.to(turns.action(i, 0)) == BoardState.square(3, 3)) {
+                up = i;
+            }
+        }
+        assertTrue(up >= 0);
+
+        enumerator.play(turns, up);
+        assertTrue(enumerator.isAthenaActive());
+        assertEquals(1, enumerator.getCurrentPlayerIndex());
+        assertEquals(1, enumerator.getPlies());
+
+        // Minotaur cannot move up anymore
+        enumerator.generate(turns);
+        BoardState state = game.getBoard().getState();
+        for(int i = 0; i < turns.size(); i++) {
+            int move = turns.action(i, 0);
+            assertTrue(state.getHeight(Action.to(move)) <= state.getHeight(Action.from(move)));
+        }
+
+        enumerator.unplay();
+        assertFalse(enumerator.isAthenaActive());
+        assertEquals(0, enumerator.getCurrentPlayerIndex());
+        assertEquals(hash, game.getHash());
+        assertThrows(IllegalStateException.class, enumerator::unplay);
+    }
+
+    @Test
+    public void eliminationTest() {
+        // The workers of the second player are walled in by domes
+        Game game = GameFactory.buildHeadlessGame(Arrays.asList("First", "Second", "Third"),
+                Arrays.asList(EGodPower.PAN, EGodPower.DEMETER, EGodPower.ATLAS),
+                Arrays.asList(new Position(3, 3), new Position(4, 4), new Position(0, 0), new Position(0, 1),
+                        new Position(3, 0), new Position(4, 1)));
+        for(Position p : Arrays.asList(new Position(1, 0), new Position(1, 1), new Position(1, 2), new Position(0, 2))) {
+            game.getBoard().getTile(p).buildDome();
+        }
+        Player second = game.getPlayers().get(1);
+
+        TurnEnumerator enumerator = new TurnEnumerator(game);
+        TurnList turns = new TurnList();
+        assertTrue(enumerator.generate(turns) > 0);
+        enumerator.play(turns, 0);
+        assertEquals(1, enumerator.getCurrentPlayerIndex());
+        // The enumerator does not play on without the second player
+        assertEquals(0, enumerator.generate(turns));
+        enumerator.unplay();
+
+        // The real game removes the second player and goes on: a new enumerator follows it
+        game.setCurrentPlayer(second);
+        game.setLoser(second);
+        assertFalse(game.isGameOver());
+        assertEquals(2, game.getPlayers().size());
+        TurnEnumerator after = new TurnEnumerator(game);
+        assertEquals(2, after.getPlayerCount());
+        assertEquals(EGodPower.ATLAS, after.getGodPower(after.getCurrentPlayerIndex()));
+        assertTrue(after.generate(turns) > 0);
+    }
+
+}
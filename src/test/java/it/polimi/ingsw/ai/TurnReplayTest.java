@@ -0,0 +1,96 @@
+package it.polimi.ingsw.ai;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnReplayTest {
+
+    // The board of TurnEnumeratorTest, with the first player on (1,1) and (3,2), the second one on (2,1) and (3,4)
+    private static final String BOARD = "01230D/12000/30320/00010/20300";
+
+    private static Game buildGame(EGodPower first, EGodPower second) {
+        return GameFactory.buildHeadlessGameFromNotation(BOARD + " " + first + ":1,1:3,2 " + second + ":2,1:3,4");
+    }
+
+    /**
+     * Replays the turn through the cards of the game, as a client would do
+     */
+    private static void replay(Game game, TurnReplay replay) {
+        Player mover = game.getCurrentPlayer();
+        Playable card = mover.getCard().getPlayable();
+        while(!game.isGameOver() && game.getCurrentPlayer() == mover) {
+            ETurnPhase phase = game.getTurnPhase();
+            switch(phase) {
+                case WORKERSELECTION:
+                    card.selectWorker(game.getBoard().getTile(replay.getWorkerSquare()).getWorker());
+                    break;
+                case MOVE:
+                    card.move(game.getBoard().getTile(replay.nextSquare(phase)));
+                    break;
+                case BUILD:
+                    card.build(game.getBoard().getTile(replay.nextSquare(phase)));
+                    break;
+                default:
+                    card.useGodPower(replay.nextChoice());
+                    break;
+            }
+        }
+        assertTrue(replay.isOver());
+    }
+
+    private static void assertSameTurns(EGodPower first, EGodPower second) {
+        Game game = buildGame(first, second);
+        TurnList turns = new TurnList();
+        new TurnEnumerator(game).generate(turns);
+        assertTrue(turns.size() > 0);
+
+        for(int i = 0; i < turns.size(); i++) {
+            for(int k = 0; k < turns.length(i); k++) {
+                game.apply(turns.action(i, k));
+            }
+            long expected = game.getBoard().getState().getHash();
+            for(int k = 0; k < turns.length(i); k++) {
+                game.undo();
+            }
+
+            Game played = buildGame(first, second);
+            replay(played, new TurnReplay(turns.getActions(i), first));
+            String turn = first + " " + turns.toString(i);
+            assertEquals(expected, played.getBoard().getState().getHash(), turn);
+            if(turns.getWinner(i) != TurnList.NO_WINNER) {
+                assertSame(played.getPlayers().get(turns.getWinner(i)), played.getWinner(), turn);
+            } else {
+                assertFalse(played.isGameOver(), turn);
+            }
+        }
+    }
+
+    @Test
+    public void allGodPowersTest() {
+        for(EGodPower god : EGodPower.values()) {
+            assertSameTurns(god, EGodPower.DEMETER);
+            if(god != EGodPower.HERA) {
+                assertSameTurns(god, EGodPower.HERA);
+            }
+        }
+    }
+
+    @Test
+    public void invalidReplayTest() {
+        TurnReplay replay = new TurnReplay(new int[]{Action.move(0, 1), Action.build(1, 2)}, EGodPower.APOLLO);
+        assertEquals(0, replay.getWorkerSquare());
+        assertThrows(IllegalStateException.class, () -> replay.nextSquare(ETurnPhase.BUILD));
+        assertEquals(1, replay.nextSquare(ETurnPhase.MOVE));
+        assertEquals(2, replay.nextSquare(ETurnPhase.BUILD));
+        assertTrue(replay.isOver());
+        assertFalse(replay.nextChoice());
+        assertThrows(IllegalStateException.class, () -> replay.nextSquare(ETurnPhase.BUILD));
+
+        assertThrows(IllegalArgumentException.class, () -> new TurnReplay(new int[0], EGodPower.APOLLO));
+        assertThrows(IllegalArgumentException.class, () -> new TurnReplay(new int[]{Action.move(0, 1)}, null));
+    }
+
+}
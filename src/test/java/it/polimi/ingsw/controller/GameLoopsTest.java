@@ -0,0 +1,113 @@
+package it.polimi.ingsw.controller;
+
+import it.polimi.ingsw.utils.GameFactory;
+import it.polimi.ingsw.view.RemoteView;
+import it.polimi.ingsw.view.RemoteViewDummy;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameLoopsTest {
+
+    private static Controller controller(Executor executor) {
+        List<RemoteView> views = Arrays.asList(new RemoteViewDummy("Player1"), new RemoteViewDummy("Player2"));
+        return new Controller(views, GameFactory.buildEmptyGameFromRemoteViewsList(views), executor);
+    }
+
+    @Test
+    public void nextTest() {
+        GameLoops loops = new GameLoops(2);
+        Executor first = loops.next();
+        Executor second = loops.next();
+        assertNotSame(first, second);
+        assertSame(first, loops.next());
+        assertEquals(2, loops.size());
+        loops.shutdown();
+
+        assertThrows(IllegalArgumentException.class, () -> new GameLoops(0));
+    }
+
+    @Test
+    public void singleThreadTest() throws Exception {
+        GameLoops loops = new GameLoops(2);
+        Controller controller = controller(loops.next());
+        int submitters = 8;
+        int tasks = 1000;
+        // Changed without synchronization, as the game is
+        int[] counter = new int[1];
+        List<List<Integer>> seen = new ArrayList<>();
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(submitters);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for(int s = 0; s < submitters; s++) {
+                List<Integer> order = new ArrayList<>();
+                seen.add(order);
+                done.add(pool.submit(() -> {
+                    for(int i = 0; i < tasks; i++) {
+                        int task = i;
+                        controller.submit(() -> {
+                            threads.add(Thread.currentThread());
+                            counter[0]++;
+                            return order.add(task);
+                        });
+                    }
+                }));
+            }
+            for(Future<?> f : done) {
+                f.get(10, TimeUnit.SECONDS);
+            }
+            controller.submit(() -> null).get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+            loops.shutdown();
+        }
+
+        assertEquals(submitters * tasks, counter[0]);
+        assertEquals(1, threads.size());
+        assertTrue(threads.iterator().next().getName().startsWith("GameLoop-"));
+        for(List<Integer> order : seen) {
+            assertEquals(tasks, order.size());
+            for(int i = 0; i < tasks; i++) {
+                assertEquals(i, order.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void nestedTaskTest() {
+        Controller controller = controller(Runnable::run);
+        List<String> order = new ArrayList<>();
+        controller.submit(() -> {
+            order.add("outer");
+            // A task posted by the running one is run at once, as an event sent back by the model
+            controller.submit(() -> order.add("inner"));
+            return order.add("after");
+        }).join();
+        assertEquals(Arrays.asList("outer", "inner", "after"), order);
+    }
+
+    @Test
+    public void failureTest() {
+        Controller controller = controller(Runnable::run);
+        assertTrue(controller.isActive());
+
+        // An event that cannot be handled stops the game instead of leaving it half changed
+        controller.update(null);
+        assertFalse(controller.isActive());
+        assertNull(controller.submit(() -> null).join());
+
+        List<String> order = new ArrayList<>();
+        Mailbox mailbox = new Mailbox(Runnable::run, () -> order.add("failure"));
+        mailbox.execute(() -> {
+            throw new IllegalStateException("Broken");
+        });
+        mailbox.execute(() -> order.add("next"));
+        assertEquals(Arrays.asList("failure", "next"), order);
+        assertThrows(IllegalArgumentException.class, () -> new Mailbox(Runnable::run, null));
+    }
+
+}
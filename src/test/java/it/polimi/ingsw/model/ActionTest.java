@@ -0,0 +1,123 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionTest {
+
+    @Test
+    public void encodingTest() {
+        int action = Action.push(BoardState.square(1, 1), BoardState.square(2, 2), BoardState.square(3, 3));
+
+        assertEquals(Action.PUSH, Action.kind(action));
+        assertEquals(6, Action.from(action));
+        assertEquals(12, Action.to(action));
+        assertEquals(18, Action.aux(action));
+        assertTrue(Action.isMovement(action));
+        assertEquals("PUSH (1,1)->(2,2)->(3,3)", Action.toString(action));
+
+        assertFalse(Action.isMovement(Action.build(0, 1)));
+        assertEquals(Action.END_TURN, Action.kind(Action.endTurn()));
+    }
+
+    @Test
+    public void moveAndUndoTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Board board = game.getBoard();
+        Worker worker = board.getTile(1, 2).getWorker();
+
+        game.apply(Action.move(BoardState.square(1, 2), BoardState.square(0, 2)));
+        assertSame(worker, board.getTile(0, 2).getWorker());
+        assertSame(board.getTile(0, 2), worker.getTile());
+        assertFalse(board.getTile(1, 2).hasWorker());
+        assertEquals(1, game.getHistoryLength());
+
+        game.undo();
+        assertSame(worker, board.getTile(1, 2).getWorker());
+        assertSame(board.getTile(1, 2), worker.getTile());
+        assertFalse(board.getTile(0, 2).hasWorker());
+        assertEquals(0, game.getHistoryLength());
+
+        assertThrows(IllegalStateException.class, game::undo);
+    }
+
+    @Test
+    public void swapAndPushTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Board board = game.getBoard();
+        Worker charger = board.getTile(1, 2).getWorker();
+        Worker charged = board.getTile(2, 3).getWorker();
+
+        game.apply(Action.swap(BoardState.square(1, 2), BoardState.square(2, 3)));
+        assertSame(charger, board.getTile(2, 3).getWorker());
+        assertSame(charged, board.getTile(1, 2).getWorker());
+        assertSame(board.getTile(1, 2), charged.getTile());
+        game.undo();
+        assertSame(charger, board.getTile(1, 2).getWorker());
+        assertSame(charged, board.getTile(2, 3).getWorker());
+
+        game.apply(Action.push(BoardState.square(1, 2), BoardState.square(2, 3), BoardState.square(3, 4)));
+        assertSame(charger, board.getTile(2, 3).getWorker());
+        assertSame(charged, board.getTile(3, 4).getWorker());
+        assertSame(board.getTile(3, 4), charged.getTile());
+        assertFalse(board.getTile(1, 2).hasWorker());
+        game.undo();
+        assertSame(charger, board.getTile(1, 2).getWorker());
+        assertSame(charged, board.getTile(2, 3).getWorker());
+        assertFalse(board.getTile(3, 4).hasWorker());
+    }
+
+    @Test
+    public void buildAndUndoTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Tile tile = game.getBoard().getTile(0, 0);
+        int square = tile.getSquare();
+
+        for(int i = 0; i < 4; i++) {
+            game.apply(Action.build(BoardState.square(1, 1), square));
+        }
+        assertEquals(ETileLevel.LEVEL3, tile.getLevel());
+        assertTrue(tile.isDomed());
+        assertEquals(1, game.getCompleteTowers());
+
+        // Building on a domed tile has no effect, but can be undone as well
+        game.apply(Action.build(BoardState.square(1, 1), square));
+        game.undo();
+        game.undo();
+        assertEquals(ETileLevel.LEVEL3, tile.getLevel());
+        assertFalse(tile.isDomed());
+        assertEquals(0, game.getCompleteTowers());
+
+        game.apply(Action.dome(BoardState.square(1, 1), BoardState.square(0, 1)));
+        assertTrue(game.getBoard().getTile(0, 1).isDomed());
+        assertEquals(ETileLevel.GROUND, game.getBoard().getTile(0, 1).getLevel());
+        assertEquals(0, game.getCompleteTowers());
+
+        while(game.getHistoryLength() > 0) {
+            game.undo();
+        }
+        assertEquals(ETileLevel.GROUND, tile.getLevel());
+        assertFalse(game.getBoard().getTile(0, 1).isDomed());
+    }
+
+    @Test
+    public void endTurnTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Player first = game.getCurrentPlayer();
+
+        game.apply(Action.endTurn());
+        assertSame(game.getPlayers().get(1), game.getCurrentPlayer());
+        game.apply(Action.endTurn());
+        game.apply(Action.endTurn());
+        assertSame(first, game.getCurrentPlayer());
+
+        game.undo();
+        assertSame(game.getPlayers().get(2), game.getCurrentPlayer());
+        game.undo();
+        game.undo();
+        assertSame(first, game.getCurrentPlayer());
+    }
+
+}
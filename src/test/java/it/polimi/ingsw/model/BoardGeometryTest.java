@@ -0,0 +1,77 @@
+package it.polimi.ingsw.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardGeometryTest {
+
+    @Test
+    public void neighboursTest() {
+        assertEquals(3, BoardGeometry.neighbourCount(BoardState.square(0, 0)));
+        assertEquals(5, BoardGeometry.neighbourCount(BoardState.square(2, 0)));
+        assertEquals(8, BoardGeometry.neighbourCount(BoardState.square(2, 2)));
+
+        long expected = BoardState.bit(BoardState.square(0, 1))
+                | BoardState.bit(BoardState.square(1, 0))
+                | BoardState.bit(BoardState.square(1, 1));
+        assertEquals(expected, BoardGeometry.neighbourMask(BoardState.square(0, 0)));
+
+        // Neighbours are listed in ascending square order
+        assertEquals(BoardState.square(0, 1), BoardGeometry.neighbour(0, 0));
+        assertEquals(BoardState.square(1, 0), BoardGeometry.neighbour(0, 1));
+        assertEquals(BoardState.square(1, 1), BoardGeometry.neighbour(0, 2));
+    }
+
+    @Test
+    public void pushTargetTest() {
+        assertEquals(BoardState.square(3, 3), BoardGeometry.pushTarget(BoardState.square(1, 1), BoardState.square(2, 2)));
+        assertEquals(BoardState.square(2, 0), BoardGeometry.pushTarget(BoardState.square(2, 2), BoardState.square(2, 1)));
+
+        // Off the grid
+        assertEquals(-1, BoardGeometry.pushTarget(BoardState.square(1, 1), BoardState.square(0, 0)));
+        // Not adjacent, or the same square
+        assertEquals(-1, BoardGeometry.pushTarget(BoardState.square(0, 0), BoardState.square(2, 2)));
+        assertEquals(-1, BoardGeometry.pushTarget(BoardState.square(2, 2), BoardState.square(2, 2)));
+    }
+
+    @Test
+    public void perimeterTest() {
+        assertEquals(16, Long.bitCount(BoardGeometry.PERIMETER_MASK));
+        assertEquals(4, Long.bitCount(BoardGeometry.CORNER_MASK));
+        assertTrue(BoardGeometry.isPerimeter(BoardState.square(3, 0)));
+        assertFalse(BoardGeometry.isPerimeter(BoardState.square(3, 1)));
+        assertTrue(BoardGeometry.isCorner(BoardState.square(4, 4)));
+        assertFalse(BoardGeometry.isCorner(BoardState.square(4, 3)));
+        assertEquals(-1, BoardGeometry.perimeterNext(BoardState.square(2, 2), true));
+
+        // Walking the whole ring brings back to the starting square, visiting every perimeter square once
+        long visited = 0L;
+        int square = 0;
+        for(int i = 0; i < BoardGeometry.PERIMETER_LENGTH; i++) {
+            visited |= BoardState.bit(square);
+            int next = BoardGeometry.perimeterNext(square, true);
+            assertEquals(square, BoardGeometry.perimeterNext(next, false));
+            square = next;
+        }
+        assertEquals(0, square);
+        assertEquals(BoardGeometry.PERIMETER_MASK, visited);
+    }
+
+    @Test
+    public void surroundingTilesViewTest() {
+        Board board = new Board();
+        List<Tile> surrounding = board.getSurroundingTiles(1, 1);
+
+        assertSame(surrounding, board.getSurroundingTiles(new Position(1, 1)));
+        assertThrows(UnsupportedOperationException.class, () -> surrounding.remove(0));
+
+        // The view follows the tiles substituted on the board
+        Tile substitute = new Tile(0, 0);
+        board.setTile(substitute);
+        assertSame(substitute, surrounding.get(0));
+    }
+
+}
@@ -0,0 +1,155 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.utils.BoardFactory;
+import it.polimi.ingsw.utils.GameFactory;
+import it.polimi.ingsw.view.RemoteViewDummy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static it.polimi.ingsw.model.Constants.COLUMNS;
+import static it.polimi.ingsw.model.Constants.ROWS;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoardStateTest {
+
+    @Test
+    public void levelsAndDomesTest() {
+        BoardState state = new BoardState();
+        int square = BoardState.square(2, 3);
+
+        assertEquals(13, square);
+        assertEquals(0, state.getHeight(square));
+
+        state.setHeight(square, 2);
+        assertEquals(2, state.getHeight(square));
+        assertEquals(BoardState.bit(square), state.getLevelMask(1));
+        assertEquals(BoardState.bit(square), state.getLevelMask(2));
+        assertEquals(0L, state.getLevelMask(3));
+
+        state.setHeight(square, 1);
+        assertEquals(1, state.getHeight(square));
+        assertEquals(0L, state.getLevelMask(2));
+
+        assertFalse(state.isDomed(square));
+        state.setDomed(square, true);
+        assertTrue(state.isDomed(square));
+        assertEquals(BoardState.bit(square), state.getDomes());
+        assertEquals(BoardState.bit(square), state.getBlocked());
+    }
+
+    @Test
+    public void workerMasksTest() {
+        BoardState state = new BoardState();
+        Player p1 = new Player(new RemoteViewDummy("Bot1"));
+        Player p2 = new Player(new RemoteViewDummy("Bot2"));
+
+        state.setWorker(0, p1.getWorkers()[0]);
+        state.setWorker(24, p2.getWorkers()[1]);
+
+        int slot1 = state.slotOf("Bot1");
+        int slot2 = state.slotOf("Bot2");
+        assertNotEquals(slot1, slot2);
+        assertEquals(BoardState.bit(0), state.getWorkerMask(slot1));
+        assertEquals(BoardState.bit(24), state.getWorkerMask(slot2));
+        assertEquals(BoardState.bit(0) | BoardState.bit(24), state.getOccupied());
+
+        // Replacing a worker moves the bit to the new owner
+        state.setWorker(0, p2.getWorkers()[0]);
+        assertEquals(0L, state.getWorkerMask(slot1));
+        assertEquals(BoardState.bit(0) | BoardState.bit(24), state.getWorkerMask(slot2));
+
+        state.setWorker(0, null);
+        assertNull(state.getWorker(0));
+        assertEquals(BoardState.bit(24), state.getOccupied());
+    }
+
+    @Test
+    public void assignSlotsTest() {
+        Player p1 = new Player(new RemoteViewDummy("Bot1"));
+        Player p2 = new Player(new RemoteViewDummy("Bot2"));
+
+        // Looking a slot up does not reserve it
+        BoardState first = new BoardState();
+        assertEquals(-1, first.findSlot("Bot1"));
+        assertEquals(-1, first.findSlot("Bot1"));
+
+        first.setWorker(0, p1.getWorkers()[0]);
+        first.setWorker(24, p2.getWorkers()[0]);
+        BoardState second = new BoardState();
+        second.setWorker(24, p2.getWorkers()[0]);
+        second.setWorker(0, p1.getWorkers()[0]);
+        assertNotEquals(first.getHash(), second.getHash());
+
+        // Once the slots follow the seats, the placement order no longer matters
+        second.assignSlots(Arrays.asList("Bot1", "Bot2"));
+        assertEquals(0, second.findSlot("Bot1"));
+        assertEquals(1, second.findSlot("Bot2"));
+        assertEquals(BoardState.bit(0), second.getWorkerMask(0));
+        assertEquals(BoardState.bit(24), second.getWorkerMask(1));
+        assertEquals(first.getHash(), second.getHash());
+        assertEquals(Zobrist.hashOf(second), second.getHash());
+    }
+
+    @Test
+    public void toSquaresTest() {
+        int[] buffer = new int[25];
+        int n = BoardState.toSquares(BoardState.bit(3) | BoardState.bit(7) | BoardState.bit(24), buffer);
+
+        assertEquals(3, n);
+        assertEquals(3, buffer[0]);
+        assertEquals(7, buffer[1]);
+        assertEquals(24, buffer[2]);
+    }
+
+    @Test
+    public void boardViewTest() {
+        Board board = BoardFactory.buildBoardWithoutWorkersFromFile("board002.txt");
+        BoardState state = board.getState();
+
+        for (int r = 0; r < ROWS; r++) {
+            for (int c = 0; c < COLUMNS; c++) {
+                Tile t = board.getTile(r, c);
+                assertEquals(t.getLevel().getHeight(), state.getHeight(BoardState.square(r, c)));
+                assertEquals(t.isDomed(), state.isDomed(BoardState.square(r, c)));
+            }
+        }
+
+        // Writes through a Tile are seen by the state and vice versa
+        board.getTile(4, 4).buildOneLevel();
+        assertEquals(board.getTile(4, 4).getLevel().getHeight(), state.getHeight(24));
+        state.setDomed(0, true);
+        assertTrue(board.getTile(0, 0).isDomed());
+    }
+
+    @Test
+    public void workerMovesTest() {
+        Game game = GameFactory.buildGameFromFile("gameApollo.txt", "boardEmpty.txt");
+        BoardState state = game.getBoard().getState();
+
+        Worker w = game.getPlayers().get(0).getWorkers()[0];
+        int slot = state.slotOf(w.getOwnerNickname());
+        int from = w.getTile().getSquare();
+        Tile dest = game.getBoard().getSurroundingTiles(w.getPosition()).stream()
+                .filter(t -> !t.hasWorker()).findFirst().orElseThrow();
+
+        w.moveWorker(dest);
+
+        assertEquals(0L, state.getWorkerMask(slot) & BoardState.bit(from));
+        assertNotEquals(0L, state.getWorkerMask(slot) & BoardState.bit(dest.getSquare()));
+        assertSame(w, state.getWorker(dest.getSquare()));
+    }
+
+    @Test
+    public void cloneIsDetachedTest() {
+        Board board = new Board();
+        Tile original = board.getTile(1, 1);
+        Tile clone = (Tile) original.clone();
+
+        original.buildOneLevel();
+
+        assertEquals(ETileLevel.LEVEL1, original.getLevel());
+        assertEquals(ETileLevel.GROUND, clone.getLevel());
+    }
+
+}
@@ -0,0 +1,89 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.cards.AthenaCard;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameSnapshotTest {
+
+    private static final String POSITION = "01230/00D000/00320/00000/00010 athena:2,2:0,0 pan:4,4:4,0 hera:0,4:3,2";
+
+    @Test
+    public void contentTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation(POSITION);
+        ((AthenaCard) game.getPlayers().get(0).getCard()).activateMalus();
+        game.buildCompleteTower();
+        GameSnapshot snapshot = game.takeSnapshot();
+        BoardState state = game.getBoard().getState();
+
+        assertSame(snapshot, game.getSnapshot());
+        assertEquals(game.getPlayerNicknamesList(), snapshot.getPlayers());
+        assertEquals(EGodPower.PAN, snapshot.getGodPower(1));
+        assertTrue(snapshot.isUsedGodPower(0));
+        assertFalse(snapshot.isUsedGodPower(1));
+        assertEquals(0, snapshot.getCurrentPlayerIndex());
+        assertEquals("Player1", snapshot.getCurrentPlayer());
+        assertEquals(ETurnPhase.WORKERSELECTION, snapshot.getTurnPhase());
+        assertEquals(1, snapshot.getCompleteTowers());
+        assertFalse(snapshot.isGameOver());
+        assertNull(snapshot.getWinner());
+        assertEquals(game.getHash(), snapshot.getHash());
+
+        for(int h = 0; h <= 4; h++) {
+            assertEquals(state.getLevelMask(h), snapshot.getLevelMask(h));
+        }
+        assertEquals(state.getDomes(), snapshot.getDomes());
+        assertEquals(state.getOccupied(), snapshot.getOccupied());
+        for(int square = 0; square < BoardState.SQUARES; square++) {
+            assertEquals(state.getHeight(square), snapshot.getHeight(square));
+            assertEquals(state.isDomed(square), snapshot.isDomed(square));
+        }
+        assertEquals(BoardState.square(3, 2), snapshot.getWorkerSquare(2, 1));
+        assertEquals(BoardState.bit(BoardState.square(4, 4)) | BoardState.bit(BoardState.square(4, 0)), snapshot.getWorkerMask(1));
+    }
+
+    @Test
+    public void immutabilityAndSharingTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation(POSITION);
+        GameSnapshot before = game.getSnapshot();
+        long occupied = before.getOccupied();
+
+        // Athena plays a whole turn, the snapshot of the next turn is published by the game
+        Playable athena = game.getCurrentPlayerCard().getPlayable();
+        athena.selectWorker(game.getBoard().getTile(2, 2).getWorker());
+        athena.move(game.getBoard().getTile(2, 1));
+        athena.build(game.getBoard().getTile(2, 0));
+
+        GameSnapshot after = game.getSnapshot();
+        assertNotSame(before, after);
+        assertEquals("Player2", after.getCurrentPlayer());
+        assertEquals(occupied, before.getOccupied());
+        assertEquals(0, before.getHeight(BoardState.square(2, 0)));
+        assertEquals(1, after.getHeight(BoardState.square(2, 0)));
+        // Nobody lost, so the players are shared
+        assertSame(before.getPlayers(), after.getPlayers());
+
+        game.setLoser(game.getPlayers().get(2));
+        GameSnapshot smaller = game.takeSnapshot();
+        assertNotSame(after.getPlayers(), smaller.getPlayers());
+        assertEquals(2, smaller.getPlayers().size());
+        assertEquals(3, after.getPlayers().size());
+        assertThrows(UnsupportedOperationException.class, () -> smaller.getPlayers().add("Player4"));
+    }
+
+    @Test
+    public void headlessCopyTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation(POSITION);
+        ((AthenaCard) game.getPlayers().get(0).getCard()).activateMalus();
+        Game copy = GameFactory.buildHeadlessGameFromSnapshot(game.takeSnapshot());
+
+        assertEquals(game.getBoard().getState().getOccupied(), copy.getBoard().getState().getOccupied());
+        assertEquals(game.getBoard().getState().getLevelMask(1), copy.getBoard().getState().getLevelMask(1));
+        assertEquals(game.getPlayerNicknamesList(), copy.getPlayerNicknamesList());
+        assertTrue(copy.getPlayers().get(0).getCard().isUsedGodPower());
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromSnapshot(null));
+    }
+
+}
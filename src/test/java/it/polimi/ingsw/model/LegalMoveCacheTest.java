@@ -0,0 +1,90 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.model.cards.AthenaCard;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveCacheTest {
+
+    private static void assertCached(Game game) {
+        for(Player p : game.getPlayers()) {
+            Playable playable = p.getCard().getPlayable();
+            for(Worker w : p.getWorkers()) {
+                if(w.getTile() != null) {
+                    assertEquals(playable.getMovesMask(w.getTile()), game.getMovesMask(w));
+                    assertEquals(playable.getBuildsMask(w.getTile()), game.getBuildsMask(w));
+                }
+            }
+        }
+    }
+
+    private static void playRandomGame(List<EGodPower> gods, Random random) {
+        List<String> nicknames = gods.size() == 2 ? Arrays.asList("A", "B") : Arrays.asList("A", "B", "C");
+        List<Position> positions = Arrays.asList(new Position(1, 1), new Position(3, 3), new Position(1, 3),
+                new Position(3, 1), new Position(2, 0), new Position(2, 4)).subList(0, 2 * gods.size());
+        Game game = GameFactory.buildHeadlessGame(nicknames, gods, positions);
+
+        for(int decisions = 0; decisions < 500 && !game.isGameOver(); decisions++) {
+            assertCached(game);
+            Playable card = game.getCurrentPlayerCard().getPlayable();
+            switch(game.getTurnPhase()) {
+                case WORKERSELECTION:
+                    Worker[] workers = game.getCurrentPlayer().getWorkers();
+                    card.selectWorker(game.getMovesMask(workers[0]) != 0L ? workers[random.nextInt(2)] : workers[1]);
+                    break;
+                case MOVE:
+                    List<Tile> moves = card.getTilesToMove();
+                    card.move(moves.get(random.nextInt(moves.size())));
+                    break;
+                case BUILD:
+                    List<Tile> builds = card.getTilesToBuild();
+                    card.build(builds.get(random.nextInt(builds.size())));
+                    break;
+                default:
+                    card.useGodPower(random.nextBoolean());
+                    break;
+            }
+        }
+    }
+
+    @Test
+    public void cachedMasksTest() {
+        Random random = new Random(3);
+        List<EGodPower> gods = EGodPower.getCardList(2);
+        for(EGodPower first : gods) {
+            for(EGodPower second : gods) {
+                if(first != second) {
+                    playRandomGame(Arrays.asList(first, second), random);
+                }
+            }
+        }
+        playRandomGame(Arrays.asList(EGodPower.ATHENA, EGodPower.HERA, EGodPower.PROMETHEUS), random);
+        playRandomGame(Arrays.asList(EGodPower.ARTEMIS, EGodPower.DEMETER, EGodPower.TRITON), random);
+    }
+
+    @Test
+    public void invalidationTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00120/00000/00000 apollo:2,2:0,0 athena:4,4:4,0");
+        Worker worker = game.getBoard().getTile(BoardState.square(2, 2)).getWorker();
+        long moves = game.getMovesMask(worker);
+        assertEquals(moves, game.getMovesMask(worker));
+
+        // A dome built next to the worker removes a move
+        game.getBoard().getTile(BoardState.square(2, 3)).buildDome();
+        assertEquals(moves & ~BoardState.bit(BoardState.square(2, 3)), game.getMovesMask(worker));
+
+        // Athena's malus changes the rules of the card
+        game.getBoard().getTile(BoardState.square(1, 2)).buildOneLevel();
+        game.getBoard().getTile(BoardState.square(1, 2)).buildOneLevel();
+        assertNotEquals(0L, game.getMovesMask(worker) & BoardState.bit(BoardState.square(1, 2)));
+        ((AthenaCard) game.getPlayers().get(1).getCard()).activateMalus();
+        assertEquals(0L, game.getMovesMask(worker) & game.getBoard().getState().getLevelMask(2));
+    }
+
+}
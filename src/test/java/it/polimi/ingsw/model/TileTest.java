@@ -439,4 +439,26 @@ public class TileTest {
 
     }
 
+    @Test
+    public void detachedTileTest() {
+        Board board = new Board();
+        Tile onBoard = board.getTile(2, 2);
+        onBoard.buildOneLevel();
+
+        // A clone keeps its content on its own, the board does not change with it
+        Tile clone = (Tile) onBoard.clone();
+        clone.buildDome();
+        tileTest(2, 2, null, true, ETileLevel.LEVEL1, clone);
+        assertFalse(onBoard.isDomed());
+
+        // A tile replaced on the board keeps the content it had
+        Tile substitute = new Tile(2, 2);
+        board.setTile(substitute);
+        tileTest(2, 2, null, false, ETileLevel.LEVEL1, onBoard);
+        tileTest(2, 2, null, false, ETileLevel.GROUND, board.getTile(2, 2));
+        onBoard.buildOneLevel();
+        assertEquals(ETileLevel.GROUND, substitute.getLevel());
+        assertEquals(ETileLevel.LEVEL2, onBoard.getLevel());
+    }
+
 }
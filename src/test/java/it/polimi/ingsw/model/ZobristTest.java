@@ -0,0 +1,130 @@
+package it.polimi.ingsw.model;
+
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristTest {
+
+    @Test
+    public void emptyBoardTest() {
+        Board board = new Board();
+        assertEquals(0L, board.getState().getHash());
+        assertEquals(0L, Zobrist.hashOf(board.getState()));
+    }
+
+    @Test
+    public void incrementalHashTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "board002.txt");
+        Board board = game.getBoard();
+        BoardState state = board.getState();
+        assertEquals(Zobrist.hashOf(state), state.getHash());
+
+        long initialHash = state.getHash();
+        Worker worker = board.getTile(1, 2).getWorker();
+
+        worker.moveWorker(board.getTile(0, 2));
+        assertNotEquals(initialHash, state.getHash());
+        assertEquals(Zobrist.hashOf(state), state.getHash());
+
+        worker.moveWorker(board.getTile(1, 2));
+        assertEquals(initialHash, state.getHash());
+
+        board.getTile(0, 0).buildOneLevel();
+        board.getTile(4, 4).buildDome();
+        assertEquals(Zobrist.hashOf(state), state.getHash());
+    }
+
+    @Test
+    public void transpositionTest() {
+        Board first = new Board();
+        Board second = new Board();
+
+        first.getTile(0, 0).buildOneLevel();
+        first.getTile(3, 3).buildOneLevel();
+        first.getTile(3, 3).buildOneLevel();
+
+        second.getTile(3, 3).buildOneLevel();
+        second.getTile(0, 0).buildOneLevel();
+        second.getTile(3, 3).buildOneLevel();
+
+        assertEquals(first.getState().getHash(), second.getState().getHash());
+    }
+
+    @Test
+    public void gameHashTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        long initialHash = game.getHash();
+
+        // Side to move
+        game.apply(Action.endTurn());
+        assertNotEquals(initialHash, game.getHash());
+        game.undo();
+        assertEquals(initialHash, game.getHash());
+
+        // Turn phase
+        game.setTurnPhase(ETurnPhase.MOVE);
+        assertNotEquals(initialHash, game.getHash());
+        game.setTurnPhase(ETurnPhase.WORKERSELECTION);
+        assertEquals(initialHash, game.getHash());
+
+        // Godpower flags
+        game.flipGodPowerFlag(game.getCurrentPlayer());
+        assertNotEquals(initialHash, game.getHash());
+        game.flipGodPowerFlag(game.getCurrentPlayer());
+        assertEquals(initialHash, game.getHash());
+
+        // Actions
+        game.apply(Action.push(BoardState.square(1, 2), BoardState.square(2, 3), BoardState.square(3, 4)));
+        game.apply(Action.build(BoardState.square(2, 3), BoardState.square(2, 2)));
+        assertEquals(Zobrist.hashOf(game.getBoard().getState()), game.getBoard().getState().getHash());
+        game.undo();
+        game.undo();
+        assertEquals(initialHash, game.getHash());
+    }
+
+    @Test
+    public void endTurnPhaseTest() {
+        Game game = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Player first = game.getCurrentPlayer();
+        game.setTurnPhase(ETurnPhase.BUILD);
+        long buildHash = game.getHash();
+
+        // The turn passes as it would through the cards: the next player starts by selecting a worker
+        game.apply(Action.endTurn());
+        assertEquals(ETurnPhase.WORKERSELECTION, game.getTurnPhase());
+        long appliedHash = game.getHash();
+        game.undo();
+        assertEquals(ETurnPhase.BUILD, game.getTurnPhase());
+        assertEquals(first, game.getCurrentPlayer());
+        assertEquals(buildHash, game.getHash());
+
+        game.setCurrentPlayer(game.getPlayers().get((game.getPlayers().indexOf(first) + 1) % game.getPlayers().size()));
+        game.setTurnPhase(ETurnPhase.WORKERSELECTION);
+        assertEquals(appliedHash, game.getHash());
+    }
+
+    @Test
+    public void turnHashTest() {
+        Game first = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        Game second = GameFactory.buildGameFromFile("gameMinotaur.txt", "boardEmpty.txt");
+        assertEquals(first.getHash(), second.getHash());
+        // Reading the hash changes nothing
+        assertEquals(first.getHash(), first.getHash());
+
+        // Same board and phase, but a different worker to move
+        Worker[] firstWorkers = first.getCurrentPlayer().getWorkers();
+        Worker[] secondWorkers = second.getCurrentPlayer().getWorkers();
+        first.getCurrentPlayerCard().getPlayable().selectWorker(firstWorkers[0]);
+        second.getCurrentPlayerCard().getPlayable().selectWorker(secondWorkers[1]);
+        assertEquals(ETurnPhase.MOVE, first.getTurnPhase());
+        assertEquals(first.getTurnPhase(), second.getTurnPhase());
+        assertNotEquals(first.getHash(), second.getHash());
+
+        second.getCurrentPlayerCard().getPlayable().selectWorker(secondWorkers[0]);
+        second.setTurnPhase(ETurnPhase.MOVE);
+        assertEquals(first.getHash(), second.getHash());
+    }
+
+}
@@ -0,0 +1,42 @@
+package it.polimi.ingsw.model.cards;
+
+import it.polimi.ingsw.model.*;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardRulesTest {
+
+    @Test
+    public void compiledDecoratorsTest() {
+        // Hera decorates the cards of her opponents as soon as the game starts
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/00000/00120/00000/00000 apollo:2,2:0,0 athena:4,4:4,0 hera:0,4:4,2");
+        Card apollo = game.getPlayers().get(0).getCard();
+        AthenaCard athena = (AthenaCard) game.getPlayers().get(1).getCard();
+        Tile tile = game.getBoard().getTile(BoardState.square(2, 2));
+        long moves = apollo.getMovesMask(tile);
+
+        Playable rules = apollo.getPlayable();
+        assertTrue(rules instanceof CardRules);
+        assertSame(rules, rules.getPlayable());
+        assertEquals(moves, rules.getMovesMask(tile));
+
+        // Athena's malus is compiled together with Hera's, still in a single object
+        athena.activateMalus();
+        Playable stacked = apollo.getPlayable();
+        assertNotSame(rules, stacked);
+        assertSame(stacked, stacked.getPlayable());
+        long up = game.getBoard().getState().getLevelMask(2);
+        assertEquals(moves & ~up, stacked.getMovesMask(tile));
+        assertNotEquals(moves, stacked.getMovesMask(tile));
+        assertEquals(game.getBoard().getTiles(moves & ~up), stacked.getTilesToMove(tile));
+
+        // Without any decorator, the card plays by itself
+        athena.destroy();
+        game.getPlayers().get(2).getCard().destroy();
+        assertSame(apollo, apollo.getPlayable());
+        assertEquals(moves, apollo.getPlayable().getMovesMask(tile));
+    }
+
+}
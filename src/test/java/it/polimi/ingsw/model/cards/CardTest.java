@@ -408,4 +408,27 @@ public class CardTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void movesAndBuildsMaskTest() {
+        Playable playable = game.getCurrentPlayerCard().getPlayable();
+        int[] buffer = new int[9];
+
+        for (Worker w : game.getCurrentPlayer().getWorkers()) {
+            long movesMask = playable.getMovesMask(w.getTile());
+            assertEquals(board.getTiles(movesMask), playable.getTilesToMove(w.getTile()));
+
+            int n = playable.getTilesToMove(w.getTile(), buffer);
+            assertEquals(Long.bitCount(movesMask), n);
+            for (int i = 0; i < n; i++) {
+                assertNotEquals(0L, movesMask & BoardState.bit(buffer[i]));
+            }
+
+            long buildsMask = playable.getBuildsMask(w.getTile());
+            assertEquals(board.getTiles(buildsMask), playable.getTilesToBuild(w.getTile()));
+            assertEquals(Long.bitCount(buildsMask), playable.getTilesToBuild(w.getTile(), buffer));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> playable.getMovesMask(null));
+    }
+
+}
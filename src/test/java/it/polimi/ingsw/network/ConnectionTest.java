@@ -0,0 +1,152 @@
+package it.polimi.ingsw.network;
+
+import it.polimi.ingsw.network.events.Event;
+import it.polimi.ingsw.network.events.MessageEvent;
+import it.polimi.ingsw.network.events.SetNPlayersEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionTest {
+
+    private static class TestConnection extends Connection {
+
+        private TestConnection(Socket socket) {
+            this.socket = socket;
+        }
+
+        @Override
+        public void run() {
+        }
+
+    }
+
+    @Test
+    public void binaryNegotiationTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try(ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Future<TestConnection> accepted = executor.submit(() -> {
+                TestConnection server = new TestConnection(serverSocket.accept());
+                server.openServerStreams();
+                return server;
+            });
+
+            TestConnection client = new TestConnection(new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+            client.openClientStreams();
+            TestConnection server = accepted.get(10, TimeUnit.SECONDS);
+
+            assertTrue(client.isBinary());
+            assertTrue(server.isBinary());
+
+            client.sendEvent(new MessageEvent("Alice"));
+            Event received = server.receiveEvent(10000);
+            assertEquals("Alice", ((MessageEvent) received).getMessage());
+
+            server.sendEvent(new SetNPlayersEvent(2));
+            received = client.receiveEvent(10000);
+            assertEquals(2, ((SetNPlayersEvent) received).getAcceptedNPlayers());
+
+            client.close();
+            assertThrows(DisconnectedException.class, () -> server.receiveEvent(10000));
+            server.close();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void serializationFallbackTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try(ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Future<TestConnection> accepted = executor.submit(() -> {
+                TestConnection server = new TestConnection(serverSocket.accept());
+                server.openServerStreams();
+                return server;
+            });
+
+            // A client that only knows Java serialization
+            try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+                ObjectOutputStream oos = new ObjectOutputStream(socket.getOutputStream());
+                oos.flush();
+                TestConnection server = accepted.get(10, TimeUnit.SECONDS);
+                ObjectInputStream ois = new ObjectInputStream(socket.getInputStream());
+                assertFalse(server.isBinary());
+
+                oos.writeObject(new MessageEvent("Bob"));
+                oos.flush();
+                assertEquals("Bob", ((MessageEvent) server.receiveEvent(10000)).getMessage());
+
+                server.sendEvent(new SetNPlayersEvent(3));
+                assertEquals(3, ((SetNPlayersEvent) ois.readObject()).getAcceptedNPlayers());
+                server.close();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void unknownProtocolTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try(ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Future<TestConnection> accepted = executor.submit(() -> {
+                TestConnection server = new TestConnection(serverSocket.accept());
+                server.openServerStreams();
+                return server;
+            });
+
+            try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort())) {
+                socket.getOutputStream().write(new byte[] {'G', 'E', 'T', ' ', '/'});
+                socket.getOutputStream().flush();
+                ExecutionException e = assertThrows(ExecutionException.class, () -> accepted.get(10, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IOException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void idleTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        TimerWheel wheel = new TimerWheel("TestIdleChecks", 10, 64);
+        try(ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            Future<TestConnection> accepted = executor.submit(() -> {
+                TestConnection server = new TestConnection(serverSocket.accept());
+                server.openServerStreams();
+                return server;
+            });
+
+            TestConnection client = new TestConnection(new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort()));
+            client.openClientStreams();
+            TestConnection server = accepted.get(10, TimeUnit.SECONDS);
+            server.watchIdle(wheel, 300);
+
+            // Each event received postpones the check
+            for(int i = 0; i < 3; i++) {
+                Thread.sleep(200);
+                client.sendEvent(new MessageEvent("Still here"));
+                assertEquals("Still here", ((MessageEvent) server.receiveEvent()).getMessage());
+            }
+            assertTrue(server.isActive());
+
+            // Then the client stays silent, and the blocked read fails
+            DisconnectedException e = assertThrows(DisconnectedException.class, server::receiveEvent);
+            assertEquals(">> Connection timed out", e.getMessage());
+            assertFalse(server.isActive());
+            client.close();
+        } finally {
+            wheel.shutdown();
+            executor.shutdownNow();
+        }
+    }
+
+}
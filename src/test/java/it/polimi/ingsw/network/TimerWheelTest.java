@@ -0,0 +1,72 @@
+package it.polimi.ingsw.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TimerWheelTest {
+
+    // A round of the wheel lasts 80 milliseconds
+    private final TimerWheel wheel = new TimerWheel("TestWheel", 10, 8);
+
+    @AfterEach
+    public void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    public void orderTest() throws InterruptedException {
+        List<Integer> fired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        long start = System.nanoTime();
+        // Longer than a round, so it waits a whole round in its slot
+        wheel.schedule(() -> { fired.add(250); done.countDown(); }, 250);
+        wheel.schedule(() -> { fired.add(30); done.countDown(); }, 30);
+        wheel.schedule(() -> { fired.add(120); done.countDown(); }, 120);
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(30, 120, 250), fired);
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+    }
+
+    @Test
+    public void cancelTest() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        TimerWheel.Timeout cancelled = wheel.schedule(fired::incrementAndGet, 50);
+        wheel.schedule(done::countDown, 100);
+        cancelled.cancel();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(cancelled.isCancelled());
+        assertEquals(0, fired.get());
+    }
+
+    @Test
+    public void batchAndRescheduleTest() throws InterruptedException {
+        // Thousands of heartbeats are served by the single thread of the wheel
+        int tasks = 5000;
+        CountDownLatch done = new CountDownLatch(tasks);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        for(int i = 0; i < tasks; i++) {
+            wheel.schedule(() -> wheel.schedule(() -> {
+                threads.add(Thread.currentThread());
+                done.countDown();
+            }, 20), 20);
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, threads.stream().distinct().count());
+
+        assertThrows(IllegalArgumentException.class, () -> wheel.schedule(null, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("Wrong", 10, 6));
+        assertThrows(IllegalArgumentException.class, () -> new TimerWheel("Wrong", 0, 8));
+    }
+
+}
@@ -0,0 +1,194 @@
+package it.polimi.ingsw.network.events;
+
+import it.polimi.ingsw.controller.EStartupPhase;
+import it.polimi.ingsw.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventCodecTest {
+
+    private static Event roundTrip(Event event) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        EventCodec.writeFrame(new DataOutputStream(buffer), event);
+        Event decoded = EventCodec.readFrame(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())));
+        assertSame(event.getClass(), decoded.getClass());
+        assertEquals(event.toString(), decoded.toString());
+        assertEquals(event.isReserved(), decoded.isReserved());
+        return decoded;
+    }
+
+    private static int serializedSize(Event event) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try(ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+            oos.writeObject(event);
+        }
+        return buffer.size();
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        roundTrip(new PingEvent());
+        roundTrip(new GameOverEvent());
+        roundTrip(new MessageEvent("Hello"));
+        roundTrip(new MessageEvent("Wait", true));
+        roundTrip(new MessageEvent(null));
+        roundTrip(new ErrorEvent("Wrong"));
+        roundTrip(new ErrorEvent("Wrong", false));
+        assertEquals(new Position(4, 3), ((ActionEvent) roundTrip(new ActionEvent(new Position(4, 3)))).getClicked());
+        assertEquals(Arrays.asList(new Position(0, 0), new Position(2, 4)),
+                ((HighlightEvent) roundTrip(new HighlightEvent(new Position(0, 0), new Position(2, 4)))).getPositionsToHighlight());
+        roundTrip(new ChoiceEvent("Choose your next action", "Move", "Build"));
+        assertTrue(((ChoiceEvent) roundTrip(new ChoiceEvent(true))).getChoice());
+        assertEquals(EGodPower.CHRONUS, ((CardEvent) roundTrip(new CardEvent(EGodPower.CHRONUS))).getCard());
+        assertEquals(ETurnPhase.BUILD, ((TurnPhaseEvent) roundTrip(new TurnPhaseEvent(ETurnPhase.BUILD))).getTurnPhase());
+        roundTrip(new StartupPhaseEvent(EStartupPhase.PLACEFIRSTWORKER));
+        roundTrip(new StartupPhaseEvent(null));
+        roundTrip(new SetCurrentPlayerEvent("Alice"));
+        assertEquals("Bob", ((SetFirstPlayerEvent) roundTrip(new SetFirstPlayerEvent("Bob"))).getFirstPlayerNickname());
+        roundTrip(new SetChallengerEvent("Alice"));
+        roundTrip(new PlayerNicknameEvent("Carl"));
+        roundTrip(new SetNicknameEvent("Carl"));
+        assertEquals(3, ((SetNPlayersEvent) roundTrip(new SetNPlayersEvent(3))).getAcceptedNPlayers());
+        assertEquals(Arrays.asList("Alice", "Bob"), ((StartGameEvent) roundTrip(new StartGameEvent(Arrays.asList("Alice", "Bob")))).getPlayerNicknames());
+        roundTrip(new LoseEvent("Bob"));
+        assertEquals("Bye", ((DisconnectedEvent) roundTrip(new DisconnectedEvent("Bye"))).getDescription());
+    }
+
+    @Test
+    public void boardEventTest() throws IOException {
+        Board board = new Board();
+        Player player = Player.headless("Alice");
+        Tile origin = board.getTile(1, 1);
+        Tile destination = board.getTile(1, 2);
+        destination.setLevel(ETileLevel.LEVEL2);
+        board.getTile(3, 3).setLevel(ETileLevel.LEVEL3);
+        board.getTile(3, 3).setDomed(true);
+        player.getWorkers()[1].setTile(destination);
+
+        BoardEvent event = new BoardEvent(Arrays.asList(origin, destination, board.getTile(3, 3)));
+        List<Tile> tiles = ((BoardEvent) roundTrip(event)).getTilesToUpdate();
+
+        assertEquals(3, tiles.size());
+        assertEquals(new Position(1, 1), tiles.get(0).getPosition());
+        assertNull(tiles.get(0).getWorker());
+        assertEquals(ETileLevel.GROUND, tiles.get(0).getLevel());
+        assertEquals(ETileLevel.LEVEL2, tiles.get(1).getLevel());
+        assertFalse(tiles.get(1).isDomed());
+        assertEquals("Alice", tiles.get(1).getWorker().getOwnerNickname());
+        assertEquals(1, tiles.get(1).getWorker().getId());
+        assertSame(tiles.get(1), tiles.get(1).getWorker().getTile());
+        assertEquals(ETileLevel.LEVEL3, tiles.get(2).getLevel());
+        assertTrue(tiles.get(2).isDomed());
+
+        // A move takes less than twenty bytes, a tenth of its serialized form at most
+        assertTrue(EventCodec.encode(event).length < 20);
+        assertTrue(EventCodec.encode(event).length * 10 < serializedSize(event));
+    }
+
+    @Test
+    public void batchTest() throws IOException {
+        BatchEvent batch = new BatchEvent(Arrays.asList(new MessageEvent("Moved"), new HighlightEvent(new Position(1, 1)),
+                new TurnPhaseEvent(ETurnPhase.BUILD), new ErrorEvent("Wrong", false)));
+        List<Event> events = ((BatchEvent) roundTrip(batch)).getEvents();
+
+        assertEquals(4, events.size());
+        for(int i = 0; i < events.size(); i++) {
+            assertEquals(batch.getEvents().get(i).toString(), events.get(i).toString());
+            assertEquals(batch.getEvents().get(i).isReserved(), events.get(i).isReserved());
+        }
+        assertTrue(events.get(1).isReserved());
+
+        assertThrows(IllegalArgumentException.class, () -> new BatchEvent(null));
+        assertThrows(IllegalArgumentException.class, () -> new BatchEvent(Arrays.asList()));
+        assertThrows(IllegalArgumentException.class, () -> new BatchEvent(Arrays.asList(new PingEvent(), batch)));
+        assertThrows(UnsupportedOperationException.class, () -> batch.getEvents().clear());
+        // Empty batch
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {20, 0, 0, 0}));
+    }
+
+    private static String repeat(char c, int length) {
+        char[] chars = new char[length];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void largeBatchTest() throws IOException {
+        List<Event> sent = new ArrayList<>();
+        for(int i = 0; i < 40; i++) {
+            sent.add(new MessageEvent(i + repeat('x', 4000)));
+        }
+
+        // Each batch fits in a frame, and together they keep the order of the events
+        List<Event> batches = EventCodec.batches(sent);
+        assertEquals(3, batches.size());
+        List<Event> received = new ArrayList<>();
+        for(Event batch : batches) {
+            assertTrue(EventCodec.encode(batch).length <= EventCodec.MAX_FRAME_LENGTH);
+            received.addAll(((BatchEvent) roundTrip(batch)).getEvents());
+        }
+        assertEquals(sent.size(), received.size());
+        for(int i = 0; i < sent.size(); i++) {
+            assertEquals(sent.get(i).toString(), received.get(i).toString());
+        }
+
+        // An event that takes a whole frame is sent on its own, even in a batch
+        Event largest = new MessageEvent(repeat('y', EventCodec.MAX_FRAME_LENGTH - 5));
+        assertEquals(EventCodec.MAX_FRAME_LENGTH, EventCodec.encode(largest).length);
+        roundTrip(largest);
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.encode(new BatchEvent(Arrays.asList(largest, new PingEvent()))));
+        batches = EventCodec.batches(Arrays.asList(new PingEvent(), largest, new PingEvent()));
+        assertEquals(3, batches.size());
+        assertSame(largest, batches.get(1));
+
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.encode(new MessageEvent(repeat('z', 70000))));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.batches(Arrays.asList(new MessageEvent(repeat('z', 70000)))));
+    }
+
+    @Test
+    public void sharedFrameTest() throws IOException {
+        Event broadcast = new TurnPhaseEvent(ETurnPhase.MOVE);
+        byte[] frame = EventCodec.frameOf(broadcast);
+
+        // Encoded once, whatever the number of recipients and batches
+        assertSame(frame, EventCodec.frameOf(broadcast));
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        EventCodec.writeFrame(new DataOutputStream(first), broadcast);
+        EventCodec.writeFrame(new DataOutputStream(second), new BatchEvent(Arrays.asList(broadcast, new PingEvent())));
+        assertSame(frame, EventCodec.frameOf(broadcast));
+
+        // The shared frame cannot be changed through encode
+        byte[] copy = EventCodec.encode(broadcast);
+        assertNotSame(frame, copy);
+        copy[0] = 42;
+        assertEquals(ETurnPhase.MOVE, ((TurnPhaseEvent) EventCodec.decode(EventCodec.frameOf(broadcast))).getTurnPhase());
+    }
+
+    @Test
+    public void invalidFramesTest() {
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.encode(null));
+        assertThrows(IllegalArgumentException.class, () -> EventCodec.encode(new Event() {
+            @Override
+            public String toString() {
+                return "Unknown";
+            }
+        }));
+
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {100, 0}));
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {3, 0, 25}));
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {0, 0, 0}));
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {1}));
+        // A board with a worker whose owner has no nickname
+        assertThrows(IOException.class, () -> EventCodec.decode(new byte[] {4, 0, 1, 0, 0x08, 0}));
+        assertThrows(IOException.class, () -> EventCodec.readFrame(new DataInputStream(new ByteArrayInputStream(new byte[] {0, 0, 0, 0}))));
+        assertThrows(IOException.class, () -> EventCodec.readFrame(new DataInputStream(new ByteArrayInputStream(new byte[] {0x7F, 0, 0, 0}))));
+    }
+
+}
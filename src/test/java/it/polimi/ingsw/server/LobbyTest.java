@@ -0,0 +1,118 @@
+package it.polimi.ingsw.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LobbyTest {
+
+    private static RemoteConnection connection() {
+        return new RemoteConnection(null, null, 1, EOverflowPolicy.DROP);
+    }
+
+    private static List<RemoteConnection> connections(int n) {
+        List<RemoteConnection> result = new ArrayList<>();
+        for(int i = 0; i < n; i++) {
+            result.add(connection());
+        }
+        return result;
+    }
+
+    @Test
+    public void claimGroupTest() {
+        Lobby lobby = new Lobby(3);
+        List<RemoteConnection> c = connections(7);
+        c.forEach(lobby::join);
+
+        assertEquals(c.subList(0, 3), lobby.claimGroup());
+        // A client closing while it waits is skipped
+        c.get(4).closing = true;
+        assertEquals(Arrays.asList(c.get(3), c.get(5), c.get(6)), lobby.claimGroup());
+        assertNull(lobby.claimGroup());
+        assertTrue(lobby.getWaiting().isEmpty());
+
+        // The clients taken out of a group that falls short wait at the head of the queue again
+        List<RemoteConnection> d = connections(2);
+        d.forEach(lobby::join);
+        assertNull(lobby.claimGroup());
+        assertEquals(d, lobby.getWaiting());
+
+        assertThrows(IllegalArgumentException.class, () -> new Lobby(1));
+    }
+
+    @Test
+    public void removeAndBotsTest() {
+        Lobby lobby = new Lobby(3);
+        List<RemoteConnection> c = connections(3);
+        lobby.join(c.get(0));
+        lobby.join(c.get(1));
+
+        assertTrue(lobby.remove(c.get(0)));
+        assertFalse(lobby.remove(c.get(0)));
+        assertNull(lobby.claimWithBots(c.get(0)));
+
+        lobby.join(c.get(2));
+        assertEquals(Arrays.asList(c.get(2), c.get(1)), lobby.claimWithBots(c.get(2)));
+        assertTrue(lobby.getWaiting().isEmpty());
+        assertNull(lobby.claimGroup());
+
+        lobby.join(c.get(0));
+        assertEquals(Collections.singletonList(c.get(0)), lobby.claimWithBots(c.get(0)));
+    }
+
+    @Test
+    public void concurrentTest() throws Exception {
+        Lobby lobby = new Lobby(3);
+        int threads = 8;
+        int perThread = 3000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Set<RemoteConnection> claimed = ConcurrentHashMap.newKeySet();
+        Set<RemoteConnection> removed = ConcurrentHashMap.newKeySet();
+        List<Future<Integer>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for(int t = 0; t < threads; t++) {
+                int seed = t;
+                results.add(executor.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    start.await();
+                    int duplicates = 0;
+                    for(int i = 0; i < perThread; i++) {
+                        RemoteConnection c = connection();
+                        lobby.join(c);
+                        if(random.nextInt(10) == 0 && lobby.remove(c)) {
+                            removed.add(c);
+                        }
+                        List<RemoteConnection> group = lobby.claimGroup();
+                        if(group != null) {
+                            assertEquals(3, group.size());
+                            for(RemoteConnection g : group) {
+                                if(!claimed.add(g)) {
+                                    duplicates++;
+                                }
+                            }
+                        }
+                    }
+                    return duplicates;
+                }));
+            }
+            start.countDown();
+            for(Future<Integer> f : results) {
+                assertEquals(0, f.get(60, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Every client has been claimed once, removed, or is still waiting, and fewer than a group are left
+        List<RemoteConnection> waiting = lobby.getWaiting();
+        assertTrue(waiting.size() < 3);
+        assertEquals(threads * perThread, claimed.size() + removed.size() + waiting.size());
+        assertTrue(Collections.disjoint(claimed, removed));
+        assertTrue(Collections.disjoint(claimed, waiting));
+    }
+
+}
@@ -0,0 +1,159 @@
+package it.polimi.ingsw.server;
+
+import it.polimi.ingsw.client.ClientConnection;
+import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.events.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static it.polimi.ingsw.model.Constants.OUTBOUND_QUEUE_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NioServerTest {
+
+    private Server server;
+    private final List<ClientConnection> clients = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new Server(0, 0, OUTBOUND_QUEUE_CAPACITY, EOverflowPolicy.DISCONNECT, 2);
+        Thread thread = new Thread(server::run);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        clients.forEach(ClientConnection::close);
+        server.shutdown();
+    }
+
+    private ClientConnection connect() throws DisconnectedException {
+        ClientConnection client = new ClientConnection(InetAddress.getLoopbackAddress().getHostAddress(), server.getLocalPort());
+        client.connectToServer();
+        clients.add(client);
+        return client;
+    }
+
+    private static Event receive(ClientConnection client) throws DisconnectedException {
+        Event received;
+        do {
+            received = client.receiveEvent(10 * 1000);
+        } while(received instanceof PingEvent);
+        return received;
+    }
+
+    private static void awaitConnections(Server server, int expected) throws InterruptedException {
+        for(int i = 0; i < 200 && server.getActiveConnections().size() != expected; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(expected, server.getActiveConnections().size());
+    }
+
+    @Test
+    public void gameTest() throws Exception {
+        ClientConnection alice = connect();
+        alice.sendEvent(new MessageEvent(""));
+        assertTrue(receive(alice) instanceof ErrorEvent);
+        alice.sendEvent(new MessageEvent("Alice"));
+        assertEquals("Alice", ((SetNicknameEvent) receive(alice)).getAcceptedNickname());
+        alice.sendEvent(new MessageEvent("2"));
+        assertEquals(2, ((SetNPlayersEvent) receive(alice)).getAcceptedNPlayers());
+
+        ClientConnection bob = connect();
+        bob.sendEvent(new MessageEvent("Alice"));
+        assertTrue(receive(bob) instanceof ErrorEvent);
+        bob.sendEvent(new MessageEvent("Bob"));
+        assertEquals("Bob", ((SetNicknameEvent) receive(bob)).getAcceptedNickname());
+        bob.sendEvent(new MessageEvent("2"));
+        assertEquals(2, ((SetNPlayersEvent) receive(bob)).getAcceptedNPlayers());
+
+        // The game has started, so both clients hear from it
+        assertNotNull(receive(alice));
+        assertNotNull(receive(bob));
+        assertTrue(server.getQueue2Players().isEmpty());
+
+        // A disconnection is seen by the other player
+        alice.sendEvent(new DisconnectedEvent("Alice left"));
+        boolean disconnected = false;
+        try {
+            for(int i = 0; i < 20 && !disconnected; i++) {
+                Event received = receive(bob);
+                disconnected = received instanceof MessageEvent && ((MessageEvent) received).getMessage().contains("disconnection");
+            }
+        } catch (DisconnectedException e) {
+            disconnected = true;
+        }
+        assertTrue(disconnected);
+    }
+
+    @Test
+    public void manyIdleClientsTest() throws Exception {
+        int threads = Thread.activeCount();
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for(int i = 0; i < 300; i++) {
+                Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort());
+                sockets.add(socket);
+                DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                out.writeInt(EventCodec.MAGIC);
+                out.writeByte(EventCodec.VERSION);
+                EventCodec.writeFrame(out, new MessageEvent("Player" + i));
+                out.flush();
+            }
+            for(Socket socket : sockets) {
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                assertEquals(EventCodec.MAGIC, in.readInt());
+                assertEquals(EventCodec.VERSION, in.readUnsignedByte());
+                assertTrue(EventCodec.readFrame(in) instanceof SetNicknameEvent);
+            }
+            awaitConnections(server, 300);
+            assertTrue(server.isNicknameAlreadyConnected("Player0"));
+            // Served by the event loops, not by threads of their own
+            assertTrue(Thread.activeCount() - threads < 20);
+        } finally {
+            for(Socket socket : sockets) {
+                socket.close();
+            }
+        }
+        awaitConnections(server, 0);
+        // The nicknames of the clients that left are available again
+        assertFalse(server.isNicknameAlreadyConnected("Player0"));
+    }
+
+    @Test
+    public void unknownProtocolTest() throws Exception {
+        try(Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getLocalPort())) {
+            socket.setSoTimeout(10 * 1000);
+            // The header of a Java serialization stream
+            socket.getOutputStream().write(new byte[] {(byte) 0xAC, (byte) 0xED, 0x00, 0x05, 0x00});
+            assertEquals(-1, socket.getInputStream().read());
+        }
+        awaitConnections(server, 0);
+    }
+
+    @Test
+    public void shutdownTest() throws Exception {
+        ClientConnection alice = connect();
+        alice.sendEvent(new MessageEvent("Alice"));
+        assertEquals("Alice", ((SetNicknameEvent) receive(alice)).getAcceptedNickname());
+
+        // The channels are closed by the loop itself as it stops
+        long start = System.nanoTime();
+        server.shutdown();
+        assertThrows(DisconnectedException.class, () -> receive(alice));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        awaitConnections(server, 0);
+    }
+
+}
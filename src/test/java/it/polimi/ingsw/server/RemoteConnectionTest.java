@@ -0,0 +1,268 @@
+package it.polimi.ingsw.server;
+
+import it.polimi.ingsw.client.ClientConnection;
+import it.polimi.ingsw.model.ETileLevel;
+import it.polimi.ingsw.model.ETurnPhase;
+import it.polimi.ingsw.model.Tile;
+import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.events.*;
+import it.polimi.ingsw.view.RemoteView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RemoteConnectionTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private Server server;
+    private ServerSocket serverSocket;
+    private ClientConnection client;
+    private RemoteConnection remote;
+
+    /**
+     * Connects a client to a new remoteConnection and makes it join a 2 players lobby
+     */
+    private void connect(int outboundQueueCapacity, EOverflowPolicy overflowPolicy) throws Exception {
+        server = new Server(0, 0);
+        serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        Future<RemoteConnection> accepted = executor.submit(() -> {
+            RemoteConnection c = new RemoteConnection(serverSocket.accept(), server, outboundQueueCapacity, overflowPolicy);
+            c.init();
+            return c;
+        });
+
+        client = new ClientConnection(InetAddress.getLoopbackAddress().getHostAddress(), serverSocket.getLocalPort());
+        client.connectToServer();
+        client.sendEvent(new MessageEvent("Alice"));
+        assertTrue(receive() instanceof SetNicknameEvent);
+        client.sendEvent(new MessageEvent("2"));
+        assertTrue(receive() instanceof SetNPlayersEvent);
+        remote = accepted.get(10, TimeUnit.SECONDS);
+        assertTrue(remote.isActive());
+    }
+
+    private Event receive() throws DisconnectedException {
+        Event received;
+        do {
+            received = client.receiveEvent(10 * 1000);
+        } while(received instanceof PingEvent);
+        return received;
+    }
+
+    private static String largeMessage() {
+        char[] chars = new char[1024];
+        Arrays.fill(chars, 'x');
+        return new String(chars);
+    }
+
+    private void awaitInactive() throws InterruptedException {
+        for(int i = 0; i < 100 && remote.isActive(); i++) {
+            Thread.sleep(50);
+        }
+        assertFalse(remote.isActive());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if(remote != null) {
+            remote.close();
+            remote.close();
+        }
+        if(client != null) {
+            client.close();
+        }
+        if(serverSocket != null) {
+            serverSocket.close();
+        }
+        if(server != null) {
+            server.shutdown();
+        }
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void orderAndCloseTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+
+        // The queue never overflows, since the writer keeps up with the client
+        for(int i = 0; i < 10; i++) {
+            remote.sendEvent(new MessageEvent(Integer.toString(i)));
+        }
+        remote.sendEvent(new GameOverEvent());
+        // The events already queued are still sent
+        remote.close();
+
+        for(int i = 0; i < 10; i++) {
+            assertEquals(Integer.toString(i), ((MessageEvent) receive()).getMessage());
+        }
+        assertTrue(receive() instanceof GameOverEvent);
+        assertThrows(DisconnectedException.class, this::receive);
+        awaitInactive();
+    }
+
+    @Test
+    public void batchTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+
+        EventBatch.begin();
+        try {
+            remote.sendEvent(new MessageEvent("Moved"));
+            EventBatch.begin();
+            try {
+                remote.sendEvent(new TurnPhaseEvent(ETurnPhase.BUILD));
+            } finally {
+                EventBatch.end();
+            }
+            // Nothing is sent until the outermost batch is closed
+            assertEquals(0, remote.getPendingEvents());
+            remote.sendEvent(new SetCurrentPlayerEvent("Alice"));
+        } finally {
+            EventBatch.end();
+        }
+        List<Event> events = ((BatchEvent) receive()).getEvents();
+        assertEquals(3, events.size());
+        assertEquals("Moved", ((MessageEvent) events.get(0)).getMessage());
+        assertEquals(ETurnPhase.BUILD, ((TurnPhaseEvent) events.get(1)).getTurnPhase());
+        assertEquals("Alice", ((SetCurrentPlayerEvent) events.get(2)).getCurrentPlayer());
+
+        // A single event is not wrapped
+        EventBatch.begin();
+        try {
+            remote.sendEvent(new MessageEvent("Alone"));
+        } finally {
+            EventBatch.end();
+        }
+        assertEquals("Alone", ((MessageEvent) receive()).getMessage());
+
+        // Closing sends the batch in progress first
+        EventBatch.begin();
+        try {
+            remote.sendEvent(new MessageEvent("Game over"));
+            remote.sendEvent(new GameOverEvent());
+            remote.close();
+        } finally {
+            EventBatch.end();
+        }
+        events = ((BatchEvent) receive()).getEvents();
+        assertTrue(events.get(1) instanceof GameOverEvent);
+        assertThrows(DisconnectedException.class, this::receive);
+
+        assertThrows(IllegalStateException.class, EventBatch::end);
+    }
+
+    @Test
+    public void encodedOnSendTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+
+        // The client gets the tile as it was when the event was sent, whatever happens to it later
+        Tile tile = new Tile(2, 3);
+        remote.sendEvent(new BoardEvent(tile));
+        tile.setLevel(ETileLevel.LEVEL3);
+        Tile received = ((BoardEvent) receive()).getTilesToUpdate().get(0);
+        assertEquals(ETileLevel.GROUND, received.getLevel());
+    }
+
+    @Test
+    public void largeBatchTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+        String message = largeMessage();
+
+        // Too large for a single frame, the batch is split
+        EventBatch.begin();
+        try {
+            for(int i = 0; i < 100; i++) {
+                remote.sendEvent(new MessageEvent(i + message));
+            }
+        } finally {
+            EventBatch.end();
+        }
+        int received = 0;
+        while(received < 100) {
+            for(Event e : ((BatchEvent) receive()).getEvents()) {
+                assertEquals(received + message, ((MessageEvent) e).getMessage());
+                received++;
+            }
+        }
+        assertTrue(remote.isActive());
+    }
+
+    @Test
+    public void unencodableEventTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+        char[] chars = new char[70000];
+        Arrays.fill(chars, 'x');
+
+        assertThrows(DisconnectedException.class, () -> remote.sendEvent(new MessageEvent(new String(chars))));
+        assertThrows(DisconnectedException.class, this::receive);
+        awaitInactive();
+    }
+
+    @Test
+    public void remoteViewTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+        RemoteView view = new RemoteView("Alice");
+        view.initializeConnection(remote);
+
+        // Forwarded as it is
+        view.update(new TurnPhaseEvent(ETurnPhase.MOVE));
+        assertEquals(ETurnPhase.MOVE, ((TurnPhaseEvent) receive()).getTurnPhase());
+        view.update(new ErrorEvent("Wrong", false));
+        assertFalse(receive().isReserved());
+
+        // Handled by the view
+        view.update(new DisconnectedEvent("Bob left"));
+        assertEquals("A disconnection took place", ((MessageEvent) receive()).getMessage());
+    }
+
+    @Test
+    public void disconnectPolicyTest() throws Exception {
+        connect(16, EOverflowPolicy.DISCONNECT);
+        String message = largeMessage();
+
+        // The client never reads, so the socket buffers fill up and then the queue
+        long start = System.nanoTime();
+        DisconnectedException thrown = null;
+        for(int i = 0; i < 100000 && thrown == null; i++) {
+            try {
+                remote.sendEvent(new MessageEvent(message));
+            } catch (DisconnectedException e) {
+                thrown = e;
+            }
+        }
+        assertNotNull(thrown);
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10));
+        awaitInactive();
+    }
+
+    @Test
+    public void dropPolicyTest() throws Exception {
+        connect(16, EOverflowPolicy.DROP);
+        String message = largeMessage();
+
+        for(int i = 0; i < 20000; i++) {
+            remote.sendEvent(new MessageEvent(message));
+        }
+        assertTrue(remote.isActive());
+        assertTrue(remote.getPendingEvents() <= 16);
+    }
+
+    @Test
+    public void invalidArgumentsTest() throws IOException {
+        server = new Server(0, 0);
+        assertThrows(IllegalArgumentException.class, () -> new RemoteConnection(null, server, 0, EOverflowPolicy.DROP));
+        assertThrows(IllegalArgumentException.class, () -> new RemoteConnection(null, server, 1, null));
+        assertThrows(IllegalArgumentException.class, () -> new Server(0, 0, 0, EOverflowPolicy.DROP));
+    }
+
+}
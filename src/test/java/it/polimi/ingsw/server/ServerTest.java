@@ -0,0 +1,128 @@
+package it.polimi.ingsw.server;
+
+import it.polimi.ingsw.client.ClientConnection;
+import it.polimi.ingsw.network.DisconnectedException;
+import it.polimi.ingsw.network.events.MessageEvent;
+import it.polimi.ingsw.network.events.SetNicknameEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ServerTest {
+
+    private Server server;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = new Server(0, 0);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    private RemoteConnection connection() {
+        RemoteConnection c = new RemoteConnection(null, server, 1, EOverflowPolicy.DROP);
+        server.registerConnection(c);
+        return c;
+    }
+
+    @Test
+    public void nicknameTest() {
+        RemoteConnection alice = connection();
+        RemoteConnection other = connection();
+
+        assertTrue(server.reserveNickname("Alice", alice));
+        assertTrue(server.isNicknameAlreadyConnected("Alice"));
+        assertFalse(server.reserveNickname("Alice", other));
+        assertFalse(server.isNicknameAlreadyConnected("alice"));
+
+        // Only the connection that reserved a nickname releases it
+        server.releaseNickname("Alice", other);
+        assertTrue(server.isNicknameAlreadyConnected("Alice"));
+        server.releaseNickname(null, other);
+        server.releaseNickname("Alice", alice);
+        assertFalse(server.isNicknameAlreadyConnected("Alice"));
+        assertTrue(server.reserveNickname("Alice", other));
+
+        assertThrows(IllegalArgumentException.class, () -> server.reserveNickname(null, alice));
+        assertThrows(IllegalArgumentException.class, () -> server.reserveNickname("Bob", null));
+    }
+
+    @Test
+    public void concurrentReservationTest() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for(int t = 0; t < threads; t++) {
+                RemoteConnection c = connection();
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for(int i = 0; i < 1000; i++) {
+                        if(server.reserveNickname("Player" + i, c)) {
+                            winners.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for(Future<?> f : results) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        // Each nickname has been given to exactly one connection
+        assertEquals(1000, winners.get());
+    }
+
+    @Test
+    public void removeConnectionTest() {
+        RemoteConnection alice = connection();
+        assertEquals(1, server.getActiveConnections().size());
+
+        server.removeConnection(alice);
+        assertTrue(server.getActiveConnections().isEmpty());
+        // Removing it twice is harmless
+        server.removeConnection(alice);
+    }
+
+    @Test
+    public void shutdownTest() throws Exception {
+        Thread thread = new Thread(server::run);
+        thread.setDaemon(true);
+        thread.start();
+        ClientConnection client = new ClientConnection(InetAddress.getLoopbackAddress().getHostAddress(), server.getLocalPort());
+        client.connectToServer();
+        try {
+            client.sendEvent(new MessageEvent("Alice"));
+            assertTrue(client.receiveEvent(10 * 1000) instanceof SetNicknameEvent);
+
+            // The client waiting for the number of players is disconnected, and the server stops accepting
+            long start = System.nanoTime();
+            server.shutdown();
+            assertThrows(DisconnectedException.class, () -> client.receiveEvent(10 * 1000));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+            thread.join(5 * 1000);
+            assertFalse(thread.isAlive());
+            assertTrue(server.getActiveConnections().isEmpty());
+        } finally {
+            client.close();
+        }
+    }
+
+}
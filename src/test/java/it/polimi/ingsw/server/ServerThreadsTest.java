@@ -0,0 +1,62 @@
+package it.polimi.ingsw.server;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static it.polimi.ingsw.model.Constants.OUTBOUND_QUEUE_CAPACITY;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ServerThreadsTest {
+
+    private static boolean isVirtual(Thread thread) throws Exception {
+        return (boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+    }
+
+    @Test
+    public void platformTest() throws Exception {
+        ServerThreads threads = new ServerThreads(EThreadMode.PLATFORM);
+        Thread[] ran = new Thread[1];
+        Thread thread = threads.start(() -> ran[0] = Thread.currentThread());
+        thread.join(10 * 1000);
+        assertSame(thread, ran[0]);
+
+        ExecutorService executor = threads.newHandshakeExecutor();
+        try {
+            assertEquals(EThreadMode.PLATFORM, threads.getMode());
+            assertTrue(executor.submit(() -> true).get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void virtualTest() throws Exception {
+        assumeTrue(ServerThreads.isVirtualAvailable());
+        ServerThreads threads = new ServerThreads(EThreadMode.VIRTUAL);
+        Thread thread = threads.start(() -> { });
+        thread.join(10 * 1000);
+        assertTrue(isVirtual(thread));
+
+        ExecutorService executor = threads.newHandshakeExecutor();
+        try {
+            Future<Boolean> virtual = executor.submit(() -> isVirtual(Thread.currentThread()));
+            assertTrue(virtual.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void unavailableTest() {
+        assertThrows(IllegalArgumentException.class, () -> new ServerThreads(null));
+        assumeFalse(ServerThreads.isVirtualAvailable());
+        assertThrows(IllegalArgumentException.class,
+                () -> new Server(0, 0, OUTBOUND_QUEUE_CAPACITY, EOverflowPolicy.DISCONNECT, 0, EThreadMode.VIRTUAL));
+    }
+
+}
@@ -0,0 +1,140 @@
+package it.polimi.ingsw.utils;
+
+import it.polimi.ingsw.ai.TurnEnumerator;
+import it.polimi.ingsw.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameFactoryTest {
+
+    @Test
+    public void buildHeadlessGameTest() {
+
+        Game game = GameFactory.buildHeadlessGame(
+                Arrays.asList("Bot1", "Bot2"),
+                Arrays.asList(EGodPower.APOLLO, EGodPower.ATHENA),
+                Arrays.asList(new Position(1, 1), new Position(3, 3), new Position(1, 3), new Position(3, 1)));
+
+        assertTrue(game.isHeadless());
+        assertFalse(game.isObserved());
+        assertFalse(game.getBoard().getTile(0, 0).isObserved());
+        assertEquals("Bot1", game.getCurrentPlayer().getNickname());
+        assertEquals(ETurnPhase.WORKERSELECTION, game.getTurnPhase());
+
+        Player first = game.getCurrentPlayer();
+        Playable card = first.getCard().getPlayable();
+        assertFalse(first.getCard().isObserved());
+        assertFalse(first.getWorkers()[0].isObserved());
+
+        // A whole turn is played through the cards, exactly as in a networked game
+        card.selectWorker(first.getWorkers()[0]);
+        assertEquals(ETurnPhase.MOVE, game.getTurnPhase());
+        card.move(game.getBoard().getTile(1, 2));
+        assertSame(game.getBoard().getTile(1, 2), first.getWorkers()[0].getTile());
+        assertEquals(ETurnPhase.BUILD, game.getTurnPhase());
+        card.build(game.getBoard().getTile(0, 2));
+        assertEquals(ETileLevel.LEVEL1, game.getBoard().getTile(0, 2).getLevel());
+
+        assertEquals("Bot2", game.getCurrentPlayer().getNickname());
+        assertEquals(ETurnPhase.WORKERSELECTION, game.getTurnPhase());
+    }
+
+    @Test
+    public void buildHeadlessGameInvalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGame(
+                Arrays.asList("Bot1", "Bot2"),
+                Arrays.asList(EGodPower.APOLLO),
+                Arrays.asList(new Position(1, 1), new Position(3, 3), new Position(1, 3), new Position(3, 1))));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGame(
+                Arrays.asList("Bot1", "Bot2"),
+                Arrays.asList(EGodPower.APOLLO, EGodPower.ATHENA),
+                Arrays.asList(new Position(1, 1), new Position(3, 3))));
+    }
+
+    @Test
+    public void networkedGameIsObservedTest() {
+        Game game = GameFactory.buildGameFromFile("gameApollo.txt", "board3.0.txt");
+
+        assertFalse(game.isHeadless());
+        assertTrue(game.isObserved());
+        assertTrue(game.getBoard().getTile(0, 0).isObserved());
+        assertTrue(game.getCurrentPlayerCard().isObserved());
+    }
+
+    @Test
+    public void buildHeadlessGameFromNotationTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation("01230/3D0000/00000/00000/00002 pan:1,1:4,4 hera:0,0:2,2");
+
+        assertTrue(game.isHeadless());
+        assertEquals(2, game.getPlayers().size());
+        assertEquals("Player1", game.getCurrentPlayer().getNickname());
+        assertEquals(EGodPower.PAN, game.getPlayers().get(0).getCard().getGodPower());
+        assertEquals(EGodPower.HERA, game.getPlayers().get(1).getCard().getGodPower());
+
+        Board board = game.getBoard();
+        assertEquals(ETileLevel.LEVEL3, board.getTile(0, 3).getLevel());
+        assertEquals(ETileLevel.LEVEL3, board.getTile(1, 0).getLevel());
+        assertTrue(board.getTile(1, 0).isDomed());
+        assertFalse(board.getTile(0, 3).isDomed());
+        assertEquals(ETileLevel.LEVEL2, board.getTile(4, 4).getLevel());
+        assertSame(game.getPlayers().get(0), board.getTile(4, 4).getWorker().getOwner());
+        assertSame(game.getPlayers().get(1), board.getTile(2, 2).getWorker().getOwner());
+    }
+
+    @Test
+    public void buildHeadlessGameFromInvalidNotationTest() {
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation(null));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00000/00000"));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00000 pan:1,1:4,4"));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/000000/00000/00000/00000 pan:1,1:4,4"));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/00400/00000/00000/00000 pan:1,1:4,4"));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00000/00000 pan:1,1"));
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessGameFromNotation("00000/00000/00000/00000/00000 nobody:1,1:4,4"));
+    }
+
+
+    @Test
+    public void buildHeadlessCopyTest() {
+        Game game = GameFactory.buildHeadlessGameFromNotation("00000/01000/00000/00000/00000 athena:0,0:4,4 minotaur:2,2:4,0");
+        game.buildCompleteTower();
+
+        // Athena moves up, so that her malus is active during the turn of Minotaur
+        Playable athena = game.getCurrentPlayerCard().getPlayable();
+        athena.selectWorker(game.getBoard().getTile(0, 0).getWorker());
+        athena.move(game.getBoard().getTile(1, 1));
+        athena.build(game.getBoard().getTile(0, 0));
+        long hash = game.getBoard().getState().getHash();
+
+        Game copy = GameFactory.buildHeadlessCopy(game);
+        assertTrue(copy.isHeadless());
+        assertNotSame(game.getBoard(), copy.getBoard());
+        // Slots follow the new order of the players, so the hashes differ but the masks do not
+        BoardState state = game.getBoard().getState();
+        BoardState copyState = copy.getBoard().getState();
+        for(int height = 1; height <= 3; height++) {
+            assertEquals(state.getLevelMask(height), copyState.getLevelMask(height));
+        }
+        assertEquals(state.getDomes(), copyState.getDomes());
+        assertEquals(state.getOccupied(), copyState.getOccupied());
+        assertEquals(state.getWorkerMask(state.slotOf("Player2")), copyState.getWorkerMask(copyState.slotOf("Player2")));
+        assertEquals(1, copy.getCompleteTowers());
+        assertEquals(Arrays.asList("Player2", "Player1"), copy.getPlayerNicknamesList());
+        assertEquals("Player2", copy.getCurrentPlayer().getNickname());
+        assertEquals(EGodPower.MINOTAUR, copy.getCurrentPlayerCard().getGodPower());
+        assertTrue(new TurnEnumerator(copy).isAthenaActive());
+
+        // Minotaur cannot move up in the copy either
+        Playable minotaur = copy.getCurrentPlayerCard().getPlayable();
+        minotaur.selectWorker(copy.getBoard().getTile(2, 2).getWorker());
+        assertFalse(minotaur.getTilesToMove().contains(copy.getBoard().getTile(1, 1)));
+        assertTrue(game.getCurrentPlayerCard().getPlayable().getTilesToMove(game.getBoard().getTile(2, 2)).size() > 0);
+        minotaur.move(copy.getBoard().getTile(3, 3));
+        assertEquals(hash, game.getBoard().getState().getHash());
+
+        assertThrows(IllegalArgumentException.class, () -> GameFactory.buildHeadlessCopy(null));
+    }
+
+}
@@ -0,0 +1,111 @@
+package it.polimi.ingsw.view;
+
+import it.polimi.ingsw.ai.MonteCarlo;
+import it.polimi.ingsw.controller.Controller;
+import it.polimi.ingsw.controller.EStartupPhase;
+import it.polimi.ingsw.controller.GameLoops;
+import it.polimi.ingsw.model.Game;
+import it.polimi.ingsw.utils.GameFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BotRemoteViewTest {
+
+    private static Game playBotGame(int nPlayers) throws InterruptedException {
+        List<RemoteView> bots = new ArrayList<>();
+        for(int i = 1; i <= nPlayers; i++) {
+            bots.add(new BotRemoteView("Bot" + i, 2, 20));
+        }
+        return playBotGame(bots, Runnable::run);
+    }
+
+    private static Game playBotGame(List<RemoteView> bots, Executor executor) throws InterruptedException {
+        Game game = GameFactory.buildEmptyGameFromRemoteViewsList(bots);
+        Controller controller = new Controller(bots, game, executor);
+        for(RemoteView bot : bots) {
+            ((BotRemoteView) bot).join(controller);
+        }
+
+        long deadline = System.currentTimeMillis() + 60_000;
+        while(controller.isActive() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        // Wait for the events already posted, so that the game can be read here
+        controller.submit(() -> null).join();
+        assertFalse(controller.isActive());
+        assertTrue(game.isGameOver());
+        assertEquals(EStartupPhase.GAMESTARTED, game.getStartupPhase());
+        return game;
+    }
+
+    @Test
+    public void twoPlayersGameTest() throws InterruptedException {
+        Game game = playBotGame(2);
+        assertNotNull(game.getWinner());
+        assertTrue(game.getPlayerCards().size() == 2);
+    }
+
+    @Test
+    public void threePlayersGameTest() throws InterruptedException {
+        Game game = playBotGame(3);
+        assertNotNull(game.getWinner());
+        // Only cards compatible with three players can be picked
+        game.getPlayerCards().forEach(card -> assertTrue(card.isCompatibleWith3Players()));
+    }
+
+    @Test
+    public void monteCarloGameTest() throws InterruptedException {
+        List<RemoteView> bots = new ArrayList<>();
+        bots.add(new BotRemoteView("Bot1", 2, 20));
+        bots.add(new BotRemoteView("Bot2", new MonteCarlo(ForkJoinPool.commonPool(), 20, 200)));
+        Game game = playBotGame(bots, Runnable::run);
+        assertNotNull(game.getWinner());
+    }
+
+    @Test
+    public void gameLoopTest() throws InterruptedException {
+        GameLoops loops = new GameLoops(1);
+        List<RemoteView> bots = new ArrayList<>();
+        bots.add(new BotRemoteView("Bot1", 2, 20));
+        bots.add(new BotRemoteView("Bot2", 2, 20));
+        try {
+            Game game = playBotGame(bots, loops.next());
+            assertNotNull(game.getWinner());
+        } finally {
+            loops.shutdown();
+        }
+    }
+
+    @Test
+    public void abortTest() {
+        GameLoops loops = new GameLoops(1);
+        List<RemoteView> bots = new ArrayList<>();
+        bots.add(new BotRemoteView("Bot1", 2, 20));
+        bots.add(new BotRemoteView("Bot2", 2, 20));
+        try {
+            Controller controller = new Controller(bots, GameFactory.buildEmptyGameFromRemoteViewsList(bots), loops.next());
+            bots.forEach(b -> ((BotRemoteView) b).join(controller));
+            controller.abort();
+            // The abort is handled before any later task
+            assertFalse(controller.submit(controller::isActive).join());
+        } finally {
+            loops.shutdown();
+        }
+    }
+
+    @Test
+    public void invalidArgumentsTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BotRemoteView("Bot", 0, 100));
+        assertThrows(IllegalArgumentException.class, () -> new BotRemoteView("Bot", 2, 0));
+        assertThrows(IllegalArgumentException.class, () -> new BotRemoteView("Bot", null));
+        assertThrows(IllegalArgumentException.class, () -> new BotRemoteView("Bot", 2, 100).join(null));
+    }
+
+}